@@ -167,6 +167,16 @@ public enum ChecksumCombineMode {
       tags = ConfigTag.CLIENT)
   private boolean checksumVerify = true;
 
+  @Config(key = "read.short-circuit",
+      defaultValue = "false",
+      description = "If true, the client reads blocks directly from disk"
+          + " when a datanode holding the block runs on the same host."
+          + " Requires hdds.datanode.read.short-circuit.enabled on the"
+          + " datanode and read access to its volumes. Falls back to"
+          + " regular reads if the block cannot be read locally.",
+      tags = ConfigTag.CLIENT)
+  private boolean shortCircuitRead = false;
+
   @Config(key = "max.ec.stripe.write.retries",
       defaultValue = "10",
       description = "Ozone EC client to retry stripe to new block group on" +
@@ -200,6 +210,21 @@ public enum ChecksumCombineMode {
   // 3 concurrent stripe read should be enough.
   private int ecReconstructStripeReadPoolLimit = 10 * 3;
 
+  @Config(key = "key.lookup.batch.size",
+      defaultValue = "1000",
+      description = "Maximum number of keys looked up in a single request"
+          + " to OM when the details of several keys are fetched at once."
+          + " Should not be more than ozone.om.lookup.keys.max.",
+      tags = ConfigTag.CLIENT)
+  private int keyLookupBatchSize = 1000;
+
+  @Config(key = "key.lookup.threads",
+      defaultValue = "4",
+      description = "Number of requests to OM the client sends in parallel"
+          + " when the details of several keys are fetched at once.",
+      tags = ConfigTag.CLIENT)
+  private int keyLookupThreads = 4;
+
   @Config(key = "checksum.combine.mode",
       defaultValue = "COMPOSITE_CRC",
       description = "The combined checksum type [MD5MD5CRC / COMPOSITE_CRC] "
@@ -227,6 +252,8 @@ private void validate() {
     Preconditions.checkState(streamBufferSize > 0);
     Preconditions.checkState(streamBufferFlushSize > 0);
     Preconditions.checkState(streamBufferMaxSize > 0);
+    Preconditions.checkState(keyLookupBatchSize > 0);
+    Preconditions.checkState(keyLookupThreads > 0);
 
     Preconditions.checkArgument(bufferIncrement < streamBufferSize,
         "Buffer increment should be smaller than the size of the stream "
@@ -338,6 +365,14 @@ public void setChecksumVerify(boolean checksumVerify) {
     this.checksumVerify = checksumVerify;
   }
 
+  public boolean isShortCircuitRead() {
+    return shortCircuitRead;
+  }
+
+  public void setShortCircuitRead(boolean shortCircuitRead) {
+    this.shortCircuitRead = shortCircuitRead;
+  }
+
   public int getMaxECStripeWriteRetries() {
     return this.maxECStripeWriteRetries;
   }
@@ -392,6 +427,22 @@ public String getFsDefaultBucketLayout() {
     return fsDefaultBucketLayout;
   }
 
+  public int getKeyLookupBatchSize() {
+    return keyLookupBatchSize;
+  }
+
+  public void setKeyLookupBatchSize(int keyLookupBatchSize) {
+    this.keyLookupBatchSize = keyLookupBatchSize;
+  }
+
+  public int getKeyLookupThreads() {
+    return keyLookupThreads;
+  }
+
+  public void setKeyLookupThreads(int keyLookupThreads) {
+    this.keyLookupThreads = keyLookupThreads;
+  }
+
   public boolean isDatastreamPipelineMode() {
     return datastreamPipelineMode;
   }
@@ -520,6 +520,18 @@ public BlockID getBlockID() {
     return blockID;
   }
 
+  protected Pipeline getPipeline() {
+    return pipelineRef.get();
+  }
+
+  protected Token<OzoneBlockTokenIdentifier> getToken() {
+    return tokenRef.get();
+  }
+
+  protected XceiverClientFactory getXceiverClientFactory() {
+    return xceiverClientFactory;
+  }
+
   @Override
   public long getLength() {
     return length;
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.client.StandaloneReplicationConfig;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.DatanodeBlockID;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetLocalBlockFileResponseProto;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
+import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.hdds.scm.XceiverClientSpi;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
+import org.apache.hadoop.hdds.security.token.OzoneBlockTokenIdentifier;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.hadoop.net.NetUtils;
+import org.apache.hadoop.security.token.Token;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link BlockInputStream} which reads the block directly from disk when
+ * one of the datanodes holding the block runs on the same host as the client
+ * (short-circuit read).
+ * <p>
+ * The local datanode is asked for the path of the block file, then the
+ * chunks are read from that file, bypassing the network stack and the
+ * datanode read path. If the datanode does not support short-circuit reads
+ * (e.g. disabled, or the container uses the FILE_PER_CHUNK layout), or the
+ * file cannot be opened by the client, the stream falls back to regular
+ * reads from the pipeline.
+ */
+public class ShortCircuitBlockInputStream extends BlockInputStream {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ShortCircuitBlockInputStream.class);
+
+  private final boolean verifyChecksum;
+  private FileChannel blockFile;
+  private boolean shortCircuitFailed;
+
+  public ShortCircuitBlockInputStream(BlockID blockId, long blockLen,
+      Pipeline pipeline, Token<OzoneBlockTokenIdentifier> token,
+      boolean verifyChecksum, XceiverClientFactory xceiverClientFactory,
+      Function<BlockID, BlockLocationInfo> refreshFunction) {
+    super(blockId, blockLen, pipeline, token, verifyChecksum,
+        xceiverClientFactory, refreshFunction);
+    this.verifyChecksum = verifyChecksum;
+  }
+
+  @Override
+  protected List<ChunkInfo> getChunkInfoList() throws IOException {
+    if (blockFile == null && !shortCircuitFailed) {
+      try {
+        List<ChunkInfo> chunks = getChunkInfoListFromLocalDatanode();
+        if (chunks != null) {
+          return chunks;
+        }
+      } catch (IOException e) {
+        LOG.debug("Short-circuit read of block {} is not possible, falling" +
+            " back to remote read", getBlockID(), e);
+      }
+      shortCircuitFailed = true;
+    }
+    return super.getChunkInfoList();
+  }
+
+  /**
+   * Asks a datanode on the local host for the block file and opens it.
+   * @return the chunks of the block, or null if no datanode of the pipeline
+   * runs on this host.
+   */
+  private List<ChunkInfo> getChunkInfoListFromLocalDatanode()
+      throws IOException {
+    final Pipeline pipeline = getPipeline();
+    final DatanodeDetails localNode = getLocalDatanode(pipeline);
+    if (localNode == null) {
+      return null;
+    }
+
+    // Talk to the local datanode only, the same way EC reads address a
+    // single replica.
+    final Pipeline localPipeline = Pipeline.newBuilder()
+        .setReplicationConfig(StandaloneReplicationConfig.getInstance(
+            HddsProtos.ReplicationFactor.ONE))
+        .setNodes(Collections.singletonList(localNode))
+        .setId(PipelineID.valueOf(localNode.getUuid()))
+        .setState(Pipeline.PipelineState.CLOSED)
+        .build();
+
+    final BlockID blockID = getBlockID();
+    DatanodeBlockID.Builder blkIDBuilder =
+        DatanodeBlockID.newBuilder().setContainerID(blockID.getContainerID())
+            .setLocalID(blockID.getLocalID())
+            .setBlockCommitSequenceId(blockID.getBlockCommitSequenceId());
+    int replicaIndex = pipeline.getReplicaIndex(localNode);
+    if (replicaIndex > 0) {
+      blkIDBuilder.setReplicaIndex(replicaIndex);
+    }
+
+    final XceiverClientFactory factory = getXceiverClientFactory();
+    final XceiverClientSpi client =
+        factory.acquireClientForReadData(localPipeline);
+    final GetLocalBlockFileResponseProto response;
+    try {
+      response = ContainerProtocolCalls.getLocalBlockFile(client,
+          blkIDBuilder.build(), getToken());
+    } finally {
+      factory.releaseClientForReadData(client, false);
+    }
+
+    blockFile = FileChannel.open(Paths.get(response.getPath()),
+        StandardOpenOption.READ);
+    LOG.debug("Reading block {} from local file {}", blockID,
+        response.getPath());
+    return response.getBlockData().getChunksList();
+  }
+
+  @VisibleForTesting
+  protected DatanodeDetails getLocalDatanode(Pipeline pipeline) {
+    for (DatanodeDetails dn : pipeline.getNodes()) {
+      try {
+        if (NetUtils.isLocalAddress(InetAddress.getByName(
+            dn.getIpAddress()))) {
+          return dn;
+        }
+      } catch (IOException e) {
+        LOG.debug("Failed to resolve address of {}", dn, e);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected ChunkInputStream createChunkInputStream(ChunkInfo chunkInfo) {
+    if (blockFile == null) {
+      return super.createChunkInputStream(chunkInfo);
+    }
+    return new ShortCircuitChunkInputStream(chunkInfo, getBlockID(),
+        blockFile, verifyChecksum);
+  }
+
+  @VisibleForTesting
+  synchronized boolean isShortCircuit() {
+    return blockFile != null;
+  }
+
+  @Override
+  public synchronized void close() {
+    super.close();
+    IOUtils.closeStream(blockFile);
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
+import org.apache.hadoop.ozone.common.Checksum;
+import org.apache.hadoop.ozone.common.ChecksumData;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+
+/**
+ * A {@link ChunkInputStream} that reads the chunk directly from the block
+ * file of a datanode running on the same host, instead of sending ReadChunk
+ * requests. The file channel is owned by the enclosing
+ * {@link ShortCircuitBlockInputStream}; positional reads are used so that it
+ * can be shared by all chunks of the block.
+ */
+public class ShortCircuitChunkInputStream extends ChunkInputStream {
+
+  private final ChunkInfo chunkInfo;
+  private final FileChannel blockFile;
+  private final boolean verifyChecksum;
+
+  ShortCircuitChunkInputStream(ChunkInfo chunkInfo, BlockID blockId,
+      FileChannel blockFile, boolean verifyChecksum) {
+    // Without a client factory the parent never acquires a client. Checksum
+    // verification is still requested so that reads are aligned to checksum
+    // boundaries.
+    super(chunkInfo, blockId, null, () -> null, verifyChecksum, () -> null);
+    this.chunkInfo = chunkInfo;
+    this.blockFile = blockFile;
+    this.verifyChecksum = verifyChecksum;
+  }
+
+  @Override
+  protected ByteBuffer[] readChunk(ChunkInfo readChunkInfo)
+      throws IOException {
+    final int len = Math.toIntExact(readChunkInfo.getLen());
+    final ByteBuffer buffer = ByteBuffer.allocate(len);
+    long position = readChunkInfo.getOffset();
+    while (buffer.hasRemaining()) {
+      int n = blockFile.read(buffer, position);
+      if (n < 0) {
+        throw new EOFException(String.format(
+            "Inconsistent read for chunk=%s len=%d bytesRead=%d",
+            readChunkInfo.getChunkName(), len, buffer.position()));
+      }
+      position += n;
+    }
+    buffer.flip();
+
+    if (verifyChecksum) {
+      ChecksumData checksumData = ChecksumData.getFromProtoBuf(
+          chunkInfo.getChecksumData());
+      long relativeOffset = readChunkInfo.getOffset() - chunkInfo.getOffset();
+      int startIndex =
+          (int) (relativeOffset / checksumData.getBytesPerChecksum());
+      Checksum.verifyChecksum(ChunkBuffer.wrap(buffer.duplicate()),
+          checksumData, startIndex);
+    }
+
+    return new ByteBuffer[] {buffer.asReadOnlyBuffer()};
+  }
+}
@@ -26,6 +26,7 @@
 import org.apache.hadoop.hdds.scm.storage.BlockExtendedInputStream;
 import org.apache.hadoop.hdds.scm.storage.BlockInputStream;
 import org.apache.hadoop.hdds.scm.storage.BlockLocationInfo;
+import org.apache.hadoop.hdds.scm.storage.ShortCircuitBlockInputStream;
 import org.apache.hadoop.hdds.security.token.OzoneBlockTokenIdentifier;
 import org.apache.hadoop.io.ByteBufferPool;
 import org.apache.hadoop.io.ElasticByteBufferPool;
@@ -42,6 +43,7 @@
 public class BlockInputStreamFactoryImpl implements BlockInputStreamFactory {
 
   private ECBlockInputStreamFactory ecBlockStreamFactory;
+  private final boolean shortCircuitRead;
 
   public static BlockInputStreamFactory getInstance(
       ByteBufferPool byteBufferPool,
@@ -50,15 +52,35 @@ public static BlockInputStreamFactory getInstance(
         ecReconstructExecutorSupplier);
   }
 
+  public static BlockInputStreamFactory getInstance(
+      ByteBufferPool byteBufferPool,
+      Supplier<ExecutorService> ecReconstructExecutorSupplier,
+      boolean shortCircuitRead) {
+    return new BlockInputStreamFactoryImpl(byteBufferPool,
+        ecReconstructExecutorSupplier, shortCircuitRead);
+  }
+
   public BlockInputStreamFactoryImpl() {
     this(new ElasticByteBufferPool(), Executors::newSingleThreadExecutor);
   }
 
   public BlockInputStreamFactoryImpl(ByteBufferPool byteBufferPool,
       Supplier<ExecutorService> ecReconstructExecutorSupplier) {
+    this(byteBufferPool, ecReconstructExecutorSupplier, false);
+  }
+
+  /**
+   * @param shortCircuitRead if true, replicated blocks are read directly
+   *                         from disk when a datanode holding them runs on
+   *                         the same host as the client.
+   */
+  public BlockInputStreamFactoryImpl(ByteBufferPool byteBufferPool,
+      Supplier<ExecutorService> ecReconstructExecutorSupplier,
+      boolean shortCircuitRead) {
     this.ecBlockStreamFactory =
         ECBlockInputStreamFactoryImpl.getInstance(this, byteBufferPool,
             ecReconstructExecutorSupplier);
+    this.shortCircuitRead = shortCircuitRead;
   }
 
   /**
@@ -83,6 +105,10 @@ public BlockExtendedInputStream create(ReplicationConfig repConfig,
       return new ECBlockInputStreamProxy((ECReplicationConfig)repConfig,
           blockInfo, verifyChecksum, xceiverFactory, refreshFunction,
           ecBlockStreamFactory);
+    } else if (shortCircuitRead) {
+      return new ShortCircuitBlockInputStream(blockInfo.getBlockID(),
+          blockInfo.getLength(), pipeline, token, verifyChecksum,
+          xceiverFactory, refreshFunction);
     } else {
       return new BlockInputStream(blockInfo.getBlockID(), blockInfo.getLength(),
           pipeline, token, verifyChecksum, xceiverFactory, refreshFunction);
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.hdds.scm.storage;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.BlockData;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChunkInfo;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
+import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.hdds.scm.XceiverClientSpi;
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.ozone.common.Checksum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getBlockDataResponse;
+import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getLocalBlockFileResponse;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ShortCircuitBlockInputStream}.
+ */
+public class TestShortCircuitBlockInputStream {
+
+  private static final int CHUNK_SIZE = 100;
+  private static final int NUM_CHUNKS = 3;
+  private static final int BYTES_PER_CHECKSUM = 20;
+
+  @TempDir
+  private File dir;
+
+  private final BlockID blockID = new BlockID(1, 1);
+  private byte[] blockData;
+  private BlockData blockDataProto;
+  private File blockFile;
+  private Pipeline pipeline;
+  private XceiverClientFactory clientFactory;
+  private final List<ContainerProtos.Type> sentCommands = new ArrayList<>();
+
+  @BeforeEach
+  public void setup() throws Exception {
+    blockData = new byte[CHUNK_SIZE * NUM_CHUNKS];
+    new Random().nextBytes(blockData);
+    blockFile = new File(dir, blockID.getLocalID() + ".block");
+    Files.write(blockFile.toPath(), blockData);
+
+    Checksum checksum = new Checksum(ChecksumType.CRC32, BYTES_PER_CHECKSUM);
+    BlockData.Builder builder = BlockData.newBuilder()
+        .setBlockID(blockID.getDatanodeBlockIDProtobuf());
+    for (int i = 0; i < NUM_CHUNKS; i++) {
+      builder.addChunks(ChunkInfo.newBuilder()
+          .setChunkName(blockID.getLocalID() + "_chunk_" + i)
+          .setOffset(i * CHUNK_SIZE)
+          .setLen(CHUNK_SIZE)
+          .setChecksumData(checksum.computeChecksum(
+              blockData, i * CHUNK_SIZE, CHUNK_SIZE).getProtoBufMessage()));
+    }
+    blockDataProto = builder.build();
+
+    pipeline = MockPipeline.createSingleNodePipeline();
+    clientFactory = mock(XceiverClientFactory.class);
+  }
+
+  private void mockDatanode(boolean supportsShortCircuit) throws Exception {
+    XceiverClientSpi client = mock(XceiverClientSpi.class);
+    when(client.getPipeline()).thenReturn(pipeline);
+    when(client.sendCommand(any(), any())).thenAnswer(invocation -> {
+      ContainerCommandRequestProto request = invocation.getArgument(0);
+      sentCommands.add(request.getCmdType());
+      switch (request.getCmdType()) {
+      case GetLocalBlockFile:
+        if (!supportsShortCircuit) {
+          throw new StorageContainerException("unsupported",
+              ContainerProtos.Result.UNSUPPORTED_REQUEST);
+        }
+        return getLocalBlockFileResponse(request, blockDataProto,
+            blockFile.getAbsolutePath());
+      case GetBlock:
+        return getBlockDataResponse(request, blockDataProto);
+      default:
+        throw new IllegalArgumentException("Unexpected " + request);
+      }
+    });
+    when(clientFactory.acquireClientForReadData(any())).thenReturn(client);
+  }
+
+  private ShortCircuitBlockInputStream createStream() {
+    return new ShortCircuitBlockInputStream(blockID, blockData.length,
+        pipeline, null, true, clientFactory, null) {
+      @Override
+      protected DatanodeDetails getLocalDatanode(Pipeline p) {
+        return p.getNodes().get(0);
+      }
+    };
+  }
+
+  @Test
+  public void testReadFromLocalFile() throws Exception {
+    mockDatanode(true);
+    try (ShortCircuitBlockInputStream stream = createStream()) {
+      byte[] read = new byte[blockData.length];
+      assertEquals(read.length, stream.read(read, 0, read.length));
+      assertArrayEquals(blockData, read);
+      assertTrue(stream.isShortCircuit());
+
+      // seek into the middle of a chunk, off the checksum boundary
+      int pos = CHUNK_SIZE + BYTES_PER_CHECKSUM / 2;
+      stream.seek(pos);
+      byte[] partial = new byte[CHUNK_SIZE];
+      assertEquals(partial.length, stream.read(partial, 0, partial.length));
+      for (int i = 0; i < partial.length; i++) {
+        assertEquals(blockData[pos + i], partial[i]);
+      }
+    }
+    assertEquals(1, sentCommands.size());
+    assertEquals(ContainerProtos.Type.GetLocalBlockFile, sentCommands.get(0));
+  }
+
+  @Test
+  public void testFallbackWhenNotSupported() throws Exception {
+    mockDatanode(false);
+    try (ShortCircuitBlockInputStream stream = createStream()) {
+      stream.initialize();
+      assertFalse(stream.isShortCircuit());
+      assertEquals(NUM_CHUNKS, stream.getChunkStreams().size());
+      for (ChunkInputStream chunkStream : stream.getChunkStreams()) {
+        assertFalse(chunkStream instanceof ShortCircuitChunkInputStream);
+      }
+    }
+    assertEquals(ContainerProtos.Type.GetBlock,
+        sentCommands.get(sentCommands.size() - 1));
+  }
+}
@@ -237,6 +237,10 @@ public final class HddsConfigKeys {
 
   public static final String HDDS_CONTAINER_REPLICATION_COMPRESSION =
       "hdds.container.replication.compression";
+  public static final String HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL =
+      "hdds.container.replication.compression.level";
+  public static final int HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL_DEFAULT
+      = 0;
   public static final String HDDS_X509_ROOTCA_CERTIFICATE_FILE =
       "hdds.x509.rootca.certificate.file";
 
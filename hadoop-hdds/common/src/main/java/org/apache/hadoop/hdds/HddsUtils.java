@@ -435,6 +435,7 @@ public static boolean isReadOnly(
     case ListContainer:
     case ListChunk:
     case GetCommittedBlockLength:
+    case GetLocalBlockFile:
       return true;
     case CloseContainer:
     case WriteChunk:
@@ -481,6 +482,7 @@ public static boolean requireBlockToken(
     case DeleteChunk:
     case GetBlock:
     case GetCommittedBlockLength:
+    case GetLocalBlockFile:
     case GetSmallFile:
     case PutBlock:
     case PutSmallFile:
@@ -535,6 +537,11 @@ public static BlockID getBlockID(ContainerCommandRequestProtoOrBuilder msg) {
         blockID = msg.getGetCommittedBlockLength().getBlockID();
       }
       break;
+    case GetLocalBlockFile:
+      if (msg.hasGetLocalBlockFile()) {
+        blockID = msg.getGetLocalBlockFile().getBlockID();
+      }
+      break;
     case GetSmallFile:
       if (msg.hasGetSmallFile()) {
         blockID = msg.getGetSmallFile().getBlock().getBlockID();
@@ -147,6 +147,11 @@ public final class ScmConfigKeys {
   public static final String OZONE_CHUNK_READ_BUFFER_DEFAULT_SIZE_DEFAULT =
       "64KB";
 
+  public static final String OZONE_CHUNK_READ_MAPPED_BUFFER_CACHE_SIZE_KEY =
+      "ozone.chunk.read.mapped.buffer.cache.size";
+  public static final String
+      OZONE_CHUNK_READ_MAPPED_BUFFER_CACHE_SIZE_DEFAULT = "0B";
+
   public static final String OZONE_SCM_CONTAINER_LAYOUT_KEY =
       "ozone.scm.container.layout";
 
@@ -605,6 +610,21 @@ public final class ScmConfigKeys {
   public static final boolean
       OZONE_SCM_HA_RATIS_SERVER_ELECTION_PRE_VOTE_DEFAULT = true;
 
+  public static final String OZONE_SCM_HA_RATIS_READ_OPTION =
+      "ozone.scm.ha.ratis.server.read.option";
+  public static final String OZONE_SCM_HA_RATIS_READ_OPTION_DEFAULT =
+      "DEFAULT";
+  public static final String
+      OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_ENABLED =
+      "ozone.scm.ha.ratis.server.read.leader.lease.enabled";
+  public static final boolean
+      OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_ENABLED_DEFAULT = true;
+  public static final String
+      OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO =
+      "ozone.scm.ha.ratis.server.read.leader.lease.timeout.ratio";
+  public static final double
+      OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO_DEFAULT = 0.9;
+
   public static final String OZONE_AUDIT_LOG_DEBUG_CMD_LIST_SCMAUDIT =
       "ozone.audit.log.debug.cmd.list.scmaudit";
 
@@ -32,6 +32,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.DatanodeBlockID;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetBlockResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetCommittedBlockLengthResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetLocalBlockFileResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetSmallFileResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutBlockResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutSmallFileResponseProto;
@@ -193,6 +194,26 @@ public static ContainerCommandResponseProto getBlockLengthResponse(
         .build();
   }
 
+  /**
+   * Returns successful getLocalBlockFile Response.
+   * @param msg - Request.
+   * @param blockData - metadata of the block.
+   * @param path - absolute path of the file holding the block data.
+   * @return Response.
+   */
+  public static ContainerCommandResponseProto getLocalBlockFileResponse(
+      ContainerCommandRequestProto msg, BlockData blockData, String path) {
+
+    GetLocalBlockFileResponseProto.Builder localBlockFile =
+        GetLocalBlockFileResponseProto.newBuilder()
+            .setBlockData(blockData)
+            .setPath(path);
+
+    return getSuccessResponseBuilder(msg)
+        .setGetLocalBlockFile(localBlockFile)
+        .build();
+  }
+
   public static GetCommittedBlockLengthResponseProto.Builder
       getCommittedBlockLengthResponseBuilder(long blockLength,
       DatanodeBlockID blockID) {
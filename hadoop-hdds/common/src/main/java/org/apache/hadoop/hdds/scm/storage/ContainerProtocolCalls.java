@@ -42,6 +42,8 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.DatanodeBlockID;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetBlockRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetBlockResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetLocalBlockFileRequestProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetLocalBlockFileResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetSmallFileRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetSmallFileResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.KeyValue;
@@ -209,6 +211,39 @@ private static GetBlockResponseProto getBlock(XceiverClientSpi xceiverClient,
     return response.getGetBlock();
   }
 
+  /**
+   * Calls the container protocol to get the local file holding a block, so
+   * that it can be read directly from disk by a client running on the same
+   * host as the datanode (short-circuit read).
+   *
+   * @param xceiverClient client to perform call, connected to the single
+   *                      datanode to query
+   * @param datanodeBlockID blockID to identify container
+   * @param token a token for this block (may be null)
+   * @return container protocol get local block file response
+   * @throws IOException if there is an I/O error while performing the call
+   */
+  public static GetLocalBlockFileResponseProto getLocalBlockFile(
+      XceiverClientSpi xceiverClient, DatanodeBlockID datanodeBlockID,
+      Token<? extends TokenIdentifier> token) throws IOException {
+    GetLocalBlockFileRequestProto.Builder localBlockFileRequest =
+        GetLocalBlockFileRequestProto.newBuilder()
+            .setBlockID(datanodeBlockID);
+    String id = xceiverClient.getPipeline().getFirstNode().getUuidString();
+    ContainerCommandRequestProto.Builder builder =
+        ContainerCommandRequestProto.newBuilder()
+            .setCmdType(Type.GetLocalBlockFile)
+            .setContainerID(datanodeBlockID.getContainerID())
+            .setDatanodeUuid(id)
+            .setGetLocalBlockFile(localBlockFileRequest);
+    if (token != null) {
+      builder.setEncodedToken(token.encodeToUrlString());
+    }
+    ContainerCommandResponseProto response =
+        xceiverClient.sendCommand(builder.build(), getValidatorList());
+    return response.getGetLocalBlockFile();
+  }
+
   /**
    * Calls the container protocol to get the length of a committed block.
    *
@@ -357,6 +357,15 @@ public byte[] getArray() {
     return array;
   }
 
+  /**
+   * Compare the content of this buffer with the given buffer
+   * lexicographically as unsigned bytes, i.e. the order of RocksDB keys.
+   */
+  public int compareTo(CodecBuffer that) {
+    Objects.requireNonNull(that, "that == null");
+    return buf.compareTo(that.buf);
+  }
+
   /** Does the content of this buffer start with the given prefix? */
   public boolean startsWith(CodecBuffer prefix) {
     Objects.requireNonNull(prefix, "prefix == null");
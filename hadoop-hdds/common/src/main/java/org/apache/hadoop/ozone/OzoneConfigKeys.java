@@ -494,6 +494,10 @@ public final class OzoneConfigKeys {
       "ozone.client.wait.between.retries.millis";
   public static final long OZONE_CLIENT_WAIT_BETWEEN_RETRIES_MILLIS_DEFAULT =
       2000;
+  public static final String OZONE_CLIENT_FOLLOWER_READ_ENABLED_KEY =
+      "ozone.client.follower.read.enabled";
+  public static final boolean OZONE_CLIENT_FOLLOWER_READ_ENABLED_DEFAULT =
+      false;
 
   public static final String OZONE_FREON_HTTP_ENABLED_KEY =
       "ozone.freon.http.enabled";
@@ -533,6 +537,16 @@ public final class OzoneConfigKeys {
 
   public static final int OZONE_MANAGER_STRIPED_LOCK_SIZE_DEFAULT = 512;
 
+  public static final String OZONE_MANAGER_STAMPED_LOCK_ENABLED =
+      "ozone.om.lock.stamped.enabled";
+  public static final boolean OZONE_MANAGER_STAMPED_LOCK_ENABLED_DEFAULT =
+      false;
+
+  public static final String OZONE_MANAGER_LOCK_METRICS_SAMPLE_INTERVAL =
+      "ozone.om.lock.metrics.sample.interval";
+  public static final int OZONE_MANAGER_LOCK_METRICS_SAMPLE_INTERVAL_DEFAULT =
+      64;
+
   public static final String OZONE_CLIENT_LIST_TRASH_KEYS_MAX =
       "ozone.client.list.trash.keys.max";
   public static final int OZONE_CLIENT_LIST_TRASH_KEYS_MAX_DEFAULT = 1000;
@@ -613,6 +613,11 @@ public static ContainerCommandRequestProto getDummyCommandRequestProto(
           ContainerProtos.GetCommittedBlockLengthRequestProto.newBuilder()
               .setBlockID(fakeBlockId).build());
       break;
+    case GetLocalBlockFile:
+      builder.setGetLocalBlockFile(
+          ContainerProtos.GetLocalBlockFileRequestProto.newBuilder()
+              .setBlockID(fakeBlockId).build());
+      break;
     case ReadChunk:
       builder.setReadChunk(ContainerProtos.ReadChunkRequestProto.newBuilder()
           .setBlockID(fakeBlockId).setChunkData(fakeChunkInfo)
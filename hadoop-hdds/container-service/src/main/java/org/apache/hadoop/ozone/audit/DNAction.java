@@ -39,7 +39,8 @@ public enum DNAction implements AuditAction {
   GET_SMALL_FILE,
   CLOSE_CONTAINER,
   GET_COMMITTED_BLOCK_LENGTH,
-  STREAM_INIT;
+  STREAM_INIT,
+  GET_LOCAL_BLOCK_FILE;
 
   @Override
   public String getAction() {
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.common.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the actions that recycle buffers referenced by a response, to be
+ * run by the caller of the dispatcher once the response has been written.
+ * Handlers may only hand out pooled buffers without copying when a releaser
+ * is set in the DispatcherContext of the request.
+ */
+public class BufferReleaser {
+
+  private final List<Runnable> releases = new ArrayList<>();
+
+  /**
+   * Registers an action to run when the response has been written.
+   */
+  public synchronized void add(Runnable release) {
+    releases.add(release);
+  }
+
+  /**
+   * Runs all registered actions. Must be called exactly once, after the
+   * response is no longer used.
+   */
+  public synchronized void release() {
+    for (Runnable release : releases) {
+      release.run();
+    }
+    releases.clear();
+  }
+}
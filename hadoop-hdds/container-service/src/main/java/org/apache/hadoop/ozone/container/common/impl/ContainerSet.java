@@ -116,6 +116,29 @@ public boolean addContainer(Container<?> container) throws
     }
   }
 
+  /**
+   * Replace a container in the container map with another instance of the
+   * same container, e.g. after it was moved to a different volume.
+   * @param expected the container currently in the map
+   * @param replacement the container to put in its place
+   * @return true if the container was replaced, false if the map no longer
+   * holds the expected container
+   */
+  public boolean replaceContainer(Container<?> expected,
+      Container<?> replacement) {
+    Preconditions.checkNotNull(replacement, "container cannot be null");
+    long containerId = expected.getContainerData().getContainerID();
+    Preconditions.checkArgument(containerId ==
+            replacement.getContainerData().getContainerID(),
+        "Container IDs do not match");
+    if (containerMap.replace(containerId, expected, replacement)) {
+      LOG.debug("Container with container Id {} is replaced in containerMap",
+          containerId);
+      return true;
+    }
+    return false;
+  }
+
   /**
    * Returns the Container with specified containerId.
    * @param containerId ID of the container to get
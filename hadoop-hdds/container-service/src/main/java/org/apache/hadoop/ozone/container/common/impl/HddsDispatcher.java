@@ -771,6 +771,7 @@ private static DNAction getAuditAction(Type cmdType) {
     case CloseContainer   : return DNAction.CLOSE_CONTAINER;
     case GetCommittedBlockLength : return DNAction.GET_COMMITTED_BLOCK_LENGTH;
     case StreamInit       : return DNAction.STREAM_INIT;
+    case GetLocalBlockFile : return DNAction.GET_LOCAL_BLOCK_FILE;
     default :
       LOG.debug("Invalid command type - {}", cmdType);
       return null;
@@ -897,6 +898,12 @@ private static Map<String, String> getAuditParams(
               .toString());
       return auditParams;
 
+    case GetLocalBlockFile:
+      auditParams.put("blockData",
+          BlockID.getFromProtobuf(msg.getGetLocalBlockFile().getBlockID())
+              .toString());
+      return auditParams;
+
     default :
       LOG.debug("Invalid command type - {}", cmdType);
       return null;
@@ -50,6 +50,15 @@ byte[] unpackContainerData(Container<CONTAINERDATA> container,
   void pack(Container<CONTAINERDATA> container, OutputStream destination)
       throws IOException;
 
+  /**
+   * Whether {@link #pack} includes the container descriptor and metadata db,
+   * which have to be made consistent before packing.  Packers of a part of
+   * the container holding only block files return false.
+   */
+  default boolean packsMetadata() {
+    return true;
+  }
+
   /**
    * Read the descriptor from the finished archive to get the data before
    * importing the container.
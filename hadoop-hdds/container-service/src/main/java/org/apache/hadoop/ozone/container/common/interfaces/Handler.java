@@ -28,12 +28,14 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerType;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.report.IncrementalReportSender;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueHandler;
 import org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker;
@@ -135,6 +137,20 @@ public abstract void exportContainer(
       TarContainerPacker packer)
       throws IOException;
 
+  /**
+   * Moves a closed container to another volume of this datanode.
+   *
+   * @param container container to move
+   * @param destVolume volume to move the container to
+   * @param throttler limits the bandwidth of data copied rather than linked,
+   * may be null
+   * @return the container on the destination volume, which replaced the
+   * original one in the container set
+   */
+  public abstract Container moveContainer(Container container,
+      HddsVolume destVolume, DataTransferThrottler throttler)
+      throws IOException;
+
   /**
    * Stop the Handler.
    */
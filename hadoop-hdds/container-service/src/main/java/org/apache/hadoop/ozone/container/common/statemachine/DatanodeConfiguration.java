@@ -24,6 +24,7 @@
 
 import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static org.apache.hadoop.hdds.conf.ConfigTag.DATANODE;
+import static org.apache.hadoop.hdds.conf.ConfigTag.PERFORMANCE;
 import static org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration.CONFIG_PREFIX;
 
 import org.apache.hadoop.hdds.conf.ReconfigurableConfig;
@@ -89,6 +90,9 @@ public class DatanodeConfiguration extends ReconfigurableConfig {
 
   static final boolean WAIT_ON_ALL_FOLLOWERS_DEFAULT = false;
 
+  static final boolean SHORT_CIRCUIT_READ_ENABLED_DEFAULT = false;
+  static final boolean ZERO_COPY_READ_ENABLED_DEFAULT = false;
+
   static final Duration DISK_CHECK_MIN_GAP_DEFAULT = Duration.ofMinutes(10);
 
   static final Duration DISK_CHECK_TIMEOUT_DEFAULT = Duration.ofMinutes(10);
@@ -432,6 +436,30 @@ public void setBlockDeletionLimit(int limit) {
 
   private boolean waitOnAllFollowers = WAIT_ON_ALL_FOLLOWERS_DEFAULT;
 
+  @Config(key = "read.short-circuit.enabled",
+      defaultValue = "false",
+      type = ConfigType.BOOLEAN,
+      tags = { DATANODE },
+      description = "Allow clients running on the same host to read block"
+          + " files directly from disk instead of streaming the data over"
+          + " the network. The datanode only hands out the location of"
+          + " blocks stored in FILE_PER_BLOCK containers; the client must"
+          + " also have OS level read access to the volume directories."
+  )
+  private boolean shortCircuitReadEnabled = SHORT_CIRCUIT_READ_ENABLED_DEFAULT;
+
+  @Config(key = "read.zero-copy.enabled",
+      defaultValue = "false",
+      type = ConfigType.BOOLEAN,
+      tags = { DATANODE, PERFORMANCE },
+      description = "Send ReadChunk responses of the gRPC endpoint without"
+          + " copying the chunk data into the response message. Data is"
+          + " read into pooled buffers (or served from memory-mapped block"
+          + " files, see ozone.chunk.read.mapped.buffer.cache.size) which"
+          + " are wrapped as is, and recycled once the response is written."
+  )
+  private boolean zeroCopyReadEnabled = ZERO_COPY_READ_ENABLED_DEFAULT;
+
   public boolean waitOnAllFollowers() {
     return waitOnAllFollowers;
   }
@@ -547,6 +575,31 @@ public void setWaitOnAllFollowers(boolean val) {
   private boolean bCheckEmptyContainerDir =
       OZONE_DATANODE_CHECK_EMPTY_CONTAINER_DIR_ON_DELETE_DEFAULT;
 
+  @Config(key = "container.reader.threads.per.volume",
+      type = ConfigType.INT,
+      defaultValue = "1",
+      tags = { DATANODE, PERFORMANCE },
+      description = "The number of threads per volume used to load the " +
+          "containers of the volume on datanode startup. Containers of a " +
+          "volume are loaded by a work-stealing pool of this size, which " +
+          "bounds the I/O concurrency on the volume. Values above 1 are " +
+          "useful for volumes with high random read throughput, like NVMe."
+  )
+  private int containerReaderThreadsPerVolume = 1;
+
+  @Config(key = "container.index.snapshot.enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "false",
+      tags = { DATANODE, PERFORMANCE },
+      description = "If enabled, the datanode persists a checksummed index " +
+          "of the closed containers on each volume on clean shutdown. On " +
+          "the next startup the containers in the index are loaded without " +
+          "opening their RocksDB, and are verified in the background after " +
+          "the datanode has started. The index is deleted once loaded, so " +
+          "after an unclean shutdown all containers are read from disk."
+  )
+  private boolean containerIndexSnapshotEnabled = false;
+
   @PostConstruct
   public void validate() {
     if (containerDeleteThreads < 1) {
@@ -820,6 +873,22 @@ public void setChunkDataValidationCheck(boolean writeChunkValidationCheck) {
     isChunkDataValidationCheck = writeChunkValidationCheck;
   }
 
+  public boolean isShortCircuitReadEnabled() {
+    return shortCircuitReadEnabled;
+  }
+
+  public void setShortCircuitReadEnabled(boolean enabled) {
+    this.shortCircuitReadEnabled = enabled;
+  }
+
+  public boolean isZeroCopyReadEnabled() {
+    return zeroCopyReadEnabled;
+  }
+
+  public void setZeroCopyReadEnabled(boolean enabled) {
+    this.zeroCopyReadEnabled = enabled;
+  }
+
   public void setNumReadThreadPerVolume(int threads) {
     this.numReadThreadPerVolume = threads;
   }
@@ -907,4 +976,20 @@ public int getAutoCompactionSmallSstFileNum() {
   public void setAutoCompactionSmallSstFileNum(int num) {
     this.autoCompactionSmallSstFileNum = num;
   }
+
+  public int getContainerReaderThreadsPerVolume() {
+    return containerReaderThreadsPerVolume;
+  }
+
+  public void setContainerReaderThreadsPerVolume(int threads) {
+    this.containerReaderThreadsPerVolume = threads;
+  }
+
+  public boolean isContainerIndexSnapshotEnabled() {
+    return containerIndexSnapshotEnabled;
+  }
+
+  public void setContainerIndexSnapshotEnabled(boolean enabled) {
+    this.containerIndexSnapshotEnabled = enabled;
+  }
 }
@@ -443,14 +443,16 @@ public void close() throws IOException {
       connectionManager.close();
     }
 
-    if (container != null) {
-      container.stop();
-    }
-
+    // Stop the command handlers first, so that commands like block deletion
+    // do not update containers while the container services shut down.
     if (commandDispatcher != null) {
       commandDispatcher.stop();
     }
 
+    if (container != null) {
+      container.stop();
+    }
+
     if (queueMetrics != null) {
       DatanodeQueueMetrics.unRegister();
     }
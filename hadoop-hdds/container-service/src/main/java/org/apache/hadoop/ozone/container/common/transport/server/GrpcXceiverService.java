@@ -21,9 +21,12 @@
     .ContainerCommandRequestProto;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos
     .ContainerCommandResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Type;
 import org.apache.hadoop.hdds.protocol.datanode.proto
     .XceiverClientProtocolServiceGrpc;
+import org.apache.hadoop.ozone.container.common.helpers.BufferReleaser;
 import org.apache.hadoop.ozone.container.common.interfaces.ContainerDispatcher;
+import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
 import org.apache.ratis.thirdparty.io.grpc.stub.StreamObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,9 +42,23 @@ public class GrpcXceiverService extends
       LOG = LoggerFactory.getLogger(GrpcXceiverService.class);
 
   private final ContainerDispatcher dispatcher;
+  private final boolean zeroCopyRead;
 
   public GrpcXceiverService(ContainerDispatcher dispatcher) {
+    this(dispatcher, false);
+  }
+
+  /**
+   * @param zeroCopyRead whether ReadChunk responses may refer to pooled
+   *                     buffers instead of copies of the data. The buffers
+   *                     are recycled after the response is handed to gRPC,
+   *                     which serializes it into its own transport buffers
+   *                     before {@code onNext} returns.
+   */
+  public GrpcXceiverService(ContainerDispatcher dispatcher,
+      boolean zeroCopyRead) {
     this.dispatcher = dispatcher;
+    this.zeroCopyRead = zeroCopyRead;
   }
 
   @Override
@@ -52,15 +69,26 @@ public StreamObserver<ContainerCommandRequestProto> send(
 
       @Override
       public void onNext(ContainerCommandRequestProto request) {
+        final BufferReleaser releaser =
+            zeroCopyRead && request.getCmdType() == Type.ReadChunk
+                ? new BufferReleaser() : null;
         try {
           ContainerCommandResponseProto resp =
-              dispatcher.dispatch(request, null);
+              dispatcher.dispatch(request, releaser == null ? null
+                  : DispatcherContext
+                      .newBuilder(DispatcherContext.Op.HANDLE_READ_CHUNK)
+                      .setBufferReleaser(releaser)
+                      .build());
           responseObserver.onNext(resp);
         } catch (Throwable e) {
           LOG.error("Got exception when processing"
                     + " ContainerCommandRequestProto {}", request, e);
           isClosed.set(true);
           responseObserver.onError(e);
+        } finally {
+          if (releaser != null) {
+            releaser.release();
+          }
         }
       }
 
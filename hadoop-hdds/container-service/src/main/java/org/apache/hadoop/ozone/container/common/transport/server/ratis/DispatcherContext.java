@@ -19,6 +19,7 @@
 
 import org.apache.hadoop.hdds.annotation.InterfaceAudience;
 import org.apache.hadoop.hdds.annotation.InterfaceStability;
+import org.apache.hadoop.ozone.container.common.helpers.BufferReleaser;
 import org.apache.ratis.server.protocol.TermIndex;
 
 import java.util.Map;
@@ -118,12 +119,16 @@ public static Op op(DispatcherContext context) {
 
   private final Map<Long, Long> container2BCSIDMap;
 
+  // recycles the buffers of the response once it has been sent
+  private final BufferReleaser bufferReleaser;
+
   private DispatcherContext(Builder b) {
     this.op = Objects.requireNonNull(b.op, "op == null");
     this.term = b.term;
     this.logIndex = b.logIndex;
     this.stage = b.stage;
     this.container2BCSIDMap = b.container2BCSIDMap;
+    this.bufferReleaser = b.bufferReleaser;
   }
 
   /** Use {@link DispatcherContext#op(DispatcherContext)} for handling null. */
@@ -147,6 +152,10 @@ public Map<Long, Long> getContainer2BCSIDMap() {
     return container2BCSIDMap;
   }
 
+  public BufferReleaser getBufferReleaser() {
+    return bufferReleaser;
+  }
+
   @Override
   public String toString() {
     return op + "-" + stage + TermIndex.valueOf(term, logIndex);
@@ -165,6 +174,7 @@ public static final class Builder {
     private long term;
     private long logIndex;
     private Map<Long, Long> container2BCSIDMap;
+    private BufferReleaser bufferReleaser;
 
     private Builder(Op op) {
       this.op = op;
@@ -213,6 +223,11 @@ public Builder setContainer2BCSIDMap(Map<Long, Long> map) {
       this.container2BCSIDMap = map;
       return this;
     }
+
+    public Builder setBufferReleaser(BufferReleaser releaser) {
+      this.bufferReleaser = releaser;
+      return this;
+    }
     /**
      * Builds and returns DispatcherContext instance.
      *
@@ -140,6 +140,17 @@ public static void logExported(ContainerData containerData) {
     LOG.info(getMessage(containerData));
   }
 
+  /**
+   * Logged when a container is moved between volumes of this datanode.
+   *
+   * @param containerData The container on the destination volume.
+   * @param sourceVolume The volume the container was moved from.
+   */
+  public static void logMoved(ContainerData containerData,
+      String sourceVolume) {
+    LOG.info(getMessage(containerData, "Moved from " + sourceVolume));
+  }
+
   /**
    * Logged when a container is recovered using EC offline reconstruction.
    *
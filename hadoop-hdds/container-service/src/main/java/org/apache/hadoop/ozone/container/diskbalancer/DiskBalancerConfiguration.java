@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.diskbalancer;
+
+import org.apache.hadoop.hdds.conf.Config;
+import org.apache.hadoop.hdds.conf.ConfigGroup;
+import org.apache.hadoop.hdds.conf.ConfigType;
+import org.apache.hadoop.hdds.conf.PostConstruct;
+import org.apache.hadoop.ozone.OzoneConsts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static org.apache.hadoop.hdds.conf.ConfigTag.BALANCER;
+import static org.apache.hadoop.hdds.conf.ConfigTag.DATANODE;
+
+/**
+ * This class defines configuration parameters for the disk balancer, which
+ * moves closed containers between the volumes of a datanode.
+ */
+@ConfigGroup(prefix = "hdds.datanode.disk.balancer")
+public class DiskBalancerConfiguration {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DiskBalancerConfiguration.class);
+
+  // only for log
+  public static final String THRESHOLD_KEY =
+      "hdds.datanode.disk.balancer.volume.density.threshold";
+  public static final String BANDWIDTH_KEY =
+      "hdds.datanode.disk.balancer.bytes.per.second";
+  public static final String PARALLEL_THREAD_KEY =
+      "hdds.datanode.disk.balancer.parallel.thread";
+
+  public static final double THRESHOLD_DEFAULT = 10.0;
+  public static final long BANDWIDTH_DEFAULT = OzoneConsts.MB * 10L;
+  public static final int PARALLEL_THREAD_DEFAULT = 2;
+
+  @Config(key = "enabled",
+      type = ConfigType.BOOLEAN,
+      defaultValue = "false",
+      tags = {DATANODE, BALANCER},
+      description = "Whether the datanode moves closed containers from its " +
+          "most used volumes to its least used volumes.")
+  private boolean enabled = false;
+
+  @Config(key = "volume.density.threshold",
+      type = ConfigType.DOUBLE,
+      defaultValue = "10",
+      tags = {DATANODE, BALANCER},
+      description = "Percentage in the range 0 to 100. A volume is " +
+          "considered balanced if its utilization differs from the average " +
+          "utilization of the datanode's volumes by at most this " +
+          "percentage.")
+  private double threshold = THRESHOLD_DEFAULT;
+
+  @Config(key = "bytes.per.second",
+      type = ConfigType.LONG,
+      defaultValue = "10485760",
+      tags = {DATANODE, BALANCER},
+      description = "Maximum rate of container data copied between " +
+          "volumes by the disk balancer, in bytes per second. Files hard " +
+          "linked to the target volume are not counted.")
+  private long bandwidth = BANDWIDTH_DEFAULT;
+
+  @Config(key = "parallel.thread",
+      type = ConfigType.INT,
+      defaultValue = "2",
+      tags = {DATANODE, BALANCER},
+      description = "Maximum number of containers moved at the same time " +
+          "by the disk balancer.")
+  private int parallelThread = PARALLEL_THREAD_DEFAULT;
+
+  @Config(key = "service.interval",
+      type = ConfigType.TIME,
+      defaultValue = "60s",
+      tags = {DATANODE, BALANCER},
+      description = "Time interval between two rounds of planning container " +
+          "moves. Unit could be defined with postfix (ns,ms,s,m,h,d).")
+  private long serviceInterval = Duration.ofSeconds(60).toMillis();
+
+  @Config(key = "service.timeout",
+      type = ConfigType.TIME,
+      defaultValue = "300s",
+      tags = {DATANODE, BALANCER},
+      description = "Time after which a warning is logged for a container " +
+          "move which is still running. Unit could be defined with postfix " +
+          "(ns,ms,s,m,h,d).")
+  private long serviceTimeout = Duration.ofSeconds(300).toMillis();
+
+  @PostConstruct
+  public void validate() {
+    if (threshold < 0 || threshold > 100) {
+      LOG.warn(THRESHOLD_KEY +
+              " must be in the range 0 to 100 and was set to {}." +
+              " Defaulting to {}",
+          threshold, THRESHOLD_DEFAULT);
+      threshold = THRESHOLD_DEFAULT;
+    }
+
+    if (bandwidth <= 0) {
+      LOG.warn(BANDWIDTH_KEY +
+              " must be > 0 and was set to {}. Defaulting to {}",
+          bandwidth, BANDWIDTH_DEFAULT);
+      bandwidth = BANDWIDTH_DEFAULT;
+    }
+
+    if (parallelThread <= 0) {
+      LOG.warn(PARALLEL_THREAD_KEY +
+              " must be > 0 and was set to {}. Defaulting to {}",
+          parallelThread, PARALLEL_THREAD_DEFAULT);
+      parallelThread = PARALLEL_THREAD_DEFAULT;
+    }
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public double getThreshold() {
+    return threshold;
+  }
+
+  public void setThreshold(double threshold) {
+    this.threshold = threshold;
+  }
+
+  public long getBandwidth() {
+    return bandwidth;
+  }
+
+  public void setBandwidth(long bandwidth) {
+    this.bandwidth = bandwidth;
+  }
+
+  public int getParallelThread() {
+    return parallelThread;
+  }
+
+  public void setParallelThread(int parallelThread) {
+    this.parallelThread = parallelThread;
+  }
+
+  public Duration getServiceInterval() {
+    return Duration.ofMillis(serviceInterval);
+  }
+
+  public void setServiceInterval(Duration interval) {
+    this.serviceInterval = interval.toMillis();
+  }
+
+  public Duration getServiceTimeout() {
+    return Duration.ofMillis(serviceTimeout);
+  }
+
+  public void setServiceTimeout(Duration timeout) {
+    this.serviceTimeout = timeout.toMillis();
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.diskbalancer;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State;
+import org.apache.hadoop.hdds.utils.BackgroundService;
+import org.apache.hadoop.hdds.utils.BackgroundTask;
+import org.apache.hadoop.hdds.utils.BackgroundTaskQueue;
+import org.apache.hadoop.hdds.utils.BackgroundTaskResult;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
+import org.apache.hadoop.ozone.container.common.impl.ContainerData;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
+import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * A per-datanode service which moves closed containers from the volumes with
+ * the highest utilization to the volumes with the lowest utilization, until
+ * the utilization of every volume is within the configured threshold of the
+ * average utilization of the datanode.
+ * <p>
+ * In each interval the service plans up to the configured number of
+ * concurrent moves, taking the moves still in progress into account.
+ * Containers are moved online using {@link ContainerController#moveContainer},
+ * and the rate of data copied between volumes is throttled to the configured
+ * bandwidth. Hard linked files are not charged.
+ */
+public class DiskBalancerService extends BackgroundService {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(DiskBalancerService.class);
+
+  private final ContainerController controller;
+  private final VolumeSet volumeSet;
+  private final double threshold;
+  private final int parallelThread;
+  private final DataTransferThrottler throttler;
+  private final DiskBalancerServiceMetrics metrics;
+
+  private final Set<Long> inProgressContainers =
+      ConcurrentHashMap.newKeySet();
+  /**
+   * Bytes to be added to (positive) or removed from (negative) each volume
+   * by the moves in progress, keyed by storage ID.
+   */
+  private final Map<String, Long> pendingBytes = new ConcurrentHashMap<>();
+
+  public DiskBalancerService(ContainerController controller,
+      VolumeSet volumeSet, DiskBalancerConfiguration conf,
+      String threadNamePrefix) {
+    super("DiskBalancerService", conf.getServiceInterval().toMillis(),
+        TimeUnit.MILLISECONDS, conf.getParallelThread(),
+        conf.getServiceTimeout().toMillis(), threadNamePrefix);
+    this.controller = controller;
+    this.volumeSet = volumeSet;
+    this.threshold = conf.getThreshold() / 100;
+    this.parallelThread = conf.getParallelThread();
+    this.throttler = new DataTransferThrottler(conf.getBandwidth());
+    this.metrics = DiskBalancerServiceMetrics.create();
+  }
+
+  @Override
+  public BackgroundTaskQueue getTasks() {
+    BackgroundTaskQueue queue = new BackgroundTaskQueue();
+    List<VolumeState> volumes = getVolumeStates();
+    if (volumes.size() < 2) {
+      return queue;
+    }
+
+    long totalUsed = 0;
+    long totalCapacity = 0;
+    for (VolumeState volume : volumes) {
+      totalUsed += volume.used;
+      totalCapacity += volume.capacity;
+    }
+    double ideal = (double) totalUsed / totalCapacity;
+    metrics.setVolumeDataDensity(Math.round(100 * volumes.stream()
+        .mapToDouble(v -> Math.abs(v.getUtilization() - ideal)).sum()));
+
+    while (inProgressContainers.size() < parallelThread) {
+      VolumeState source = volumes.stream()
+          .max(Comparator.comparingDouble(VolumeState::getUtilization)).get();
+      VolumeState target = volumes.stream()
+          .min(Comparator.comparingDouble(VolumeState::getUtilization)).get();
+      if (source.getUtilization() - ideal <= threshold &&
+          ideal - target.getUtilization() <= threshold) {
+        if (inProgressContainers.isEmpty()) {
+          metrics.incrIdleIterationCount();
+        }
+        break;
+      }
+
+      // Neither volume may leave the threshold around the average because
+      // of the move, otherwise the containers could move back and forth.
+      long maxBytes = Math.min(
+          Math.min(source.used - (long) ((ideal - threshold) * source.capacity),
+              (long) ((ideal + threshold) * target.capacity) - target.used),
+          target.available);
+      ContainerData container = chooseContainer(source.volume, maxBytes);
+      if (container == null) {
+        LOG.debug("No container of at most {} bytes to move from {} to {}",
+            maxBytes, source.volume, target.volume);
+        break;
+      }
+
+      long bytes = container.getBytesUsed();
+      source.used -= bytes;
+      target.used += bytes;
+      target.available -= bytes;
+      inProgressContainers.add(container.getContainerID());
+      pendingBytes.merge(source.volume.getStorageID(), -bytes, Long::sum);
+      pendingBytes.merge(target.volume.getStorageID(), bytes, Long::sum);
+      metrics.moveStarted(bytes);
+      queue.add(new DiskBalancerTask(container.getContainerID(), bytes,
+          source.volume, target.volume));
+    }
+
+    if (!queue.isEmpty()) {
+      LOG.info("Planned {} container moves, average volume utilization " +
+          "{}%, {}", queue.size(), Math.round(ideal * 100), metrics);
+    }
+    return queue;
+  }
+
+  /**
+   * Returns the usage of the healthy volumes, including the effect of the
+   * moves in progress.
+   */
+  private List<VolumeState> getVolumeStates() {
+    return StorageVolumeUtil.getHddsVolumesList(volumeSet.getVolumesList())
+        .stream()
+        .filter(v -> !v.isFailed() && v.getCapacity() > 0)
+        .map(v -> new VolumeState(v,
+            pendingBytes.getOrDefault(v.getStorageID(), 0L)))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Choose the largest closed container of the volume not bigger than
+   * maxBytes, which is not being moved already.
+   */
+  private ContainerData chooseContainer(HddsVolume volume, long maxBytes) {
+    ContainerData chosen = null;
+    Iterator<Container<?>> containers = controller.getContainers(volume);
+    while (containers.hasNext()) {
+      ContainerData data = containers.next().getContainerData();
+      long bytes = data.getBytesUsed();
+      if (data.getState() == State.CLOSED && bytes > 0 && bytes <= maxBytes &&
+          !inProgressContainers.contains(data.getContainerID()) &&
+          (chosen == null || bytes > chosen.getBytesUsed())) {
+        chosen = data;
+      }
+    }
+    return chosen;
+  }
+
+  @Override
+  public void shutdown() {
+    super.shutdown();
+    metrics.unregister();
+  }
+
+  @VisibleForTesting
+  public DiskBalancerServiceMetrics getMetrics() {
+    return metrics;
+  }
+
+  @VisibleForTesting
+  Set<Long> getInProgressContainers() {
+    return inProgressContainers;
+  }
+
+  /**
+   * Usage of a volume at planning time.
+   */
+  private static final class VolumeState {
+    private final HddsVolume volume;
+    private final long capacity;
+    private long used;
+    private long available;
+
+    private VolumeState(HddsVolume volume, long pending) {
+      this.volume = volume;
+      this.capacity = volume.getCapacity();
+      this.used = volume.getUsedSpace() + pending;
+      this.available = volume.getAvailable() - volume.getCommittedBytes() -
+          pending;
+    }
+
+    private double getUtilization() {
+      return (double) used / capacity;
+    }
+  }
+
+  /**
+   * Moves one container to another volume.
+   */
+  private class DiskBalancerTask implements BackgroundTask {
+    private final long containerID;
+    private final long bytes;
+    private final HddsVolume source;
+    private final HddsVolume target;
+
+    DiskBalancerTask(long containerID, long bytes, HddsVolume source,
+        HddsVolume target) {
+      this.containerID = containerID;
+      this.bytes = bytes;
+      this.source = source;
+      this.target = target;
+    }
+
+    @Override
+    public BackgroundTaskResult call() {
+      try {
+        controller.moveContainer(containerID, target, throttler);
+        metrics.incrSuccessCount();
+        metrics.incrSuccessBytes(bytes);
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Failed to move container {} from {} to {}", containerID,
+            source, target, e);
+        metrics.incrFailureCount();
+      } finally {
+        pendingBytes.merge(source.getStorageID(), bytes, Long::sum);
+        pendingBytes.merge(target.getStorageID(), -bytes, Long::sum);
+        inProgressContainers.remove(containerID);
+        metrics.moveFinished(bytes);
+      }
+      return BackgroundTaskResult.EmptyTaskResult.newResult();
+    }
+  }
+}
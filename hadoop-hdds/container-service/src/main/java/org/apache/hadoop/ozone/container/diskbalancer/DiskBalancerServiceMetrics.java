@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.diskbalancer;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.metrics2.lib.MutableGaugeLong;
+
+/**
+ * Metrics related to the disk balancer service running on the datanode.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Metrics related to the disk balancer service on " +
+    "Datanode", context = "dfs")
+public final class DiskBalancerServiceMetrics {
+
+  public static final String SOURCE_NAME =
+      DiskBalancerService.class.getSimpleName();
+
+  @Metric(about = "The number of containers moved between volumes.")
+  private MutableCounterLong successCount;
+
+  @Metric(about = "The total bytes of the containers moved.")
+  private MutableCounterLong successBytes;
+
+  @Metric(about = "The number of failed container moves.")
+  private MutableCounterLong failureCount;
+
+  @Metric(about = "The number of planning rounds which found the volumes " +
+      "balanced.")
+  private MutableCounterLong idleIterationCount;
+
+  @Metric(about = "The number of container moves currently in progress.")
+  private MutableGaugeLong inProgressCount;
+
+  @Metric(about = "The bytes of the containers currently being moved.")
+  private MutableGaugeLong inProgressBytes;
+
+  @Metric(about = "Sum of the differences, in percent, between the " +
+      "utilization of each volume and the average utilization.")
+  private MutableGaugeLong volumeDataDensity;
+
+  private DiskBalancerServiceMetrics() {
+  }
+
+  public static DiskBalancerServiceMetrics create() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "DiskBalancerService",
+        new DiskBalancerServiceMetrics());
+  }
+
+  public void unregister() {
+    DefaultMetricsSystem.instance().unregisterSource(SOURCE_NAME);
+  }
+
+  public void incrSuccessCount() {
+    successCount.incr();
+  }
+
+  public void incrSuccessBytes(long bytes) {
+    successBytes.incr(bytes);
+  }
+
+  public void incrFailureCount() {
+    failureCount.incr();
+  }
+
+  public void incrIdleIterationCount() {
+    idleIterationCount.incr();
+  }
+
+  public void moveStarted(long bytes) {
+    inProgressCount.incr();
+    inProgressBytes.incr(bytes);
+  }
+
+  public void moveFinished(long bytes) {
+    inProgressCount.decr();
+    inProgressBytes.decr(bytes);
+  }
+
+  public void setVolumeDataDensity(long density) {
+    volumeDataDensity.set(density);
+  }
+
+  public long getSuccessCount() {
+    return successCount.value();
+  }
+
+  public long getSuccessBytes() {
+    return successBytes.value();
+  }
+
+  public long getFailureCount() {
+    return failureCount.value();
+  }
+
+  public long getIdleIterationCount() {
+    return idleIterationCount.value();
+  }
+
+  public long getInProgressCount() {
+    return inProgressCount.value();
+  }
+
+  public long getInProgressBytes() {
+    return inProgressBytes.value();
+  }
+
+  public long getVolumeDataDensity() {
+    return volumeDataDensity.value();
+  }
+
+  @Override
+  public String toString() {
+    return "moved " + getSuccessCount() + " containers (" +
+        getSuccessBytes() + " bytes), " + getFailureCount() + " failed, " +
+        getInProgressCount() + " in progress (" + getInProgressBytes() +
+        " bytes), volume data density " + getVolumeDataDensity() + "%";
+  }
+}
@@ -45,6 +45,7 @@
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerType;
 import org.apache.hadoop.hdds.protocol.proto.StorageContainerDatanodeProtocolProtos.ContainerReplicaProto;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.hdds.utils.db.DBCheckpoint;
 import org.apache.hadoop.hdfs.util.Canceler;
 import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.io.nativeio.NativeIO;
@@ -62,6 +63,7 @@
 import org.apache.hadoop.ozone.container.keyvalue.helpers.BlockUtils;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerLocationUtil;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.KeyValueContainerUtil;
+import org.apache.hadoop.ozone.container.metadata.DatanodeStoreSchemaThreeImpl;
 import org.apache.hadoop.ozone.container.replication.ContainerImporter;
 import org.apache.hadoop.ozone.container.upgrade.VersionedDatanodeFeatures;
 import org.apache.hadoop.util.DiskChecker.DiskOutOfSpaceException;
@@ -472,6 +474,95 @@ private void closeAndFlushIfNeeded(Runnable closer)
     }
   }
 
+  /**
+   * Copy the data and metadata of this container to the given directory on
+   * the same datanode, without packing them into an archive. Chunk files and
+   * RocksDB SST files are hard linked where possible, other files are copied.
+   * For schema V2 a checkpoint of the container DB is copied.
+   * For schema V3 the rows of the container in the volume DB are dumped to
+   * SST files in the copied metadata directory, to be ingested into the DB
+   * of the destination volume by {@link #importContainerData(
+   * KeyValueContainerData)}.
+   * <p>
+   * Block files do not change in a (quasi)closed container, so they are
+   * copied without holding the lock of the container, which keeps serving
+   * reads and can be deleted meanwhile. The metadata is copied under the read
+   * lock. The caller must check under the write lock that the container was
+   * neither modified nor removed during the copy before using it.
+   *
+   * @param destination the container directory to create
+   * @param throttler limits the bandwidth of copied files, may be null
+   */
+  public void copyContainerData(Path destination,
+      DataTransferThrottler throttler) throws IOException {
+    ContainerDataProto.State state = getContainerData().getState();
+    if (!(state == ContainerDataProto.State.CLOSED ||
+        state == ContainerDataProto.State.QUASI_CLOSED ||
+        state == ContainerDataProto.State.UNHEALTHY)) {
+      throw new IllegalStateException(
+          "Only (quasi)closed and unhealthy containers can be copied. " +
+              "ContainerId=" + getContainerData().getContainerID() +
+              " is in state " + state);
+    }
+
+    Path source = Paths.get(containerData.getContainerPath());
+    Path chunksDir =
+        source.relativize(Paths.get(containerData.getChunksPath()));
+    Path metadataDir =
+        source.relativize(Paths.get(containerData.getMetadataPath()));
+    long copiedBytes = KeyValueContainerUtil.linkOrCopyDirectory(
+        source.resolve(chunksDir), destination.resolve(chunksDir),
+        path -> true, throttler);
+    readLock();
+    try {
+      if (containerData.hasSchema(OzoneConsts.SCHEMA_V3)) {
+        File dumpDir = DatanodeStoreSchemaThreeImpl.getDumpDir(
+            new File(containerData.getMetadataPath()));
+        Path relativeDumpDir = source.resolve(metadataDir)
+            .relativize(dumpDir.toPath());
+        synchronized (dumpLock) {
+          BlockUtils.dumpKVContainerDataToFiles(containerData, config);
+          try {
+            copiedBytes += KeyValueContainerUtil.linkOrCopyDirectory(
+                source.resolve(metadataDir), destination.resolve(metadataDir),
+                path -> path.startsWith(relativeDumpDir), throttler);
+          } finally {
+            BlockUtils.deleteAllDumpFiles(dumpDir);
+          }
+        }
+      } else {
+        // Reads do not lock the container and may reopen its DB at any time,
+        // so copy a checkpoint of the DB instead of its live files.
+        DBCheckpoint checkpoint;
+        try (DBHandle db = BlockUtils.getDB(containerData, config)) {
+          checkpoint = db.getStore().getStore().getCheckpoint(false);
+        }
+        if (checkpoint == null) {
+          throw new IOException("Failed to create a checkpoint of the DB of" +
+              " container " + containerData.getContainerID());
+        }
+        try {
+          Path destMetadata = destination.resolve(metadataDir);
+          Files.createDirectories(destMetadata);
+          File containerFile = getContainerFile();
+          Files.copy(containerFile.toPath(),
+              destMetadata.resolve(containerFile.getName()));
+          // the checkpoint is removed below, so all its files can be linked
+          copiedBytes += KeyValueContainerUtil.linkOrCopyDirectory(
+              checkpoint.getCheckpointLocation(),
+              destMetadata.resolve(containerData.getDbFile().getName()),
+              path -> true, throttler);
+        } finally {
+          checkpoint.cleanupCheckpoint();
+        }
+      }
+    } finally {
+      readUnlock();
+    }
+    LOG.info("Container {} copied to {}, {} bytes copied, the rest linked",
+        containerData.getContainerID(), destination, copiedBytes);
+  }
+
   /**
    *
    * Must be invoked with the writeLock held.
@@ -682,21 +773,22 @@ public void importContainerData(KeyValueContainerData originalContainerData)
   @Override
   public void exportContainerData(OutputStream destination,
       ContainerPacker<KeyValueContainerData> packer) throws IOException {
-    writeLock();
-    try {
-      // Closed/ Quasi closed and unhealthy containers are considered for
-      // replication by replication manager if they are under-replicated.
-      ContainerProtos.ContainerDataProto.State state =
-          getContainerData().getState();
-      if (!(state == ContainerProtos.ContainerDataProto.State.CLOSED ||
-          state == ContainerDataProto.State.QUASI_CLOSED
-          || state == ContainerDataProto.State.UNHEALTHY)) {
-        throw new IllegalStateException(
-            "Only (quasi)closed and unhealthy containers can be exported. " +
-                "ContainerId=" + getContainerData().getContainerID() +
-                " is in state " + state);
+    if (!packer.packsMetadata()) {
+      // Only block files, which are immutable in a closed container, so
+      // parts of the same container can be exported concurrently.
+      readLock();
+      try {
+        checkExportable();
+        packer.pack(this, destination);
+      } finally {
+        readUnlock();
       }
+      return;
+    }
 
+    writeLock();
+    try {
+      checkExportable();
       try {
         if (!containerData.hasSchema(OzoneConsts.SCHEMA_V3)) {
           compactDB();
@@ -719,6 +811,21 @@ public void exportContainerData(OutputStream destination,
     }
   }
 
+  private void checkExportable() {
+    // Closed/ Quasi closed and unhealthy containers are considered for
+    // replication by replication manager if they are under-replicated.
+    ContainerProtos.ContainerDataProto.State state =
+        getContainerData().getState();
+    if (!(state == ContainerProtos.ContainerDataProto.State.CLOSED ||
+        state == ContainerDataProto.State.QUASI_CLOSED
+        || state == ContainerDataProto.State.UNHEALTHY)) {
+      throw new IllegalStateException(
+          "Only (quasi)closed and unhealthy containers can be exported. " +
+              "ContainerId=" + getContainerData().getContainerID() +
+              " is in state " + state);
+    }
+  }
+
   /**
    * Acquire read lock.
    */
@@ -27,6 +27,7 @@
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -54,6 +55,7 @@
 import org.apache.hadoop.hdds.scm.ScmConfigKeys;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.utils.HddsServerUtil;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.common.Checksum;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
@@ -86,6 +88,7 @@
 import org.apache.hadoop.ozone.container.keyvalue.impl.ChunkManagerFactory;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
+import org.apache.hadoop.ozone.container.replication.ContainerImporter;
 import org.apache.hadoop.ozone.container.upgrade.VersionedDatanodeFeatures;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -104,6 +107,7 @@
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getBlockLengthResponse;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getGetSmallFileResponseSuccess;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getListBlockResponse;
+import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getLocalBlockFileResponse;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getPutFileResponseSuccess;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadChunkResponse;
 import static org.apache.hadoop.hdds.scm.protocolPB.ContainerCommandResponseBuilders.getReadContainerResponse;
@@ -119,6 +123,7 @@
 
 import org.apache.ratis.statemachine.StateMachine;
 import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
+import org.apache.ratis.thirdparty.com.google.protobuf.UnsafeByteOperations;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -136,6 +141,7 @@ public class KeyValueHandler extends Handler {
   private final long maxContainerSize;
   private final Function<ByteBuffer, ByteString> byteBufferToByteString;
   private final boolean validateChunkChecksumData;
+  private final boolean shortCircuitReadEnabled;
   // A striped lock that is held during container creation.
   private final Striped<Lock> containerCreationLocks;
 
@@ -147,8 +153,9 @@ public KeyValueHandler(ConfigurationSource config,
                          IncrementalReportSender<Container> icrSender) {
     super(config, datanodeId, contSet, volSet, metrics, icrSender);
     blockManager = new BlockManagerImpl(config);
-    validateChunkChecksumData = conf.getObject(
-        DatanodeConfiguration.class).isChunkDataValidationCheck();
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    validateChunkChecksumData = dnConf.isChunkDataValidationCheck();
+    shortCircuitReadEnabled = dnConf.isShortCircuitReadEnabled();
     chunkManager = ChunkManagerFactory.createChunkManager(config, blockManager,
         volSet);
     try {
@@ -218,9 +225,23 @@ public ContainerCommandResponseProto handle(
       DispatcherContext dispatcherContext) {
 
     try {
-      return KeyValueHandler
+      ContainerCommandResponseProto response = KeyValueHandler
           .dispatchRequest(this, request, (KeyValueContainer) container,
               dispatcherContext);
+      if (response != null &&
+          response.getResult() != ContainerProtos.Result.SUCCESS &&
+          isReadOfBlockData(request.getCmdType())) {
+        // Reads do not lock the container, so its files may have been
+        // removed by moveContainer after replacing it with the moved copy,
+        // retry with the container currently in the set.
+        Container current = containerSet.getContainer(
+            container.getContainerData().getContainerID());
+        if (current != null && current != container) {
+          response = KeyValueHandler.dispatchRequest(this, request,
+              (KeyValueContainer) current, dispatcherContext);
+        }
+      }
+      return response;
     } catch (RuntimeException e) {
       return ContainerUtils.logAndReturnError(LOG,
           new StorageContainerException(e, CONTAINER_INTERNAL_ERROR),
@@ -228,6 +249,11 @@ public ContainerCommandResponseProto handle(
     }
   }
 
+  private static boolean isReadOfBlockData(Type cmdType) {
+    return cmdType == Type.GetBlock || cmdType == Type.ReadChunk ||
+        cmdType == Type.GetSmallFile;
+  }
+
   @VisibleForTesting
   static ContainerCommandResponseProto dispatchRequest(KeyValueHandler handler,
       ContainerCommandRequestProto request, KeyValueContainer kvContainer,
@@ -274,6 +300,8 @@ static ContainerCommandResponseProto dispatchRequest(KeyValueHandler handler,
       return handler.handleGetSmallFile(request, kvContainer);
     case GetCommittedBlockLength:
       return handler.handleGetCommittedBlockLength(request, kvContainer);
+    case GetLocalBlockFile:
+      return handler.handleGetLocalBlockFile(request, kvContainer);
     default:
       return null;
     }
@@ -630,6 +658,56 @@ ContainerCommandResponseProto handleGetCommittedBlockLength(
     return getBlockLengthResponse(request, blockLength);
   }
 
+  /**
+   * Handles GetLocalBlockFile operation, used by clients on the same host
+   * to read a block directly from disk (short-circuit read).
+   * Only blocks of FILE_PER_BLOCK containers can be served this way, since
+   * those are stored in a single file using the block offsets.
+   */
+  ContainerCommandResponseProto handleGetLocalBlockFile(
+      ContainerCommandRequestProto request, KeyValueContainer kvContainer) {
+    if (!request.hasGetLocalBlockFile()) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Malformed Get Local Block File request. trace ID: {}",
+            request.getTraceID());
+      }
+      return malformedRequest(request);
+    }
+
+    KeyValueContainerData containerData = kvContainer.getContainerData();
+    if (!shortCircuitReadEnabled || containerData.getLayoutVersion()
+        != ContainerLayoutVersion.FILE_PER_BLOCK) {
+      return unsupportedRequest(request);
+    }
+
+    ContainerProtos.BlockData responseData;
+    File blockFile;
+    try {
+      BlockID blockID = BlockID
+          .getFromProtobuf(request.getGetLocalBlockFile().getBlockID());
+      checkContainerIsHealthy(kvContainer, blockID, Type.GetLocalBlockFile);
+      BlockUtils.verifyBCSId(kvContainer, blockID);
+      responseData = blockManager.getBlock(kvContainer, blockID)
+          .getProtoBufMessage();
+      blockFile = ContainerLayoutVersion.FILE_PER_BLOCK
+          .getChunkFile(containerData, blockID, null);
+      if (!blockFile.exists()) {
+        throw new StorageContainerException(
+            "Block file " + blockFile + " does not exist",
+            ContainerProtos.Result.UNABLE_TO_FIND_CHUNK);
+      }
+    } catch (StorageContainerException ex) {
+      return ContainerUtils.logAndReturnError(LOG, ex, request);
+    } catch (IOException ex) {
+      return ContainerUtils.logAndReturnError(LOG,
+          new StorageContainerException("GetLocalBlockFile failed", ex,
+              IO_EXCEPTION), request);
+    }
+
+    return getLocalBlockFileResponse(request, responseData,
+        blockFile.getAbsolutePath());
+  }
+
   /**
    * Handle List Block operation. Calls BlockManager to process the request.
    */
@@ -738,6 +816,12 @@ ContainerCommandResponseProto handleReadChunk(
 
     Preconditions.checkNotNull(data, "Chunk data is null");
 
+    // Buffers which are released only after the response is sent can be
+    // wrapped without copying, regardless of the configured conversion.
+    if (dispatcherContext.getBufferReleaser() != null) {
+      return getReadChunkResponse(request, data,
+          UnsafeByteOperations::unsafeWrap);
+    }
     return getReadChunkResponse(request, data, byteBufferToByteString);
   }
 
@@ -1046,6 +1130,111 @@ public void exportContainer(final Container container,
     ContainerLogger.logExported(container.getContainerData());
   }
 
+  @Override
+  public Container moveContainer(final Container container,
+      final HddsVolume destVolume, final DataTransferThrottler throttler)
+      throws IOException {
+    final KeyValueContainer source = (KeyValueContainer) container;
+    final KeyValueContainerData sourceData = source.getContainerData();
+    final long containerId = sourceData.getContainerID();
+    final HddsVolume sourceVolume = sourceData.getVolume();
+    if (sourceVolume == destVolume) {
+      return source;
+    }
+
+    KeyValueContainerData containerData =
+        new KeyValueContainerData(sourceData);
+    KeyValueContainer moved = new KeyValueContainer(containerData, conf);
+    populateContainerPathFields(moved, destVolume);
+    File destDir = new File(containerData.getContainerPath());
+    Path tmpDir = ContainerImporter.getUntarDirectory(destVolume)
+        .resolve(String.valueOf(containerId));
+
+    // Remember what the copy is taken from, to detect below whether the
+    // container changed while it was copied without the lock.
+    final State state;
+    final long deleteTransactionId;
+    final long blockCount;
+    final long bytesUsed;
+    source.readLock();
+    try {
+      if (containerSet.getContainer(containerId) != source) {
+        throw new StorageContainerException("Container " + containerId +
+            " was removed or replaced during move", CONTAINER_INTERNAL_ERROR);
+      }
+      if (destDir.exists()) {
+        throw new StorageContainerException("Container " + containerId +
+            " already exists in " + destDir, CONTAINER_ALREADY_EXISTS);
+      }
+      state = sourceData.getState();
+      deleteTransactionId = sourceData.getDeleteTransactionId();
+      blockCount = sourceData.getBlockCount();
+      bytesUsed = sourceData.getBytesUsed();
+    } finally {
+      source.readUnlock();
+    }
+
+    try {
+      FileUtil.fullyDelete(tmpDir.toFile());
+      Files.createDirectories(tmpDir.getParent());
+      source.copyContainerData(tmpDir, throttler);
+      source.writeLock();
+      try {
+        if (containerSet.getContainer(containerId) != source ||
+            sourceData.getState() != state ||
+            sourceData.getDeleteTransactionId() != deleteTransactionId ||
+            sourceData.getBlockCount() != blockCount ||
+            sourceData.getBytesUsed() != bytesUsed) {
+          throw new StorageContainerException("Container " + containerId +
+              " was modified, removed or replaced during move",
+              CONTAINER_INTERNAL_ERROR);
+        }
+        Files.createDirectories(destDir.toPath().getParent());
+        Files.move(tmpDir, destDir.toPath(),
+            StandardCopyOption.ATOMIC_MOVE);
+        moved.importContainerData(sourceData);
+        if (!containerSet.replaceContainer(source, moved)) {
+          throw new StorageContainerException("Container " + containerId +
+              " was replaced during move", CONTAINER_INTERNAL_ERROR);
+        }
+      } finally {
+        source.writeUnlock();
+      }
+    } catch (IOException | RuntimeException e) {
+      LOG.warn("Failed to move container {} from {} to {}", containerId,
+          sourceVolume, destVolume, e);
+      try {
+        KeyValueContainerUtil.removeContainerDB(containerData, conf);
+      } catch (IOException cleanupException) {
+        e.addSuppressed(cleanupException);
+      }
+      FileUtil.fullyDelete(tmpDir.toFile());
+      FileUtil.fullyDelete(destDir);
+      throw e;
+    }
+
+    // The moved container is already in use, failing to remove the source
+    // only leaves garbage behind. Reads which got the source before it was
+    // replaced and fail on its removed files are retried by handle().
+    source.writeLock();
+    try {
+      KeyValueContainerUtil.removeContainer(sourceData, conf);
+      source.delete();
+    } catch (IOException e) {
+      LOG.warn("Failed to remove container {} from {} after move",
+          containerId, sourceVolume, e);
+    } finally {
+      chunkManager.releaseContainer(source);
+      source.writeUnlock();
+    }
+    // Update the cached used space until the next refresh of volume usage.
+    destVolume.incrementUsedSpace(containerData.getBytesUsed());
+    sourceVolume.decrementUsedSpace(containerData.getBytesUsed());
+    ContainerLogger.logMoved(containerData, sourceVolume.toString());
+    sendICR(moved);
+    return moved;
+  }
+
   @Override
   public void markContainerForClose(Container container)
       throws IOException {
@@ -1352,7 +1541,12 @@ private void deleteInternal(Container container, boolean force)
           long containerId = container.getContainerData().getContainerID();
           containerSet.removeContainer(containerId);
           ContainerLogger.logDeleted(container.getContainerData(), force);
-          KeyValueContainerUtil.removeContainer(keyValueContainerData, conf);
+          try {
+            KeyValueContainerUtil.removeContainer(keyValueContainerData,
+                conf);
+          } finally {
+            chunkManager.releaseContainer(container);
+          }
         } catch (IOException ioe) {
           LOG.error("Failed to move container under " + hddsVolume
               .getDeletedContainerDir());
@@ -29,9 +29,13 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 
 import org.apache.hadoop.hdds.HddsUtils;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
@@ -56,6 +60,12 @@
 
 /**
  * Compress/uncompress KeyValueContainer data to a tar archive.
+ * <p>
+ * To download a container over several parallel streams, the container can be
+ * split into multiple archives.  Part 0 holds the container descriptor and the
+ * metadata, the block files are distributed to the remaining parts by the
+ * hash of their names, so a block file always belongs to the same part even if
+ * other blocks are deleted between the downloads of the parts.
  */
 public class TarContainerPacker
     implements ContainerPacker<KeyValueContainerData> {
@@ -68,8 +78,53 @@
 
   private final CopyContainerCompression compression;
 
+  private final int compressionLevel;
+
+  private final int partIndex;
+
+  private final int partCount;
+
+  private final List<Path> dataParts;
+
   public TarContainerPacker(CopyContainerCompression compression) {
+    this(compression, 0, 0, 1, Collections.emptyList());
+  }
+
+  /**
+   * Create a packer for one part of the container.
+   *
+   * @param compressionLevel codec specific compression level, 0 for default
+   * @param partIndex the part to pack, in the range 0 to partCount - 1
+   * @param partCount the number of parts the container is split into
+   */
+  public TarContainerPacker(CopyContainerCompression compression,
+      int compressionLevel, int partIndex, int partCount) {
+    this(compression, compressionLevel, partIndex, partCount,
+        Collections.emptyList());
+  }
+
+  /**
+   * Create a packer to unpack a container downloaded in several parts.  The
+   * archive passed to {@link #unpackContainerData} must be part 0, the block
+   * files are also extracted from the given other parts.
+   *
+   * @param dataParts the archives of parts 1 to partCount - 1
+   */
+  public TarContainerPacker(CopyContainerCompression compression,
+      List<Path> dataParts) {
+    this(compression, 0, 0, dataParts.size() + 1, dataParts);
+  }
+
+  private TarContainerPacker(CopyContainerCompression compression,
+      int compressionLevel, int partIndex, int partCount,
+      List<Path> dataParts) {
+    Preconditions.checkArgument(partIndex >= 0 && partIndex < partCount,
+        "Invalid part %s of %s", partIndex, partCount);
     this.compression = compression;
+    this.compressionLevel = compressionLevel;
+    this.partIndex = partIndex;
+    this.partCount = partCount;
+    this.dataParts = dataParts;
   }
 
   /**
@@ -93,7 +148,13 @@ public byte[] unpackContainerData(Container<KeyValueContainerData> container,
 
     Path dbRoot = getDbPath(containerUntarDir, containerData);
     Path chunksRoot = getChunkPath(containerUntarDir, containerData);
-    byte[] descriptorFileContent = innerUnpack(input, dbRoot, chunksRoot);
+    byte[] descriptorFileContent =
+        innerUnpack(input, dbRoot, chunksRoot, false);
+    for (Path dataPart : dataParts) {
+      try (InputStream partInput = Files.newInputStream(dataPart)) {
+        innerUnpack(partInput, dbRoot, chunksRoot, true);
+      }
+    }
 
     if (!Files.exists(destContainerDir)) {
       Files.createDirectories(destContainerDir);
@@ -158,17 +219,38 @@ public void pack(Container<KeyValueContainerData> container,
     KeyValueContainerData containerData = container.getContainerData();
 
     try (ArchiveOutputStream archiveOutput = tar(compress(output))) {
-      includeFile(container.getContainerFile(), CONTAINER_FILE_NAME,
-          archiveOutput);
+      if (packsMetadata()) {
+        includeFile(container.getContainerFile(), CONTAINER_FILE_NAME,
+            archiveOutput);
 
-      includePath(getDbPath(containerData), DB_DIR_NAME,
-          archiveOutput);
+        includePath(getDbPath(containerData), DB_DIR_NAME,
+            archiveOutput, path -> true);
+      }
 
       includePath(Paths.get(containerData.getChunksPath()), CHUNKS_DIR_NAME,
-          archiveOutput);
+          archiveOutput, this::isInPart);
     }
   }
 
+  @Override
+  public boolean packsMetadata() {
+    return partIndex == 0;
+  }
+
+  private boolean isInPart(Path chunkFile) {
+    return partCount == 1 ||
+        getPartIndex(chunkFile.getFileName().toString(), partCount)
+            == partIndex;
+  }
+
+  /**
+   * @return the part holding the block file with the given name, if the
+   * container is split into partCount parts.
+   */
+  static int getPartIndex(String chunkFileName, int partCount) {
+    return 1 + Math.floorMod(chunkFileName.hashCode(), partCount - 1);
+  }
+
   @Override
   public byte[] unpackContainerDescriptor(InputStream input)
       throws IOException {
@@ -240,7 +322,8 @@ private byte[] readEntry(InputStream input, final long size)
   }
 
   private void includePath(Path dir, String subdir,
-      ArchiveOutputStream archiveOutput) throws IOException {
+      ArchiveOutputStream archiveOutput, Predicate<Path> filter)
+      throws IOException {
 
     // Add a directory entry before adding files, in case the directory is
     // empty.
@@ -250,7 +333,7 @@ private void includePath(Path dir, String subdir,
 
     // Add files in the directory.
     try (Stream<Path> dirEntries = Files.list(dir)) {
-      for (Path path : dirEntries.collect(toList())) {
+      for (Path path : dirEntries.filter(filter).collect(toList())) {
         String entryName = subdir + "/" + path.getFileName();
         includeFile(path.toFile(), entryName, archiveOutput);
       }
@@ -284,17 +367,26 @@ InputStream decompress(InputStream input) throws IOException {
 
   @VisibleForTesting
   OutputStream compress(OutputStream output) throws IOException {
-    return compression.wrap(output);
+    return compression.wrap(output, compressionLevel);
   }
 
-  private byte[] innerUnpack(InputStream input, Path dbRoot, Path chunksRoot)
-      throws IOException {
+  /**
+   * @param dataPart whether the archive is a part with block files only,
+   *                 a source ignoring the requested part may send the whole
+   *                 container instead, which is rejected
+   */
+  private byte[] innerUnpack(InputStream input, Path dbRoot, Path chunksRoot,
+      boolean dataPart) throws IOException {
     byte[] descriptorFileContent = null;
     try (ArchiveInputStream archiveInput = untar(decompress(input))) {
       ArchiveEntry entry = archiveInput.getNextEntry();
       while (entry != null) {
         String name = entry.getName();
         long size = entry.getSize();
+        if (dataPart && !name.startsWith(CHUNKS_DIR_NAME + "/")) {
+          throw new IllegalArgumentException(
+              "Unexpected entry in a data part of the container: " + name);
+        }
         if (name.startsWith(DB_DIR_NAME + "/")) {
           Path destinationPath = dbRoot
               .resolve(name.substring(DB_DIR_NAME.length() + 1));
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.helpers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.io.ByteBufferPool;
+
+/**
+ * {@link ByteBufferPool} which keeps at most a given number of bytes of
+ * buffers. Buffers given back while the pool is full are dropped and left
+ * to the garbage collector, so the pool never grows beyond its limit.
+ * <p>
+ * Like {@link org.apache.hadoop.io.ElasticByteBufferPool}, a request is
+ * served by the smallest pooled buffer which is large enough, and a new
+ * buffer is allocated if there is none.
+ */
+public class BoundedByteBufferPool implements ByteBufferPool {
+
+  private final long maxBytes;
+  private final TreeMap<Integer, Deque<ByteBuffer>> heapBuffers =
+      new TreeMap<>();
+  private final TreeMap<Integer, Deque<ByteBuffer>> directBuffers =
+      new TreeMap<>();
+  private long pooledBytes;
+
+  public BoundedByteBufferPool(long maxBytes) {
+    this.maxBytes = maxBytes;
+  }
+
+  @Override
+  public ByteBuffer getBuffer(boolean direct, int length) {
+    synchronized (this) {
+      final TreeMap<Integer, Deque<ByteBuffer>> buffers = getBuffers(direct);
+      final Map.Entry<Integer, Deque<ByteBuffer>> entry =
+          buffers.ceilingEntry(length);
+      if (entry != null) {
+        final ByteBuffer buffer = entry.getValue().poll();
+        if (entry.getValue().isEmpty()) {
+          buffers.remove(entry.getKey());
+        }
+        pooledBytes -= buffer.capacity();
+        buffer.clear();
+        return buffer;
+      }
+    }
+    return direct ? ByteBuffer.allocateDirect(length)
+        : ByteBuffer.allocate(length);
+  }
+
+  @Override
+  public synchronized void putBuffer(ByteBuffer buffer) {
+    if (pooledBytes + buffer.capacity() > maxBytes) {
+      return;
+    }
+    getBuffers(buffer.isDirect())
+        .computeIfAbsent(buffer.capacity(), k -> new ArrayDeque<>())
+        .add(buffer);
+    pooledBytes += buffer.capacity();
+  }
+
+  private TreeMap<Integer, Deque<ByteBuffer>> getBuffers(boolean direct) {
+    return direct ? directBuffers : heapBuffers;
+  }
+
+  @VisibleForTesting
+  public synchronized long getPooledBytes() {
+    return pooledBytes;
+  }
+}
@@ -32,8 +32,10 @@
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
@@ -41,9 +43,11 @@
 
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.io.ByteBufferPool;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.common.utils.BufferUtils;
+import org.apache.hadoop.ozone.container.common.helpers.BufferReleaser;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.util.Time;
@@ -192,6 +196,109 @@ public static ChunkBuffer readData(long len, int bufferCapacity,
     return ChunkBuffer.wrap(Arrays.asList(buffers));
   }
 
+  /**
+   * Same as {@link #readData(long, int, CheckedConsumer)}, but the data is
+   * read into direct buffers taken from {@code pool}. They are given back to
+   * the pool by {@code releaser}, so the returned data must not be used
+   * after that.
+   */
+  public static ChunkBuffer readData(long len, int bufferCapacity,
+      ByteBufferPool pool, BufferReleaser releaser,
+      CheckedConsumer<ByteBuffer[], StorageContainerException> readMethod)
+      throws StorageContainerException {
+    final int count = BufferUtils.getNumberOfBins(len, bufferCapacity);
+    final ByteBuffer[] buffers = new ByteBuffer[count];
+    long remaining = len;
+    for (int i = 0; i < count; i++) {
+      final int size = (int) Math.min(remaining, bufferCapacity);
+      buffers[i] = pool.getBuffer(true, size);
+      buffers[i].clear();
+      buffers[i].limit(size);
+      remaining -= size;
+    }
+    releaser.add(() -> {
+      for (ByteBuffer buffer : buffers) {
+        pool.putBuffer(buffer);
+      }
+    });
+    readMethod.accept(buffers);
+    return ChunkBuffer.wrap(Arrays.asList(buffers));
+  }
+
+  /**
+   * Reads data from a file which is not modified anymore, using a memory
+   * mapping of the file kept in {@code mappedBuffers}. With a
+   * {@code releaser}, the returned buffers are read-only slices of the
+   * mapping, so no data is copied, and they must not be used after the
+   * releaser runs. Without one, the data is copied out of the mapping.
+   *
+   * @return the data, or null if the file cannot be memory-mapped, in
+   * which case the caller should fall back to regular reads
+   */
+  public static ChunkBuffer readMappedData(File file, long offset, long len,
+      int bufferCapacity, HddsVolume volume, MappedBufferCache mappedBuffers,
+      BufferReleaser releaser) throws StorageContainerException {
+    if (releaser == null) {
+      final BufferReleaser copyReleaser = new BufferReleaser();
+      try {
+        final ChunkBuffer data = readMappedData(file, offset, len,
+            bufferCapacity, volume, mappedBuffers, copyReleaser);
+        if (data == null) {
+          return null;
+        }
+        final List<ByteBuffer> copies = new ArrayList<>();
+        for (ByteBuffer slice : data.asByteBufferList()) {
+          final ByteBuffer copy = ByteBuffer.allocate(slice.remaining());
+          copy.put(slice).flip();
+          copies.add(copy);
+        }
+        return ChunkBuffer.wrap(copies);
+      } finally {
+        copyReleaser.release();
+      }
+    }
+
+    final long startTime = Time.monotonicNow();
+    final ByteBuffer mapped;
+    try {
+      mapped = mappedBuffers.get(file, releaser);
+    } catch (IOException e) {
+      onFailure(volume);
+      throw wrapInStorageContainerException(e);
+    }
+    if (mapped == null) {
+      return null;
+    }
+
+    final long bytesRead = Math.max(0,
+        Math.min(len, mapped.capacity() - offset));
+    validateReadSize(len, bytesRead);
+
+    final int count = Math.toIntExact((len - 1) / bufferCapacity + 1);
+    final ByteBuffer[] buffers = new ByteBuffer[count];
+    int position = Math.toIntExact(offset);
+    final int end = Math.toIntExact(offset + len);
+    for (int i = 0; i < count; i++) {
+      final int limit = Math.min(position + bufferCapacity, end);
+      mapped.limit(limit).position(position);
+      buffers[i] = mapped.slice();
+      position = limit;
+    }
+
+    // Increment volumeIO stats here.
+    long endTime = Time.monotonicNow();
+    if (volume != null) {
+      volume.getVolumeIOStats().incReadTime(endTime - startTime);
+      volume.getVolumeIOStats().incReadOpCount();
+      volume.getVolumeIOStats().incReadBytes(bytesRead);
+    }
+
+    LOG.debug("Read {} bytes starting at offset {} from mapped {}",
+        bytesRead, offset, file);
+
+    return ChunkBuffer.wrap(Arrays.asList(buffers));
+  }
+
   /**
    * Reads data from an existing chunk file into a list of ByteBuffers.
    *
@@ -19,17 +19,24 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.List;
+import java.util.function.Predicate;
 
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.utils.MetadataKeyFilters;
 import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
@@ -62,6 +69,10 @@ private KeyValueContainerUtil() {
 
   }
 
+  // Upper limit of a single transferTo call, so that copies are throttled in
+  // small steps.
+  private static final long TRANSFER_CHUNK_SIZE = 4L * 1024 * 1024;
+
   private static final Logger LOG = LoggerFactory.getLogger(
       KeyValueContainerUtil.class);
 
@@ -215,26 +226,10 @@ public static boolean noBlocksInContainer(DatanodeStore store,
   public static void parseKVContainerData(KeyValueContainerData kvContainerData,
       ConfigurationSource config) throws IOException {
 
-    long containerID = kvContainerData.getContainerID();
-
-    // Verify Checksum
-    ContainerUtils.verifyChecksum(kvContainerData, config);
-
-    if (kvContainerData.getSchemaVersion() == null) {
-      // If this container has not specified a schema version, it is in the old
-      // format with one default column family.
-      kvContainerData.setSchemaVersion(OzoneConsts.SCHEMA_V1);
-    }
-
-    File dbFile = KeyValueContainerLocationUtil.getContainerDBFile(
-        kvContainerData);
-    if (!dbFile.exists()) {
-      LOG.error("Container DB file is missing for ContainerID {}. " +
-          "Skipping loading of this container.", containerID);
+    if (!verifyKVContainerFile(kvContainerData, config)) {
       // Don't further process this container, as it is missing db file.
       return;
     }
-    kvContainerData.setDbFile(dbFile);
 
     DatanodeConfiguration dnConf =
         config.getObject(DatanodeConfiguration.class);
@@ -287,6 +282,60 @@ public static void parseKVContainerData(KeyValueContainerData kvContainerData,
     }
   }
 
+  /**
+   * Verify the checksum of KeyValueContainerData read from a .container file
+   * and set its schema version and DB file, without reading the DB.
+   * @param kvContainerData
+   * @param config
+   * @return false if the container DB file is missing.
+   * @throws IOException
+   */
+  public static boolean verifyKVContainerFile(
+      KeyValueContainerData kvContainerData, ConfigurationSource config)
+      throws IOException {
+
+    long containerID = kvContainerData.getContainerID();
+
+    // Verify Checksum
+    ContainerUtils.verifyChecksum(kvContainerData, config);
+
+    if (kvContainerData.getSchemaVersion() == null) {
+      // If this container has not specified a schema version, it is in the old
+      // format with one default column family.
+      kvContainerData.setSchemaVersion(OzoneConsts.SCHEMA_V1);
+    }
+
+    File dbFile = KeyValueContainerLocationUtil.getContainerDBFile(
+        kvContainerData);
+    if (!dbFile.exists()) {
+      LOG.error("Container DB file is missing for ContainerID {}. " +
+          "Skipping loading of this container.", containerID);
+      return false;
+    }
+    kvContainerData.setDbFile(dbFile);
+    return true;
+  }
+
+  /**
+   * Set block related metadata of KeyValueContainerData from the container
+   * DB, using the cached DB handle. This is used to verify containers which
+   * were loaded from the container index snapshot while the datanode is
+   * already serving them.
+   * @param kvContainerData
+   * @param config
+   * @throws IOException
+   */
+  public static void populateContainerMetadata(
+      KeyValueContainerData kvContainerData, ConfigurationSource config)
+      throws IOException {
+    boolean bCheckChunksFilePath = config.getObject(
+        DatanodeConfiguration.class).getCheckEmptyContainerDir();
+    try (DBHandle db = BlockUtils.getDB(kvContainerData, config)) {
+      populateContainerMetadata(kvContainerData, db.getStore(),
+          bCheckChunksFilePath);
+    }
+  }
+
   private static void populateContainerMetadata(
       KeyValueContainerData kvContainerData, DatanodeStore store,
       boolean bCheckChunksFilePath)
@@ -504,6 +553,72 @@ public static void moveToDeletedContainerDir(
         container.getName(), hddsVolume.getDeletedContainerDir());
   }
 
+  /**
+   * Recreate the directory tree of source at target, on the same datanode.
+   * Files accepted by the immutable predicate are hard linked if source and
+   * target are on the same filesystem. Other files, which may be rewritten in
+   * place later, and files which cannot be linked are copied with
+   * {@link FileChannel#transferTo}.
+   *
+   * @param source directory to copy
+   * @param target directory to create, must not exist
+   * @param immutable accepts files, relative to source, which can be linked
+   * @param throttler limits the bandwidth of copied bytes, linked files are
+   * not charged; may be null
+   * @return the number of bytes copied rather than linked
+   */
+  public static long linkOrCopyDirectory(Path source, Path target,
+      Predicate<Path> immutable, DataTransferThrottler throttler)
+      throws IOException {
+    long[] copiedBytes = {0};
+    Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+      @Override
+      public FileVisitResult preVisitDirectory(Path dir,
+          BasicFileAttributes attrs) throws IOException {
+        Files.createDirectories(target.resolve(source.relativize(dir)));
+        return FileVisitResult.CONTINUE;
+      }
+
+      @Override
+      public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+          throws IOException {
+        Path relative = source.relativize(file);
+        Path dest = target.resolve(relative);
+        if (immutable.test(relative)) {
+          try {
+            Files.createLink(dest, file);
+            return FileVisitResult.CONTINUE;
+          } catch (IOException | UnsupportedOperationException e) {
+            LOG.debug("Failed to link {} to {}, copying it", file, dest, e);
+          }
+        }
+        copiedBytes[0] += transferFile(file, dest, throttler);
+        return FileVisitResult.CONTINUE;
+      }
+    });
+    return copiedBytes[0];
+  }
+
+  private static long transferFile(Path source, Path target,
+      DataTransferThrottler throttler) throws IOException {
+    try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+         FileChannel out = FileChannel.open(target,
+             StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      long size = in.size();
+      long position = 0;
+      while (position < size) {
+        long transferred = in.transferTo(position,
+            Math.min(size - position, TRANSFER_CHUNK_SIZE), out);
+        position += transferred;
+        if (throttler != null) {
+          throttler.throttle(transferred);
+        }
+      }
+      out.force(true);
+      return size;
+    }
+  }
+
   public static Path getTmpDirectoryPath(
       KeyValueContainerData keyValueContainerData,
       HddsVolume hddsVolume) {
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.keyvalue.helpers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import org.apache.hadoop.io.nativeio.NativeIO;
+import org.apache.hadoop.ozone.container.common.helpers.BufferReleaser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils.READ_OPTIONS;
+import static org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils.NO_ATTRIBUTES;
+
+/**
+ * Bounded cache of read-only memory mappings of block files.
+ * <p>
+ * Only files that are no longer written to (blocks of closed containers)
+ * should be read through this cache. Each entry remembers the identity and
+ * size of the file it was mapped from, so a file which is replaced (e.g.
+ * when a container is deleted and imported again) is mapped again instead
+ * of serving stale data.
+ * <p>
+ * Mappings are reference counted: the cache holds one reference, and each
+ * read holds one until its {@link BufferReleaser} runs. A mapping is
+ * unmapped as soon as it is evicted and no read uses it anymore, so the
+ * mapped memory is bounded by the capacity plus the files of in-flight
+ * reads. Files larger than the capacity are mapped for a single read only.
+ */
+public class MappedBufferCache {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(MappedBufferCache.class);
+
+  private static final RemovalListener<String, MappedFile> ON_REMOVE =
+      event -> event.getValue().release();
+
+  private final long capacityBytes;
+  private final Cache<String, MappedFile> files;
+
+  public MappedBufferCache(long capacityBytes) {
+    this.capacityBytes = capacityBytes;
+    // A single segment, otherwise each segment only gets a fraction of the
+    // capacity and files larger than that are evicted as soon as cached.
+    files = CacheBuilder.newBuilder()
+        .concurrencyLevel(1)
+        .maximumWeight(capacityBytes)
+        .weigher((String path, MappedFile mapped) -> mapped.size())
+        .removalListener(ON_REMOVE)
+        .build();
+  }
+
+  /**
+   * Returns a read-only buffer covering the whole content of the file,
+   * mapping it if needed. The returned buffer is independent of other
+   * callers, its position and limit can be changed freely. It must not be
+   * used after {@code releaser} runs, which may unmap it.
+   * @return the buffer, or null if the file is too large to be mapped
+   */
+  public ByteBuffer get(File file, BufferReleaser releaser)
+      throws IOException {
+    final Path path = file.toPath();
+    final BasicFileAttributes attributes =
+        Files.readAttributes(path, BasicFileAttributes.class);
+    if (attributes.size() > Integer.MAX_VALUE) {
+      return null;
+    }
+
+    final String key = getKey(file);
+    MappedFile mapped = files.getIfPresent(key);
+    if (mapped == null || !mapped.matches(attributes) || !mapped.retain()) {
+      mapped = MappedFile.map(path, attributes);
+      // one reference for the cache, one for the caller
+      mapped.retain();
+      if (attributes.size() <= capacityBytes) {
+        files.put(key, mapped);
+      } else {
+        files.invalidate(key);
+        mapped.release();
+      }
+    }
+    releaser.add(mapped::release);
+    return mapped.getBuffer();
+  }
+
+  /**
+   * Drops the mapping of the file, if any.
+   */
+  public void invalidate(File file) {
+    files.invalidate(getKey(file));
+  }
+
+  /**
+   * Drops the mappings of all files under the directory, e.g. when the
+   * container in that directory is deleted or moved.
+   */
+  public void invalidateAll(File dir) {
+    final String prefix = getKey(dir) + File.separator;
+    files.invalidateAll(files.asMap().keySet().stream()
+        .filter(key -> key.startsWith(prefix))
+        .collect(Collectors.toList()));
+  }
+
+  private static String getKey(File file) {
+    return file.getAbsolutePath();
+  }
+
+  @VisibleForTesting
+  public long size() {
+    return files.size();
+  }
+
+  /**
+   * Mapping of a file along with the attributes it was mapped with.
+   */
+  private static final class MappedFile {
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final Object fileKey;
+    private final long lastModified;
+    private int references = 1;
+
+    private MappedFile(Path path, MappedByteBuffer buffer,
+        BasicFileAttributes attrs) {
+      this.path = path;
+      this.buffer = buffer;
+      this.fileKey = attrs.fileKey();
+      this.lastModified = attrs.lastModifiedTime().toMillis();
+    }
+
+    static MappedFile map(Path path, BasicFileAttributes attributes)
+        throws IOException {
+      try (FileChannel channel =
+               FileChannel.open(path, READ_OPTIONS, NO_ATTRIBUTES)) {
+        MappedByteBuffer buffer = channel.map(
+            FileChannel.MapMode.READ_ONLY, 0, attributes.size());
+        LOG.debug("Mapped {} bytes of {}", attributes.size(), path);
+        return new MappedFile(path, buffer, attributes);
+      }
+    }
+
+    /**
+     * @return false if the file is already unmapped
+     */
+    synchronized boolean retain() {
+      if (references == 0) {
+        return false;
+      }
+      references++;
+      return true;
+    }
+
+    synchronized void release() {
+      if (references > 0 && --references == 0) {
+        LOG.debug("Unmapping {}", path);
+        NativeIO.POSIX.munmap(buffer);
+      }
+    }
+
+    boolean matches(BasicFileAttributes attrs) {
+      return buffer.capacity() == attrs.size()
+          && lastModified == attrs.lastModifiedTime().toMillis()
+          && Objects.equals(fileKey, attrs.fileKey());
+    }
+
+    int size() {
+      return buffer.capacity();
+    }
+
+    ByteBuffer getBuffer() {
+      return buffer.asReadOnlyBuffer();
+    }
+  }
+}
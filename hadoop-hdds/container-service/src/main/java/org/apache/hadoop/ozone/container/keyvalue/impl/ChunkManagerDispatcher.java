@@ -30,6 +30,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.MappedBufferCache;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
@@ -60,10 +61,15 @@ public class ChunkManagerDispatcher implements ChunkManager {
 
   ChunkManagerDispatcher(boolean sync, BlockManager manager,
                          VolumeSet volSet) {
+    this(sync, manager, volSet, null);
+  }
+
+  ChunkManagerDispatcher(boolean sync, BlockManager manager,
+      VolumeSet volSet, MappedBufferCache mappedBuffers) {
     handlers.put(FILE_PER_CHUNK,
         new FilePerChunkStrategy(sync, manager, volSet));
     handlers.put(FILE_PER_BLOCK,
-        new FilePerBlockStrategy(sync, manager, volSet));
+        new FilePerBlockStrategy(sync, manager, volSet, mappedBuffers));
   }
 
   @Override
@@ -138,6 +144,11 @@ public void deleteChunks(Container container, BlockData blockData)
     selectHandler(container).deleteChunks(container, blockData);
   }
 
+  @Override
+  public void releaseContainer(Container container) {
+    handlers.values().forEach(h -> h.releaseContainer(container));
+  }
+
   @Override
   public void shutdown() {
     handlers.values().forEach(ChunkManager::shutdown);
@@ -19,8 +19,10 @@
 package org.apache.hadoop.ozone.container.keyvalue.impl;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.hdds.conf.StorageUnit;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.MappedBufferCache;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration;
@@ -29,6 +31,8 @@
 
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_PERSISTDATA;
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_PERSISTDATA_DEFAULT;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_CACHE_SIZE_DEFAULT;
+import static org.apache.hadoop.hdds.scm.ScmConfigKeys.OZONE_CHUNK_READ_MAPPED_BUFFER_CACHE_SIZE_KEY;
 import static org.apache.hadoop.ozone.container.ozoneimpl.ContainerScannerConfiguration.HDDS_CONTAINER_SCRUB_ENABLED;
 
 /**
@@ -76,6 +80,12 @@ public static ChunkManager createChunkManager(ConfigurationSource conf,
       return new ChunkManagerDummyImpl();
     }
 
-    return new ChunkManagerDispatcher(sync, manager, volSet);
+    final long mappedBufferCacheSize = (long) conf.getStorageSize(
+        OZONE_CHUNK_READ_MAPPED_BUFFER_CACHE_SIZE_KEY,
+        OZONE_CHUNK_READ_MAPPED_BUFFER_CACHE_SIZE_DEFAULT, StorageUnit.BYTES);
+    final MappedBufferCache mappedBuffers = mappedBufferCacheSize > 0
+        ? new MappedBufferCache(mappedBufferCacheSize) : null;
+
+    return new ChunkManagerDispatcher(sync, manager, volSet, mappedBuffers);
   }
 }
@@ -27,8 +27,10 @@
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.io.ByteBufferPool;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
+import org.apache.hadoop.ozone.container.common.helpers.BufferReleaser;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
 import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
 import org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext;
@@ -36,7 +38,9 @@
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.BoundedByteBufferPool;
 import org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.MappedBufferCache;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.BlockManager;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
@@ -55,12 +59,14 @@
 import java.time.Duration;
 import java.util.concurrent.ExecutionException;
 
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.CLOSED;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.UNSUPPORTED_REQUEST;
 import static org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion.FILE_PER_BLOCK;
 import static org.apache.hadoop.ozone.container.common.transport.server.ratis.DispatcherContext.WriteChunkStage.COMMIT_DATA;
 import static org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil.onFailure;
 import static org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils.limitReadSize;
 import static org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils.readData;
+import static org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils.readMappedData;
 import static org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils.validateChunkForOverwrite;
 import static org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils.verifyChunkFileExists;
 
@@ -72,17 +78,34 @@ public class FilePerBlockStrategy implements ChunkManager {
   private static final Logger LOG =
       LoggerFactory.getLogger(FilePerBlockStrategy.class);
 
+  private static final long MAX_POOLED_READ_BUFFER_BYTES = 64L << 20;
+
   private final boolean doSyncWrite;
   private final OpenFiles files = new OpenFiles();
   private final int defaultReadBufferCapacity;
   private final VolumeSet volumeSet;
+  private final MappedBufferCache mappedBuffers;
+  // buffers lent to responses which are recycled after being sent
+  private final ByteBufferPool readBuffers =
+      new BoundedByteBufferPool(MAX_POOLED_READ_BUFFER_BYTES);
 
   public FilePerBlockStrategy(boolean sync, BlockManager manager,
                               VolumeSet volSet) {
+    this(sync, manager, volSet, null);
+  }
+
+  /**
+   * @param mappedBuffers cache of memory-mapped block files used to serve
+   *                      reads from closed containers, null to disable
+   *                      memory-mapped reads
+   */
+  public FilePerBlockStrategy(boolean sync, BlockManager manager,
+      VolumeSet volSet, MappedBufferCache mappedBuffers) {
     doSyncWrite = sync;
     this.defaultReadBufferCapacity = manager == null ? 0 :
         manager.getDefaultReadBufferCapacity();
     this.volumeSet = volSet;
+    this.mappedBuffers = mappedBuffers;
   }
 
   private static void checkLayoutVersion(Container container) {
@@ -192,6 +215,24 @@ public ChunkBuffer readChunk(Container container, BlockID blockID,
     long offset = info.getOffset();
     int bufferCapacity =  ChunkManager.getBufferCapacityForChunkRead(info,
         defaultReadBufferCapacity);
+
+    final BufferReleaser releaser = dispatcherContext == null ? null
+        : dispatcherContext.getBufferReleaser();
+
+    // Block files of closed containers never change, serve them from
+    // memory-mapped regions to avoid copying the data on each read.
+    if (mappedBuffers != null && containerData.getState() == CLOSED) {
+      ChunkBuffer data = readMappedData(chunkFile, offset, len,
+          bufferCapacity, volume, mappedBuffers, releaser);
+      if (data != null) {
+        return data;
+      }
+    }
+
+    if (releaser != null) {
+      return readData(len, bufferCapacity, readBuffers, releaser,
+          array -> readData(chunkFile, array, offset, len, volume));
+    }
     return readData(len, bufferCapacity,
         array -> readData(chunkFile, array, offset, len, volume));
   }
@@ -208,6 +249,14 @@ public void deleteChunks(Container container, BlockData blockData)
     deleteChunk(container, blockData.getBlockID(), null, false);
   }
 
+  @Override
+  public void releaseContainer(Container container) {
+    if (mappedBuffers != null) {
+      mappedBuffers.invalidateAll(new File(
+          container.getContainerData().getContainerPath()));
+    }
+  }
+
   @Override
   public void finishWriteChunks(KeyValueContainer container,
       BlockData blockData) throws IOException {
@@ -244,6 +293,9 @@ private void deleteChunk(Container container, BlockID blockID,
       checkFullDelete(info, file);
     }
 
+    if (mappedBuffers != null) {
+      mappedBuffers.invalidate(file);
+    }
     FileUtil.fullyDelete(file);
     LOG.info("Deleted block file: {}", file);
   }
@@ -101,6 +101,14 @@ default void shutdown() {
     // if applicable
   }
 
+  /**
+   * Releases the resources held to read the files of the container, after
+   * the container is deleted or moved to another volume.
+   */
+  default void releaseContainer(Container container) {
+    // if applicable
+  }
+
   default void finishWriteChunks(KeyValueContainer kvContainer,
       BlockData blockData) throws IOException {
     // no-op
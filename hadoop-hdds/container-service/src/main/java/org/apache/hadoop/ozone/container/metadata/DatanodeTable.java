@@ -154,6 +154,12 @@ public void loadFromFile(File externalFile) throws IOException {
     table.loadFromFile(externalFile);
   }
 
+  @Override
+  public BulkLoader<KEY, VALUE> newBulkLoader(File tmpDir)
+      throws IOException {
+    return table.newBulkLoader(tmpDir);
+  }
+
   @Override
   public void close() throws Exception {
     table.close();
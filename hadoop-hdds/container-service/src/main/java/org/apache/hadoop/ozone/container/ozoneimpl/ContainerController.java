@@ -24,6 +24,7 @@
 import org.apache.hadoop.hdds.protocol.proto
     .StorageContainerDatanodeProtocolProtos.ContainerReportsProto;
 import org.apache.hadoop.hdds.scm.container.ContainerNotFoundException;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
@@ -174,6 +175,26 @@ public void exportContainer(final ContainerType type,
         containerSet.getContainer(containerId), outputStream, packer);
   }
 
+  /**
+   * Moves a closed container to another volume of this datanode.
+   * @param containerId Id of the container to move
+   * @param destVolume volume to move the container to
+   * @param throttler limits the bandwidth of data copied rather than linked,
+   * may be null
+   * @return the moved container
+   */
+  public Container moveContainer(final long containerId,
+      final HddsVolume destVolume, final DataTransferThrottler throttler)
+      throws IOException {
+    final Container container = containerSet.getContainer(containerId);
+    if (container == null) {
+      throw new ContainerNotFoundException(
+          "ContainerID " + containerId + " does not exist");
+    }
+    return getHandler(container).moveContainer(container, destVolume,
+        throttler);
+  }
+
   /**
    * Deletes a container given its Id.
    * @param containerId Id of the container to be deleted
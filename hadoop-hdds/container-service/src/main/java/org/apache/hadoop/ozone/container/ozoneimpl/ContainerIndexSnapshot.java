@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State;
+import org.apache.hadoop.ozone.container.common.helpers.ContainerUtils;
+import org.apache.hadoop.ozone.container.common.impl.ContainerData;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persisted index of the closed containers on a volume, used to build the
+ * container set on datanode startup without reading the .container file and
+ * the DB of each container.
+ * <p>
+ * The snapshot is stored at
+ * {@literal ../hdds/<<clusterUuid>>/container-index.snapshot}. For each
+ * container it has the content of the .container file together with the
+ * length and modification time of the file when the snapshot was taken, and
+ * the block metadata which is otherwise read from the container DB. An entry
+ * is only used if the .container file still has the same length and
+ * modification time. The whole snapshot is covered by a CRC32 checksum, and a
+ * snapshot which fails verification is ignored.
+ * <p>
+ * Block deletion changes the block metadata of closed containers without
+ * touching the .container file, so the snapshot is only valid if nothing
+ * changed the containers after it was written. It is therefore only written
+ * on clean shutdown, and deleted when it is loaded on the next startup.
+ * The presence of the snapshot thus marks a clean shutdown, and after a
+ * crash all containers are loaded from disk.
+ */
+public final class ContainerIndexSnapshot {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ContainerIndexSnapshot.class);
+
+  public static final String SNAPSHOT_FILE_NAME = "container-index.snapshot";
+
+  private static final int MAGIC = 0x4f434953;
+  private static final int VERSION = 1;
+  private static final int CHECKSUM_LENGTH = Long.BYTES;
+
+  /**
+   * Only containers whose block metadata does not change through writes are
+   * part of the snapshot.
+   */
+  private static final Set<State> SNAPSHOT_STATES =
+      EnumSet.of(State.CLOSED, State.QUASI_CLOSED, State.UNHEALTHY);
+
+  private ContainerIndexSnapshot() {
+  }
+
+  /**
+   * Returns the snapshot file in the given cluster ID (or SCM ID) directory
+   * of a volume.
+   */
+  public static File getSnapshotFile(File idDir) {
+    return new File(idDir, SNAPSHOT_FILE_NAME);
+  }
+
+  /**
+   * Returns the snapshot file of a volume, or null if the working directory
+   * of the volume is not yet known.
+   */
+  public static File getSnapshotFile(HddsVolume volume) {
+    if (volume.getWorkingDirName() == null) {
+      return null;
+    }
+    return getSnapshotFile(
+        new File(volume.getStorageDir(), volume.getWorkingDirName()));
+  }
+
+  static boolean isSnapshotCandidate(ContainerData containerData) {
+    return containerData instanceof KeyValueContainerData &&
+        SNAPSHOT_STATES.contains(containerData.getState());
+  }
+
+  /**
+   * Write the snapshot of the given containers of a volume. The snapshot is
+   * written to a temporary file first, and then atomically renamed.
+   * @return the number of containers in the snapshot.
+   * @throws IOException
+   */
+  public static int write(HddsVolume volume,
+      Iterator<Container<?>> containers) throws IOException {
+    File snapshotFile = getSnapshotFile(volume);
+    if (snapshotFile == null) {
+      return 0;
+    }
+
+    List<Entry> entries = new ArrayList<>();
+    while (containers.hasNext()) {
+      ContainerData containerData = containers.next().getContainerData();
+      if (!isSnapshotCandidate(containerData)) {
+        continue;
+      }
+      Entry entry = Entry.fromContainerData(
+          (KeyValueContainerData) containerData);
+      if (entry != null) {
+        entries.add(entry);
+      }
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(entries.size());
+      for (Entry entry : entries) {
+        entry.write(out);
+      }
+    }
+    CRC32 crc = new CRC32();
+    crc.update(bytes.toByteArray(), 0, bytes.size());
+
+    File tmpFile = new File(snapshotFile.getParentFile(),
+        SNAPSHOT_FILE_NAME + ".tmp");
+    try (FileOutputStream out = new FileOutputStream(tmpFile)) {
+      bytes.writeTo(out);
+      out.write(ByteBuffer.allocate(CHECKSUM_LENGTH)
+          .putLong(crc.getValue()).array());
+      out.getFD().sync();
+    }
+    Files.move(tmpFile.toPath(), snapshotFile.toPath(),
+        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    return entries.size();
+  }
+
+  /**
+   * Read the snapshot file and delete it, so that it is not used again if
+   * the datanode does not shut down cleanly.
+   * @return the snapshot entries by container ID, empty if the snapshot
+   * does not exist, fails verification or cannot be deleted.
+   */
+  public static Map<Long, Entry> load(File snapshotFile) {
+    Map<Long, Entry> entries = read(snapshotFile);
+    try {
+      Files.deleteIfExists(snapshotFile.toPath());
+    } catch (IOException e) {
+      LOG.warn("Ignoring container index snapshot {}, failed to delete it",
+          snapshotFile, e);
+      return Collections.emptyMap();
+    }
+    return entries;
+  }
+
+  /**
+   * Read the snapshot file in one sequential read.
+   * @return the snapshot entries by container ID, empty if the snapshot
+   * does not exist or fails verification.
+   */
+  public static Map<Long, Entry> read(File snapshotFile) {
+    if (!snapshotFile.exists()) {
+      return Collections.emptyMap();
+    }
+    try {
+      byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+      int length = bytes.length - CHECKSUM_LENGTH;
+      if (length < 0) {
+        throw new IOException("Snapshot file is truncated");
+      }
+      CRC32 crc = new CRC32();
+      crc.update(bytes, 0, length);
+      if (crc.getValue() != ByteBuffer.wrap(bytes, length, CHECKSUM_LENGTH)
+          .getLong()) {
+        throw new IOException("Snapshot checksum mismatch");
+      }
+
+      DataInputStream in = new DataInputStream(
+          new ByteArrayInputStream(bytes, 0, length));
+      if (in.readInt() != MAGIC) {
+        throw new IOException("Not a container index snapshot");
+      }
+      int version = in.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported snapshot version " + version);
+      }
+      int count = in.readInt();
+      Map<Long, Entry> entries = new HashMap<>(count * 2);
+      for (int i = 0; i < count; i++) {
+        Entry entry = Entry.read(in);
+        entries.put(entry.getContainerID(), entry);
+      }
+      return entries;
+    } catch (IOException e) {
+      LOG.warn("Ignoring container index snapshot {}", snapshotFile, e);
+      return Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Snapshot of a single container.
+   */
+  public static final class Entry {
+    private final long containerID;
+    private final long fileLength;
+    private final long fileModificationTime;
+    private final byte[] containerFileContent;
+    private final long bytesUsed;
+    private final long blockCount;
+    private final long pendingDeletionBlocks;
+    private final long deleteTransactionId;
+    private final long blockCommitSequenceId;
+    private final boolean empty;
+
+    @SuppressWarnings("parameternumber")
+    private Entry(long containerID, long fileLength,
+        long fileModificationTime, byte[] containerFileContent,
+        long bytesUsed, long blockCount, long pendingDeletionBlocks,
+        long deleteTransactionId, long blockCommitSequenceId,
+        boolean empty) {
+      this.containerID = containerID;
+      this.fileLength = fileLength;
+      this.fileModificationTime = fileModificationTime;
+      this.containerFileContent = containerFileContent;
+      this.bytesUsed = bytesUsed;
+      this.blockCount = blockCount;
+      this.pendingDeletionBlocks = pendingDeletionBlocks;
+      this.deleteTransactionId = deleteTransactionId;
+      this.blockCommitSequenceId = blockCommitSequenceId;
+      this.empty = empty;
+    }
+
+    /**
+     * @return the entry, or null if the .container file changed while
+     * reading it.
+     */
+    static Entry fromContainerData(KeyValueContainerData containerData)
+        throws IOException {
+      File containerFile = ContainerUtils.getContainerFile(
+          new File(containerData.getContainerPath()));
+      long length = containerFile.length();
+      long modificationTime = containerFile.lastModified();
+      byte[] content = Files.readAllBytes(containerFile.toPath());
+      if (content.length != length ||
+          containerFile.lastModified() != modificationTime) {
+        return null;
+      }
+      return new Entry(containerData.getContainerID(), length,
+          modificationTime, content, containerData.getBytesUsed(),
+          containerData.getBlockCount(),
+          containerData.getNumPendingDeletionBlocks(),
+          containerData.getDeleteTransactionId(),
+          containerData.getBlockCommitSequenceId(),
+          containerData.isEmpty());
+    }
+
+    private static Entry read(DataInputStream in) throws IOException {
+      long containerID = in.readLong();
+      long fileLength = in.readLong();
+      long fileModificationTime = in.readLong();
+      byte[] content = new byte[in.readInt()];
+      in.readFully(content);
+      return new Entry(containerID, fileLength, fileModificationTime, content,
+          in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+          in.readLong(), in.readBoolean());
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+      out.writeLong(containerID);
+      out.writeLong(fileLength);
+      out.writeLong(fileModificationTime);
+      out.writeInt(containerFileContent.length);
+      out.write(containerFileContent);
+      out.writeLong(bytesUsed);
+      out.writeLong(blockCount);
+      out.writeLong(pendingDeletionBlocks);
+      out.writeLong(deleteTransactionId);
+      out.writeLong(blockCommitSequenceId);
+      out.writeBoolean(empty);
+    }
+
+    public long getContainerID() {
+      return containerID;
+    }
+
+    public byte[] getContainerFileContent() {
+      return containerFileContent;
+    }
+
+    /**
+     * Whether the .container file is unchanged since the snapshot was taken.
+     */
+    public boolean matches(File containerFile) {
+      return containerFile.length() == fileLength &&
+          containerFile.lastModified() == fileModificationTime;
+    }
+
+    /**
+     * Set the block related metadata of the container from the snapshot.
+     */
+    public void applyTo(KeyValueContainerData containerData) {
+      containerData.setBytesUsed(bytesUsed);
+      containerData.setBlockCount(blockCount);
+      containerData.incrPendingDeletionBlocks(pendingDeletionBlocks);
+      containerData.updateDeleteTransactionId(deleteTransactionId);
+      containerData.updateBlockCommitSequenceId(blockCommitSequenceId);
+      if (empty) {
+        containerData.markAsEmpty();
+      }
+    }
+  }
+}
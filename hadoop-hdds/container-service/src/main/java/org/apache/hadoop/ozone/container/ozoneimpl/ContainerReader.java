@@ -20,6 +20,13 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
@@ -30,6 +37,8 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.impl.ContainerDataYaml;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
@@ -72,16 +81,43 @@ public class ContainerReader implements Runnable {
 
   private static final Logger LOG = LoggerFactory.getLogger(
       ContainerReader.class);
+  /**
+   * Number of containers below which a load task is not split any further.
+   */
+  private static final int LOAD_BATCH_SIZE = 16;
+
   private HddsVolume hddsVolume;
   private final ContainerSet containerSet;
   private final ConfigurationSource config;
   private final File hddsVolumeDir;
   private final MutableVolumeSet volumeSet;
   private final boolean shouldDeleteRecovering;
+  private final boolean useIndexSnapshot;
+  private Map<Long, ContainerIndexSnapshot.Entry> snapshotEntries =
+      Collections.emptyMap();
+  private final List<Long> restoredContainers =
+      Collections.synchronizedList(new ArrayList<>());
+  private final int threadsPerVolume;
+  private final ContainerReaderMetrics metrics;
 
   public ContainerReader(
       MutableVolumeSet volSet, HddsVolume volume, ContainerSet cset,
       ConfigurationSource conf, boolean shouldDeleteRecovering) {
+    this(volSet, volume, cset, conf, shouldDeleteRecovering, false);
+  }
+
+  public ContainerReader(
+      MutableVolumeSet volSet, HddsVolume volume, ContainerSet cset,
+      ConfigurationSource conf, boolean shouldDeleteRecovering,
+      boolean useIndexSnapshot) {
+    this(volSet, volume, cset, conf, shouldDeleteRecovering, useIndexSnapshot,
+        null);
+  }
+
+  public ContainerReader(
+      MutableVolumeSet volSet, HddsVolume volume, ContainerSet cset,
+      ConfigurationSource conf, boolean shouldDeleteRecovering,
+      boolean useIndexSnapshot, ContainerReaderMetrics metrics) {
     Preconditions.checkNotNull(volume);
     this.hddsVolume = volume;
     this.hddsVolumeDir = hddsVolume.getHddsRootDir();
@@ -89,6 +125,10 @@ public ContainerReader(
     this.config = conf;
     this.volumeSet = volSet;
     this.shouldDeleteRecovering = shouldDeleteRecovering;
+    this.useIndexSnapshot = useIndexSnapshot;
+    this.threadsPerVolume = conf.getObject(DatanodeConfiguration.class)
+        .getContainerReaderThreadsPerVolume();
+    this.metrics = metrics;
   }
 
   @Override
@@ -145,36 +185,246 @@ public void readVolume(File hddsVolumeRootDir) {
       }
 
       LOG.info("Start to verify containers on volume {}", hddsVolumeRootDir);
+      if (useIndexSnapshot) {
+        snapshotEntries = ContainerIndexSnapshot.load(
+            ContainerIndexSnapshot.getSnapshotFile(idDir));
+      }
       File currentDir = new File(idDir, Storage.STORAGE_DIR_CURRENT);
       File[] containerTopDirs = currentDir.listFiles();
+      List<File> containerDirs = new ArrayList<>();
       if (containerTopDirs != null) {
         for (File containerTopDir : containerTopDirs) {
           if (containerTopDir.isDirectory()) {
-            File[] containerDirs = containerTopDir.listFiles();
-            if (containerDirs != null) {
-              for (File containerDir : containerDirs) {
-                try {
-                  File containerFile = ContainerUtils.getContainerFile(
-                      containerDir);
-                  long containerID =
-                      ContainerUtils.getContainerID(containerDir);
-                  if (containerFile.exists()) {
-                    verifyContainerFile(containerID, containerFile);
-                  } else {
-                    LOG.error("Missing .container file for ContainerID: {}",
-                        containerDir.getName());
-                  }
-                } catch (Throwable e) {
-                  LOG.error("Failed to load container from {}",
-                      containerDir.getAbsolutePath(), e);
-                }
-              }
+            File[] dirs = containerTopDir.listFiles();
+            if (dirs != null) {
+              Collections.addAll(containerDirs, dirs);
             }
           }
         }
       }
+      if (metrics != null) {
+        metrics.incrNumContainersToLoad(containerDirs.size());
+      }
+      loadContainers(containerDirs);
+    }
+    // The snapshot is not needed once the containers are loaded.
+    snapshotEntries = Collections.emptyMap();
+    LOG.info("Finish verifying containers on volume {}, {} containers " +
+        "loaded from index snapshot", hddsVolumeRootDir,
+        restoredContainers.size());
+  }
+
+  /**
+   * Load the given containers of this volume. If more than one thread per
+   * volume is configured, the containers are loaded by a work-stealing pool
+   * of that many threads, which bounds the I/O concurrency on the volume.
+   */
+  private void loadContainers(List<File> containerDirs) {
+    if (threadsPerVolume <= 1 || containerDirs.size() <= LOAD_BATCH_SIZE) {
+      containerDirs.forEach(this::loadContainer);
+      return;
+    }
+    String threadName = Thread.currentThread().getName();
+    ForkJoinPool pool = new ForkJoinPool(threadsPerVolume, p -> {
+      ForkJoinWorkerThread thread =
+          ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      thread.setName(threadName + "-" + thread.getPoolIndex());
+      thread.setDaemon(true);
+      return thread;
+    }, null, false);
+    try {
+      pool.invoke(new LoadContainersTask(containerDirs, 0,
+          containerDirs.size()));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Loads a range of containers, splitting it so that idle threads can
+   * steal the other half.
+   */
+  private final class LoadContainersTask extends RecursiveAction {
+    private final List<File> containerDirs;
+    private final int start;
+    private final int end;
+
+    private LoadContainersTask(List<File> containerDirs, int start, int end) {
+      this.containerDirs = containerDirs;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= LOAD_BATCH_SIZE) {
+        for (int i = start; i < end; i++) {
+          loadContainer(containerDirs.get(i));
+        }
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new LoadContainersTask(containerDirs, start, mid),
+          new LoadContainersTask(containerDirs, mid, end));
+    }
+  }
+
+  private void loadContainer(File containerDir) {
+    try {
+      File containerFile = ContainerUtils.getContainerFile(containerDir);
+      long containerID = ContainerUtils.getContainerID(containerDir);
+      ContainerIndexSnapshot.Entry entry = snapshotEntries.get(containerID);
+      if (!containerFile.exists()) {
+        LOG.error("Missing .container file for ContainerID: {}",
+            containerDir.getName());
+      } else if (entry != null && entry.matches(containerFile)) {
+        restoreContainer(containerID, containerFile, entry);
+      } else {
+        verifyContainerFile(containerID, containerFile);
+      }
+      if (metrics != null) {
+        Container<?> container = containerSet.getContainer(containerID);
+        if (container != null) {
+          metrics.incrBytesVerified(
+              container.getContainerData().getBytesUsed());
+        }
+      }
+    } catch (Throwable e) {
+      LOG.error("Failed to load container from {}",
+          containerDir.getAbsolutePath(), e);
+    } finally {
+      if (metrics != null) {
+        metrics.incrNumContainersLoaded();
+      }
+    }
+  }
+
+  /**
+   * Load a container from its entry in the container index snapshot,
+   * without opening the container DB. Falls back to reading the container
+   * from disk if the entry cannot be used.
+   */
+  private void restoreContainer(long containerID, File containerFile,
+      ContainerIndexSnapshot.Entry entry) {
+    try {
+      ContainerData containerData = ContainerDataYaml.readContainer(
+          entry.getContainerFileContent());
+      if (containerID == containerData.getContainerID() &&
+          ContainerIndexSnapshot.isSnapshotCandidate(containerData)) {
+        KeyValueContainerData kvContainerData =
+            (KeyValueContainerData) containerData;
+        kvContainerData.setVolume(hddsVolume);
+        if (KeyValueContainerUtil.verifyKVContainerFile(kvContainerData,
+            config)) {
+          entry.applyTo(kvContainerData);
+          containerSet.addContainer(
+              new KeyValueContainer(kvContainerData, config));
+          restoredContainers.add(containerID);
+          return;
+        }
+      }
+    } catch (IOException ex) {
+      LOG.warn("Failed to load ContainerID {} from index snapshot.",
+          containerID, ex);
+    }
+    verifyContainerFile(containerID, containerFile);
+  }
+
+  /**
+   * Containers loaded from the container index snapshot by
+   * {@link #readVolume(File)}, which are verified by
+   * {@link #verifyRestoredContainers()}.
+   */
+  public List<Long> getRestoredContainers() {
+    return Collections.unmodifiableList(restoredContainers);
+  }
+
+  /**
+   * Verify the containers loaded from the container index snapshot against
+   * their .container file and DB, while they are already being served.
+   * Stale block metadata is fixed up under the container lock. Containers
+   * which fail verification are removed, as a full startup scan would not
+   * have loaded them either. Stops when the thread is interrupted.
+   */
+  public void verifyRestoredContainers() {
+    int fixed = 0;
+    for (long containerID : restoredContainers) {
+      if (Thread.currentThread().isInterrupted()) {
+        LOG.info("Interrupted verifying containers on volume {}",
+            hddsVolumeDir);
+        return;
+      }
+      Container<?> container = containerSet.getContainer(containerID);
+      if (!(container instanceof KeyValueContainer)) {
+        continue;
+      }
+      KeyValueContainer kvContainer = (KeyValueContainer) container;
+      kvContainer.writeLock();
+      try {
+        if (containerSet.getContainer(containerID) != container) {
+          continue;
+        }
+        if (fixupRestoredContainer(kvContainer.getContainerData())) {
+          fixed++;
+        }
+      } catch (IOException ex) {
+        LOG.error("Failed to verify ContainerID {} loaded from index " +
+            "snapshot. Removing it from the container set.", containerID, ex);
+        containerSet.removeContainer(containerID);
+      } finally {
+        kvContainer.writeUnlock();
+      }
+    }
+    LOG.info("Finish verifying {} containers loaded from index snapshot on " +
+        "volume {}, fixed {}", restoredContainers.size(), hddsVolumeDir,
+        fixed);
+  }
+
+  /**
+   * Re-read the block metadata of a container from its DB.
+   * @return true if the in memory metadata was stale and has been fixed.
+   */
+  private boolean fixupRestoredContainer(KeyValueContainerData data)
+      throws IOException {
+    File containerFile = ContainerUtils.getContainerFile(
+        new File(data.getContainerPath()));
+    ContainerData containerData =
+        ContainerDataYaml.readContainerFile(containerFile);
+    if (data.getContainerID() != containerData.getContainerID() ||
+        !(containerData instanceof KeyValueContainerData)) {
+      throw new StorageContainerException("Invalid container file " +
+          containerFile, ContainerProtos.Result.CONTAINER_METADATA_ERROR);
+    }
+    KeyValueContainerData onDisk = (KeyValueContainerData) containerData;
+    onDisk.setVolume(hddsVolume);
+    if (!KeyValueContainerUtil.verifyKVContainerFile(onDisk, config)) {
+      throw new StorageContainerException("Missing container DB for " +
+          "ContainerID " + data.getContainerID(),
+          ContainerProtos.Result.CONTAINER_METADATA_ERROR);
+    }
+    KeyValueContainerUtil.populateContainerMetadata(onDisk, config);
+
+    if (data.getBytesUsed() == onDisk.getBytesUsed() &&
+        data.getBlockCount() == onDisk.getBlockCount() &&
+        data.getNumPendingDeletionBlocks() ==
+            onDisk.getNumPendingDeletionBlocks() &&
+        data.getDeleteTransactionId() >= onDisk.getDeleteTransactionId() &&
+        data.getBlockCommitSequenceId() == onDisk.getBlockCommitSequenceId() &&
+        (data.isEmpty() || !onDisk.isEmpty())) {
+      return false;
+    }
+    LOG.info("Fixing up stale metadata of ContainerID {} loaded from index " +
+        "snapshot.", data.getContainerID());
+    data.setBytesUsed(onDisk.getBytesUsed());
+    data.setBlockCount(onDisk.getBlockCount());
+    data.incrPendingDeletionBlocks(onDisk.getNumPendingDeletionBlocks() -
+        data.getNumPendingDeletionBlocks());
+    data.updateDeleteTransactionId(onDisk.getDeleteTransactionId());
+    data.updateBlockCommitSequenceId(onDisk.getBlockCommitSequenceId());
+    if (onDisk.isEmpty()) {
+      data.markAsEmpty();
     }
-    LOG.info("Finish verifying containers on volume {}", hddsVolumeRootDir);
+    return true;
   }
 
   private void verifyContainerFile(long containerID,
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.ozoneimpl;
+
+import org.apache.hadoop.hdds.annotation.InterfaceAudience;
+import org.apache.hadoop.metrics2.MetricsSystem;
+import org.apache.hadoop.metrics2.annotation.Metric;
+import org.apache.hadoop.metrics2.annotation.Metrics;
+import org.apache.hadoop.metrics2.lib.DefaultMetricsSystem;
+import org.apache.hadoop.metrics2.lib.MutableCounterLong;
+import org.apache.hadoop.util.Time;
+
+/**
+ * This class captures the progress of loading the containers from all
+ * volumes on datanode startup.
+ */
+@InterfaceAudience.Private
+@Metrics(about = "Datanode container reader metrics", context = "dfs")
+public final class ContainerReaderMetrics {
+
+  public static final String SOURCE_NAME =
+      ContainerReaderMetrics.class.getSimpleName();
+
+  private final long startTime = Time.monotonicNow();
+
+  @Metric("number of containers found on the volumes")
+  private MutableCounterLong numContainersToLoad;
+  @Metric("number of containers processed by the container readers")
+  private MutableCounterLong numContainersLoaded;
+  @Metric("bytes used by the containers loaded")
+  private MutableCounterLong bytesVerified;
+
+  private ContainerReaderMetrics() {
+  }
+
+  public static ContainerReaderMetrics create() {
+    MetricsSystem ms = DefaultMetricsSystem.instance();
+    return ms.register(SOURCE_NAME, "Container reader metrics",
+        new ContainerReaderMetrics());
+  }
+
+  public void unregister() {
+    DefaultMetricsSystem.instance().unregisterSource(SOURCE_NAME);
+  }
+
+  public void incrNumContainersToLoad(long count) {
+    numContainersToLoad.incr(count);
+  }
+
+  public void incrNumContainersLoaded() {
+    numContainersLoaded.incr();
+  }
+
+  public void incrBytesVerified(long bytes) {
+    bytesVerified.incr(bytes);
+  }
+
+  public long getNumContainersToLoad() {
+    return numContainersToLoad.value();
+  }
+
+  public long getNumContainersLoaded() {
+    return numContainersLoaded.value();
+  }
+
+  public long getBytesVerified() {
+    return bytesVerified.value();
+  }
+
+  /**
+   * Estimated time until all containers found so far are loaded, based on
+   * the average load rate since startup.
+   */
+  @Metric("estimated seconds until all containers are loaded")
+  public long getEstimatedSecondsRemaining() {
+    long loaded = getNumContainersLoaded();
+    long remaining = getNumContainersToLoad() - loaded;
+    if (loaded == 0 || remaining <= 0) {
+      return 0;
+    }
+    long elapsed = Time.monotonicNow() - startTime;
+    return elapsed * remaining / loaded / 1000;
+  }
+
+  @Override
+  public String toString() {
+    return "loaded " + getNumContainersLoaded() + "/" +
+        getNumContainersToLoad() + " containers, " + getBytesVerified() +
+        " bytes verified, ETA " + getEstimatedSecondsRemaining() + "s";
+  }
+}
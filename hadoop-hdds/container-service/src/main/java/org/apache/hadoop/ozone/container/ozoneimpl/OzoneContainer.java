@@ -55,6 +55,8 @@
 import org.apache.hadoop.ozone.container.common.volume.StorageVolume;
 import org.apache.hadoop.ozone.container.common.volume.StorageVolume.VolumeType;
 import org.apache.hadoop.ozone.container.common.volume.StorageVolumeChecker;
+import org.apache.hadoop.ozone.container.diskbalancer.DiskBalancerConfiguration;
+import org.apache.hadoop.ozone.container.diskbalancer.DiskBalancerService;
 import org.apache.hadoop.ozone.container.keyvalue.statemachine.background.StaleRecoveringContainerScrubbingService;
 import org.apache.hadoop.ozone.container.replication.ContainerImporter;
 import org.apache.hadoop.ozone.container.replication.ReplicationServer;
@@ -114,15 +116,21 @@ public class OzoneContainer {
   private final BlockDeletingService blockDeletingService;
   private final StaleRecoveringContainerScrubbingService
       recoveringContainerScrubbingService;
+  private final DiskBalancerService diskBalancerService;
   private final GrpcTlsConfig tlsClientConfig;
   private final AtomicReference<InitializingStatus> initializingStatus;
   private final ReplicationServer replicationServer;
+  private final List<Thread> indexSnapshotVerifiers = new ArrayList<>();
+  private ContainerReaderMetrics containerReaderMetrics;
   private DatanodeDetails datanodeDetails;
   private StateContext context;
 
 
   private final ContainerMetrics metrics;
 
+  private static final long CONTAINER_READER_PROGRESS_INTERVAL_MS =
+      TimeUnit.SECONDS.toMillis(30);
+
   enum InitializingStatus {
     UNINITIALIZED, INITIALIZING, INITIALIZED
   }
@@ -257,6 +265,15 @@ public OzoneContainer(
             recoveringContainerScrubbingServiceTimeout,
             containerSet);
 
+    DiskBalancerConfiguration diskBalancerConfig =
+        conf.getObject(DiskBalancerConfiguration.class);
+    if (diskBalancerConfig.isEnabled()) {
+      diskBalancerService = new DiskBalancerService(controller, volumeSet,
+          diskBalancerConfig, datanodeDetails.threadNamePrefix());
+    } else {
+      diskBalancerService = null;
+    }
+
     if (certClient != null && secConf.isGrpcTlsEnabled()) {
       tlsClientConfig = new GrpcTlsConfig(
           certClient.getClientKeyStoresFactory().getKeyManagers()[0],
@@ -290,7 +307,11 @@ private void buildContainerSet() {
     Iterator<StorageVolume> volumeSetIterator = volumeSet.getVolumesList()
         .iterator();
     ArrayList<Thread> volumeThreads = new ArrayList<>();
+    List<ContainerReader> containerReaders = new ArrayList<>();
     long startTime = System.currentTimeMillis();
+    boolean useIndexSnapshot = config.getObject(DatanodeConfiguration.class)
+        .isContainerIndexSnapshotEnabled();
+    containerReaderMetrics = ContainerReaderMetrics.create();
 
     // Load container inspectors that may be triggered at startup based on
     // system properties set. These can inspect and possibly repair
@@ -304,15 +325,22 @@ private void buildContainerSet() {
     while (volumeSetIterator.hasNext()) {
       StorageVolume volume = volumeSetIterator.next();
       ContainerReader containerReader = new ContainerReader(volumeSet,
-          (HddsVolume) volume, containerSet, config, true);
+          (HddsVolume) volume, containerSet, config, true, useIndexSnapshot,
+          containerReaderMetrics);
+      containerReaders.add(containerReader);
       Thread thread = threadFactory.newThread(containerReader);
       thread.start();
       volumeThreads.add(thread);
     }
 
     try {
-      for (int i = 0; i < volumeThreads.size(); i++) {
-        volumeThreads.get(i).join();
+      for (Thread volumeThread : volumeThreads) {
+        while (volumeThread.isAlive()) {
+          volumeThread.join(CONTAINER_READER_PROGRESS_INTERVAL_MS);
+          if (volumeThread.isAlive()) {
+            LOG.info("Building ContainerSet: {}", containerReaderMetrics);
+          }
+        }
       }
     } catch (InterruptedException ex) {
       LOG.error("Volume Threads Interrupted exception", ex);
@@ -323,8 +351,60 @@ private void buildContainerSet() {
     // inspectors so they are not hit during normal datanode execution.
     ContainerInspectorUtil.unload();
 
-    LOG.info("Build ContainerSet costs {}s",
-        (System.currentTimeMillis() - startTime) / 1000);
+    LOG.info("Build ContainerSet costs {}s, {}",
+        (System.currentTimeMillis() - startTime) / 1000,
+        containerReaderMetrics);
+
+    // Containers loaded from the index snapshot are verified in the
+    // background, while the datanode is serving them.
+    ThreadFactory verifierThreadFactory = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat(threadNamePrefix + "ContainerIndexVerifier-%d")
+        .build();
+    for (ContainerReader containerReader : containerReaders) {
+      if (!containerReader.getRestoredContainers().isEmpty()) {
+        Thread thread = verifierThreadFactory.newThread(
+            containerReader::verifyRestoredContainers);
+        thread.start();
+        indexSnapshotVerifiers.add(thread);
+      }
+    }
+  }
+
+  /**
+   * Write the container index snapshot of each volume, which is used to
+   * speed up building the container set on the next startup. The snapshot
+   * is trusted when it is loaded, so it must only be written on shutdown,
+   * once nothing updates the containers anymore.
+   */
+  @VisibleForTesting
+  public void writeContainerIndexSnapshots() {
+    for (StorageVolume volume : volumeSet.getVolumesList()) {
+      HddsVolume hddsVolume = (HddsVolume) volume;
+      try {
+        int count = ContainerIndexSnapshot.write(hddsVolume,
+            containerSet.getContainerIterator(hddsVolume));
+        LOG.info("Wrote container index snapshot of {} containers for " +
+            "volume {}", count, hddsVolume.getStorageDir());
+      } catch (IOException e) {
+        LOG.warn("Failed to write container index snapshot for volume {}",
+            hddsVolume.getStorageDir(), e);
+      }
+    }
+  }
+
+  private void stopIndexSnapshotVerifiers() {
+    for (Thread verifier : indexSnapshotVerifiers) {
+      verifier.interrupt();
+    }
+    try {
+      for (Thread verifier : indexSnapshotVerifiers) {
+        verifier.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    indexSnapshotVerifiers.clear();
   }
 
   /**
@@ -450,6 +530,9 @@ public void start(String clusterId) throws IOException {
     hddsDispatcher.setClusterId(clusterId);
     blockDeletingService.start();
     recoveringContainerScrubbingService.start();
+    if (diskBalancerService != null) {
+      diskBalancerService.start();
+    }
 
     // mark OzoneContainer as INITIALIZED.
     initializingStatus.set(InitializingStatus.INITIALIZED);
@@ -462,20 +545,33 @@ public void stop() {
     //TODO: at end of container IO integration work.
     LOG.info("Attempting to stop container services.");
     stopContainerScrub();
+    stopIndexSnapshotVerifiers();
+    if (diskBalancerService != null) {
+      diskBalancerService.shutdown();
+    }
     replicationServer.stop();
     writeChannel.stop();
     readChannel.stop();
     this.handlers.values().forEach(Handler::stop);
     hddsDispatcher.shutdown();
+    blockDeletingService.shutdown();
+    recoveringContainerScrubbingService.shutdown();
+    // Written last, after the services updating container metadata are
+    // stopped, so that the snapshot is current when it is loaded.
+    if (config.getObject(DatanodeConfiguration.class)
+        .isContainerIndexSnapshotEnabled()) {
+      writeContainerIndexSnapshots();
+    }
     volumeChecker.shutdownAndWait(0, TimeUnit.SECONDS);
     volumeSet.shutdown();
     metaVolumeSet.shutdown();
     if (dbVolumeSet != null) {
       dbVolumeSet.shutdown();
     }
-    blockDeletingService.shutdown();
-    recoveringContainerScrubbingService.shutdown();
     ContainerMetrics.remove();
+    if (containerReaderMetrics != null) {
+      containerReaderMetrics.unregister();
+    }
   }
 
   public void handleVolumeFailures() {
@@ -568,4 +664,11 @@ public BlockDeletingService getBlockDeletingService() {
     return blockDeletingService;
   }
 
+  /**
+   * Returns the disk balancer service, or null if it is disabled.
+   */
+  public DiskBalancerService getDiskBalancerService() {
+    return diskBalancerService;
+  }
+
 }
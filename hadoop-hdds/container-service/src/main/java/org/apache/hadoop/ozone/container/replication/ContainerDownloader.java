@@ -19,6 +19,7 @@
 
 import java.io.Closeable;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
@@ -37,4 +38,19 @@ Path getContainerDataFromReplicas(long containerId,
       List<DatanodeDetails> sources, Path downloadDir,
       CopyContainerCompression compression);
 
+  /**
+   * Download the container split into the given number of parts, which are
+   * downloaded in parallel.
+   *
+   * @return the downloaded parts, the first one holding the container
+   * metadata, or null if the container could not be downloaded
+   */
+  default List<Path> getContainerPartsFromReplicas(long containerId,
+      List<DatanodeDetails> sources, Path downloadDir,
+      CopyContainerCompression compression, int partCount) {
+    Path path = getContainerDataFromReplicas(containerId, sources,
+        downloadDir, compression);
+    return path == null ? null : Collections.singletonList(path);
+  }
+
 }
@@ -24,6 +24,7 @@
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.StorageUnit;
@@ -87,8 +88,22 @@ public boolean isAllowedContainerImport(long containerID) {
   public void importContainer(long containerID, Path tarFilePath,
       HddsVolume hddsVolume, CopyContainerCompression compression)
       throws IOException {
+    importContainer(containerID, Collections.singletonList(tarFilePath),
+        hddsVolume, compression);
+  }
+
+  /**
+   * Import a container downloaded in several parts.
+   *
+   * @param tarFilePaths the archives of the parts, the first one holding the
+   *                     container metadata
+   */
+  public void importContainer(long containerID, List<Path> tarFilePaths,
+      HddsVolume hddsVolume, CopyContainerCompression compression)
+      throws IOException {
+    Path tarFilePath = tarFilePaths.get(0);
     if (!importContainerProgress.add(containerID)) {
-      deleteFileQuietely(tarFilePath);
+      tarFilePaths.forEach(ContainerImporter::deleteFileQuietely);
       LOG.warn("Container import in progress with container Id {}",
           containerID);
       throw new StorageContainerException("Container " +
@@ -110,7 +125,8 @@ public void importContainer(long containerID, Path tarFilePath,
       }
 
       KeyValueContainerData containerData;
-      TarContainerPacker packer = new TarContainerPacker(compression);
+      TarContainerPacker packer = new TarContainerPacker(compression,
+          tarFilePaths.subList(1, tarFilePaths.size()));
 
       try (FileInputStream input = new FileInputStream(tarFilePath.toFile())) {
         byte[] containerDescriptorYaml =
@@ -127,7 +143,7 @@ public void importContainer(long containerID, Path tarFilePath,
       }
     } finally {
       importContainerProgress.remove(containerID);
-      deleteFileQuietely(tarFilePath);
+      tarFilePaths.forEach(ContainerImporter::deleteFileQuietely);
     }
   }
 
@@ -20,6 +20,10 @@
 import java.io.IOException;
 import java.io.OutputStream;
 
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.UNSUPPORTED_REQUEST;
+
 /**
  * Contract to prepare provide the container in binary form..
  * <p>
@@ -48,4 +52,25 @@ void copyData(long containerId, OutputStream destination,
       CopyContainerCompression compression)
       throws IOException;
 
+  /**
+   * Copy one part of the container data to an output stream.
+   *
+   * @param containerId Container to replicate
+   * @param destination The destination stream to copy the part to.
+   * @param compression Compression algorithm.
+   * @param compressionLevel Codec specific compression level, 0 for default.
+   * @param partIndex The part to copy, in the range 0 to partCount - 1.
+   * @param partCount The number of parts the container is split into.
+   * @throws IOException
+   */
+  default void copyData(long containerId, OutputStream destination,
+      CopyContainerCompression compression, int compressionLevel,
+      int partIndex, int partCount) throws IOException {
+    if (partCount > 1) {
+      throw new StorageContainerException("Copying container " + containerId +
+          " in parts is not supported", UNSUPPORTED_REQUEST);
+    }
+    copyData(containerId, destination, compression);
+  }
+
 }
@@ -17,8 +17,15 @@
  */
 package org.apache.hadoop.ozone.container.replication;
 
+import com.github.luben.zstd.Zstd;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.apache.commons.compress.compressors.lz4.BlockLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.lz77support.Parameters;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.ConfigurationTarget;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
@@ -28,8 +35,11 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.Deflater;
 
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_REPLICATION_COMPRESSION;
+import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL;
+import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL_DEFAULT;
 
 /**
  * Defines compression algorithm for container replication.
@@ -47,10 +57,58 @@ public OutputStream wrap(OutputStream output) {
       return output;
     }
   },
-  GZIP(CompressorStreamFactory.GZIP),
-  LZ4(CompressorStreamFactory.LZ4_FRAMED),
+  GZIP(CompressorStreamFactory.GZIP) {
+    @Override
+    public OutputStream wrap(OutputStream output, int level)
+        throws IOException {
+      if (level <= 0) {
+        return wrap(output);
+      }
+      GzipParameters parameters = new GzipParameters();
+      parameters.setCompressionLevel(
+          Math.min(level, Deflater.BEST_COMPRESSION));
+      return new GzipCompressorOutputStream(output, parameters);
+    }
+  },
+  LZ4(CompressorStreamFactory.LZ4_FRAMED) {
+    @Override
+    public OutputStream wrap(OutputStream output, int level)
+        throws IOException {
+      if (level <= 0) {
+        return wrap(output);
+      }
+      // LZ4 has no compression levels, only the matching of the LZ77 phase
+      // can be tuned.
+      Parameters.Builder lz77 = BlockLZ4CompressorOutputStream
+          .createParameterBuilder();
+      if (level <= LZ4_MAX_FAST_LEVEL) {
+        lz77.tunedForSpeed();
+      } else {
+        lz77.tunedForCompressionRatio();
+      }
+      return new FramedLZ4CompressorOutputStream(output,
+          new FramedLZ4CompressorOutputStream.Parameters(
+              FramedLZ4CompressorOutputStream.BlockSize.M4, lz77.build()));
+    }
+  },
   SNAPPY(CompressorStreamFactory.SNAPPY_FRAMED),
-  ZSTD(CompressorStreamFactory.ZSTANDARD);
+  ZSTD(CompressorStreamFactory.ZSTANDARD) {
+    @Override
+    public OutputStream wrap(OutputStream output, int level)
+        throws IOException {
+      if (level <= 0) {
+        return wrap(output);
+      }
+      return new ZstdCompressorOutputStream(output,
+          Math.min(level, Zstd.maxCompressionLevel()));
+    }
+  };
+
+  /**
+   * LZ4 compression levels up to this value are tuned for speed, higher
+   * levels for compression ratio.
+   */
+  private static final int LZ4_MAX_FAST_LEVEL = 3;
 
   private final String compressorFactoryName;
 
@@ -76,6 +134,15 @@ public static CopyContainerCompression getConf(ConfigurationSource conf) {
     }
   }
 
+  /**
+   * @return the configured compression level, 0 or less means the default
+   * level of the codec.
+   */
+  public static int getLevelConf(ConfigurationSource conf) {
+    return conf.getInt(HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL,
+        HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL_DEFAULT);
+  }
+
   public void setOn(ConfigurationTarget conf) {
     conf.setEnum(HDDS_CONTAINER_REPLICATION_COMPRESSION, this);
   }
@@ -119,6 +186,16 @@ public OutputStream wrap(OutputStream output) throws IOException {
     }
   }
 
+  /**
+   * Wrap the output stream to compress with the given codec specific level.
+   * The level is ignored by codecs without levels, 0 or less selects the
+   * default level of the codec.
+   */
+  public OutputStream wrap(OutputStream output, int level)
+      throws IOException {
+    return wrap(output);
+  }
+
   private static IOException toIOException(CompressorException e) {
     Throwable cause = e.getCause();
     if (cause instanceof IOException) {
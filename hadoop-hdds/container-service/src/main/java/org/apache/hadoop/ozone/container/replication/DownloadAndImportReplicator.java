@@ -20,6 +20,7 @@
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
@@ -27,6 +28,7 @@
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
 import org.apache.hadoop.ozone.container.replication.AbstractReplicationTask.Status;
+import org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +48,7 @@ public class DownloadAndImportReplicator implements ContainerReplicator {
   private final ContainerDownloader downloader;
   private final ContainerImporter containerImporter;
   private final ContainerSet containerSet;
+  private final int parallelStreams;
 
   public DownloadAndImportReplicator(
       ConfigurationSource conf, ContainerSet containerSet,
@@ -55,6 +58,8 @@ public DownloadAndImportReplicator(
     this.containerSet = containerSet;
     this.downloader = downloader;
     this.containerImporter = containerImporter;
+    this.parallelStreams =
+        conf.getObject(ReplicationConfig.class).getParallelStreams();
   }
 
   @Override
@@ -77,20 +82,31 @@ public void replicate(ReplicationTask task) {
       HddsVolume targetVolume = containerImporter.chooseNextVolume();
       // Wait for the download. This thread pool is limiting the parallel
       // downloads, so it's ok to block here and wait for the full download.
-      Path tarFilePath =
-          downloader.getContainerDataFromReplicas(containerID, sourceDatanodes,
-              ContainerImporter.getUntarDirectory(targetVolume), compression);
-      if (tarFilePath == null) {
+      Path downloadDir = ContainerImporter.getUntarDirectory(targetVolume);
+      List<Path> tarFilePaths;
+      if (parallelStreams > 1) {
+        tarFilePaths = downloader.getContainerPartsFromReplicas(containerID,
+            sourceDatanodes, downloadDir, compression, parallelStreams);
+      } else {
+        Path tarFilePath = downloader.getContainerDataFromReplicas(
+            containerID, sourceDatanodes, downloadDir, compression);
+        tarFilePaths = tarFilePath == null
+            ? null : Collections.singletonList(tarFilePath);
+      }
+      if (tarFilePaths == null) {
         task.setStatus(Status.FAILED);
         return;
       }
-      long bytes = Files.size(tarFilePath);
+      long bytes = 0;
+      for (Path tarFilePath : tarFilePaths) {
+        bytes += Files.size(tarFilePath);
+      }
       LOG.info("Container {} is downloaded with size {}, starting to import.",
               containerID, bytes);
       task.setTransferredBytes(bytes);
 
-      containerImporter.importContainer(containerID, tarFilePath, targetVolume,
-          compression);
+      containerImporter.importContainer(containerID, tarFilePaths,
+          targetVolume, compression);
 
       LOG.info("Container {} is replicated successfully", containerID);
       task.setStatus(Status.DONE);
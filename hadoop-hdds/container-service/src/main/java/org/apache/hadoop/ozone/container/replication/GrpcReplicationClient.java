@@ -41,6 +41,7 @@
 
 import com.google.common.base.Preconditions;
 import org.apache.hadoop.ozone.container.common.helpers.ContainerUtils;
+import org.apache.hadoop.ozone.container.replication.ReplicationBandwidthLimiter.TokenBucket;
 import org.apache.ratis.thirdparty.io.grpc.ManagedChannel;
 import org.apache.ratis.thirdparty.io.grpc.netty.GrpcSslContexts;
 import org.apache.ratis.thirdparty.io.grpc.netty.NettyChannelBuilder;
@@ -64,6 +65,10 @@ public class GrpcReplicationClient implements AutoCloseable {
 
   private final CopyContainerCompression compression;
 
+  private final int compressionLevel;
+
+  private final TokenBucket bandwidth;
+
   private final AtomicBoolean closed = new AtomicBoolean();
   private final String debugString;
 
@@ -72,6 +77,20 @@ public GrpcReplicationClient(
       SecurityConfig secConfig, CertificateClient certClient,
       CopyContainerCompression compression)
       throws IOException {
+    this(host, port, secConfig, certClient, compression, 0, null);
+  }
+
+  /**
+   * @param compressionLevel codec specific compression level requested from
+   *                         the source, 0 for default
+   * @param bandwidth limits the rate of downloaded data if not null
+   */
+  public GrpcReplicationClient(
+      String host, int port,
+      SecurityConfig secConfig, CertificateClient certClient,
+      CopyContainerCompression compression, int compressionLevel,
+      TokenBucket bandwidth)
+      throws IOException {
     NettyChannelBuilder channelBuilder =
         NettyChannelBuilder.forAddress(host, port)
             .usePlaintext()
@@ -96,6 +115,8 @@ public GrpcReplicationClient(
     channel = channelBuilder.build();
     client = IntraDatanodeProtocolServiceGrpc.newStub(channel);
     this.compression = compression;
+    this.compressionLevel = compressionLevel;
+    this.bandwidth = bandwidth;
     debugString = getClass().getSimpleName()
         + "{" + host + ":" + port + "}"
         + "@" + Integer.toHexString(hashCode());
@@ -103,21 +124,37 @@ public GrpcReplicationClient(
   }
 
   public CompletableFuture<Path> download(long containerId, Path dir) {
-    CopyContainerRequestProto request =
+    return download(containerId, dir, 0, 1);
+  }
+
+  /**
+   * Download one part of the container, see {@link
+   * org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker}.
+   */
+  public CompletableFuture<Path> download(long containerId, Path dir,
+      int partIndex, int partCount) {
+    CopyContainerRequestProto.Builder request =
         CopyContainerRequestProto.newBuilder()
             .setContainerID(containerId)
             .setLen(-1)
             .setReadOffset(0)
-            .setCompression(compression.toProto())
-            .build();
+            .setCompression(compression.toProto());
+    if (compressionLevel > 0) {
+      request.setCompressionLevel(compressionLevel);
+    }
+
+    String fileName = ContainerUtils.getContainerTarName(containerId);
+    if (partCount > 1) {
+      request.setPartIndex(partIndex).setPartCount(partCount);
+      fileName += "." + partIndex;
+    }
 
     CompletableFuture<Path> response = new CompletableFuture<>();
 
-    Path destinationPath = dir
-        .resolve(ContainerUtils.getContainerTarName(containerId));
+    Path destinationPath = dir.resolve(fileName);
 
-    client.download(request,
-        new StreamDownloader(containerId, response, destinationPath));
+    client.download(request.build(), new StreamDownloader(containerId,
+        response, destinationPath, bandwidth));
 
     return response;
   }
@@ -160,9 +197,16 @@ public String toString() {
     private final long containerId;
     private final OutputStream stream;
     private final Path outputPath;
+    private final TokenBucket bandwidth;
 
     public StreamDownloader(long containerId, CompletableFuture<Path> response,
         Path outputPath) {
+      this(containerId, response, outputPath, null);
+    }
+
+    public StreamDownloader(long containerId, CompletableFuture<Path> response,
+        Path outputPath, TokenBucket bandwidth) {
+      this.bandwidth = bandwidth;
       this.response = response;
       this.containerId = containerId;
       this.outputPath = outputPath;
@@ -180,6 +224,11 @@ public StreamDownloader(long containerId, CompletableFuture<Path> response,
     @Override
     public void onNext(CopyContainerResponseProto chunk) {
       try {
+        if (bandwidth != null) {
+          // blocking the callback also delays reading from the stream, so
+          // gRPC flow control slows down the sender too
+          bandwidth.acquire(chunk.getData().size());
+        }
         chunk.getData().writeTo(stream);
       } catch (IOException e) {
         LOG.error("Failed to write the stream buffer to {} for container {}",
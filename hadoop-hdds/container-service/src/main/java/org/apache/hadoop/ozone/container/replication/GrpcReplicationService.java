@@ -60,8 +60,17 @@ public void download(CopyContainerRequestProto request,
       StreamObserver<CopyContainerResponseProto> responseObserver) {
     long containerID = request.getContainerID();
     CopyContainerCompression compression = fromProto(request.getCompression());
-    LOG.info("Streaming container data ({}) to other datanode " +
-        "with compression {}", containerID, compression);
+    int partCount = request.hasPartCount()
+        ? Math.max(request.getPartCount(), 1) : 1;
+    int partIndex = request.getPartIndex();
+    if (partCount > 1) {
+      LOG.info("Streaming part {} of {} of container data ({}) to other " +
+              "datanode with compression {}", partIndex, partCount,
+          containerID, compression);
+    } else {
+      LOG.info("Streaming container data ({}) to other datanode " +
+          "with compression {}", containerID, compression);
+    }
     OutputStream outputStream = null;
     try {
       outputStream = new CopyContainerResponseStream(
@@ -69,7 +78,8 @@ public void download(CopyContainerRequestProto request,
           // that allows flow control.
           (CallStreamObserver<CopyContainerResponseProto>) responseObserver,
           containerID, BUFFER_SIZE);
-      source.copyData(containerID, outputStream, compression);
+      source.copyData(containerID, outputStream, compression,
+          request.getCompressionLevel(), partIndex, partCount);
     } catch (IOException e) {
       LOG.warn("Error streaming container {}", containerID, e);
       responseObserver.onError(e);
@@ -27,6 +27,7 @@
 import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
 
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.CONTAINER_NOT_FOUND;
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.INVALID_ARGUMENT;
 
 /**
  * A naive implementation of the replication source which creates a tar file
@@ -51,6 +52,19 @@ public void prepare(long containerId) {
   public void copyData(long containerId, OutputStream destination,
                        CopyContainerCompression compression)
       throws IOException {
+    copyData(containerId, destination, compression, 0, 0, 1);
+  }
+
+  @Override
+  public void copyData(long containerId, OutputStream destination,
+      CopyContainerCompression compression, int compressionLevel,
+      int partIndex, int partCount) throws IOException {
+
+    if (partIndex >= partCount) {
+      throw new StorageContainerException("Invalid part " + partIndex +
+          " of " + partCount + " requested for container " + containerId,
+          INVALID_ARGUMENT);
+    }
 
     Container container = controller.getContainer(containerId);
 
@@ -61,6 +75,7 @@ public void copyData(long containerId, OutputStream destination,
 
     controller.exportContainer(
         container.getContainerType(), containerId, destination,
-        new TarContainerPacker(compression));
+        new TarContainerPacker(compression, compressionLevel, partIndex,
+            partCount));
   }
 }
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.replication;
+
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Limits the rate of container data transferred from each peer datanode.
+ * <p>
+ * Each peer has its own token bucket, which is shared by all concurrent
+ * transfers from that peer.  The bucket holds at most one second worth of
+ * bytes, so a peer idle for a while can send a short burst at full speed.
+ */
+public class ReplicationBandwidthLimiter {
+
+  private final long bytesPerSecond;
+  private final LongSupplier nanoClock;
+  private final Map<UUID, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+  /**
+   * @param bytesPerSecond the rate limit for each peer, 0 for unlimited
+   */
+  public ReplicationBandwidthLimiter(long bytesPerSecond) {
+    this(bytesPerSecond, System::nanoTime);
+  }
+
+  @VisibleForTesting
+  ReplicationBandwidthLimiter(long bytesPerSecond, LongSupplier nanoClock) {
+    this.bytesPerSecond = bytesPerSecond;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * @return the token bucket of the peer, or null if the rate is unlimited
+   */
+  public TokenBucket getBucket(DatanodeDetails peer) {
+    if (bytesPerSecond <= 0) {
+      return null;
+    }
+    return buckets.computeIfAbsent(peer.getUuid(),
+        k -> new TokenBucket(bytesPerSecond, nanoClock));
+  }
+
+  /**
+   * Token bucket of a single peer, each token allows to transfer one byte.
+   */
+  public static final class TokenBucket {
+    private final long bytesPerSecond;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    private TokenBucket(long bytesPerSecond, LongSupplier nanoClock) {
+      this.bytesPerSecond = bytesPerSecond;
+      this.nanoClock = nanoClock;
+      this.tokens = bytesPerSecond;
+      this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Wait until the given number of bytes may be transferred.
+     */
+    public void acquire(long bytes) throws InterruptedIOException {
+      long waitNanos = reserve(bytes);
+      if (waitNanos > 0) {
+        try {
+          TimeUnit.NANOSECONDS.sleep(waitNanos);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException(
+              "Interrupted while throttling replication");
+        }
+      }
+    }
+
+    /**
+     * Take the tokens for the given number of bytes from the bucket, the
+     * balance may become negative.  Later callers wait for the debt of the
+     * earlier ones too, so concurrent transfers are served in order.
+     *
+     * @return nanoseconds to wait until the tokens are available
+     */
+    @VisibleForTesting
+    synchronized long reserve(long bytes) {
+      long now = nanoClock.getAsLong();
+      tokens = Math.min(bytesPerSecond,
+          tokens + (now - lastRefill) * bytesPerSecond / 1e9);
+      lastRefill = now;
+      tokens -= bytes;
+      return tokens >= 0 ? 0 : (long) (-tokens * 1e9 / bytesPerSecond);
+    }
+  }
+}
@@ -176,6 +176,13 @@ public static final class ReplicationConfig {
     private static final double OUTOFSERVICE_FACTOR_MAX = 10;
     static final String REPLICATION_OUTOFSERVICE_FACTOR_KEY =
         PREFIX + "." + OUTOFSERVICE_FACTOR_KEY;
+    private static final String PARALLEL_STREAMS_KEY = "parallel.streams";
+    static final String REPLICATION_PARALLEL_STREAMS_KEY =
+        PREFIX + "." + PARALLEL_STREAMS_KEY;
+    static final int PARALLEL_STREAMS_DEFAULT = 1;
+    private static final String PEER_BANDWIDTH_KEY = "peer.bandwidth";
+    static final String REPLICATION_PEER_BANDWIDTH_KEY =
+        PREFIX + "." + PEER_BANDWIDTH_KEY;
 
     /**
      * The maximum number of replication commands a single datanode can execute
@@ -218,6 +225,46 @@ public static final class ReplicationConfig {
     )
     private double outOfServiceFactor = OUTOFSERVICE_FACTOR_DEFAULT;
 
+    @Config(key = PARALLEL_STREAMS_KEY,
+        type = ConfigType.INT,
+        defaultValue = "1",
+        tags = {DATANODE},
+        description = "The number of parallel streams used to download a " +
+            "container.  If greater than 1, the block files of the container " +
+            "are split into this many minus one parts, which are downloaded " +
+            "in parallel, followed by the container metadata.  Requires all " +
+            "datanodes to support downloading containers in parts."
+    )
+    private int parallelStreams = PARALLEL_STREAMS_DEFAULT;
+
+    @Config(key = PEER_BANDWIDTH_KEY,
+        type = ConfigType.LONG,
+        defaultValue = "0",
+        tags = {DATANODE},
+        description = "Maximum rate in bytes per second of container data " +
+            "downloaded from a single datanode, shared by all concurrent " +
+            "downloads from that datanode.  0 means unlimited."
+    )
+    private long peerBandwidth;
+
+    public int getParallelStreams() {
+      return parallelStreams;
+    }
+
+    public ReplicationConfig setParallelStreams(int streams) {
+      this.parallelStreams = streams;
+      return this;
+    }
+
+    public long getPeerBandwidth() {
+      return peerBandwidth;
+    }
+
+    public ReplicationConfig setPeerBandwidth(long bytesPerSecond) {
+      this.peerBandwidth = bytesPerSecond;
+      return this;
+    }
+
     public double getOutOfServiceFactor() {
       return outOfServiceFactor;
     }
@@ -271,6 +318,19 @@ public void validate() {
             OUTOFSERVICE_FACTOR_DEFAULT);
         outOfServiceFactor = OUTOFSERVICE_FACTOR_DEFAULT;
       }
+
+      if (parallelStreams < 1) {
+        LOG.warn(REPLICATION_PARALLEL_STREAMS_KEY + " must be greater than " +
+                "zero and was set to {}. Defaulting to {}",
+            parallelStreams, PARALLEL_STREAMS_DEFAULT);
+        parallelStreams = PARALLEL_STREAMS_DEFAULT;
+      }
+
+      if (peerBandwidth < 0) {
+        LOG.warn(REPLICATION_PEER_BANDWIDTH_KEY + " must not be negative " +
+            "and was set to {}. Defaulting to 0 (unlimited)", peerBandwidth);
+        peerBandwidth = 0;
+      }
     }
 
   }
@@ -19,18 +19,21 @@
 package org.apache.hadoop.ozone.container.replication;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails.Port.Name;
 import org.apache.hadoop.hdds.security.SecurityConfig;
 import org.apache.hadoop.hdds.security.x509.certificate.client.CertificateClient;
+import org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig;
 
 import com.google.common.annotations.VisibleForTesting;
 import org.apache.hadoop.hdds.utils.IOUtils;
@@ -51,11 +54,16 @@ public class SimpleContainerDownloader implements ContainerDownloader {
 
   private final SecurityConfig securityConfig;
   private final CertificateClient certClient;
+  private final int compressionLevel;
+  private final ReplicationBandwidthLimiter bandwidthLimiter;
 
   public SimpleContainerDownloader(
       ConfigurationSource conf, CertificateClient certClient) {
     securityConfig = new SecurityConfig(conf);
     this.certClient = certClient;
+    compressionLevel = CopyContainerCompression.getLevelConf(conf);
+    bandwidthLimiter = new ReplicationBandwidthLimiter(
+        conf.getObject(ReplicationConfig.class).getPeerBandwidth());
   }
 
   @Override
@@ -63,10 +71,7 @@ public Path getContainerDataFromReplicas(
       long containerId, List<DatanodeDetails> sourceDatanodes,
       Path downloadDir, CopyContainerCompression compression) {
 
-    if (downloadDir == null) {
-      downloadDir = Paths.get(System.getProperty("java.io.tmpdir"))
-              .resolve(ContainerImporter.CONTAINER_COPY_DIR);
-    }
+    downloadDir = getDownloadDir(downloadDir);
 
     final List<DatanodeDetails> shuffledDatanodes =
         shuffleDatanodes(sourceDatanodes);
@@ -93,6 +98,86 @@ public Path getContainerDataFromReplicas(
     return null;
   }
 
+  /**
+   * Download all parts of the container from the same datanode.  The parts
+   * holding the block files are downloaded in parallel first, the part with
+   * the metadata last.  Blocks deleted meanwhile leave only unreferenced
+   * block files, while the metadata never refers to blocks not downloaded.
+   */
+  @Override
+  public List<Path> getContainerPartsFromReplicas(long containerId,
+      List<DatanodeDetails> sourceDatanodes, Path downloadDir,
+      CopyContainerCompression compression, int partCount) {
+
+    if (partCount <= 1) {
+      return ContainerDownloader.super.getContainerPartsFromReplicas(
+          containerId, sourceDatanodes, downloadDir, compression, partCount);
+    }
+
+    downloadDir = getDownloadDir(downloadDir);
+
+    final List<DatanodeDetails> shuffledDatanodes =
+        shuffleDatanodes(sourceDatanodes);
+
+    for (int i = 0; i < shuffledDatanodes.size(); i++) {
+      DatanodeDetails datanode = shuffledDatanodes.get(i);
+      GrpcReplicationClient client = null;
+      List<CompletableFuture<Path>> parts = new ArrayList<>(partCount);
+      try {
+        client = createReplicationClient(datanode, compression);
+        for (int part = 1; part < partCount; part++) {
+          parts.add(downloadContainerPart(client, containerId, downloadDir,
+              part, partCount));
+        }
+        CompletableFuture.allOf(parts.toArray(new CompletableFuture[0]))
+            .get();
+        parts.add(0, downloadContainerPart(client, containerId, downloadDir,
+            0, partCount));
+        parts.get(0).get();
+        return parts.stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+      } catch (InterruptedException e) {
+        logError(e, containerId, datanode, i, shuffledDatanodes.size());
+        deleteParts(parts);
+        Thread.currentThread().interrupt();
+      } catch (Exception e) {
+        logError(e, containerId, datanode, i, shuffledDatanodes.size());
+        deleteParts(parts);
+      } finally {
+        IOUtils.close(LOG, client);
+      }
+    }
+    LOG.error("Container {} could not be downloaded from any datanode",
+        containerId);
+    return null;
+  }
+
+  private static Path getDownloadDir(Path downloadDir) {
+    if (downloadDir == null) {
+      return Paths.get(System.getProperty("java.io.tmpdir"))
+          .resolve(ContainerImporter.CONTAINER_COPY_DIR);
+    }
+    return downloadDir;
+  }
+
+  /**
+   * Delete the parts already downloaded, or once the downloads still in
+   * progress complete.
+   */
+  private static void deleteParts(List<CompletableFuture<Path>> parts) {
+    for (CompletableFuture<Path> part : parts) {
+      part.thenAccept(path -> {
+        try {
+          Files.deleteIfExists(path);
+        } catch (IOException e) {
+          LOG.warn("Failed to delete partially downloaded container {}",
+              path, e);
+        }
+      });
+    }
+  }
+
   private static void logError(Exception e,
       long containerId, DatanodeDetails datanode, int datanodeIndex,
       int shuffledDatanodesSize) {
@@ -126,7 +211,8 @@ protected GrpcReplicationClient createReplicationClient(
   ) throws IOException {
     return new GrpcReplicationClient(datanode.getIpAddress(),
         datanode.getPort(Name.REPLICATION).getValue(),
-        securityConfig, certClient, compression);
+        securityConfig, certClient, compression, compressionLevel,
+        bandwidthLimiter.getBucket(datanode));
   }
 
   @VisibleForTesting
@@ -135,6 +221,13 @@ protected CompletableFuture<Path> downloadContainer(
     return client.download(containerId, downloadDir);
   }
 
+  @VisibleForTesting
+  protected CompletableFuture<Path> downloadContainerPart(
+      GrpcReplicationClient client, long containerId, Path downloadDir,
+      int partIndex, int partCount) {
+    return client.download(containerId, downloadDir, partIndex, partCount);
+  }
+
   @Override
   public void close() {
     // noop
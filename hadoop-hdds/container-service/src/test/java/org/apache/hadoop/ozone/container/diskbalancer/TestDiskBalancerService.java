@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.diskbalancer;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State;
+import org.apache.hadoop.hdds.utils.BackgroundTaskQueue;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
+import org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion;
+import org.apache.hadoop.ozone.container.common.interfaces.Container;
+import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
+import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
+import org.apache.hadoop.ozone.container.common.volume.StorageVolume;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
+import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainerData;
+import org.apache.hadoop.ozone.container.ozoneimpl.ContainerController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test for {@link DiskBalancerService}.
+ */
+public class TestDiskBalancerService {
+
+  private final Map<HddsVolume, List<Container<?>>> containers =
+      new HashMap<>();
+  private ContainerController controller;
+  private MutableVolumeSet volumeSet;
+  private DiskBalancerConfiguration conf;
+  private DiskBalancerService service;
+
+  @BeforeEach
+  public void setup() {
+    controller = mock(ContainerController.class);
+    when(controller.getContainers(any(HddsVolume.class))).thenAnswer(
+        i -> containers.getOrDefault(i.getArgument(0), new ArrayList<>())
+            .iterator());
+    volumeSet = mock(MutableVolumeSet.class);
+    conf = new OzoneConfiguration().getObject(DiskBalancerConfiguration.class);
+    conf.setParallelThread(2);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    if (service != null) {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  public void movesClosedContainersToLeastUsedVolume() throws Exception {
+    HddsVolume full = createVolume(1000, 800);
+    HddsVolume empty = createVolume(1000, 100);
+    addContainer(full, 1, 300, State.CLOSED);
+    addContainer(full, 2, 200, State.CLOSED);
+    // larger than the allowed move, would unbalance the target
+    addContainer(full, 3, 500, State.CLOSED);
+    addContainer(full, 4, 400, State.OPEN);
+    service = new DiskBalancerService(controller, volumeSet, conf, "");
+
+    service.runPeriodicalTaskNow();
+
+    // Moving the largest fitting container brings both volumes within the
+    // threshold of the average utilization.
+    verify(controller).moveContainer(eq(1L), eq(empty),
+        any(DataTransferThrottler.class));
+    verify(controller, never()).moveContainer(eq(2L), any(), any());
+    verify(controller, never()).moveContainer(eq(3L), any(), any());
+    verify(controller, never()).moveContainer(eq(4L), any(), any());
+    DiskBalancerServiceMetrics metrics = service.getMetrics();
+    assertEquals(1, metrics.getSuccessCount());
+    assertEquals(300, metrics.getSuccessBytes());
+    assertEquals(0, metrics.getInProgressCount());
+    assertEquals(0, metrics.getInProgressBytes());
+    assertEquals(70, metrics.getVolumeDataDensity());
+    assertTrue(service.getInProgressContainers().isEmpty());
+  }
+
+  @Test
+  public void plansMovesUpToParallelLimit() throws Exception {
+    HddsVolume full = createVolume(1000, 900);
+    HddsVolume empty1 = createVolume(1000, 0);
+    HddsVolume empty2 = createVolume(1000, 0);
+    for (long id = 1; id <= 9; id++) {
+      addContainer(full, id, 100, State.CLOSED);
+    }
+    service = new DiskBalancerService(controller, volumeSet, conf, "");
+
+    BackgroundTaskQueue tasks = service.getTasks();
+    assertEquals(2, tasks.size());
+    assertEquals(2, service.getMetrics().getInProgressCount());
+    assertEquals(200, service.getMetrics().getInProgressBytes());
+
+    // moves in progress are accounted for, no more moves are planned
+    assertEquals(0, service.getTasks().size());
+
+    while (tasks.size() > 0) {
+      tasks.poll().call();
+    }
+    verify(controller, times(2))
+        .moveContainer(anyLong(), any(HddsVolume.class), any());
+    assertEquals(2, service.getMetrics().getSuccessCount());
+    assertTrue(service.getInProgressContainers().isEmpty());
+  }
+
+  @Test
+  public void balancedVolumesAreIdle() throws Exception {
+    HddsVolume volume1 = createVolume(1000, 500);
+    HddsVolume volume2 = createVolume(2000, 1100);
+    addContainer(volume2, 1, 100, State.CLOSED);
+    service = new DiskBalancerService(controller, volumeSet, conf, "");
+
+    assertEquals(0, service.getTasks().size());
+    assertEquals(1, service.getMetrics().getIdleIterationCount());
+    verify(controller, never()).moveContainer(anyLong(), any(), any());
+  }
+
+  @Test
+  public void failedMoveIsCounted() throws Exception {
+    HddsVolume full = createVolume(1000, 800);
+    HddsVolume empty = createVolume(1000, 100);
+    addContainer(full, 1, 300, State.CLOSED);
+    when(controller.moveContainer(eq(1L), eq(empty), any()))
+        .thenThrow(new IllegalStateException("test"));
+    service = new DiskBalancerService(controller, volumeSet, conf, "");
+
+    service.runPeriodicalTaskNow();
+
+    assertEquals(0, service.getMetrics().getSuccessCount());
+    assertEquals(1, service.getMetrics().getFailureCount());
+    assertEquals(0, service.getMetrics().getInProgressCount());
+    assertTrue(service.getInProgressContainers().isEmpty());
+  }
+
+  @Test
+  public void invalidConfigurationIsReset() {
+    OzoneConfiguration ozoneConf = new OzoneConfiguration();
+    ozoneConf.setDouble(DiskBalancerConfiguration.THRESHOLD_KEY, 120);
+    ozoneConf.setLong(DiskBalancerConfiguration.BANDWIDTH_KEY, -1);
+    ozoneConf.setInt(DiskBalancerConfiguration.PARALLEL_THREAD_KEY, 0);
+
+    DiskBalancerConfiguration config =
+        ozoneConf.getObject(DiskBalancerConfiguration.class);
+
+    assertEquals(DiskBalancerConfiguration.THRESHOLD_DEFAULT,
+        config.getThreshold());
+    assertEquals(DiskBalancerConfiguration.BANDWIDTH_DEFAULT,
+        config.getBandwidth());
+    assertEquals(DiskBalancerConfiguration.PARALLEL_THREAD_DEFAULT,
+        config.getParallelThread());
+  }
+
+  private HddsVolume createVolume(long capacity, long used) {
+    HddsVolume volume = mock(HddsVolume.class);
+    when(volume.getStorageID()).thenReturn(UUID.randomUUID().toString());
+    when(volume.getCapacity()).thenReturn(capacity);
+    when(volume.getUsedSpace()).thenReturn(used);
+    when(volume.getAvailable()).thenReturn(capacity - used);
+    List<StorageVolume> volumes = new ArrayList<>(volumeSet.getVolumesList());
+    volumes.add(volume);
+    when(volumeSet.getVolumesList()).thenReturn(volumes);
+    return volume;
+  }
+
+  private void addContainer(HddsVolume volume, long id, long bytes,
+      State state) {
+    KeyValueContainerData data = new KeyValueContainerData(id,
+        ContainerLayoutVersion.FILE_PER_BLOCK, 1000,
+        UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    data.setVolume(volume);
+    data.setBytesUsed(bytes);
+    data.setState(state);
+    containers.computeIfAbsent(volume, v -> new ArrayList<>())
+        .add(new KeyValueContainer(data, new OzoneConfiguration()));
+  }
+}
@@ -32,6 +32,7 @@
 import org.apache.hadoop.hdds.utils.db.RDBStore;
 import org.apache.hadoop.hdds.utils.db.RocksDatabase.ColumnFamily;
 import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdfs.util.DataTransferThrottler;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.container.ContainerTestHelper;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
@@ -68,6 +69,7 @@
 
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.LiveFileMetaData;
@@ -78,13 +80,17 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
@@ -420,6 +426,67 @@ public void testContainerImportExport() throws Exception {
     }
   }
 
+  @Test
+  public void testContainerImportExportInParts() throws Exception {
+    createContainer();
+    long numberOfKeysToWrite = 12;
+    closeContainer();
+    populate(numberOfKeysToWrite);
+    KeyValueContainerData data = keyValueContainer.getContainerData();
+    int numberOfChunkFiles = 10;
+    for (int i = 0; i < numberOfChunkFiles; i++) {
+      Files.write(Paths.get(data.getChunksPath(), i + ".block"),
+          new byte[] {(byte) i});
+    }
+
+    int partCount = 3;
+    List<File> parts = new ArrayList<>();
+    for (int part = 0; part < partCount; part++) {
+      File exportTar = folder.newFile("exported.tar." + part);
+      TarContainerPacker packer = new TarContainerPacker(
+          CopyContainerCompression.ZSTD, 3, part, partCount);
+      if (part == 0) {
+        try (FileOutputStream fos = new FileOutputStream(exportTar)) {
+          keyValueContainer.exportContainerData(fos, packer);
+        }
+      } else {
+        // data parts take only the read lock, so they are exported while
+        // another thread holds it
+        keyValueContainer.readLock();
+        try {
+          CompletableFuture.runAsync(() -> {
+            try (FileOutputStream fos = new FileOutputStream(exportTar)) {
+              keyValueContainer.exportContainerData(fos, packer);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }).get(10, TimeUnit.SECONDS);
+        } finally {
+          keyValueContainer.readUnlock();
+        }
+      }
+      parts.add(exportTar);
+    }
+
+    KeyValueContainerUtil.removeContainer(data, CONF);
+    keyValueContainer.delete();
+
+    TarContainerPacker packer = new TarContainerPacker(
+        CopyContainerCompression.ZSTD,
+        parts.subList(1, partCount).stream()
+            .map(File::toPath)
+            .collect(Collectors.toList()));
+    try (FileInputStream fis = new FileInputStream(parts.get(0))) {
+      keyValueContainer.importContainerData(fis, packer);
+    }
+
+    data = keyValueContainer.getContainerData();
+    checkContainerFilesPresent(data, numberOfChunkFiles);
+    assertEquals(numberOfKeysToWrite, data.getBlockCount());
+    assertEquals(ContainerProtos.ContainerDataProto.State.CLOSED,
+        data.getState());
+  }
+
   private void checkContainerFilesPresent(KeyValueContainerData data,
       long expectedNumFilesInChunksDir) throws IOException {
     File chunksDir = new File(data.getChunksPath());
@@ -528,6 +595,93 @@ public void concurrentExport() throws Exception {
     assertNull(failed.get());
   }
 
+  @Test
+  public void testContainerCopyToOtherVolume() throws Exception {
+    long containerId = keyValueContainer.getContainerData().getContainerID();
+    createContainer();
+    long numberOfKeysToWrite = 12;
+    closeContainer();
+    populate(numberOfKeysToWrite);
+    File chunkFile = new File(keyValueContainerData.getChunksPath(),
+        "1.block");
+    FileUtils.writeByteArrayToFile(chunkFile, new byte[1024]);
+
+    HddsVolume otherVolume = new HddsVolume.Builder(
+        folder.newFolder().getAbsolutePath()).conf(CONF)
+        .datanodeUuid(datanodeId.toString()).build();
+    StorageVolumeUtil.checkVolume(otherVolume, scmId, scmId, CONF,
+        null, null);
+
+    KeyValueContainerData containerData =
+        new KeyValueContainerData(keyValueContainerData);
+    KeyValueContainer container = new KeyValueContainer(containerData, CONF);
+    container.populatePathFields(scmId, otherVolume);
+
+    keyValueContainer.copyContainerData(
+        Paths.get(containerData.getContainerPath()), null);
+    container.importContainerData(keyValueContainerData);
+
+    assertEquals(containerId, containerData.getContainerID());
+    assertEquals("value1", containerData.getMetadata().get("key1"));
+    assertEquals(keyValueContainerData.getState(), containerData.getState());
+    assertEquals(numberOfKeysToWrite, containerData.getBlockCount());
+    assertEquals(keyValueContainerData.getBytesUsed(),
+        containerData.getBytesUsed());
+
+    // chunk files are linked, the container file is a separate copy
+    File copiedChunkFile = new File(containerData.getChunksPath(),
+        chunkFile.getName());
+    assertTrue(Files.isSameFile(chunkFile.toPath(),
+        copiedChunkFile.toPath()));
+    assertFalse(Files.isSameFile(
+        keyValueContainer.getContainerFile().toPath(),
+        container.getContainerFile().toPath()));
+
+    // the copy is independent of the source container
+    KeyValueContainerUtil.removeContainer(keyValueContainerData, CONF);
+    keyValueContainer.delete();
+    assertTrue(copiedChunkFile.exists());
+    try (DBHandle db = BlockUtils.getDB(containerData, CONF)) {
+      assertEquals(numberOfKeysToWrite, db.getStore().getMetadataTable()
+          .get(containerData.getBlockCountKey()).longValue());
+    }
+
+    // only closed containers can be copied
+    containerData.setState(ContainerProtos.ContainerDataProto.State.OPEN);
+    try {
+      container.copyContainerData(folder.newFolder().toPath().resolve("c"),
+          null);
+      fail("Open container should not be copied");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testLinkOrCopyDirectoryThrottlesCopiedBytes() throws Exception {
+    Path source = folder.newFolder().toPath();
+    Path linked = source.resolve("chunks").resolve("1.block");
+    Path copied = source.resolve("metadata").resolve("1.container");
+    Files.createDirectories(linked.getParent());
+    Files.createDirectories(copied.getParent());
+    Files.write(linked, new byte[4096]);
+    Files.write(copied, new byte[1000]);
+    Path target = folder.newFolder().toPath().resolve("copy");
+    DataTransferThrottler throttler = mock(DataTransferThrottler.class);
+
+    long copiedBytes = KeyValueContainerUtil.linkOrCopyDirectory(source,
+        target, path -> path.startsWith("chunks"), throttler);
+
+    assertEquals(1000, copiedBytes);
+    assertTrue(Files.isSameFile(linked, target.resolve("chunks")
+        .resolve("1.block")));
+    ArgumentCaptor<Long> throttled = ArgumentCaptor.forClass(Long.class);
+    Mockito.verify(throttler, Mockito.atLeastOnce())
+        .throttle(throttled.capture());
+    assertEquals(copiedBytes,
+        throttled.getAllValues().stream().mapToLong(Long::longValue).sum());
+  }
+
   @Test
   public void testDuplicateContainer() throws Exception {
     try {
@@ -24,11 +24,17 @@
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hadoop.conf.StorageUnit;
 import org.apache.hadoop.fs.FileUtil;
+import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
@@ -38,6 +44,7 @@
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.hdds.security.token.TokenVerifier;
 import org.apache.hadoop.ozone.container.common.ContainerTestUtils;
+import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
 import org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
@@ -50,6 +57,7 @@
 import org.apache.hadoop.ozone.container.common.volume.MutableVolumeSet;
 import org.apache.hadoop.ozone.container.common.volume.StorageVolume;
 import org.apache.hadoop.ozone.container.common.volume.VolumeSet;
+import org.apache.hadoop.ozone.container.replication.ContainerImporter;
 import org.apache.ozone.test.GenericTestUtils;
 
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_DATANODE_VOLUME_CHOOSING_POLICY;
@@ -444,6 +452,177 @@ public void testDeleteContainer() throws IOException {
     }
   }
 
+  @Test
+  public void testMoveContainer() throws IOException {
+    final long containerID = 1L;
+    final String clusterId = UUID.randomUUID().toString();
+    final String datanodeId = UUID.randomUUID().toString();
+    final ConfigurationSource conf = new OzoneConfiguration();
+    final ContainerSet containerSet = new ContainerSet(1000);
+    final MutableVolumeSet volumeSet = Mockito.mock(MutableVolumeSet.class);
+
+    HddsVolume sourceVolume = createVolume(tempDir.newFolder(), conf,
+        clusterId, datanodeId, volumeSet);
+    HddsVolume destVolume = createVolume(tempDir.newFolder(), conf,
+        clusterId, datanodeId, volumeSet);
+    Mockito.when(volumeSet.getVolumesList())
+        .thenReturn(Collections.singletonList(sourceVolume));
+
+    final AtomicInteger icrReceived = new AtomicInteger(0);
+    final KeyValueHandler kvHandler = new KeyValueHandler(conf,
+        datanodeId, containerSet, volumeSet, ContainerMetrics.create(conf),
+        c -> icrReceived.incrementAndGet());
+    kvHandler.setClusterID(clusterId);
+
+    kvHandler.handleCreateContainer(
+        createContainerRequest(datanodeId, containerID), null);
+    Container<?> container = containerSet.getContainer(containerID);
+    kvHandler.markContainerForClose(container);
+    kvHandler.closeContainer(container);
+    File sourceDir =
+        new File(container.getContainerData().getContainerPath());
+    Assert.assertTrue(sourceDir.exists());
+    int icrBeforeMove = icrReceived.get();
+
+    Container<?> moved = kvHandler.moveContainer(container, destVolume, null);
+
+    Assert.assertNotSame(container, moved);
+    Assert.assertSame(moved, containerSet.getContainer(containerID));
+    assertEquals(destVolume, moved.getContainerData().getVolume());
+    assertEquals(ContainerProtos.ContainerDataProto.State.CLOSED,
+        moved.getContainerState());
+    Assert.assertTrue(
+        new File(moved.getContainerData().getContainerPath()).exists());
+    Assert.assertFalse(sourceDir.exists());
+    assertEquals(icrBeforeMove + 1, icrReceived.get());
+
+    // the original container is no longer in the container set
+    Assert.assertThrows(StorageContainerException.class,
+        () -> kvHandler.moveContainer(container, destVolume, null));
+  }
+
+  @Test
+  public void testMoveContainerServesReadsAndDeletesDuringCopy()
+      throws Exception {
+    final String clusterId = UUID.randomUUID().toString();
+    final String datanodeId = UUID.randomUUID().toString();
+    final ConfigurationSource conf = new OzoneConfiguration();
+    final ContainerSet containerSet = new ContainerSet(1000);
+    final MutableVolumeSet volumeSet = Mockito.mock(MutableVolumeSet.class);
+
+    HddsVolume sourceVolume = createVolume(tempDir.newFolder(), conf,
+        clusterId, datanodeId, volumeSet);
+    HddsVolume destVolume = createVolume(tempDir.newFolder(), conf,
+        clusterId, datanodeId, volumeSet);
+    Mockito.when(volumeSet.getVolumesList())
+        .thenReturn(Collections.singletonList(sourceVolume));
+
+    final KeyValueHandler kvHandler = new KeyValueHandler(conf,
+        datanodeId, containerSet, volumeSet, ContainerMetrics.create(conf),
+        c -> { });
+    kvHandler.setClusterID(clusterId);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // reads are served from the source until the copy replaces it
+      CountDownLatch copying = new CountDownLatch(1);
+      CountDownLatch resume = new CountDownLatch(1);
+      KeyValueContainer container = pauseCopy(containerSet,
+          createClosedContainer(kvHandler, containerSet, datanodeId, 1L),
+          copying, resume);
+      Future<Container<?>> move = executor.submit(
+          () -> kvHandler.moveContainer(container, destVolume, null));
+      copying.await();
+      assertEquals(ContainerProtos.Result.SUCCESS, kvHandler.handleGetBlock(
+          getBlockRequest(datanodeId, 1L), container).getResult());
+      Assert.assertSame(container, containerSet.getContainer(1L));
+      resume.countDown();
+      KeyValueContainer moved = (KeyValueContainer) move.get();
+      assertEquals(destVolume, moved.getContainerData().getVolume());
+      assertEquals(ContainerProtos.Result.SUCCESS, kvHandler.handleGetBlock(
+          getBlockRequest(datanodeId, 1L), moved).getResult());
+      // reads which got the source before it was removed are retried with
+      // the moved container
+      assertEquals(ContainerProtos.Result.SUCCESS, kvHandler.handle(
+          getBlockRequest(datanodeId, 1L), container, null).getResult());
+
+      // the container can be deleted during the copy, the move is given up
+      CountDownLatch copying2 = new CountDownLatch(1);
+      CountDownLatch resume2 = new CountDownLatch(1);
+      KeyValueContainer container2 = pauseCopy(containerSet,
+          createClosedContainer(kvHandler, containerSet, datanodeId, 2L),
+          copying2, resume2);
+      Future<Container<?>> move2 = executor.submit(
+          () -> kvHandler.moveContainer(container2, destVolume, null));
+      copying2.await();
+      kvHandler.deleteContainer(container2, true);
+      Assert.assertNull(containerSet.getContainer(2L));
+      resume2.countDown();
+      ExecutionException e =
+          Assert.assertThrows(ExecutionException.class, move2::get);
+      Assert.assertTrue(e.getCause() instanceof IOException);
+      Assert.assertNull(containerSet.getContainer(2L));
+      Assert.assertFalse(ContainerImporter.getUntarDirectory(destVolume)
+          .resolve("2").toFile().exists());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static KeyValueContainer createClosedContainer(
+      KeyValueHandler kvHandler, ContainerSet containerSet,
+      String datanodeId, long containerID) throws IOException {
+    kvHandler.handleCreateContainer(
+        createContainerRequest(datanodeId, containerID), null);
+    KeyValueContainer container =
+        (KeyValueContainer) containerSet.getContainer(containerID);
+    kvHandler.getBlockManager().putBlock(container,
+        new BlockData(new BlockID(containerID, 1L)));
+    kvHandler.markContainerForClose(container);
+    kvHandler.closeContainer(container);
+    return container;
+  }
+
+  /**
+   * Replaces the container in the container set with a spy, which waits for
+   * {@code resume} when it starts to be copied.
+   */
+  private static KeyValueContainer pauseCopy(ContainerSet containerSet,
+      KeyValueContainer container, CountDownLatch copying,
+      CountDownLatch resume) throws IOException {
+    KeyValueContainer spy = Mockito.spy(container);
+    Mockito.doAnswer(invocation -> {
+      copying.countDown();
+      resume.await();
+      return invocation.callRealMethod();
+    }).when(spy).copyContainerData(any(), any());
+    Assert.assertTrue(containerSet.replaceContainer(container, spy));
+    return spy;
+  }
+
+  private static ContainerCommandRequestProto getBlockRequest(
+      String datanodeId, long containerID) {
+    return ContainerCommandRequestProto.newBuilder()
+        .setCmdType(ContainerProtos.Type.GetBlock)
+        .setDatanodeUuid(datanodeId).setContainerID(containerID)
+        .setGetBlock(ContainerProtos.GetBlockRequestProto.newBuilder()
+            .setBlockID(new BlockID(containerID, 1L)
+                .getDatanodeBlockIDProtobuf()))
+        .build();
+  }
+
+  private static HddsVolume createVolume(File dir, ConfigurationSource conf,
+      String clusterId, String datanodeId, MutableVolumeSet volumeSet)
+      throws IOException {
+    HddsVolume hddsVolume = new HddsVolume.Builder(dir.getAbsolutePath())
+        .conf(conf).clusterID(clusterId).datanodeUuid(datanodeId)
+        .volumeSet(volumeSet)
+        .build();
+    hddsVolume.format(clusterId);
+    hddsVolume.createWorkingDir(clusterId, null);
+    hddsVolume.createTmpDirs(clusterId);
+    return hddsVolume;
+  }
+
   private static ContainerCommandRequestProto createContainerRequest(
       String datanodeId, long containerID) {
     return ContainerCommandRequestProto.newBuilder()
@@ -25,9 +25,11 @@
 import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
 import org.apache.hadoop.ozone.container.common.ContainerTestUtils;
 import org.apache.hadoop.ozone.container.common.helpers.ContainerMetrics;
+import org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.report.IncrementalReportSender;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.statemachine.DatanodeStateMachine;
 
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
@@ -44,6 +46,7 @@
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.CONTAINER_INTERNAL_ERROR;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.SUCCESS;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.UNKNOWN_BCSID;
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.UNSUPPORTED_REQUEST;
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.DATANODE_UUID;
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.getDummyCommandRequestProto;
 import static org.apache.hadoop.ozone.container.ContainerTestHelper.getPutBlockRequest;
@@ -131,6 +134,28 @@ public void testGetSmallFile() {
     assertEquals(UNKNOWN_BCSID, response.getResult());
   }
 
+  @Test
+  public void testGetLocalBlockFile() {
+    KeyValueContainer container = getMockUnhealthyContainer();
+    when(container.getContainerData().getLayoutVersion())
+        .thenReturn(ContainerLayoutVersion.FILE_PER_BLOCK);
+    ContainerProtos.ContainerCommandRequestProto request =
+        getDummyCommandRequestProto(ContainerProtos.Type.GetLocalBlockFile);
+
+    // short-circuit reads are disabled by default
+    ContainerProtos.ContainerCommandResponseProto response =
+        getDummyHandler().handleGetLocalBlockFile(request, container);
+    assertEquals(UNSUPPORTED_REQUEST, response.getResult());
+
+    OzoneConfiguration conf = new OzoneConfiguration();
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setShortCircuitReadEnabled(true);
+    conf.setFromObject(dnConf);
+    response = getDummyHandler(conf).handleGetLocalBlockFile(request,
+        container);
+    assertEquals(UNKNOWN_BCSID, response.getResult());
+  }
+
   @Test
   void testNPEFromPutBlock() throws IOException {
     KeyValueContainer container = new KeyValueContainer(
@@ -176,6 +201,10 @@ public void testMarkContainerUnhealthyInFailedVolume() throws IOException {
   // -- Helper methods below.
 
   private KeyValueHandler getDummyHandler() {
+    return getDummyHandler(new OzoneConfiguration());
+  }
+
+  private KeyValueHandler getDummyHandler(OzoneConfiguration conf) {
     DatanodeDetails dnDetails = DatanodeDetails.newBuilder()
         .setUuid(UUID.fromString(DATANODE_UUID))
         .setHostName("dummyHost")
@@ -185,7 +214,7 @@ private KeyValueHandler getDummyHandler() {
     when(stateMachine.getDatanodeDetails()).thenReturn(dnDetails);
 
     return new KeyValueHandler(
-        new OzoneConfiguration(),
+        conf,
         stateMachine.getDatanodeDetails().getUuidString(),
         mock(ContainerSet.class),
         mock(MutableVolumeSet.class),
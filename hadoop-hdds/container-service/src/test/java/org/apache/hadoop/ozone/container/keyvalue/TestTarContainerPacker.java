@@ -29,9 +29,12 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -56,6 +59,7 @@
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.file.Files.newInputStream;
 import static java.nio.file.Files.newOutputStream;
+import static org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker.CHUNKS_DIR_NAME;
 import static org.apache.hadoop.ozone.container.keyvalue.TarContainerPacker.CONTAINER_FILE_NAME;
 import static org.junit.Assert.assertThrows;
 
@@ -91,6 +95,7 @@ public class TestTarContainerPacker {
   private final ContainerLayoutVersion layout;
   private final String schemaVersion;
   private OzoneConfiguration conf;
+  private final CopyContainerCompression compression;
 
   public TestTarContainerPacker(ContainerTestVersionInfo versionInfo,
       CopyContainerCompression compression) {
@@ -98,6 +103,7 @@ public TestTarContainerPacker(ContainerTestVersionInfo versionInfo,
     this.schemaVersion = versionInfo.getSchemaVersion();
     this.conf = new OzoneConfiguration();
     ContainerTestVersionInfo.setTestSchemaVersion(schemaVersion, conf);
+    this.compression = compression;
     packer = new TarContainerPacker(compression);
 
   }
@@ -253,6 +259,126 @@ public void pack() throws IOException {
     inputForUnpackData.assertClosedExactlyOnce();
   }
 
+  @Test
+  public void packInParts() throws IOException {
+    //GIVEN
+    KeyValueContainerData sourceContainerData =
+        createContainer(SOURCE_CONTAINER_ROOT);
+    KeyValueContainer sourceContainer =
+        new KeyValueContainer(sourceContainerData, conf);
+    writeDbFile(sourceContainerData, TEST_DB_FILE_NAME);
+    List<String> chunkFiles = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String chunkFileName = TEST_CHUNK_FILE_NAME + "_" + i;
+      writeChunkFile(sourceContainerData, chunkFileName);
+      chunkFiles.add(chunkFileName);
+    }
+    writeDescriptor(sourceContainer);
+
+    //WHEN: pack each part
+    int partCount = 3;
+    List<Path> parts = new ArrayList<>();
+    for (int part = 0; part < partCount; part++) {
+      TarContainerPacker partPacker =
+          new TarContainerPacker(compression, 0, part, partCount);
+      Assert.assertEquals(part == 0, partPacker.packsMetadata());
+      Path targetFile = TEMP_DIR.resolve("container.tar." + part);
+      try (OutputStream output = newOutputStream(targetFile)) {
+        partPacker.pack(sourceContainer, output);
+      }
+      parts.add(targetFile);
+    }
+
+    //THEN: each block file is in one of the data parts
+    Assert.assertEquals(
+        Collections.singleton(CHUNKS_DIR_NAME),
+        getChunkEntries(parts.get(0)));
+    Set<String> packedChunks = new HashSet<>();
+    for (int part = 1; part < partCount; part++) {
+      for (String entry : getChunkEntries(parts.get(part))) {
+        if (!entry.equals(CHUNKS_DIR_NAME)) {
+          String chunkFileName =
+              entry.substring(CHUNKS_DIR_NAME.length() + 1);
+          Assert.assertEquals(part,
+              TarContainerPacker.getPartIndex(chunkFileName, partCount));
+          Assert.assertTrue(packedChunks.add(chunkFileName));
+        }
+      }
+    }
+    Assert.assertEquals(new HashSet<>(chunkFiles), packedChunks);
+
+    //unpack all parts
+    KeyValueContainerData destinationContainerData =
+        createContainer(DEST_CONTAINER_ROOT, false);
+    KeyValueContainer destinationContainer =
+        new KeyValueContainer(destinationContainerData, conf);
+    TarContainerPacker unpacker = new TarContainerPacker(compression,
+        parts.subList(1, partCount));
+    String descriptor;
+    try (InputStream input = newInputStream(parts.get(0))) {
+      descriptor = new String(unpacker.unpackContainerData(
+          destinationContainer, input, TEMP_DIR,
+          DEST_CONTAINER_ROOT.resolve(String.valueOf(
+              destinationContainerData.getContainerID()))), UTF_8);
+    }
+
+    Assert.assertEquals(TEST_DESCRIPTOR_FILE_CONTENT, descriptor);
+    assertExampleMetadataDbIsGood(
+        TarContainerPacker.getDbPath(destinationContainerData),
+        TEST_DB_FILE_NAME);
+    for (String chunkFile : chunkFiles) {
+      assertExampleChunkFileIsGood(
+          Paths.get(destinationContainerData.getChunksPath()), chunkFile);
+    }
+  }
+
+  @Test
+  public void unpackRejectsMetadataInDataPart() throws IOException {
+    //GIVEN: a source ignoring the requested part sends the whole container
+    KeyValueContainerData sourceContainerData =
+        createContainer(SOURCE_CONTAINER_ROOT);
+    KeyValueContainer sourceContainer =
+        new KeyValueContainer(sourceContainerData, conf);
+    writeDbFile(sourceContainerData, TEST_DB_FILE_NAME);
+    writeChunkFile(sourceContainerData, TEST_CHUNK_FILE_NAME);
+    writeDescriptor(sourceContainer);
+    Path whole = TEMP_DIR.resolve("container.tar.whole");
+    try (OutputStream output = newOutputStream(whole)) {
+      packer.pack(sourceContainer, output);
+    }
+
+    //WHEN
+    KeyValueContainerData destinationContainerData =
+        createContainer(DEST_CONTAINER_ROOT, false);
+    KeyValueContainer destinationContainer =
+        new KeyValueContainer(destinationContainerData, conf);
+    TarContainerPacker unpacker = new TarContainerPacker(compression,
+        Collections.singletonList(whole));
+
+    //THEN
+    try (InputStream input = newInputStream(whole)) {
+      assertThrows(IllegalArgumentException.class,
+          () -> unpacker.unpackContainerData(destinationContainer, input,
+              TEMP_DIR, DEST_CONTAINER_ROOT.resolve(String.valueOf(
+                  destinationContainerData.getContainerID()))));
+    }
+  }
+
+  private Set<String> getChunkEntries(Path archive) throws IOException {
+    Set<String> entries = new HashSet<>();
+    try (InputStream input = newInputStream(archive);
+         TarArchiveInputStream tarStream =
+             new TarArchiveInputStream(packer.decompress(input))) {
+      TarArchiveEntry entry;
+      while ((entry = tarStream.getNextTarEntry()) != null) {
+        if (entry.getName().startsWith(CHUNKS_DIR_NAME)) {
+          entries.add(entry.getName().replaceAll("/$", ""));
+        }
+      }
+    }
+    return entries;
+  }
+
   @Test
   public void unpackContainerDataWithValidRelativeDbFilePath()
       throws Exception {
@@ -37,12 +37,14 @@
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.ozone.common.ChunkBuffer;
 import org.apache.hadoop.ozone.common.utils.BufferUtils;
+import org.apache.hadoop.ozone.container.common.helpers.BufferReleaser;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
 import org.apache.ozone.test.GenericTestUtils;
 
 import org.apache.commons.io.FileUtils;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.CONTAINER_INTERNAL_ERROR;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result.UNABLE_TO_FIND_CHUNK;
 
 import org.junit.jupiter.api.Assertions;
@@ -50,6 +52,7 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -231,4 +234,153 @@ public void readMissingFile() {
     Assertions.assertEquals(UNABLE_TO_FIND_CHUNK, e.getResult());
   }
 
+  @Test
+  public void readMappedData() throws Exception {
+    byte[] array = new byte[100];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (byte) i;
+    }
+    Path tempFile = Files.createTempFile(PREFIX, "mapped");
+    try {
+      File file = tempFile.toFile();
+      Files.write(tempFile, array);
+      MappedBufferCache cache = new MappedBufferCache(1024);
+      BufferReleaser releaser = new BufferReleaser();
+
+      int offset = 10;
+      int len = 45;
+      ChunkBuffer data = ChunkUtils.readMappedData(file, offset, len, 20,
+          null, cache, releaser);
+      List<ByteBuffer> buffers = data.asByteBufferList();
+      assertEquals(3, buffers.size());
+      assertEquals(20, buffers.get(0).remaining());
+      assertEquals(5, buffers.get(2).remaining());
+      assertArrayEquals(Arrays.copyOfRange(array, offset, offset + len),
+          data.toByteString().toByteArray());
+      assertEquals(1, cache.size());
+
+      // the mapping stays usable until the read is released
+      cache.invalidate(file);
+      assertEquals(0, cache.size());
+      assertArrayEquals(Arrays.copyOfRange(array, offset, offset + len),
+          data.toByteString().toByteArray());
+      releaser.release();
+
+      // replacing the file must not serve stale data
+      Files.delete(tempFile);
+      byte[] replaced = new byte[50];
+      Arrays.fill(replaced, (byte) 7);
+      Files.write(tempFile, replaced);
+      data = ChunkUtils.readMappedData(file, 0, 50, 50, null, cache, null);
+      assertArrayEquals(replaced,
+          data.toByteString().toByteArray());
+      assertFalse(data.asByteBufferList().get(0).isDirect());
+
+      StorageContainerException e = assertThrows(
+          StorageContainerException.class,
+          () -> ChunkUtils.readMappedData(file, 40, 20, 20, null, cache,
+              null));
+      assertEquals(CONTAINER_INTERNAL_ERROR, e.getResult());
+
+      cache.invalidate(file);
+      assertEquals(0, cache.size());
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Test that a file larger than a fraction of the capacity is still
+   * cached, and that a file larger than the capacity is not.
+   */
+  @Test
+  public void mappedBufferCacheCapacity() throws Exception {
+    Path dir = Files.createTempDirectory(PREFIX);
+    try {
+      MappedBufferCache cache = new MappedBufferCache(100);
+      File large = dir.resolve("large").toFile();
+      Files.write(large.toPath(), new byte[90]);
+      File tooLarge = dir.resolve("tooLarge").toFile();
+      Files.write(tooLarge.toPath(), new byte[101]);
+
+      BufferReleaser releaser = new BufferReleaser();
+      cache.get(large, releaser);
+      assertEquals(1, cache.size());
+      ByteBuffer buffer = cache.get(tooLarge, releaser);
+      assertEquals(101, buffer.remaining());
+      assertEquals(1, cache.size());
+      releaser.release();
+    } finally {
+      FileUtils.deleteDirectory(dir.toFile());
+    }
+  }
+
+  @Test
+  public void mappedBufferCacheInvalidateAll() throws Exception {
+    Path dir = Files.createTempDirectory(PREFIX);
+    try {
+      Path container = Files.createDirectory(dir.resolve("1"));
+      Path sibling = Files.createDirectory(dir.resolve("10"));
+      File block = container.resolve("block").toFile();
+      File other = sibling.resolve("block").toFile();
+      Files.write(block.toPath(), new byte[10]);
+      Files.write(other.toPath(), new byte[10]);
+
+      MappedBufferCache cache = new MappedBufferCache(1024);
+      BufferReleaser releaser = new BufferReleaser();
+      cache.get(block, releaser);
+      cache.get(other, releaser);
+      releaser.release();
+      assertEquals(2, cache.size());
+
+      cache.invalidateAll(container.toFile());
+      assertEquals(1, cache.size());
+      cache.invalidateAll(sibling.toFile());
+      assertEquals(0, cache.size());
+    } finally {
+      FileUtils.deleteDirectory(dir.toFile());
+    }
+  }
+
+  @Test
+  public void readPooledData() throws Exception {
+    byte[] array = new byte[100];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (byte) i;
+    }
+    Path tempFile = Files.createTempFile(PREFIX, "pooled");
+    try {
+      File file = tempFile.toFile();
+      Files.write(tempFile, array);
+      BoundedByteBufferPool pool = new BoundedByteBufferPool(40);
+      BufferReleaser releaser = new BufferReleaser();
+
+      int offset = 10;
+      int len = 45;
+      ChunkBuffer data = ChunkUtils.readData(len, 20, pool, releaser,
+          buffers -> ChunkUtils.readData(file, buffers, offset, len, null));
+      List<ByteBuffer> buffers = data.asByteBufferList();
+      assertEquals(3, buffers.size());
+      assertTrue(buffers.get(0).isDirect());
+      assertArrayEquals(Arrays.copyOfRange(array, offset, offset + len),
+          data.toByteString().toByteArray());
+
+      // released buffers are reused by the next read, up to the pool limit
+      releaser.release();
+      assertEquals(40, pool.getPooledBytes());
+      BufferReleaser next = new BufferReleaser();
+      ChunkBuffer reread = ChunkUtils.readData(20, 20, pool, next,
+          bufs -> ChunkUtils.readData(file, bufs, 0, 20, null));
+      ByteBuffer reused = reread.asByteBufferList().get(0);
+      assertTrue(buffers.stream().anyMatch(b -> b == reused));
+      assertEquals(20, pool.getPooledBytes());
+      assertArrayEquals(Arrays.copyOf(array, 20),
+          reread.toByteString().toByteArray());
+      next.release();
+      assertEquals(40, pool.getPooledBytes());
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
 }
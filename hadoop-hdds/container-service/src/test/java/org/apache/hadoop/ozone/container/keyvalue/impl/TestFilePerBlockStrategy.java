@@ -19,6 +19,7 @@
 
 import org.apache.commons.codec.binary.Hex;
 import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos;
 import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
 import org.apache.hadoop.ozone.OzoneConsts;
@@ -27,6 +28,7 @@
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
 import org.apache.hadoop.ozone.container.keyvalue.ContainerLayoutTestInfo;
 import org.apache.hadoop.ozone.container.keyvalue.KeyValueContainer;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.MappedBufferCache;
 import org.apache.hadoop.ozone.container.keyvalue.interfaces.ChunkManager;
 import org.junit.jupiter.api.Test;
 
@@ -137,6 +139,41 @@ public void testPartialRead() throws Exception {
         readData2.rewind().toByteString());
   }
 
+  /**
+   * Reads from closed containers are served from memory-mapped block files.
+   */
+  @Test
+  public void testMappedReadOfClosedContainer() throws Exception {
+    final int datalen = 1024;
+    KeyValueContainer container = getKeyValueContainer();
+    BlockID blockID = getBlockID();
+    ChunkInfo info = getChunk(blockID.getLocalID(), 0, 0, datalen);
+    ChunkBuffer data = ContainerTestHelper.getData(datalen);
+    setDataChecksum(info, data);
+    MappedBufferCache mappedBuffers = new MappedBufferCache(datalen * 4);
+    ChunkManager subject = new FilePerBlockStrategy(true,
+        new BlockManagerImpl(new OzoneConfiguration()), null, mappedBuffers);
+    subject.writeChunk(container, blockID, info, data, WRITE_STAGE);
+
+    // open container: regular read
+    subject.readChunk(container, blockID, info, null);
+    assertEquals(0, mappedBuffers.size());
+
+    container.getContainerData().setState(
+        ContainerProtos.ContainerDataProto.State.CLOSED);
+    ChunkInfo partial = getChunk(blockID.getLocalID(), 0, 100, 500);
+    ChunkBuffer readData = subject.readChunk(container, blockID, partial,
+        null);
+    assertEquals(1, mappedBuffers.size());
+    assertEquals(data.rewind().toByteString().substring(100, 600),
+        readData.rewind().toByteString());
+    checkReadIOStats(datalen + 500, 2);
+
+    // deleting or moving the container drops its mappings
+    subject.releaseContainer(container);
+    assertEquals(0, mappedBuffers.size());
+  }
+
   @Override
   protected ContainerLayoutTestInfo getStrategy() {
     return ContainerLayoutTestInfo.FILE_PER_BLOCK;
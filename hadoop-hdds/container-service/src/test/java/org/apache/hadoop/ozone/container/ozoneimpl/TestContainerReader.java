@@ -28,10 +28,12 @@
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.container.common.helpers.BlockData;
 import org.apache.hadoop.ozone.container.common.helpers.ChunkInfo;
+import org.apache.hadoop.ozone.container.common.impl.ContainerData;
 import org.apache.hadoop.ozone.container.common.impl.ContainerLayoutVersion;
 import org.apache.hadoop.ozone.container.common.impl.ContainerSet;
 import org.apache.hadoop.ozone.container.common.interfaces.Container;
 import org.apache.hadoop.ozone.container.common.interfaces.DBHandle;
+import org.apache.hadoop.ozone.container.common.statemachine.DatanodeConfiguration;
 import org.apache.hadoop.ozone.container.common.utils.ContainerCache;
 import org.apache.hadoop.ozone.container.common.utils.StorageVolumeUtil;
 import org.apache.hadoop.ozone.container.common.volume.HddsVolume;
@@ -55,10 +57,12 @@
 import org.mockito.Mockito;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.CLOSED;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.DELETED;
 import static org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerDataProto.State.RECOVERING;
 import static org.apache.hadoop.ozone.container.common.ContainerTestUtils.createDbInstancesForTestIfNeeded;
@@ -383,6 +387,47 @@ public void testMultipleContainerReader() throws Exception {
     Assert.assertEquals(0, cache.size());
   }
 
+  @Test
+  public void testParallelContainerReader() throws Exception {
+    DatanodeConfiguration dnConf = conf.getObject(DatanodeConfiguration.class);
+    dnConf.setContainerReaderThreadsPerVolume(4);
+    conf.setFromObject(dnConf);
+
+    final int containerCount = 50;
+    for (int i = 2; i < containerCount; i++) {
+      KeyValueContainerData keyValueContainerData = new KeyValueContainerData(i,
+          layout, (long) StorageUnit.GB.toBytes(5),
+          UUID.randomUUID().toString(), datanodeId.toString());
+      KeyValueContainer keyValueContainer =
+          new KeyValueContainer(keyValueContainerData, conf);
+      keyValueContainer.create(volumeSet, volumeChoosingPolicy, clusterId);
+      addBlocks(keyValueContainer, i % 2 == 0);
+    }
+    ContainerCache.getInstance(conf).shutdownCache();
+
+    ContainerReaderMetrics metrics = ContainerReaderMetrics.create();
+    try {
+      new ContainerReader(volumeSet, hddsVolume, containerSet, conf, true,
+          false, metrics).run();
+
+      Assert.assertEquals(containerCount, containerSet.containerCount());
+      for (int i = 0; i < containerCount; i++) {
+        ContainerData containerData =
+            containerSet.getContainer(i).getContainerData();
+        Assert.assertEquals(blockCount, containerData.getBlockCount());
+        Assert.assertEquals(blockCount * blockLen,
+            containerData.getBytesUsed());
+      }
+      Assert.assertEquals(containerCount, metrics.getNumContainersToLoad());
+      Assert.assertEquals(containerCount, metrics.getNumContainersLoaded());
+      Assert.assertEquals(containerCount * blockCount * blockLen,
+          metrics.getBytesVerified());
+      Assert.assertEquals(0, metrics.getEstimatedSecondsRemaining());
+    } finally {
+      metrics.unregister();
+    }
+  }
+
   @Test
   public void testMarkedDeletedContainerCleared() throws Exception {
     KeyValueContainerData containerData = new KeyValueContainerData(
@@ -425,6 +470,79 @@ public void testMarkedDeletedContainerCleared() throws Exception {
     }
   }
 
+  @Test
+  public void testContainerReaderWithIndexSnapshot() throws Exception {
+    KeyValueContainerData closedContainerData = new KeyValueContainerData(
+        20, layout, (long) StorageUnit.GB.toBytes(5),
+        UUID.randomUUID().toString(), datanodeId.toString());
+    closedContainerData.setState(CLOSED);
+    KeyValueContainer closedContainer =
+        new KeyValueContainer(closedContainerData, conf);
+    closedContainer.create(volumeSet, volumeChoosingPolicy, clusterId);
+    ContainerCache.getInstance(conf).shutdownCache();
+
+    new ContainerReader(volumeSet, hddsVolume, containerSet, conf, true)
+        .run();
+    Assert.assertEquals(3, containerSet.containerCount());
+
+    // Only the closed container is part of the snapshot.
+    Assert.assertEquals(1, ContainerIndexSnapshot.write(hddsVolume,
+        containerSet.getContainerIterator(hddsVolume)));
+    File snapshotFile = ContainerIndexSnapshot.getSnapshotFile(hddsVolume);
+    Assert.assertTrue(snapshotFile.exists());
+
+    // Make the block metadata in the snapshot stale.
+    try (DBHandle db = BlockUtils.getDB(closedContainerData, conf)) {
+      Table<String, Long> metadataTable = db.getStore().getMetadataTable();
+      metadataTable.put(closedContainerData.getBytesUsedKey(), blockLen);
+      metadataTable.put(closedContainerData.getBlockCountKey(), 1L);
+    }
+    BlockUtils.shutdownCache(conf);
+
+    ContainerSet restoredSet = new ContainerSet(1000);
+    ContainerReader containerReader = new ContainerReader(volumeSet,
+        hddsVolume, restoredSet, conf, true, true);
+    containerReader.run();
+
+    Assert.assertEquals(3, restoredSet.containerCount());
+    Assert.assertEquals(1, containerReader.getRestoredContainers().size());
+    Assert.assertEquals(20L,
+        (long) containerReader.getRestoredContainers().get(0));
+    for (int i = 0; i < 2; i++) {
+      Assert.assertEquals(blockCount,
+          restoredSet.getContainer(i).getContainerData().getBlockCount());
+    }
+    KeyValueContainerData restored = (KeyValueContainerData)
+        restoredSet.getContainer(20).getContainerData();
+    Assert.assertEquals(CLOSED, restored.getState());
+    Assert.assertEquals(0, restored.getBytesUsed());
+    Assert.assertEquals(0, restored.getBlockCount());
+
+    // Background verification fixes up the metadata from the DB.
+    containerReader.verifyRestoredContainers();
+    Assert.assertEquals(blockLen, restored.getBytesUsed());
+    Assert.assertEquals(1, restored.getBlockCount());
+    Assert.assertSame(restored,
+        restoredSet.getContainer(20).getContainerData());
+
+    // The snapshot is deleted once loaded, so it is not used again after a
+    // restart without clean shutdown.
+    Assert.assertFalse(snapshotFile.exists());
+    BlockUtils.shutdownCache(conf);
+    containerReader = new ContainerReader(volumeSet, hddsVolume,
+        new ContainerSet(1000), conf, true, true);
+    containerReader.run();
+    Assert.assertTrue(containerReader.getRestoredContainers().isEmpty());
+
+    // A corrupted snapshot is ignored.
+    Assert.assertEquals(1, ContainerIndexSnapshot.write(hddsVolume,
+        restoredSet.getContainerIterator(hddsVolume)));
+    byte[] bytes = Files.readAllBytes(snapshotFile.toPath());
+    bytes[bytes.length / 2] ^= 1;
+    Files.write(snapshotFile.toPath(), bytes);
+    Assert.assertTrue(ContainerIndexSnapshot.read(snapshotFile).isEmpty());
+  }
+
   private long addDbEntry(KeyValueContainerData containerData)
       throws Exception {
     try (DBHandle dbHandle = BlockUtils.getDB(containerData, conf)) {
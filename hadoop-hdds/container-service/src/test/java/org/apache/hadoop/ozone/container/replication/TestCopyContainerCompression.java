@@ -30,6 +30,7 @@
 
 import static org.apache.commons.io.IOUtils.readFully;
 import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_REPLICATION_COMPRESSION;
+import static org.apache.hadoop.hdds.HddsConfigKeys.HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL;
 import static org.apache.hadoop.ozone.container.replication.CopyContainerCompression.fromProto;
 import static org.apache.hadoop.ozone.container.replication.CopyContainerCompression.getDefaultCompression;
 import static org.apache.hadoop.ozone.container.replication.GrpcOutputStreamTest.getRandomBytes;
@@ -92,4 +93,36 @@ void testInputOutput(CopyContainerCompression compression) throws Exception {
     }
   }
 
+  @ParameterizedTest
+  @EnumSource
+  void testInputOutputWithLevel(CopyContainerCompression compression)
+      throws Exception {
+    byte[] original = getRandomBytes(1024);
+
+    for (int level : new int[] {1, 9, 100}) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (OutputStream compressed = compression.wrap(out, level)) {
+        compressed.write(original);
+      }
+
+      ByteArrayInputStream input =
+          new ByteArrayInputStream(out.toByteArray());
+      try (InputStream uncompressed = compression.wrap(input)) {
+        byte[] read = new byte[original.length];
+        readFully(uncompressed, read);
+        assertArrayEquals(original, read);
+        assertEquals(0, uncompressed.available());
+      }
+    }
+  }
+
+  @Test
+  void getLevelConf() {
+    MutableConfigurationSource conf = new OzoneConfiguration();
+    assertEquals(0, CopyContainerCompression.getLevelConf(conf));
+
+    conf.setInt(HDDS_CONTAINER_REPLICATION_COMPRESSION_LEVEL, 5);
+    assertEquals(5, CopyContainerCompression.getLevelConf(conf));
+  }
+
 }
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.container.replication;
+
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
+import org.apache.hadoop.ozone.container.replication.ReplicationBandwidthLimiter.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Tests for {@link ReplicationBandwidthLimiter}.
+ */
+class TestReplicationBandwidthLimiter {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  void unlimitedHasNoBucket() {
+    ReplicationBandwidthLimiter limiter =
+        new ReplicationBandwidthLimiter(0, clock::get);
+
+    assertNull(limiter.getBucket(MockDatanodeDetails.randomDatanodeDetails()));
+  }
+
+  @Test
+  void bucketPerPeer() {
+    ReplicationBandwidthLimiter limiter =
+        new ReplicationBandwidthLimiter(1000, clock::get);
+    DatanodeDetails peer1 = MockDatanodeDetails.randomDatanodeDetails();
+    DatanodeDetails peer2 = MockDatanodeDetails.randomDatanodeDetails();
+
+    assertSame(limiter.getBucket(peer1), limiter.getBucket(peer1));
+    assertNotSame(limiter.getBucket(peer1), limiter.getBucket(peer2));
+  }
+
+  @Test
+  void waitsForTokens() {
+    ReplicationBandwidthLimiter limiter =
+        new ReplicationBandwidthLimiter(1000, clock::get);
+    TokenBucket bucket =
+        limiter.getBucket(MockDatanodeDetails.randomDatanodeDetails());
+
+    // initial burst of one second
+    assertEquals(0, bucket.reserve(1000));
+    // each further byte takes a millisecond
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(500), bucket.reserve(500));
+    // later transfers wait for the earlier ones
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), bucket.reserve(500));
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertEquals(0, bucket.reserve(0));
+
+    // idle time refills at most one second worth of tokens
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertEquals(0, bucket.reserve(1000));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(1), bucket.reserve(1));
+  }
+}
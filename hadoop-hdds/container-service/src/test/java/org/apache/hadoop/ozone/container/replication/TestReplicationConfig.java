@@ -22,8 +22,11 @@
 import org.junit.jupiter.api.Test;
 
 import static org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig.OUTOFSERVICE_FACTOR_DEFAULT;
+import static org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig.PARALLEL_STREAMS_DEFAULT;
 import static org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig.REPLICATION_MAX_STREAMS_DEFAULT;
 import static org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig.REPLICATION_OUTOFSERVICE_FACTOR_KEY;
+import static org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig.REPLICATION_PARALLEL_STREAMS_KEY;
+import static org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig.REPLICATION_PEER_BANDWIDTH_KEY;
 import static org.apache.hadoop.ozone.container.replication.ReplicationServer.ReplicationConfig.REPLICATION_STREAMS_LIMIT_KEY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -60,6 +63,8 @@ public void overridesInvalidValues() {
     conf.setInt(REPLICATION_STREAMS_LIMIT_KEY, invalidReplicationLimit);
     conf.setDouble(REPLICATION_OUTOFSERVICE_FACTOR_KEY,
         invalidOutOfServiceFactor);
+    conf.setInt(REPLICATION_PARALLEL_STREAMS_KEY, 0);
+    conf.setLong(REPLICATION_PEER_BANDWIDTH_KEY, -1);
 
     // WHEN
     ReplicationConfig subject = conf.getObject(ReplicationConfig.class);
@@ -69,6 +74,8 @@ public void overridesInvalidValues() {
         subject.getReplicationMaxStreams());
     assertEquals(OUTOFSERVICE_FACTOR_DEFAULT,
         subject.getOutOfServiceFactor(), 0.001);
+    assertEquals(PARALLEL_STREAMS_DEFAULT, subject.getParallelStreams());
+    assertEquals(0, subject.getPeerBandwidth());
   }
 
   @Test
@@ -32,7 +32,9 @@
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.apache.hadoop.ozone.container.replication.CopyContainerCompression.NO_COMPRESSION;
@@ -138,6 +140,30 @@ public void testRandomSelection() throws Exception {
     downloader.verifyAllClientsClosed();
   }
 
+  @Test
+  public void testGetContainerPartsFromReplicas() throws Exception {
+
+    //GIVEN
+    List<DatanodeDetails> datanodes = createDatanodes();
+    TestingContainerDownloader downloader =
+        TestingContainerDownloader.delayedFailureFor(datanodes.get(0));
+
+    //WHEN
+    List<Path> result = downloader.getContainerPartsFromReplicas(1L,
+        datanodes, tempDir, NO_COMPRESSION, 3);
+
+    //THEN
+    //first datanode is failed, all parts are downloaded from the second
+    String dn = datanodes.get(1).getUuidString();
+    Assertions.assertEquals(Arrays.asList(Paths.get(dn + ".0"),
+        Paths.get(dn + ".1"), Paths.get(dn + ".2")), result);
+    //metadata part is requested after the block files
+    List<Integer> requested = downloader.requestedParts.get(dn);
+    Assertions.assertEquals(3, requested.size());
+    Assertions.assertEquals(0, requested.get(2));
+    downloader.verifyAllClientsClosed();
+  }
+
   private List<DatanodeDetails> createDatanodes() {
     List<DatanodeDetails> datanodes = new ArrayList<>();
     datanodes.add(MockDatanodeDetails.randomDatanodeDetails());
@@ -156,6 +182,8 @@ private List<DatanodeDetails> createDatanodes() {
 
     private final AtomicReference<DatanodeDetails> datanodeRef =
         new AtomicReference<>();
+    private final Map<String, List<Integer>> requestedParts =
+        new ConcurrentHashMap<>();
 
     static TestingContainerDownloader randomOrder() {
       return new TestingContainerDownloader(false, false);
@@ -232,6 +260,17 @@ protected CompletableFuture<Path> downloadContainer(
 
     }
 
+    @Override
+    protected CompletableFuture<Path> downloadContainerPart(
+        GrpcReplicationClient client, long containerId, Path downloadPath,
+        int partIndex, int partCount) {
+      DatanodeDetails datanode = datanodeRef.get();
+      requestedParts.computeIfAbsent(datanode.getUuidString(),
+          k -> new ArrayList<>()).add(partIndex);
+      return downloadContainer(client, containerId, downloadPath)
+          .thenApply(path -> Paths.get(path + "." + partIndex));
+    }
+
     private void verifyAllClientsClosed() throws Exception {
       for (GrpcReplicationClient each : clients) {
         verify(each).close();
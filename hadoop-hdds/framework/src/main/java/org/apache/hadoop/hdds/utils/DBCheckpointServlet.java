@@ -187,7 +187,8 @@ private void generateSnapshotCheckpoint(HttpServletRequest request,
     if (sstParam != null) {
       receivedSstList.addAll(
           Arrays.stream(sstParam)
-              .filter(s -> s.endsWith(ROCKSDB_SST_SUFFIX))
+              .filter(s -> SstFileChecksums.getName(s)
+                  .endsWith(ROCKSDB_SST_SUFFIX))
               .distinct()
               .collect(Collectors.toList()));
       LOG.info("Received excluding SST {}", receivedSstList);
@@ -373,6 +373,19 @@ public static List<String> getExistingSstFiles(File db) throws IOException {
     return sstList;
   }
 
+  /**
+   * The same as {@link #getExistingSstFiles(File)}, with each entry having
+   * the checksum of the file appended, see {@link SstFileChecksums}.
+   */
+  public static List<String> getExistingSstFilesWithChecksums(File db)
+      throws IOException {
+    List<String> sstList = new ArrayList<>();
+    for (String sst : getExistingSstFiles(db)) {
+      sstList.add(SstFileChecksums.toEntry(sst, new File(db, sst).toPath()));
+    }
+    return sstList;
+  }
+
   /**
    * Build CA list which need to be passed to client.
    *
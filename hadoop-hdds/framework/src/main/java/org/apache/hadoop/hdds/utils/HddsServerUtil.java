@@ -27,6 +27,7 @@
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.TimeUnit;
@@ -595,6 +596,9 @@ public static void writeDBCheckpointToStream(
       List<String> toExcludeList,
       List<String> excludedList)
       throws IOException {
+    // file name -> exclude list entry, possibly with a checksum
+    final Map<String, String> toExclude = toExcludeList.stream().collect(
+        Collectors.toMap(SstFileChecksums::getName, e -> e, (a, b) -> b));
     try (TarArchiveOutputStream archiveOutputStream =
             new TarArchiveOutputStream(destination);
         Stream<Path> files =
@@ -606,7 +610,8 @@ public static void writeDBCheckpointToStream(
           Path fileNamePath = path.getFileName();
           if (fileNamePath != null) {
             String fileName = fileNamePath.toString();
-            if (!toExcludeList.contains(fileName)) {
+            final String entry = toExclude.get(fileName);
+            if (entry == null || !SstFileChecksums.matches(entry, path)) {
               includeFile(path.toFile(), fileName, archiveOutputStream);
             } else {
               excludedList.add(fileName);
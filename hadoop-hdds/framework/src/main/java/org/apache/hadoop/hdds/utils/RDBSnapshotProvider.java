@@ -29,12 +29,18 @@
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.apache.hadoop.hdds.utils.HddsServerUtil.ratisSnapshotComplete;
+import static org.apache.hadoop.ozone.OzoneConsts.ROCKSDB_SST_SUFFIX;
 import static org.apache.hadoop.ozone.OzoneConsts.SNAPSHOT_CANDIDATE_DIR;
 
 /**
@@ -49,15 +55,22 @@
  * The difference between incremental and full snapshot is whether to send
  * the existing SST file list to the leader or not.
  *
+ * The SST files are sent with their checksums, see {@link SstFileChecksums},
+ * so that the leader only excludes the files having the same content.
+ * This allows seeding the candidate dir with the SST files of the active DB,
+ * which a lagging node mostly shares with the leader, so that only the
+ * missing SST files and the other DB files are transferred.
  */
 public abstract class RDBSnapshotProvider implements Closeable {
 
   private static final Logger LOG =
       LoggerFactory.getLogger(RDBSnapshotProvider.class);
+  private static final String STAGING_DIR_SUFFIX = ".staging";
 
   private final File snapshotDir;
   private final File candidateDir;
   private final String dbName;
+  private final File activeDbDir;
   private final AtomicReference<String> lastLeaderRef;
   private final AtomicLong numDownloaded;
   private FaultInjector injector;
@@ -65,9 +78,19 @@ public abstract class RDBSnapshotProvider implements Closeable {
   private final AtomicLong initCount;
 
   public RDBSnapshotProvider(File snapshotDir, String dbName) {
+    this(snapshotDir, dbName, null);
+  }
+
+  /**
+   * @param activeDbDir the dir of the active DB to seed the candidate dir
+   *                    from, or null to not seed it.
+   */
+  public RDBSnapshotProvider(File snapshotDir, String dbName,
+      File activeDbDir) {
     this.snapshotDir = snapshotDir;
     this.candidateDir = new File(snapshotDir, dbName + SNAPSHOT_CANDIDATE_DIR);
     this.dbName = dbName;
+    this.activeDbDir = activeDbDir;
     this.injector = null;
     this.lastLeaderRef = new AtomicReference<>(null);
     this.numDownloaded = new AtomicLong();
@@ -110,6 +133,7 @@ public DBCheckpoint downloadDBSnapshotFromLeader(String leaderNodeID)
     LOG.info("Prepare to download the snapshot from leader OM {} and " +
         "reloading state from the snapshot.", leaderNodeID);
     checkLeaderConsistency(leaderNodeID);
+    seedCandidateDir();
 
     while (true) {
       String snapshotFileName = getSnapshotFileName(leaderNodeID);
@@ -164,6 +188,43 @@ void checkLeaderConsistency(String currentLeader) throws IOException {
     lastLeaderRef.set(currentLeader);
   }
 
+  /**
+   * Link the SST files of the active DB into the candidate dir, unless it
+   * already has SST files from a previous download from the same leader.
+   * <p>
+   * The files the leader does not exclude are replaced, not overwritten,
+   * see {@link #getCheckpointFromSnapshotFile}.  The files not used by the
+   * downloaded checkpoint are deleted by RocksDB when opening it.
+   */
+  @VisibleForTesting
+  void seedCandidateDir() throws IOException {
+    if (activeDbDir == null || !activeDbDir.isDirectory()
+        || !HAUtils.getExistingSstFiles(candidateDir).isEmpty()) {
+      return;
+    }
+    final List<Path> ssts;
+    try (Stream<Path> files = Files.list(activeDbDir.toPath())) {
+      ssts = files.filter(p -> p.toString().endsWith(ROCKSDB_SST_SUFFIX))
+          .collect(Collectors.toList());
+    }
+    int linked = 0;
+    for (Path sst : ssts) {
+      final Path fileName = sst.getFileName();
+      if (fileName == null) {
+        continue;
+      }
+      try {
+        Files.createLink(candidateDir.toPath().resolve(fileName), sst);
+        linked++;
+      } catch (NoSuchFileException e) {
+        // deleted by a compaction
+        LOG.debug("Skipping deleted SST file {}", sst);
+      }
+    }
+    LOG.info("Seeded the candidate dir {} with {} SST files from {}",
+        candidateDir, linked, activeDbDir);
+  }
+
   /**
    * Get the snapshot file name.
    *
@@ -186,9 +247,14 @@ public String getSnapshotFileName(String leaderNodeID) {
    */
   public RocksDBCheckpoint getCheckpointFromSnapshotFile(File snapshot,
       File untarDir, boolean deleteSnapshot) throws IOException {
-    // Untar the checkpoint file.
+    // Untar the checkpoint file into a staging dir first, then move the
+    // files, since the untarDir may have files hard linked to the active DB.
     Path untarredDbDir = untarDir.toPath();
-    FileUtil.unTar(snapshot, untarredDbDir.toFile());
+    File stagingDir = new File(snapshotDir, dbName + STAGING_DIR_SUFFIX);
+    FileUtil.fullyDelete(stagingDir);
+    FileUtil.unTar(snapshot, stagingDir);
+    moveFiles(stagingDir.toPath(), untarredDbDir);
+    FileUtil.fullyDelete(stagingDir);
 
     if (deleteSnapshot) {
       FileUtil.fullyDelete(snapshot);
@@ -196,6 +262,22 @@ public RocksDBCheckpoint getCheckpointFromSnapshotFile(File snapshot,
     return new RocksDBCheckpoint(untarredDbDir);
   }
 
+  /** Move the files in the source dir, replacing the ones in the target. */
+  private static void moveFiles(Path source, Path target) throws IOException {
+    final List<Path> files;
+    try (Stream<Path> s = Files.walk(source)) {
+      files = s.filter(Files::isRegularFile).collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      final Path dest = target.resolve(source.relativize(file));
+      final Path parent = dest.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.move(file, dest, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
   /**
    * The abstract method to download the snapshot.
    * Could be implemented in HTTP, GRPC, etc.
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.utils;
+
+import org.apache.hadoop.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Checksums identifying SST files exchanged during incremental DB checkpoint
+ * transfers, so that an SST file the follower already has is only excluded
+ * from the transfer when it has the same content as the one on the leader.
+ * <p>
+ * SST files are immutable, and the table properties stored near the end of a
+ * file include the unique id of the DB session which created it.  Therefore
+ * the checksum covers the file size, the head and the tail of the file
+ * instead of reading whole files, which may be hundreds of MB each.
+ * <p>
+ * In the exclude list of a checkpoint request, a file is given as
+ * {@code <name>#<checksum>}.  Entries with no checksum, sent by older
+ * followers, are matched by name only.
+ */
+public final class SstFileChecksums {
+
+  /** Separates the file name and the checksum in an exclude list entry. */
+  public static final String SEPARATOR = "#";
+
+  /** The number of bytes read from both the head and the tail of a file. */
+  static final int CHUNK_SIZE = 64 << 10;
+
+  private SstFileChecksums() {
+  }
+
+  /** @return the checksum of the given file. */
+  public static String compute(Path file) throws IOException {
+    final MessageDigest digest = newDigest();
+    try (FileChannel channel = FileChannel.open(file,
+        StandardOpenOption.READ)) {
+      final long size = channel.size();
+      final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+      update(digest, channel, 0, buffer);
+      if (size > CHUNK_SIZE) {
+        update(digest, channel, Math.max(CHUNK_SIZE, size - CHUNK_SIZE),
+            buffer);
+      }
+      return size + "-" + StringUtils.byteToHexString(digest.digest());
+    }
+  }
+
+  private static void update(MessageDigest digest, FileChannel channel,
+      long position, ByteBuffer buffer) throws IOException {
+    buffer.clear();
+    while (buffer.hasRemaining()) {
+      final int n = channel.read(buffer, position + buffer.position());
+      if (n < 0) {
+        break;
+      }
+    }
+    buffer.flip();
+    digest.update(buffer);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("MD5 is not supported", e);
+    }
+  }
+
+  /** @return the exclude list entry of the given file. */
+  public static String toEntry(String name, Path file) throws IOException {
+    return name + SEPARATOR + compute(file);
+  }
+
+  /** @return the file name of the given exclude list entry. */
+  public static String getName(String entry) {
+    final int i = entry.lastIndexOf(SEPARATOR);
+    return i < 0 ? entry : entry.substring(0, i);
+  }
+
+  /**
+   * @return the checksum of the given exclude list entry,
+   *         or null if the entry has no checksum.
+   */
+  public static String getChecksum(String entry) {
+    final int i = entry.lastIndexOf(SEPARATOR);
+    return i < 0 ? null : entry.substring(i + 1);
+  }
+
+  /**
+   * @return true if the file matches the checksum of the given exclude list
+   *         entry, or the entry has no checksum.
+   */
+  public static boolean matches(String entry, Path file) throws IOException {
+    final String checksum = getChecksum(entry);
+    if (checksum == null) {
+      return true;
+    }
+    return Files.isRegularFile(file) && checksum.equals(compute(file));
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.hdds.utils.db;
+
+import com.google.common.base.Preconditions;
+import org.apache.hadoop.hdds.utils.db.managed.ManagedBlockBasedTableConfig;
+import org.apache.hadoop.hdds.utils.db.managed.ManagedBloomFilter;
+import org.apache.hadoop.hdds.utils.db.managed.ManagedColumnFamilyOptions;
+import org.apache.hadoop.hdds.utils.db.managed.ManagedLRUCache;
+import org.rocksdb.IndexType;
+
+/**
+ * Tuning of a single column family on top of the {@link DBProfile} of the DB.
+ * <p>
+ * With a prefix length set, the column family uses a capped prefix extractor
+ * and prefix bloom filters, so that seeks for a prefix absent from an SST
+ * file skip reading it.  Iterators over a shorter prefix, or no prefix at
+ * all, fall back to total order seek, see {@link RDBTable#iterator(byte[])}.
+ * Point lookups keep using whole key bloom filters unless disabled.
+ * <p>
+ * See: https://github.com/facebook/rocksdb/wiki/Prefix-Seek
+ */
+public final class ColumnFamilyProfile {
+
+  private final int prefixLength;
+  private final double memtablePrefixBloomSizeRatio;
+  private final boolean wholeKeyFiltering;
+  private final double bloomBitsPerKey;
+  private final boolean partitionedIndexAndFilters;
+  private final long blockCacheSize;
+
+  private ColumnFamilyProfile(Builder b) {
+    this.prefixLength = b.prefixLength;
+    this.memtablePrefixBloomSizeRatio = b.memtablePrefixBloomSizeRatio;
+    this.wholeKeyFiltering = b.wholeKeyFiltering;
+    this.bloomBitsPerKey = b.bloomBitsPerKey;
+    this.partitionedIndexAndFilters = b.partitionedIndexAndFilters;
+    this.blockCacheSize = b.blockCacheSize;
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** @return the length of the key prefix, 0 if no prefix is extracted. */
+  public int getPrefixLength() {
+    return prefixLength;
+  }
+
+  public double getMemtablePrefixBloomSizeRatio() {
+    return memtablePrefixBloomSizeRatio;
+  }
+
+  public boolean isWholeKeyFiltering() {
+    return wholeKeyFiltering;
+  }
+
+  public double getBloomBitsPerKey() {
+    return bloomBitsPerKey;
+  }
+
+  public boolean isPartitionedIndexAndFilters() {
+    return partitionedIndexAndFilters;
+  }
+
+  /** @return the block cache size, 0 if the DB profile default is used. */
+  public long getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  /**
+   * Create the options of a column family using this profile.
+   *
+   * @param base options to copy, left unchanged.
+   * @param dbProfile provides the block based table config to start from.
+   */
+  public ManagedColumnFamilyOptions newColumnFamilyOptions(
+      ManagedColumnFamilyOptions base, DBProfile dbProfile) {
+    final ManagedBlockBasedTableConfig tableConfig =
+        dbProfile.getBlockBasedTableConfig();
+    if (blockCacheSize > 0) {
+      tableConfig.closeAndSetBlockCache(new ManagedLRUCache(blockCacheSize));
+    }
+    tableConfig.filterPolicy().close();
+    tableConfig.setFilterPolicy(new ManagedBloomFilter(bloomBitsPerKey))
+        .setWholeKeyFiltering(wholeKeyFiltering);
+    if (partitionedIndexAndFilters) {
+      tableConfig.setIndexType(IndexType.kTwoLevelIndexSearch)
+          .setPartitionFilters(true)
+          .setCacheIndexAndFilterBlocks(true)
+          .setPinTopLevelIndexAndFilter(true);
+    }
+
+    final ManagedColumnFamilyOptions options =
+        new ManagedColumnFamilyOptions(base, tableConfig);
+    if (prefixLength > 0) {
+      options.useCappedPrefixExtractor(prefixLength);
+      options.setMemtablePrefixBloomSizeRatio(memtablePrefixBloomSizeRatio);
+      options.setMemtableWholeKeyFiltering(wholeKeyFiltering);
+    }
+    return options;
+  }
+
+  @Override
+  public String toString() {
+    return "prefixLength=" + prefixLength
+        + ", memtablePrefixBloomSizeRatio=" + memtablePrefixBloomSizeRatio
+        + ", wholeKeyFiltering=" + wholeKeyFiltering
+        + ", bloomBitsPerKey=" + bloomBitsPerKey
+        + ", partitionedIndexAndFilters=" + partitionedIndexAndFilters
+        + ", blockCacheSize=" + blockCacheSize;
+  }
+
+  /**
+   * Builder for {@link ColumnFamilyProfile}.
+   */
+  public static final class Builder {
+    private int prefixLength = 0;
+    private double memtablePrefixBloomSizeRatio = 0.02;
+    private boolean wholeKeyFiltering = true;
+    private double bloomBitsPerKey = 10;
+    private boolean partitionedIndexAndFilters = false;
+    private long blockCacheSize = 0;
+
+    private Builder() {
+    }
+
+    /**
+     * Extract the first prefixLength bytes of keys (or the whole key if
+     * shorter) for prefix bloom filters.
+     */
+    public Builder setPrefixLength(int prefixLength) {
+      Preconditions.checkArgument(prefixLength >= 0,
+          "prefixLength = %s < 0", prefixLength);
+      this.prefixLength = prefixLength;
+      return this;
+    }
+
+    public Builder setMemtablePrefixBloomSizeRatio(double ratio) {
+      Preconditions.checkArgument(ratio >= 0 && ratio <= 0.25,
+          "memtablePrefixBloomSizeRatio = %s is not in [0, 0.25]", ratio);
+      this.memtablePrefixBloomSizeRatio = ratio;
+      return this;
+    }
+
+    public Builder setWholeKeyFiltering(boolean wholeKeyFiltering) {
+      this.wholeKeyFiltering = wholeKeyFiltering;
+      return this;
+    }
+
+    public Builder setBloomBitsPerKey(double bitsPerKey) {
+      Preconditions.checkArgument(bitsPerKey > 0,
+          "bloomBitsPerKey = %s <= 0", bitsPerKey);
+      this.bloomBitsPerKey = bitsPerKey;
+      return this;
+    }
+
+    /**
+     * Use two level index and partitioned filters, cached in the block cache
+     * with only their top level pinned, instead of loading whole index and
+     * filter blocks of each open SST file on heap.
+     */
+    public Builder setPartitionedIndexAndFilters(boolean partitioned) {
+      this.partitionedIndexAndFilters = partitioned;
+      return this;
+    }
+
+    public Builder setBlockCacheSize(long blockCacheSize) {
+      Preconditions.checkArgument(blockCacheSize >= 0,
+          "blockCacheSize = %s < 0", blockCacheSize);
+      this.blockCacheSize = blockCacheSize;
+      return this;
+    }
+
+    public ColumnFamilyProfile build() {
+      Preconditions.checkArgument(prefixLength > 0 || wholeKeyFiltering,
+          "Neither prefix nor whole key filtering is enabled");
+      return new ColumnFamilyProfile(this);
+    }
+  }
+}
@@ -64,6 +64,8 @@
 
   private ManagedColumnFamilyOptions cfOptions;
 
+  private ColumnFamilyProfile profile;
+
   public DBColumnFamilyDefinition(
       String tableName,
       Class<KEY> keyType,
@@ -76,6 +78,7 @@ public DBColumnFamilyDefinition(
     this.valueType = valueType;
     this.valueCodec = valueCodec;
     this.cfOptions = null;
+    this.profile = null;
   }
 
   public Table<KEY, VALUE> getTable(DBStore db) throws IOException {
@@ -109,4 +112,16 @@ public ManagedColumnFamilyOptions getCfOptions() {
   public void setCfOptions(ManagedColumnFamilyOptions cfOptions) {
     this.cfOptions = cfOptions;
   }
+
+  public ColumnFamilyProfile getProfile() {
+    return profile;
+  }
+
+  /**
+   * Tune this column family on top of its {@link #getCfOptions() options},
+   * or the default options of the DB if not set.
+   */
+  public void setProfile(ColumnFamilyProfile profile) {
+    this.profile = profile;
+  }
 }
@@ -50,6 +50,7 @@
 import static org.rocksdb.RocksDB.DEFAULT_COLUMN_FAMILY;
 
 import org.apache.hadoop.hdds.conf.StorageUnit;
+import org.apache.hadoop.hdds.utils.db.cache.TableCache;
 import org.apache.hadoop.hdds.utils.db.managed.ManagedColumnFamilyOptions;
 import org.apache.hadoop.hdds.utils.db.managed.ManagedDBOptions;
 import org.apache.hadoop.hdds.utils.db.managed.ManagedRocksDB;
@@ -90,6 +91,8 @@ public final class DBStoreBuilder {
   // added with. Value will be null if the column family was not added with
   // any options. On build, this will be replaced with defaultCfOptions.
   private Map<String, ManagedColumnFamilyOptions> cfOptions;
+  // Column families tuned on top of their options.
+  private final Map<String, ColumnFamilyProfile> cfProfiles = new HashMap<>();
   private ConfigurationSource configuration;
   private final CodecRegistry.Builder registry = CodecRegistry.newBuilder();
   private String rocksDbStat;
@@ -107,6 +110,7 @@ public final class DBStoreBuilder {
   private long maxDbUpdatesSizeThreshold;
   private Integer maxNumberOfOpenFiles = null;
   private String threadNamePrefix = "";
+  private long tableCacheCapacity = 0;
 
   /**
    * Create DBStoreBuilder from a generic DBDefinition.
@@ -178,7 +182,8 @@ private void applyDBDefinition(DBDefinition definition) {
     for (DBColumnFamilyDefinition columnFamily :
         definition.getColumnFamilies()) {
 
-      addTable(columnFamily.getName(), columnFamily.getCfOptions());
+      addTable(columnFamily.getName(), columnFamily.getCfOptions(),
+          columnFamily.getProfile());
       addCodec(columnFamily.getKeyType(), columnFamily.getKeyCodec());
       addCodec(columnFamily.getValueType(), columnFamily.getValueCodec());
     }
@@ -220,7 +225,7 @@ public DBStore build() throws IOException {
       return new RDBStore(dbFile, rocksDBOption, writeOptions, tableConfigs,
           registry.build(), openReadOnly, maxFSSnapshots, dbJmxBeanNameName,
           enableCompactionDag, maxDbUpdatesSizeThreshold, createCheckpointDirs,
-          configuration, threadNamePrefix);
+          configuration, threadNamePrefix, tableCacheCapacity);
     } finally {
       tableConfigs.forEach(TableConfig::close);
     }
@@ -247,6 +252,20 @@ public DBStoreBuilder addTable(String tableName) {
   public DBStoreBuilder addTable(String tableName,
       ManagedColumnFamilyOptions options) {
     cfOptions.put(tableName, options);
+    cfProfiles.remove(tableName);
+    return this;
+  }
+
+  /**
+   * Add a table tuned by the given profile, if not null, on top of the given
+   * options, or the default column family options if null.
+   */
+  public DBStoreBuilder addTable(String tableName,
+      ManagedColumnFamilyOptions options, ColumnFamilyProfile profile) {
+    addTable(tableName, options);
+    if (profile != null) {
+      cfProfiles.put(tableName, profile);
+    }
     return this;
   }
 
@@ -310,6 +329,15 @@ public DBStoreBuilder setThreadNamePrefix(String prefix) {
     return this;
   }
 
+  /**
+   * Set the max size in bytes of the flushed entries kept by each table using
+   * {@link TableCache.CacheType#SHARDED_PARTIAL_CACHE}.
+   */
+  public DBStoreBuilder setTableCacheCapacity(long capacity) {
+    this.tableCacheCapacity = capacity;
+    return this;
+  }
+
   /**
    * Converts column families and their corresponding options that have been
    * registered with the builder to a set of {@link TableConfig} objects.
@@ -327,8 +355,25 @@ private Set<TableConfig> makeTableConfigs() {
         cfOptions.entrySet()) {
       String name = entry.getKey();
       ManagedColumnFamilyOptions options = entry.getValue();
+      ColumnFamilyProfile profile = cfProfiles.get(name);
 
-      if (options == null) {
+      if (profile != null) {
+        LOG.debug("using column family profile for table {}: {}",
+            name, profile);
+        ManagedColumnFamilyOptions base = options != null ? options
+            : getCfOptions(rocksDbCfWriteBufferSize);
+        try {
+          tableConfigs.add(new TableConfig(name,
+              profile.newColumnFamilyOptions(base, defaultCfProfile),
+              profile.getPrefixLength()));
+        } finally {
+          // base is only a template, close it unless it is owned by the
+          // caller or shared by other tables
+          if (options == null && base != defaultCfOptions) {
+            ManagedColumnFamilyOptions.closeDeeply(base);
+          }
+        }
+      } else if (options == null) {
         LOG.debug("using default column family options for table: {}", name);
         tableConfigs.add(new TableConfig(name,
                 getCfOptions(rocksDbCfWriteBufferSize)));
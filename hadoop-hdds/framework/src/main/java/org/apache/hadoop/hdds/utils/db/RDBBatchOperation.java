@@ -29,7 +29,9 @@
 import java.io.Closeable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -242,6 +244,39 @@ void delete(byte[] key) {
         putOrDelete(new Bytes(key), key.length, Op.DELETE, 0);
       }
 
+      /**
+       * Move the ops of the given cache to this cache.
+       * The ops of the given cache override the existing ops of this cache.
+       */
+      void moveFrom(FamilyCache that) {
+        Preconditions.checkState(!that.isCommit, "%s is already committed.",
+            that);
+        for (Map.Entry<Bytes, Object> op : that.ops.entrySet()) {
+          final Bytes key = op.getKey();
+          final Object value = op.getValue();
+          if (value == Op.DELETE) {
+            delCount++;
+            putOrDelete(key, keyLength(key), Op.DELETE, 0);
+          } else {
+            putCount++;
+            final int valueLen = value instanceof CodecBuffer
+                ? ((CodecBuffer) value).readableBytes()
+                : ((byte[]) value).length;
+            putOrDelete(key, keyLength(key), value, valueLen);
+          }
+        }
+        // the buffers are now owned by this cache
+        that.ops.clear();
+        that.batchSize = 0;
+        that.putCount = 0;
+        that.delCount = 0;
+      }
+
+      private int keyLength(Bytes key) {
+        return key.array() != null ? key.array().length
+            : key.asReadOnlyByteBuffer().remaining();
+      }
+
       String putString(int keySize, int valueSize) {
         return String.format("put(key: %s, value: %s), #put=%s",
             byteSize2String(keySize), byteSize2String(valueSize), putCount);
@@ -282,6 +317,13 @@ void delete(ColumnFamily family, byte[] key) {
           .delete(key);
     }
 
+    void moveFrom(OpCache that) {
+      for (FamilyCache f : that.name2cache.values()) {
+        name2cache.computeIfAbsent(f.family.getName(),
+            k -> new FamilyCache(f.family)).moveFrom(f);
+      }
+    }
+
     /** Prepare batch write for the entire cache. */
     Closeable prepareBatchWrite() throws IOException {
       for (Map.Entry<String, FamilyCache> e : name2cache.entrySet()) {
@@ -327,6 +369,8 @@ String getCommitString() {
   private final String name = "Batch-" + BATCH_COUNT.getAndIncrement();
   private final ManagedWriteBatch writeBatch;
   private final OpCache opCache = new OpCache();
+  /** Actions to run once the ops are written to the DB. */
+  private final List<Runnable> afterCommit = new ArrayList<>();
 
   public RDBBatchOperation() {
     writeBatch = new ManagedWriteBatch();
@@ -347,6 +391,7 @@ public void commit(RocksDatabase db) throws IOException {
     try (Closeable ignored = opCache.prepareBatchWrite()) {
       db.batchWrite(writeBatch);
     }
+    runAfterCommit();
   }
 
   public void commit(RocksDatabase db, ManagedWriteOptions writeOptions)
@@ -356,6 +401,40 @@ public void commit(RocksDatabase db, ManagedWriteOptions writeOptions)
     try (Closeable ignored = opCache.prepareBatchWrite()) {
       db.batchWrite(writeBatch, writeOptions);
     }
+    runAfterCommit();
+  }
+
+  /**
+   * Run the given action after the ops of this batch are committed, for
+   * example to drop values cached for the keys written by this batch.
+   * Readers may still see the previous values of the keys until the commit,
+   * so the action must not run before. The actions are dropped if this batch
+   * is closed without being committed.
+   */
+  public void addAfterCommit(Runnable action) {
+    afterCommit.add(action);
+  }
+
+  private void runAfterCommit() {
+    for (Runnable action : afterCommit) {
+      action.run();
+    }
+    afterCommit.clear();
+  }
+
+  /**
+   * Move all the ops of the given batch, which must not be committed yet,
+   * to this batch. The ops of the given batch override the ops of this
+   * batch on the same keys, so merging the batches in order gives the same
+   * result as adding all the ops to a single batch.
+   * The given batch is left empty and should still be closed.
+   */
+  public void merge(RDBBatchOperation other) {
+    debug(() -> String.format("%s: merge %s %s",
+        name, other, other.opCache.getCommitString()));
+    opCache.moveFrom(other.opCache);
+    afterCommit.addAll(other.afterCommit);
+    other.afterCommit.clear();
   }
 
   @Override
@@ -363,6 +442,7 @@ public void close() {
     debug(() -> String.format("%s: close", name));
     writeBatch.close();
     opCache.clear();
+    afterCommit.clear();
   }
 
   public void delete(ColumnFamily family, byte[] key) throws IOException {
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.hdds.utils.db;
+
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.UnsignedBytes;
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hdds.utils.db.RocksDatabase.ColumnFamily;
+import org.apache.hadoop.hdds.utils.db.managed.ManagedIngestExternalFileOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link Table.BulkLoader} writing SST files with {@link RDBSstFileWriter}.
+ * <p>
+ * Each file is ingested separately, in the order written, since the files
+ * may have overlapping key ranges.
+ */
+class RDBBulkLoader implements Table.BulkLoader<byte[], byte[]> {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(RDBBulkLoader.class);
+
+  /** The default size of the keys and values buffered per file. */
+  static final long DEFAULT_BUFFER_SIZE = 64L << 20;
+
+  private final RocksDatabase db;
+  private final ColumnFamily family;
+  private final File dir;
+  private final long bufferSize;
+
+  private final TreeMap<byte[], byte[]> buffer =
+      new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+  private long bufferedBytes = 0;
+  private long numEntries = 0;
+  private final List<File> files = new ArrayList<>();
+  private boolean loaded = false;
+
+  RDBBulkLoader(RocksDatabase db, ColumnFamily family, File tmpDir,
+      long bufferSize) throws IOException {
+    Preconditions.checkArgument(bufferSize > 0,
+        "bufferSize = %s <= 0", bufferSize);
+    this.db = db;
+    this.family = family;
+    this.bufferSize = bufferSize;
+    Files.createDirectories(tmpDir.toPath());
+    this.dir = Files.createTempDirectory(tmpDir.toPath(),
+        family.getName() + "-bulk-load-").toFile();
+  }
+
+  @Override
+  public void put(byte[] key, byte[] value) throws IOException {
+    Preconditions.checkState(!loaded, "Already loaded");
+    final byte[] previous = buffer.put(key, value);
+    bufferedBytes += value.length;
+    if (previous == null) {
+      bufferedBytes += key.length;
+    } else {
+      bufferedBytes -= previous.length;
+    }
+    if (bufferedBytes >= bufferSize) {
+      writeFile();
+    }
+  }
+
+  private void writeFile() throws IOException {
+    if (buffer.isEmpty()) {
+      return;
+    }
+    final File file = new File(dir, files.size() + ".sst");
+    try (RDBSstFileWriter writer = new RDBSstFileWriter()) {
+      writer.open(file);
+      for (Map.Entry<byte[], byte[]> e : buffer.entrySet()) {
+        writer.put(e.getKey(), e.getValue());
+      }
+    }
+    files.add(file);
+    numEntries += buffer.size();
+    buffer.clear();
+    bufferedBytes = 0;
+  }
+
+  @Override
+  public void load() throws IOException {
+    Preconditions.checkState(!loaded, "Already loaded");
+    writeFile();
+    loaded = true;
+    try (ManagedIngestExternalFileOptions options =
+             new ManagedIngestExternalFileOptions()) {
+      options.setMoveFiles(true);
+      for (File file : files) {
+        db.ingestExternalFile(family,
+            Collections.singletonList(file.getAbsolutePath()), options);
+      }
+    }
+    LOG.info("Bulk loaded {} entries in {} files into {}",
+        numEntries, files.size(), family.getName());
+  }
+
+  @Override
+  public void close() throws IOException {
+    buffer.clear();
+    FileUtils.deleteDirectory(dir);
+  }
+}
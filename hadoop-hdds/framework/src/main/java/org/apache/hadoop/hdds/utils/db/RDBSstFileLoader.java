@@ -48,6 +48,8 @@ public void load(File externalFile) throws IOException {
     try (ManagedIngestExternalFileOptions ingestOptions =
              new ManagedIngestExternalFileOptions()) {
       ingestOptions.setIngestBehind(false);
+      // link instead of copying, the dump files are deleted once loaded
+      ingestOptions.setMoveFiles(true);
       db.ingestExternalFile(family,
           Collections.singletonList(externalFile.getAbsolutePath()),
           ingestOptions);
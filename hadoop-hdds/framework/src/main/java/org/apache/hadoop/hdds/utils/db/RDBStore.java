@@ -79,6 +79,7 @@ public class RDBStore implements DBStore {
   private final long maxDbUpdatesSizeThreshold;
   private final ManagedDBOptions dbOptions;
   private final String threadNamePrefix;
+  private final long tableCacheCapacity;
 
   @SuppressWarnings("parameternumber")
   public RDBStore(File dbFile, ManagedDBOptions dbOptions,
@@ -87,10 +88,12 @@ public RDBStore(File dbFile, ManagedDBOptions dbOptions,
                   String dbJmxBeanName, boolean enableCompactionDag,
                   long maxDbUpdatesSizeThreshold,
                   boolean createCheckpointDirs,
-                  ConfigurationSource configuration, String threadNamePrefix)
+                  ConfigurationSource configuration, String threadNamePrefix,
+                  long tableCacheCapacity)
 
       throws IOException {
     this.threadNamePrefix = threadNamePrefix;
+    this.tableCacheCapacity = tableCacheCapacity;
     Preconditions.checkNotNull(dbFile, "DB file location cannot be null");
     Preconditions.checkNotNull(families);
     Preconditions.checkArgument(!families.isEmpty());
@@ -269,7 +272,7 @@ public long getEstimatedKeyCount() throws IOException {
   }
 
   @Override
-  public BatchOperation initBatchOperation() {
+  public RDBBatchOperation initBatchOperation() {
     return new RDBBatchOperation();
   }
 
@@ -300,7 +303,7 @@ public <K, V> Table<K, V> getTable(String name,
       Class<K> keyType, Class<V> valueType,
       TableCache.CacheType cacheType) throws IOException {
     return new TypedTable<>(getTable(name), codecRegistry, keyType,
-        valueType, cacheType, threadNamePrefix);
+        valueType, cacheType, threadNamePrefix, tableCacheCapacity);
   }
 
   @Override
@@ -42,12 +42,20 @@
   // This is for schemas that use a fixed-length
   // prefix for each key.
   private final RAW prefix;
+  // Exclusive upper bound of the keys, null if unbounded.
+  private final RAW upperBound;
 
   RDBStoreAbstractIterator(ManagedRocksIterator iterator, RDBTable table,
       RAW prefix) {
+    this(iterator, table, prefix, null);
+  }
+
+  RDBStoreAbstractIterator(ManagedRocksIterator iterator, RDBTable table,
+      RAW prefix, RAW upperBound) {
     this.rocksDBIterator = iterator;
     this.rocksDBTable = table;
     this.prefix = prefix;
+    this.upperBound = upperBound;
   }
 
   /** @return the key for the current entry. */
@@ -65,6 +73,9 @@
   /** Does the given key start with the prefix? */
   abstract boolean startsWithPrefix(RAW key);
 
+  /** Is the given key less than the upper bound? */
+  abstract boolean isBeforeUpperBound(RAW key);
+
   final ManagedRocksIterator getRocksDBIterator() {
     return rocksDBIterator;
   }
@@ -77,6 +88,10 @@ final RAW getPrefix() {
     return prefix;
   }
 
+  final RAW getUpperBound() {
+    return upperBound;
+  }
+
   @Override
   public final void forEachRemaining(
       Consumer<? super Table.KeyValue<RAW, RAW>> action) {
@@ -95,8 +110,14 @@ private void setCurrentEntry() {
 
   @Override
   public final boolean hasNext() {
-    return rocksDBIterator.get().isValid() &&
-        (prefix == null || startsWithPrefix(key()));
+    if (!rocksDBIterator.get().isValid()) {
+      return false;
+    } else if (prefix == null && upperBound == null) {
+      return true;
+    }
+    final RAW key = key();
+    return (prefix == null || startsWithPrefix(key))
+        && (upperBound == null || isBeforeUpperBound(key));
   }
 
   @Override
@@ -17,6 +17,7 @@
  */
 package org.apache.hadoop.hdds.utils.db;
 
+import com.google.common.primitives.UnsignedBytes;
 import org.apache.hadoop.hdds.utils.db.managed.ManagedRocksIterator;
 
 import java.io.IOException;
@@ -26,10 +27,26 @@
  * RocksDB store iterator using the byte[] API.
  */
 class RDBStoreByteArrayIterator extends RDBStoreAbstractIterator<byte[]> {
+  private final boolean readValue;
+
   RDBStoreByteArrayIterator(ManagedRocksIterator iterator,
       RDBTable table, byte[] prefix) {
+    this(iterator, table, prefix, Table.IteratorType.KEY_AND_VALUE);
+  }
+
+  RDBStoreByteArrayIterator(ManagedRocksIterator iterator,
+      RDBTable table, byte[] prefix, Table.IteratorType type) {
+    this(iterator, table, prefix, null, type);
+  }
+
+  RDBStoreByteArrayIterator(ManagedRocksIterator iterator,
+      RDBTable table, byte[] prefix, byte[] upperBound,
+      Table.IteratorType type) {
     super(iterator, table,
-        prefix == null ? null : Arrays.copyOf(prefix, prefix.length));
+        prefix == null ? null : Arrays.copyOf(prefix, prefix.length),
+        upperBound == null ? null
+            : Arrays.copyOf(upperBound, upperBound.length));
+    this.readValue = type.readValue();
     seekToFirst();
   }
 
@@ -41,7 +58,8 @@ byte[] key() {
   @Override
   Table.KeyValue<byte[], byte[]> getKeyValue() {
     final ManagedRocksIterator i = getRocksDBIterator();
-    return RawKeyValue.create(i.get().key(), i.get().value());
+    return RawKeyValue.create(i.get().key(),
+        readValue ? i.get().value() : null);
   }
 
   @Override
@@ -76,4 +94,10 @@ boolean startsWithPrefix(byte[] value) {
     }
     return true;
   }
+
+  @Override
+  boolean isBeforeUpperBound(byte[] key) {
+    return UnsignedBytes.lexicographicalComparator()
+        .compare(key, getUpperBound()) < 0;
+  }
 }
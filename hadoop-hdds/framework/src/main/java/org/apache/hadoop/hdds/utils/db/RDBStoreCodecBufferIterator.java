@@ -87,11 +87,27 @@ CodecBuffer getFromDb() {
 
   private final Buffer keyBuffer;
   private final Buffer valueBuffer;
+  private final boolean readValue;
   private final AtomicBoolean closed = new AtomicBoolean();
 
   RDBStoreCodecBufferIterator(ManagedRocksIterator iterator, RDBTable table,
       CodecBuffer prefix) {
-    super(iterator, table, prefix);
+    this(iterator, table, prefix, Table.IteratorType.KEY_AND_VALUE);
+  }
+
+  RDBStoreCodecBufferIterator(ManagedRocksIterator iterator, RDBTable table,
+      CodecBuffer prefix, Table.IteratorType type) {
+    this(iterator, table, prefix, null, type);
+  }
+
+  /**
+   * The iterator takes the ownership of the prefix and the upper bound,
+   * releasing them when closed.
+   */
+  RDBStoreCodecBufferIterator(ManagedRocksIterator iterator, RDBTable table,
+      CodecBuffer prefix, CodecBuffer upperBound, Table.IteratorType type) {
+    super(iterator, table, prefix, upperBound);
+    this.readValue = type.readValue();
 
     final String name = table != null ? table.getName() : null;
     this.keyBuffer = new Buffer(
@@ -116,7 +132,8 @@ CodecBuffer key() {
   @Override
   Table.KeyValue<CodecBuffer, CodecBuffer> getKeyValue() {
     assertOpen();
-    return Table.newKeyValue(key(), valueBuffer.getFromDb());
+    return Table.newKeyValue(key(),
+        readValue ? valueBuffer.getFromDb() : null);
   }
 
   @Override
@@ -144,11 +161,18 @@ boolean startsWithPrefix(CodecBuffer key) {
     return key.startsWith(prefix);
   }
 
+  @Override
+  boolean isBeforeUpperBound(CodecBuffer key) {
+    assertOpen();
+    return key.compareTo(getUpperBound()) < 0;
+  }
+
   @Override
   public void close() {
     if (closed.compareAndSet(false, true)) {
       super.close();
       Optional.ofNullable(getPrefix()).ifPresent(CodecBuffer::release);
+      Optional.ofNullable(getUpperBound()).ifPresent(CodecBuffer::release);
       keyBuffer.release();
       valueBuffer.release();
     }
@@ -21,18 +21,31 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
+import java.util.Comparator;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import com.google.common.primitives.UnsignedBytes;
 import org.apache.hadoop.hdds.annotation.InterfaceAudience;
 import org.apache.hadoop.hdds.utils.db.RocksDatabase.ColumnFamily;
 import org.apache.hadoop.hdds.utils.MetadataKeyFilters;
+import org.apache.ratis.util.function.CheckedBiConsumer;
+import org.apache.ratis.util.function.CheckedConsumer;
+import org.rocksdb.LiveFileMetaData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.apache.hadoop.hdds.StringUtils.bytes2String;
+
 /**
  * RocksDB implementation of ozone metadata store. This class should be only
  * used as part of TypedTable as it's underlying implementation to access the
@@ -223,14 +236,162 @@ public TableIterator<byte[], KeyValue<byte[], byte[]>> iterator()
   @Override
   public TableIterator<byte[], KeyValue<byte[], byte[]>> iterator(byte[] prefix)
       throws IOException {
-    return new RDBStoreByteArrayIterator(db.newIterator(family, false), this,
-        prefix);
+    return iterator(prefix, IteratorType.KEY_AND_VALUE);
+  }
+
+  @Override
+  public TableIterator<byte[], KeyValue<byte[], byte[]>> iterator(
+      byte[] prefix, IteratorType type) throws IOException {
+    final int prefixLength = prefix == null ? 0 : prefix.length;
+    return new RDBStoreByteArrayIterator(
+        db.newIterator(family, false, prefixLength), this, prefix, type);
   }
 
   TableIterator<CodecBuffer, KeyValue<CodecBuffer, CodecBuffer>> iterator(
       CodecBuffer prefix) throws IOException {
-    return new RDBStoreCodecBufferIterator(db.newIterator(family, false),
-        this, prefix);
+    return iterator(prefix, IteratorType.KEY_AND_VALUE);
+  }
+
+  TableIterator<CodecBuffer, KeyValue<CodecBuffer, CodecBuffer>> iterator(
+      CodecBuffer prefix, IteratorType type) throws IOException {
+    final int prefixLength = prefix == null ? 0 : prefix.readableBytes();
+    return new RDBStoreCodecBufferIterator(
+        db.newIterator(family, false, prefixLength), this, prefix, type);
+  }
+
+  /**
+   * @return an iterator over the keys in [startKey, endKey),
+   *         where null means unbounded.
+   */
+  TableIterator<byte[], KeyValue<byte[], byte[]>> rangeIterator(
+      byte[] startKey, byte[] endKey, IteratorType type) throws IOException {
+    final RDBStoreByteArrayIterator i = new RDBStoreByteArrayIterator(
+        db.newIterator(family, false), this, null, endKey, type);
+    if (startKey != null) {
+      i.seek(startKey);
+    }
+    return i;
+  }
+
+  /** The same as {@link #rangeIterator(byte[], byte[], IteratorType)}. */
+  TableIterator<CodecBuffer, KeyValue<CodecBuffer, CodecBuffer>>
+      codecBufferRangeIterator(byte[] startKey, byte[] endKey,
+      IteratorType type) throws IOException {
+    final CodecBuffer upperBound = toDirectCodecBuffer(endKey);
+    final RDBStoreCodecBufferIterator i;
+    try {
+      i = new RDBStoreCodecBufferIterator(db.newIterator(family, false),
+          this, null, upperBound, type);
+    } catch (Throwable t) {
+      if (upperBound != null) {
+        upperBound.release();
+      }
+      throw t;
+    }
+    if (startKey != null) {
+      try (CodecBuffer start = toDirectCodecBuffer(startKey)) {
+        i.seek(start);
+      }
+    }
+    return i;
+  }
+
+  private static CodecBuffer toDirectCodecBuffer(byte[] key) {
+    return key == null ? null
+        : CodecBuffer.allocateDirect(key.length).put(key);
+  }
+
+  /**
+   * Split this table into key ranges of about the same size, using the
+   * boundaries of its SST files.  Entries only in memtables are ignored.
+   *
+   * @return at most maxRanges - 1 sorted keys k_1, ..., k_n splitting the
+   *         table into the ranges [null, k_1), [k_1, k_2), ..., [k_n, null).
+   */
+  List<byte[]> getSplitKeys(int maxRanges) throws IOException {
+    final Comparator<byte[]> comparator =
+        UnsignedBytes.lexicographicalComparator();
+    final List<LiveFileMetaData> files = db.getLiveFilesMetaData().stream()
+        .filter(f -> getName().equals(bytes2String(f.columnFamilyName())))
+        .sorted((a, b) -> comparator.compare(a.smallestKey(), b.smallestKey()))
+        .collect(Collectors.toList());
+    final long totalSize = files.stream()
+        .mapToLong(LiveFileMetaData::size).sum();
+
+    final List<byte[]> splitKeys = new ArrayList<>();
+    long size = 0;
+    for (LiveFileMetaData f : files) {
+      final int ranges = splitKeys.size() + 1;
+      if (ranges >= maxRanges) {
+        break;
+      }
+      // start a new range once the current one has its share of the size
+      if (size > 0 && size * maxRanges >= totalSize * ranges) {
+        final byte[] key = f.smallestKey();
+        if (splitKeys.isEmpty() || comparator.compare(
+            splitKeys.get(splitKeys.size() - 1), key) < 0) {
+          splitKeys.add(key);
+        }
+      }
+      size += f.size();
+    }
+    return splitKeys;
+  }
+
+  @Override
+  public void forEachInParallel(int maxRanges, ForkJoinPool pool,
+      IteratorType type,
+      CheckedConsumer<KeyValue<byte[], byte[]>, IOException> action)
+      throws IOException {
+    forEachRange(getSplitKeys(maxRanges), pool, (start, end) -> {
+      try (TableIterator<byte[], KeyValue<byte[], byte[]>> i =
+               rangeIterator(start, end, type)) {
+        while (i.hasNext()) {
+          action.accept(i.next());
+        }
+      }
+    });
+  }
+
+  /**
+   * Submit a task to the pool for each range given by the split keys, see
+   * {@link #getSplitKeys(int)}, and wait for all of them to complete.
+   */
+  static void forEachRange(List<byte[]> splitKeys, ForkJoinPool pool,
+      CheckedBiConsumer<byte[], byte[], IOException> rangeTask)
+      throws IOException {
+    final List<ForkJoinTask<Void>> tasks = new ArrayList<>();
+    for (int i = 0; i <= splitKeys.size(); i++) {
+      final byte[] start = i == 0 ? null : splitKeys.get(i - 1);
+      final byte[] end = i == splitKeys.size() ? null : splitKeys.get(i);
+      tasks.add(pool.submit((Callable<Void>) () -> {
+        rangeTask.accept(start, end);
+        return null;
+      }));
+    }
+
+    IOException exception = null;
+    for (ForkJoinTask<Void> task : tasks) {
+      try {
+        task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        tasks.forEach(t -> t.cancel(false));
+        throw (InterruptedIOException) new InterruptedIOException(
+            "Interrupted iterating table ranges").initCause(e);
+      } catch (ExecutionException e) {
+        final IOException ioe = e.getCause() instanceof IOException
+            ? (IOException) e.getCause() : new IOException(e.getCause());
+        if (exception == null) {
+          exception = ioe;
+        } else {
+          exception.addSuppressed(ioe);
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
   }
 
   @Override
@@ -296,6 +457,17 @@ public void loadFromFile(File externalFile) throws IOException {
     }
   }
 
+  @Override
+  public BulkLoader<byte[], byte[]> newBulkLoader(File tmpDir)
+      throws IOException {
+    return newBulkLoader(tmpDir, RDBBulkLoader.DEFAULT_BUFFER_SIZE);
+  }
+
+  BulkLoader<byte[], byte[]> newBulkLoader(File tmpDir, long bufferSize)
+      throws IOException {
+    return new RDBBulkLoader(db, family, tmpDir, bufferSize);
+  }
+
   private List<KeyValue<byte[], byte[]>> getRangeKVs(byte[] startKey,
       int count, boolean sequential, byte[] prefix,
       MetadataKeyFilters.MetadataKeyFilter... filters)
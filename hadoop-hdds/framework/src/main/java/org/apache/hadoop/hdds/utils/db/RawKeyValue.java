@@ -42,7 +42,7 @@ public static ByteArray create(byte[] key, byte[] value) {
   /** Implement {@link RawKeyValue} with byte[]. */
   public static final class ByteArray extends RawKeyValue<byte[]> {
     static byte[] copy(byte[] bytes) {
-      return Arrays.copyOf(bytes, bytes.length);
+      return bytes == null ? null : Arrays.copyOf(bytes, bytes.length);
     }
 
     private ByteArray(byte[] key, byte[] value) {
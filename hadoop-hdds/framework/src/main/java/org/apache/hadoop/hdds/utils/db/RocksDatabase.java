@@ -160,8 +160,12 @@ static RocksDatabase open(File dbFile, ManagedDBOptions dbOptions,
       dbNameToCfHandleMap.put(db.get().getName(), handles);
       // init a column family map.
       AtomicLong counter = new AtomicLong(0);
+      final Map<String, Integer> prefixLengths = families.stream()
+          .collect(Collectors.toMap(TableConfig::getName,
+              TableConfig::getPrefixLength));
       for (ColumnFamilyHandle h : handles) {
-        final ColumnFamily f = new ColumnFamily(h, counter);
+        final ColumnFamily f = new ColumnFamily(h, counter,
+            prefixLengths.getOrDefault(bytes2String(h.getName()), 0));
         columnFamilies.put(f.getName(), f);
       }
       return new RocksDatabase(dbFile, db, dbOptions, writeOptions,
@@ -268,14 +272,22 @@ public static final class ColumnFamily {
     private AtomicLong counter;
     private final String name;
     private final ColumnFamilyHandle handle;
+    /** Length of the capped prefix extractor, 0 if none. */
+    private final int prefixLength;
     private AtomicBoolean isClosed = new AtomicBoolean(false);
 
     public ColumnFamily(ColumnFamilyHandle handle, AtomicLong counter)
         throws RocksDBException {
+      this(handle, counter, 0);
+    }
+
+    public ColumnFamily(ColumnFamilyHandle handle, AtomicLong counter,
+        int prefixLength) throws RocksDBException {
       this.nameBytes = handle.getName();
       this.counter = counter;
       this.name = bytes2String(nameBytes);
       this.handle = handle;
+      this.prefixLength = prefixLength;
       LOG.debug("new ColumnFamily for {}", name);
     }
 
@@ -283,6 +295,10 @@ public String getName() {
       return name;
     }
 
+    public int getPrefixLength() {
+      return prefixLength;
+    }
+
     public String getName(StringCodec codec) {
       return codec.fromPersistedFormat(nameBytes);
     }
@@ -858,10 +874,27 @@ public ManagedRocksIterator newIterator(ColumnFamily family)
 
   public ManagedRocksIterator newIterator(ColumnFamily family,
       boolean fillCache) throws IOException {
+    return newIterator(family, fillCache, 0);
+  }
+
+  /**
+   * Create an iterator over keys starting with a prefix of the given length.
+   * For column families with a capped prefix extractor, the iterator uses
+   * prefix seek, skipping SST files by their prefix bloom filters, only if
+   * the prefix is not shorter than the extracted prefix.  Otherwise, it
+   * falls back to total order seek so that keys of other prefixes are not
+   * missed.
+   */
+  public ManagedRocksIterator newIterator(ColumnFamily family,
+      boolean fillCache, int seekPrefixLength) throws IOException {
     assertClose();
     try (ManagedReadOptions readOptions = new ManagedReadOptions()) {
       counter.incrementAndGet();
       readOptions.setFillCache(fillCache);
+      if (family.getPrefixLength() > 0) {
+        readOptions.setTotalOrderSeek(
+            seekPrefixLength < family.getPrefixLength());
+      }
       return managed(db.get().newIterator(family.getHandle(), readOptions));
     } finally {
       counter.decrementAndGet();
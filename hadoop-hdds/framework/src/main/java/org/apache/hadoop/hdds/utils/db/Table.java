@@ -24,13 +24,16 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.hadoop.hdds.annotation.InterfaceStability;
 import org.apache.hadoop.hdds.utils.MetadataKeyFilters;
 import org.apache.hadoop.hdds.utils.TableCacheMetrics;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheStats;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.ratis.util.function.CheckedConsumer;
 /**
  * Interface for key-value store that stores ozone metadata. Ozone metadata is
  * stored as key value pairs, both key and value are arbitrary byte arrays. Each
@@ -174,6 +177,47 @@ default VALUE getReadCopy(KEY key) throws IOException {
   TableIterator<KEY, ? extends KeyValue<KEY, VALUE>> iterator(KEY prefix)
       throws IOException;
 
+  /**
+   * Returns a prefixed iterator for this metadata store, reading only the
+   * parts of the entries given by the type.
+   * With {@link IteratorType#KEY_ONLY}, the values are not read from the DB
+   * and {@link KeyValue#getValue()} returns null.
+   *
+   * @param prefix the prefix of the keys to iterate, or null for all keys.
+   * @param type the parts of the entries to read.
+   */
+  default TableIterator<KEY, ? extends KeyValue<KEY, VALUE>> iterator(
+      KEY prefix, IteratorType type) throws IOException {
+    return iterator(prefix);
+  }
+
+  /**
+   * Iterate all the entries of this table in parallel.
+   * The table is split into at most maxRanges key ranges of about the same
+   * size, each iterated by a task submitted to the given pool, with its own
+   * iterator reading the range as of the creation of the iterator.
+   * The action is called concurrently for entries of different ranges, so
+   * it must be thread safe.
+   * <p>
+   * The default implementation iterates the table on the calling thread.
+   *
+   * @param maxRanges the max number of ranges to split the table into.
+   * @param pool the pool running the iteration of the ranges.
+   * @param type the parts of the entries to read.
+   * @param action to call for each entry.
+   */
+  default void forEachInParallel(int maxRanges, ForkJoinPool pool,
+      IteratorType type,
+      CheckedConsumer<KeyValue<KEY, VALUE>, IOException> action)
+      throws IOException {
+    try (TableIterator<KEY, ? extends KeyValue<KEY, VALUE>> i =
+             iterator(null, type)) {
+      while (i.hasNext()) {
+        action.accept(i.next());
+      }
+    }
+  }
+
   /**
    * Returns the Name of this Table.
    * @return - Table Name.
@@ -236,6 +280,13 @@ default void cleanupCache(List<Long> epochs) {
     throw new NotImplementedException("cacheIterator is not implemented");
   }
 
+  /**
+   * @return the stat counters of the table cache.
+   */
+  default CacheStats getCacheStats() {
+    throw new NotImplementedException("getCacheStats is not implemented");
+  }
+
   /**
    * Create the metrics datasource that emits table cache metrics.
    */
@@ -328,6 +379,40 @@ void deleteBatchWithPrefix(BatchOperation batch, KEY prefix)
    */
   void loadFromFile(File externalFile) throws IOException;
 
+  /**
+   * Create a loader to bulk load entries into this table.
+   *
+   * @param tmpDir the dir to write SST files in, which should be in the same
+   *               file system as the DB for the files to be moved into it.
+   */
+  default BulkLoader<KEY, VALUE> newBulkLoader(File tmpDir)
+      throws IOException {
+    throw new NotImplementedException("newBulkLoader is not implemented");
+  }
+
+  /**
+   * Loads a large number of entries, in any order, into a table by writing
+   * them to SST files ingested into the DB, bypassing the WAL and memtables.
+   * Entries are buffered, and written in sorted order to an SST file each
+   * time the buffer is full.  When the entries are in disjoint key ranges,
+   * files are ingested into the bottommost level and never compacted again.
+   * <p>
+   * The entries only become visible once loaded, invalidating the table
+   * cache, if any.  An entry put later overrides an entry put earlier with the
+   * same key, as well as any entry already in the table.
+   */
+  interface BulkLoader<KEY, VALUE> extends AutoCloseable {
+    /** Add an entry to load; the key and value must not be modified. */
+    void put(KEY key, VALUE value) throws IOException;
+
+    /** Ingest all the entries put so far into the table. */
+    void load() throws IOException;
+
+    /** Delete the files written, if they were not loaded. */
+    @Override
+    void close() throws IOException;
+  }
+
   /**
    * Class used to represent the key and value pair of a db entry.
    */
@@ -357,6 +442,16 @@ public String toString() {
     };
   }
 
+  /** The parts of the entries read by an iterator. */
+  enum IteratorType {
+    KEY_ONLY,
+    KEY_AND_VALUE;
+
+    public boolean readValue() {
+      return this != KEY_ONLY;
+    }
+  }
+
   /** A {@link TableIterator} to iterate {@link KeyValue}s. */
   interface KeyValueIterator<KEY, VALUE>
       extends TableIterator<KEY, KeyValue<KEY, VALUE>> {
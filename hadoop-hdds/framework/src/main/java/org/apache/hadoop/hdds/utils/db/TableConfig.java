@@ -37,6 +37,7 @@ static TableConfig newTableConfig(String name) {
 
   private final String name;
   private final ManagedColumnFamilyOptions columnFamilyOptions;
+  private final int prefixLength;
 
   public static String toName(byte[] bytes) {
     return StringUtils.bytes2String(bytes);
@@ -49,8 +50,21 @@ public static String toName(byte[] bytes) {
    */
   public TableConfig(String name,
                      ManagedColumnFamilyOptions columnFamilyOptions) {
+    this(name, columnFamilyOptions, 0);
+  }
+
+  /**
+   * Constructs a Table Config.
+   * @param name - Name of the Table.
+   * @param columnFamilyOptions - Column Family options.
+   * @param prefixLength - Length of the capped prefix extractor set in the
+   *                     options, 0 if none.
+   */
+  public TableConfig(String name,
+      ManagedColumnFamilyOptions columnFamilyOptions, int prefixLength) {
     this.name = name;
     this.columnFamilyOptions = columnFamilyOptions;
+    this.prefixLength = prefixLength;
   }
 
   /**
@@ -78,6 +92,14 @@ public ManagedColumnFamilyOptions getColumnFamilyOptions() {
     return columnFamilyOptions;
   }
 
+  /**
+   * Returns the length of the capped prefix extractor of this Table.
+   * @return the prefix length, 0 if the Table has no capped prefix extractor.
+   */
+  public int getPrefixLength() {
+    return prefixLength;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
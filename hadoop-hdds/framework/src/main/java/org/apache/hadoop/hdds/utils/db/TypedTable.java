@@ -20,25 +20,33 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hdds.utils.MetadataKeyFilters;
 import org.apache.hadoop.hdds.utils.TableCacheMetrics;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheResult;
+import org.apache.hadoop.hdds.utils.db.cache.CacheStats;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.hdds.utils.db.cache.FullTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.OffHeapTableCache;
 import org.apache.hadoop.hdds.utils.db.cache.PartialTableCache;
+import org.apache.hadoop.hdds.utils.db.cache.ShardedPartialTableCache;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache;
 import org.apache.ratis.util.Preconditions;
 import org.apache.ratis.util.function.CheckedBiFunction;
+import org.apache.ratis.util.function.CheckedConsumer;
+import org.apache.ratis.util.function.CheckedFunction;
 
 import static org.apache.hadoop.hdds.utils.db.cache.CacheResult.CacheStatus.EXISTS;
 import static org.apache.hadoop.hdds.utils.db.cache.CacheResult.CacheStatus.NOT_EXIST;
@@ -67,6 +75,8 @@
   private final CodecBuffer.Capacity bufferCapacity
       = new CodecBuffer.Capacity(this, BUFFER_SIZE_DEFAULT);
   private final TableCache<KEY, VALUE> cache;
+  /** Set if the values read from DB are kept in the cache. */
+  private final ShardedPartialTableCache<KEY, VALUE> readThroughCache;
 
   /**
    * The same as this(rawTable, codecRegistry, keyType, valueType,
@@ -94,6 +104,23 @@ public TypedTable(RDBTable rawTable,
       CodecRegistry codecRegistry, Class<KEY> keyType,
       Class<VALUE> valueType,
       CacheType cacheType, String threadNamePrefix) throws IOException {
+    this(rawTable, codecRegistry, keyType, valueType, cacheType,
+        threadNamePrefix, 0);
+  }
+
+  /**
+   * Create an TypedTable from the raw table with specified cache type.
+   *
+   * @param cacheCapacity Max total size of the entries kept in memory
+   *                      after they are flushed, in bytes, for
+   *                      {@link CacheType#SHARDED_PARTIAL_CACHE}.
+   * @see #TypedTable(RDBTable, CodecRegistry, Class, Class, CacheType, String)
+   */
+  @SuppressWarnings("parameternumber")
+  public TypedTable(RDBTable rawTable,
+      CodecRegistry codecRegistry, Class<KEY> keyType,
+      Class<VALUE> valueType, CacheType cacheType, String threadNamePrefix,
+      long cacheCapacity) throws IOException {
     this.rawTable = Objects.requireNonNull(rawTable, "rawTable==null");
     Objects.requireNonNull(codecRegistry, "codecRegistry == null");
 
@@ -124,9 +151,36 @@ public TypedTable(RDBTable rawTable,
               CacheValue.get(EPOCH_DEFAULT, kv.getValue()));
         }
       }
+    } else if (cacheType == CacheType.OFF_HEAP_FULL_CACHE) {
+      final OffHeapTableCache<KEY, VALUE> offHeapCache =
+          new OffHeapTableCache<>(threadNamePrefix, valueCodec);
+      // fill cache without deserializing the values
+      try (TableIterator<byte[], KeyValue<byte[], byte[]>> tableIterator =
+               rawTable.iterator()) {
+        while (tableIterator.hasNext()) {
+          KeyValue<byte[], byte[]> kv = tableIterator.next();
+          offHeapCache.loadInitial(new CacheKey<>(decodeKey(kv.getKey())),
+              EPOCH_DEFAULT, kv.getValue());
+        }
+      }
+      cache = offHeapCache;
+    } else if (cacheType == CacheType.SHARDED_PARTIAL_CACHE) {
+      cache = new ShardedPartialTableCache<>(threadNamePrefix, cacheCapacity,
+          this::getSerializedSize);
     } else {
       cache = new PartialTableCache<>(threadNamePrefix);
     }
+    readThroughCache = cacheType == CacheType.SHARDED_PARTIAL_CACHE
+        && cacheCapacity > 0
+        ? (ShardedPartialTableCache<KEY, VALUE>) cache : null;
+  }
+
+  private long getSerializedSize(KEY key, VALUE value) {
+    try {
+      return encodeKey(key).length + encodeValue(value).length;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   private CodecBuffer encodeKeyCodecBuffer(KEY key) throws IOException {
@@ -159,11 +213,14 @@ public void put(KEY key, VALUE value) throws IOException {
     } else {
       rawTable.put(encodeKey(key), encodeValue(value));
     }
+    // after writing, so that a concurrent read-through keeps no stale value
+    cache.invalidate(new CacheKey<>(key));
   }
 
   @Override
   public void putWithBatch(BatchOperation batch, KEY key, VALUE value)
       throws IOException {
+    invalidateAfterCommit(batch, key);
     if (supportCodecBuffer) {
       // The buffers will be released after commit.
       rawTable.putWithBatch(batch,
@@ -225,6 +282,8 @@ public VALUE get(KEY key) throws IOException {
       return valueCodec.copyObject(cacheResult.getValue().getCacheValue());
     } else if (cacheResult.getCacheStatus() == NOT_EXIST) {
       return null;
+    } else if (readThroughCache != null) {
+      return readThrough(key, rawTable::get);
     } else {
       return getFromTable(key);
     }
@@ -291,11 +350,29 @@ public VALUE getIfExist(KEY key) throws IOException {
       return valueCodec.copyObject(cacheResult.getValue().getCacheValue());
     } else if (cacheResult.getCacheStatus() == NOT_EXIST) {
       return null;
+    } else if (readThroughCache != null) {
+      return readThrough(key, rawTable::getIfExist);
     } else {
       return getFromTableIfExist(key);
     }
   }
 
+  /**
+   * Read the value from the RocksDB table and keep it in the cache.
+   * @return a copy of the value kept in the cache.
+   */
+  private VALUE readThrough(KEY key,
+      CheckedFunction<byte[], byte[], IOException> get) throws IOException {
+    final VALUE value = readThroughCache.readThrough(new CacheKey<>(key),
+        k -> {
+          final byte[] keyBytes = encodeKey(k);
+          final byte[] valueBytes = get.apply(keyBytes);
+          return valueBytes == null ? null : Pair.of(decodeValue(valueBytes),
+              (long) keyBytes.length + valueBytes.length);
+        });
+    return value == null ? null : valueCodec.copyObject(value);
+  }
+
   /**
    * Use {@link RDBTable#get(ByteBuffer, ByteBuffer)}
    * to get a value mapped to the given key.
@@ -392,17 +469,34 @@ public void delete(KEY key) throws IOException {
     } else {
       rawTable.delete(encodeKey(key));
     }
+    cache.invalidate(new CacheKey<>(key));
   }
 
   @Override
   public void deleteWithBatch(BatchOperation batch, KEY key)
       throws IOException {
+    invalidateAfterCommit(batch, key);
     rawTable.deleteWithBatch(batch, encodeKey(key));
   }
 
+  /**
+   * Drop the flushed value of the key from the cache once the batch is
+   * committed. Dropping it earlier is not enough, since a read before the
+   * commit would keep the previous value from DB in the cache again.
+   */
+  private void invalidateAfterCommit(BatchOperation batch, KEY key) {
+    if (cache instanceof ShardedPartialTableCache
+        && batch instanceof RDBBatchOperation) {
+      final CacheKey<KEY> cacheKey = new CacheKey<>(key);
+      ((RDBBatchOperation) batch).addAfterCommit(
+          () -> cache.invalidate(cacheKey));
+    }
+  }
+
   @Override
   public void deleteRange(KEY beginKey, KEY endKey) throws IOException {
     rawTable.deleteRange(encodeKey(beginKey), encodeKey(endKey));
+    cache.invalidateAll();
   }
 
   @Override
@@ -413,20 +507,50 @@ public Table.KeyValueIterator<KEY, VALUE> iterator() throws IOException {
   @Override
   public Table.KeyValueIterator<KEY, VALUE> iterator(KEY prefix)
       throws IOException {
-    if (supportCodecBuffer) {
+    return iterator(prefix, IteratorType.KEY_AND_VALUE);
+  }
+
+  @Override
+  public Table.KeyValueIterator<KEY, VALUE> iterator(KEY prefix,
+      IteratorType type) throws IOException {
+    // keyCodec.supportCodecBuffer() is enough since values are decoded lazily
+    if (keyCodec.supportCodecBuffer()) {
       final CodecBuffer prefixBuffer = encodeKeyCodecBuffer(prefix);
       try {
-        return newCodecBufferTableIterator(rawTable.iterator(prefixBuffer));
+        return newCodecBufferTableIterator(
+            rawTable.iterator(prefixBuffer, type));
       } catch (Throwable t) {
-        prefixBuffer.release();
+        if (prefixBuffer != null) {
+          prefixBuffer.release();
+        }
         throw t;
       }
     } else {
       final byte[] prefixBytes = encodeKey(prefix);
-      return new TypedTableIterator(rawTable.iterator(prefixBytes));
+      return new TypedTableIterator(rawTable.iterator(prefixBytes, type));
     }
   }
 
+  @Override
+  public void forEachInParallel(int maxRanges, ForkJoinPool pool,
+      IteratorType type,
+      CheckedConsumer<KeyValue<KEY, VALUE>, IOException> action)
+      throws IOException {
+    RDBTable.forEachRange(rawTable.getSplitKeys(maxRanges), pool,
+        (start, end) -> {
+          try (Table.KeyValueIterator<KEY, VALUE> i = keyCodec
+              .supportCodecBuffer()
+              ? newCodecBufferTableIterator(
+                  rawTable.codecBufferRangeIterator(start, end, type))
+              : new TypedTableIterator(
+                  rawTable.rangeIterator(start, end, type))) {
+            while (i.hasNext()) {
+              action.accept(i.next());
+            }
+          }
+        });
+  }
+
   @Override
   public String getName() {
     return rawTable.getName();
@@ -467,6 +591,11 @@ public Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>> cacheIterator() {
     return cache.iterator();
   }
 
+  @Override
+  public CacheStats getCacheStats() {
+    return cache.getStats();
+  }
+
   @Override
   public TableCacheMetrics createCacheMetrics() {
     return TableCacheMetrics.create(cache, getName());
@@ -516,6 +645,13 @@ public List<TypedKeyValue> getSequentialRangeKVs(
   @Override
   public void deleteBatchWithPrefix(BatchOperation batch, KEY prefix)
       throws IOException {
+    if (cache instanceof ShardedPartialTableCache
+        && batch instanceof RDBBatchOperation) {
+      // like invalidateAfterCommit, not to keep values read before commit
+      ((RDBBatchOperation) batch).addAfterCommit(cache::invalidateAll);
+    } else {
+      cache.invalidateAll();
+    }
     rawTable.deleteBatchWithPrefix(batch, encodeKey(prefix));
   }
 
@@ -528,6 +664,30 @@ public void dumpToFileWithPrefix(File externalFile, KEY prefix)
   @Override
   public void loadFromFile(File externalFile) throws IOException {
     rawTable.loadFromFile(externalFile);
+    cache.invalidateAll();
+  }
+
+  @Override
+  public BulkLoader<KEY, VALUE> newBulkLoader(File tmpDir)
+      throws IOException {
+    final BulkLoader<byte[], byte[]> loader = rawTable.newBulkLoader(tmpDir);
+    return new BulkLoader<KEY, VALUE>() {
+      @Override
+      public void put(KEY key, VALUE value) throws IOException {
+        loader.put(encodeKey(key), encodeValue(value));
+      }
+
+      @Override
+      public void load() throws IOException {
+        loader.load();
+        cache.invalidateAll();
+      }
+
+      @Override
+      public void close() throws IOException {
+        loader.close();
+      }
+    };
   }
 
   @Override
@@ -581,16 +741,76 @@ public CodecBuffer get() {
         };
       }
 
+      /** The last entry returned, its value may still be in the buffer. */
+      private CodecBufferKeyValue last;
+
       @Override
       KeyValue<KEY, VALUE> convert(KeyValue<CodecBuffer, CodecBuffer> raw)
           throws IOException {
         final KEY key = keyCodec.fromCodecBuffer(raw.getKey());
-        final VALUE value = valueCodec.fromCodecBuffer(raw.getValue());
-        return Table.newKeyValue(key, value);
+        final CodecBuffer value = raw.getValue();
+        if (value == null) {
+          return Table.newKeyValue(key, null);
+        }
+        last = new CodecBufferKeyValue(key, value);
+        return last;
+      }
+
+      @Override
+      void beforeMove() {
+        if (last != null) {
+          last.detach();
+          last = null;
+        }
       }
     };
   }
 
+  /**
+   * Key value of a {@link CodecBuffer} iterator, decoding the value only when
+   * {@link #getValue()} is called.  The value buffer is reused by the
+   * iterator, so it is copied if the iterator moves before the value is
+   * decoded.
+   */
+  private final class CodecBufferKeyValue implements KeyValue<KEY, VALUE> {
+    private final KEY key;
+    private CodecBuffer buffer;
+    private byte[] array;
+    private VALUE value;
+
+    private CodecBufferKeyValue(KEY key, CodecBuffer buffer) {
+      this.key = key;
+      this.buffer = buffer;
+    }
+
+    @Override
+    public KEY getKey() {
+      return key;
+    }
+
+    @Override
+    public VALUE getValue() throws IOException {
+      if (buffer != null) {
+        value = valueCodec.supportCodecBuffer()
+            ? valueCodec.fromCodecBuffer(buffer)
+            : decodeValue(buffer.getArray());
+        buffer = null;
+      } else if (array != null) {
+        value = decodeValue(array);
+        array = null;
+      }
+      return value;
+    }
+
+    /** Copy the value out of the buffer, unless it is already decoded. */
+    private void detach() {
+      if (buffer != null) {
+        array = buffer.getArray();
+        buffer = null;
+      }
+    }
+  }
+
   /**
    * Table Iterator implementation for strongly typed tables.
    */
@@ -635,18 +855,28 @@ KeyValue<KEY, VALUE> convert(KeyValue<byte[], byte[]> raw) {
     abstract KeyValue<KEY, VALUE> convert(KeyValue<RAW, RAW> raw)
         throws IOException;
 
+    /**
+     * Called before the raw iterator moves to another entry, or is closed,
+     * invalidating the raw {@link Table.KeyValue} last returned by it.
+     */
+    void beforeMove() {
+    }
+
     @Override
     public void seekToFirst() {
+      beforeMove();
       rawIterator.seekToFirst();
     }
 
     @Override
     public void seekToLast() {
+      beforeMove();
       rawIterator.seekToLast();
     }
 
     @Override
     public KeyValue<KEY, VALUE> seek(KEY key) throws IOException {
+      beforeMove();
       try (AutoCloseSupplier<RAW> rawKey = convert(key)) {
         final KeyValue<RAW, RAW> result = rawIterator.seek(rawKey.get());
         return result == null ? null : convert(result);
@@ -655,6 +885,7 @@ public KeyValue<KEY, VALUE> seek(KEY key) throws IOException {
 
     @Override
     public void close() throws IOException {
+      beforeMove();
       rawIterator.close();
     }
 
@@ -665,6 +896,7 @@ public boolean hasNext() {
 
     @Override
     public KeyValue<KEY, VALUE> next() {
+      beforeMove();
       try {
         return convert(rawIterator.next());
       } catch (IOException e) {
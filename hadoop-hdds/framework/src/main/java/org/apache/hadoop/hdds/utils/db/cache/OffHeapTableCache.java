@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience.Private;
+import org.apache.hadoop.hdds.annotation.InterfaceStability.Evolving;
+import org.apache.hadoop.hdds.utils.db.Codec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Full table cache which keeps the entries loaded from the DB serialized
+ * in direct memory, instead of as objects on the heap.
+ * <p>
+ * Values are deserialized when they are first looked up, and kept on the
+ * heap afterwards: callers may update the returned objects in place (as OM
+ * does with bucket and volume usage), so later lookups must return the same
+ * instance.  Values added by {@link #put} are kept on the heap as well.
+ * Iterating the cache deserializes values on demand without keeping them,
+ * so listing does not pull the whole table onto the heap.
+ * <p>
+ * Serialized values are appended to large direct buffers, which are
+ * released once all the values stored in them are deserialized.
+ * @param <KEY>
+ * @param <VALUE>
+ */
+@Private
+@Evolving
+public class OffHeapTableCache<KEY, VALUE> implements TableCache<KEY, VALUE> {
+
+  public static final Logger LOG =
+      LoggerFactory.getLogger(OffHeapTableCache.class);
+
+  static final int CHUNK_SIZE = 4 << 20;
+
+  private final Codec<VALUE> codec;
+  private final Map<CacheKey<KEY>, Slot<VALUE>> cache;
+  private final NavigableMap<Long, Set<CacheKey<KEY>>> epochEntries;
+  private final ExecutorService executorService;
+
+  private final ReadWriteLock lock;
+
+  private final CacheStatsRecorder statsRecorder;
+
+  /** Direct buffer serialized values are currently appended to. */
+  private ByteBuffer currentChunk;
+  /** Total size of the values which are not deserialized yet. */
+  private final AtomicLong serializedBytes = new AtomicLong();
+
+  public OffHeapTableCache(String threadNamePrefix, Codec<VALUE> codec) {
+    this.codec = Objects.requireNonNull(codec, "codec == null");
+    cache = new ConcurrentSkipListMap<>();
+    lock = new ReentrantReadWriteLock();
+    epochEntries = new ConcurrentSkipListMap<>();
+
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat(threadNamePrefix + "OffHeapTableCache-Cleanup-%d")
+        .build();
+    executorService = Executors.newSingleThreadExecutor(threadFactory);
+
+    statsRecorder = new CacheStatsRecorder();
+  }
+
+  @Override
+  public CacheValue<VALUE> get(CacheKey<KEY> cachekey) {
+    try {
+      lock.readLock().lock();
+      CacheValue<VALUE> cachevalue = getValue(cache.get(cachekey));
+      statsRecorder.recordValue(cachevalue);
+      return cachevalue;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void loadInitial(CacheKey<KEY> key, CacheValue<VALUE> value) {
+    final VALUE v = value.getCacheValue();
+    if (v == null) {
+      cache.put(key, new Slot<>(value));
+      return;
+    }
+    try {
+      loadInitial(key, value.getEpoch(), codec.toPersistedFormat(v));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to serialize " + key, e);
+    }
+  }
+
+  /**
+   * Same as {@link #loadInitial(CacheKey, CacheValue)}, with the value in
+   * its persisted format, so that it does not need to be deserialized.
+   */
+  public void loadInitial(CacheKey<KEY> key, long epoch, byte[] value) {
+    // No need to add entry to epochEntries, same as FullTableCache.
+    final Slot<VALUE> previous =
+        cache.put(key, new Slot<>(epoch, append(value), value.length));
+    if (previous != null) {
+      release(previous);
+    }
+  }
+
+  private synchronized ByteBuffer append(byte[] value) {
+    final ByteBuffer chunk;
+    if (value.length > CHUNK_SIZE / 4) {
+      // large values get a buffer of their own
+      chunk = ByteBuffer.allocateDirect(value.length);
+    } else {
+      if (currentChunk == null || currentChunk.remaining() < value.length) {
+        currentChunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+      }
+      chunk = currentChunk;
+    }
+    final int offset = chunk.position();
+    chunk.put(value);
+    final ByteBuffer slice = chunk.duplicate();
+    slice.position(offset).limit(offset + value.length);
+    serializedBytes.addAndGet(value.length);
+    return slice.slice();
+  }
+
+  @Override
+  public void put(CacheKey<KEY> cacheKey, CacheValue<VALUE> value) {
+    try {
+      lock.writeLock().lock();
+      final Slot<VALUE> previous = cache.put(cacheKey, new Slot<>(value));
+      if (previous != null) {
+        release(previous);
+      }
+      epochEntries.computeIfAbsent(value.getEpoch(),
+          v -> new CopyOnWriteArraySet<>()).add(cacheKey);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void cleanup(List<Long> epochs) {
+    executorService.execute(() -> evictCache(epochs));
+  }
+
+  @Override
+  public int size() {
+    return cache.size();
+  }
+
+  @Override
+  public Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>> iterator() {
+    statsRecorder.recordIteration();
+    return Iterators.transform(cache.entrySet().iterator(),
+        entry -> new LazyEntry<>(entry.getKey(), entry.getValue(), codec));
+  }
+
+  @VisibleForTesting
+  @Override
+  public void evictCache(List<Long> epochs) {
+    Set<CacheKey<KEY>> currentCacheKeys;
+    CacheKey<KEY> cachekey;
+    long lastEpoch = epochs.get(epochs.size() - 1);
+    for (long currentEpoch : epochEntries.keySet()) {
+      currentCacheKeys = epochEntries.get(currentEpoch);
+
+      // If currentEntry epoch is greater than last epoch provided, we have
+      // deleted all entries less than specified epoch. So, we can break.
+      if (currentEpoch > lastEpoch) {
+        break;
+      }
+
+      // Acquire lock to avoid race between cleanup and add to cache entry by
+      // client requests.
+      try {
+        lock.writeLock().lock();
+        if (epochs.contains(currentEpoch)) {
+          for (Iterator<CacheKey<KEY>> iterator = currentCacheKeys.iterator();
+               iterator.hasNext();) {
+            cachekey = iterator.next();
+            cache.computeIfPresent(cachekey, ((k, v) -> {
+              // Only deleted entries are removed, those are never serialized.
+              if (v.isDeleted() && v.getEpoch() == currentEpoch) {
+                if (LOG.isDebugEnabled()) {
+                  LOG.debug("CacheKey {} with epoch {} is removed from cache",
+                      k.getCacheKey(), currentEpoch);
+                }
+                return null;
+              }
+              return v;
+            }));
+          }
+          // Remove epoch entry, as the entry is there in epoch list.
+          epochEntries.remove(currentEpoch);
+        }
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public CacheResult<VALUE> lookup(CacheKey<KEY> cachekey) {
+    CacheValue<VALUE> cachevalue = getValue(cache.get(cachekey));
+    statsRecorder.recordValue(cachevalue);
+    if (cachevalue == null || cachevalue.getCacheValue() == null) {
+      // When entity is marked for delete, cacheValue will be set to null.
+      return new CacheResult<>(CacheResult.CacheStatus.NOT_EXIST, null);
+    }
+    return new CacheResult<>(CacheResult.CacheStatus.EXISTS, cachevalue);
+  }
+
+  @VisibleForTesting
+  @Override
+  public NavigableMap<Long, Set<CacheKey<KEY>>> getEpochEntries() {
+    return epochEntries;
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return statsRecorder.snapshot();
+  }
+
+  /**
+   * @return the total size of the values currently kept serialized.
+   */
+  public long getSerializedBytes() {
+    return serializedBytes.get();
+  }
+
+  private CacheValue<VALUE> getValue(Slot<VALUE> slot) {
+    if (slot == null) {
+      return null;
+    }
+    final CacheValue<VALUE> value = slot.getValue();
+    if (value != null) {
+      return value;
+    }
+    synchronized (slot) {
+      if (slot.getValue() == null) {
+        slot.materialize(codec);
+        release(slot);
+      }
+      return slot.getValue();
+    }
+  }
+
+  /** Drop the serialized value of the slot, if it still has one. */
+  private void release(Slot<VALUE> slot) {
+    final int released = slot.releaseSerialized();
+    if (released > 0) {
+      serializedBytes.addAndGet(-released);
+    }
+  }
+
+  /**
+   * Cache entry holding either the value, or its serialized form.
+   */
+  private static final class Slot<V> {
+    private final long epoch;
+    private volatile CacheValue<V> value;
+    private ByteBuffer serialized;
+    private final int length;
+    private boolean counted;
+
+    Slot(CacheValue<V> value) {
+      this.epoch = value.getEpoch();
+      this.value = value;
+      this.length = 0;
+    }
+
+    Slot(long epoch, ByteBuffer serialized, int length) {
+      this.epoch = epoch;
+      this.serialized = serialized;
+      this.length = length;
+      this.counted = true;
+    }
+
+    long getEpoch() {
+      return epoch;
+    }
+
+    CacheValue<V> getValue() {
+      return value;
+    }
+
+    /** Deserialize the value and drop its serialized form. */
+    synchronized void materialize(Codec<V> codec) {
+      value = CacheValue.get(epoch, decode(codec));
+      serialized = null;
+    }
+
+    /** @return the value, deserializing it without keeping it if needed. */
+    synchronized CacheValue<V> peek(Codec<V> codec) {
+      return value != null ? value : CacheValue.get(epoch, decode(codec));
+    }
+
+    boolean isDeleted() {
+      final CacheValue<V> v = value;
+      return v != null && v.getCacheValue() == null;
+    }
+
+    private V decode(Codec<V> codec) {
+      final byte[] bytes = new byte[length];
+      serialized.duplicate().get(bytes);
+      try {
+        return codec.fromPersistedFormat(bytes);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to deserialize cached value",
+            e);
+      }
+    }
+
+    /**
+     * Stops accounting the serialized value as used.  The buffer of a
+     * replaced value is kept until the slot is collected, as a concurrent
+     * iterator may still need to decode it.
+     * @return the size of the value, if it was still accounted for.
+     */
+    synchronized int releaseSerialized() {
+      if (!counted) {
+        return 0;
+      }
+      counted = false;
+      return length;
+    }
+  }
+
+  /**
+   * Entry returned by the iterator, deserializing the value only if it is
+   * requested.
+   */
+  private static final class LazyEntry<K, V>
+      implements Map.Entry<CacheKey<K>, CacheValue<V>> {
+    private final CacheKey<K> key;
+    private final Slot<V> slot;
+    private final Codec<V> codec;
+    private CacheValue<V> value;
+
+    LazyEntry(CacheKey<K> key, Slot<V> slot, Codec<V> codec) {
+      this.key = key;
+      this.slot = slot;
+      this.codec = codec;
+    }
+
+    @Override
+    public CacheKey<K> getKey() {
+      return key;
+    }
+
+    @Override
+    public CacheValue<V> getValue() {
+      if (value == null) {
+        value = slot.peek(codec);
+      }
+      return value;
+    }
+
+    @Override
+    public CacheValue<V> setValue(CacheValue<V> v) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,487 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.hadoop.hdds.utils.db.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.ToLongBiFunction;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.annotation.InterfaceAudience.Private;
+import org.apache.hadoop.hdds.annotation.InterfaceStability.Evolving;
+import org.apache.ratis.util.function.CheckedFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Partial table cache which, unlike {@link PartialTableCache}, keeps entries
+ * in memory after they are flushed to DB, up to a configured capacity.
+ * <p>
+ * Entries not yet flushed are held until their epoch is cleaned up, the same
+ * way as in {@link PartialTableCache}, and they are the only ones returned by
+ * {@link #iterator()} and counted by {@link #size()}. When an epoch is
+ * cleaned up, its entries are moved to a bounded set of flushed entries,
+ * which are only used to answer {@link #get} and {@link #lookup}. Flushed
+ * entries are evicted in CLOCK order once their total weight exceeds the
+ * capacity; an entry read since the hand last passed it gets a second
+ * chance.
+ * <p>
+ * Values read from DB on cache misses can also be kept as flushed entries,
+ * see {@link #readThrough}.
+ * <p>
+ * Keys are spread over shards by hash, each shard tracking its own epochs,
+ * flushed entries and part of the capacity, so that cleanup and eviction of
+ * one shard does not block the others.
+ * <p>
+ * The DB must not be updated without going through the cache, unless the
+ * flushed entries of the updated keys are dropped by
+ * {@link #invalidate(CacheKey)} or {@link #invalidateAll()}.
+ * @param <KEY>
+ * @param <VALUE>
+ */
+@Private
+@Evolving
+public class ShardedPartialTableCache<KEY, VALUE>
+    implements TableCache<KEY, VALUE> {
+
+  public static final Logger LOG =
+      LoggerFactory.getLogger(ShardedPartialTableCache.class);
+
+  public static final int DEFAULT_SHARDS = 16;
+  /** Epoch of the entries read from DB, which are already flushed. */
+  private static final long EPOCH_READ_THROUGH = -1;
+
+  private final Shard<KEY, VALUE>[] shards;
+  private final ToLongBiFunction<KEY, VALUE> weigher;
+  private final ExecutorService executorService;
+  private final CacheStatsRecorder statsRecorder;
+
+  /**
+   * @param threadNamePrefix prefix of the cleanup thread name
+   * @param capacity max total weight of the flushed entries kept in memory,
+   *                 0 to drop entries once they are flushed
+   * @param weigher weight (usually the serialized size) of an entry
+   */
+  public ShardedPartialTableCache(String threadNamePrefix, long capacity,
+      ToLongBiFunction<KEY, VALUE> weigher) {
+    this(threadNamePrefix, capacity, DEFAULT_SHARDS, weigher);
+  }
+
+  @SuppressWarnings("unchecked")
+  public ShardedPartialTableCache(String threadNamePrefix, long capacity,
+      int numShards, ToLongBiFunction<KEY, VALUE> weigher) {
+    Preconditions.checkArgument(capacity >= 0,
+        "capacity = %s < 0", capacity);
+    Preconditions.checkArgument(numShards > 0,
+        "numShards = %s <= 0", numShards);
+    this.weigher = weigher;
+    shards = new Shard[numShards];
+    for (int i = 0; i < numShards; i++) {
+      shards[i] = new Shard<>(capacity / numShards);
+    }
+
+    // Created a singleThreadExecutor, so one cleanup will be running at a
+    // time.
+    ThreadFactory threadFactory = new ThreadFactoryBuilder()
+        .setDaemon(true)
+        .setNameFormat(threadNamePrefix
+            + "ShardedPartialTableCache-Cleanup-%d")
+        .build();
+    executorService = Executors.newSingleThreadExecutor(threadFactory);
+
+    statsRecorder = new CacheStatsRecorder();
+  }
+
+  private Shard<KEY, VALUE> getShard(CacheKey<KEY> cacheKey) {
+    final int h = cacheKey.hashCode();
+    return shards[Math.floorMod(h ^ (h >>> 16), shards.length)];
+  }
+
+  @Override
+  public CacheValue<VALUE> get(CacheKey<KEY> cachekey) {
+    CacheValue<VALUE> value = getShard(cachekey).get(cachekey);
+    statsRecorder.recordValue(value);
+    return value;
+  }
+
+  @Override
+  public void loadInitial(CacheKey<KEY> key, CacheValue<VALUE> value) {
+    // Do nothing for partial table cache.
+  }
+
+  @Override
+  public void put(CacheKey<KEY> cacheKey, CacheValue<VALUE> value) {
+    getShard(cacheKey).put(cacheKey, value);
+  }
+
+  @Override
+  public void cleanup(List<Long> epochs) {
+    executorService.execute(() -> evictCache(epochs));
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Shard<KEY, VALUE> shard : shards) {
+      size += shard.cache.size();
+    }
+    return size;
+  }
+
+  @Override
+  public Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>> iterator() {
+    statsRecorder.recordIteration();
+    final List<Iterator<Map.Entry<CacheKey<KEY>, CacheValue<VALUE>>>>
+        iterators = new ArrayList<>(shards.length);
+    for (Shard<KEY, VALUE> shard : shards) {
+      iterators.add(shard.cache.entrySet().iterator());
+    }
+    return Iterators.concat(iterators.iterator());
+  }
+
+  @VisibleForTesting
+  @Override
+  public void evictCache(List<Long> epochs) {
+    for (Shard<KEY, VALUE> shard : shards) {
+      shard.evict(epochs, weigher);
+    }
+  }
+
+  @Override
+  public CacheResult<VALUE> lookup(CacheKey<KEY> cachekey) {
+
+    CacheValue<VALUE> cachevalue = getShard(cachekey).get(cachekey);
+    statsRecorder.recordValue(cachevalue);
+    if (cachevalue == null) {
+      return new CacheResult<>(CacheResult.CacheStatus.MAY_EXIST,
+          null);
+    } else {
+      if (cachevalue.getCacheValue() != null) {
+        return new CacheResult<>(CacheResult.CacheStatus.EXISTS, cachevalue);
+      } else {
+        // When entity is marked for delete, cacheValue will be set to null.
+        return new CacheResult<>(CacheResult.CacheStatus.NOT_EXIST, null);
+      }
+    }
+  }
+
+  /**
+   * Reads the value of a key missing in the cache with the given function,
+   * and keeps it as a flushed entry, unless the key is updated or
+   * invalidated meanwhile. The returned value is kept in the cache, so it
+   * must not be modified.
+   *
+   * @param read returns the value read from DB along with its weight, or
+   *             null if the key is not found.
+   * @return the value read, or null if the key is not found.
+   */
+  public <E extends Exception> VALUE readThrough(CacheKey<KEY> cacheKey,
+      CheckedFunction<KEY, Pair<VALUE, Long>, E> read) throws E {
+    return getShard(cacheKey).readThrough(cacheKey, read);
+  }
+
+  @Override
+  public void invalidate(CacheKey<KEY> cacheKey) {
+    getShard(cacheKey).invalidate(cacheKey);
+  }
+
+  @Override
+  public void invalidateAll() {
+    for (Shard<KEY, VALUE> shard : shards) {
+      shard.invalidateAll();
+    }
+  }
+
+  /**
+   * @return the epochs of all the shards, merged.
+   */
+  @VisibleForTesting
+  @Override
+  public NavigableMap<Long, Set<CacheKey<KEY>>> getEpochEntries() {
+    final NavigableMap<Long, Set<CacheKey<KEY>>> merged = new TreeMap<>();
+    for (Shard<KEY, VALUE> shard : shards) {
+      shard.epochEntries.forEach((epoch, keys) ->
+          merged.computeIfAbsent(epoch, e -> new HashSet<>()).addAll(keys));
+    }
+    return merged;
+  }
+
+  /**
+   * @return the number of flushed entries kept in memory.
+   */
+  @VisibleForTesting
+  public int getFlushedSize() {
+    int size = 0;
+    for (Shard<KEY, VALUE> shard : shards) {
+      size += shard.flushed.size();
+    }
+    return size;
+  }
+
+  /**
+   * @return the total weight of flushed entries kept in memory.
+   */
+  public long getFlushedWeight() {
+    long weight = 0;
+    for (Shard<KEY, VALUE> shard : shards) {
+      weight += shard.getWeight();
+    }
+    return weight;
+  }
+
+  @Override
+  public CacheStats getStats() {
+    return statsRecorder.snapshot();
+  }
+
+  /**
+   * Entries of the keys mapped to one shard.
+   */
+  private static final class Shard<KEY, VALUE> {
+    /** Entries not yet flushed, see {@link PartialTableCache}. */
+    private final Map<CacheKey<KEY>, CacheValue<VALUE>> cache =
+        new ConcurrentHashMap<>();
+    private final NavigableMap<Long, Set<CacheKey<KEY>>> epochEntries =
+        new ConcurrentSkipListMap<>();
+    /** Entries already flushed. */
+    private final Map<CacheKey<KEY>, Flushed<KEY, VALUE>> flushed =
+        new ConcurrentHashMap<>();
+    /** The clock of flushed entries, the head being the hand. */
+    private final Deque<Flushed<KEY, VALUE>> clock = new ArrayDeque<>();
+    private final long capacity;
+    private long weight;
+
+    Shard(long capacity) {
+      this.capacity = capacity;
+    }
+
+    CacheValue<VALUE> get(CacheKey<KEY> cacheKey) {
+      final CacheValue<VALUE> value = cache.get(cacheKey);
+      if (value != null) {
+        return value;
+      }
+      final Flushed<KEY, VALUE> entry = flushed.get(cacheKey);
+      if (entry == null) {
+        return null;
+      }
+      entry.referenced = true;
+      return entry.value;
+    }
+
+    void put(CacheKey<KEY> cacheKey, CacheValue<VALUE> value) {
+      cache.put(cacheKey, value);
+      epochEntries.computeIfAbsent(value.getEpoch(), v -> new HashSet<>())
+          .add(cacheKey);
+      invalidate(cacheKey);
+    }
+
+    void evict(List<Long> epochs, ToLongBiFunction<KEY, VALUE> weigher) {
+      final long lastEpoch = epochs.get(epochs.size() - 1);
+      for (long currentEpoch : epochEntries.keySet()) {
+        // If currentEntry epoch is greater than last epoch provided, we have
+        // deleted all entries less than specified epoch. So, we can break.
+        if (currentEpoch > lastEpoch) {
+          break;
+        }
+        if (!epochs.contains(currentEpoch)) {
+          continue;
+        }
+        for (CacheKey<KEY> cacheKey : epochEntries.get(currentEpoch)) {
+          final CacheValue<VALUE> value = cache.get(cacheKey);
+          if (value == null || value.getEpoch() != currentEpoch) {
+            continue;
+          }
+          // weigh outside of computeIfPresent, which blocks updates
+          final long w = weigh(cacheKey, value, weigher);
+          cache.computeIfPresent(cacheKey, (k, v) -> {
+            // If cache epoch entry matches with current Epoch, move entry
+            // to the flushed entries.
+            if (v.getEpoch() != currentEpoch) {
+              return v;
+            }
+            moveToFlushed(k, v, v == value ? w : weigh(k, v, weigher));
+            if (LOG.isDebugEnabled()) {
+              LOG.debug("CacheKey {} with epoch {} is flushed",
+                  k.getCacheKey(), currentEpoch);
+            }
+            return null;
+          });
+        }
+        // Remove epoch entry, as the entry is there in epoch list.
+        epochEntries.remove(currentEpoch);
+      }
+    }
+
+    private long weigh(CacheKey<KEY> cacheKey, CacheValue<VALUE> value,
+        ToLongBiFunction<KEY, VALUE> weigher) {
+      if (capacity == 0 || value.getCacheValue() == null) {
+        return 0;
+      }
+      try {
+        return weigher.applyAsLong(cacheKey.getCacheKey(),
+            value.getCacheValue());
+      } catch (RuntimeException e) {
+        LOG.warn("Failed to weigh {}, not keeping it after flush",
+            cacheKey.getCacheKey(), e);
+        return Long.MAX_VALUE;
+      }
+    }
+
+    private synchronized void moveToFlushed(CacheKey<KEY> cacheKey,
+        CacheValue<VALUE> value, long w) {
+      invalidate(cacheKey);
+      // Deleted entries are not kept, DB lookup will not find them anyway.
+      if (value.getCacheValue() == null || capacity == 0 || w > capacity) {
+        return;
+      }
+
+      final Flushed<KEY, VALUE> entry = new Flushed<>(cacheKey, value, w);
+      flushed.put(cacheKey, entry);
+      addToClock(entry);
+    }
+
+    <E extends Exception> VALUE readThrough(CacheKey<KEY> cacheKey,
+        CheckedFunction<KEY, Pair<VALUE, Long>, E> read) throws E {
+      // A placeholder is registered before reading, so that any update or
+      // invalidation of the key meanwhile removes it and the value read,
+      // which may be stale, is not kept.
+      final Flushed<KEY, VALUE> loading = new Flushed<>(cacheKey, null, 0);
+      final boolean registered = capacity > 0
+          && flushed.putIfAbsent(cacheKey, loading) == null;
+      boolean loaded = false;
+      try {
+        final Pair<VALUE, Long> value = read.apply(cacheKey.getCacheKey());
+        if (value == null) {
+          return null;
+        }
+        if (registered) {
+          loaded = completeLoading(loading, value.getKey(), value.getValue());
+        }
+        return value.getKey();
+      } finally {
+        if (registered && !loaded) {
+          flushed.remove(cacheKey, loading);
+        }
+      }
+    }
+
+    private synchronized boolean completeLoading(
+        Flushed<KEY, VALUE> loading, VALUE value, long w) {
+      if (w > capacity) {
+        return false;
+      }
+      final Flushed<KEY, VALUE> entry = new Flushed<>(loading.key,
+          CacheValue.get(EPOCH_READ_THROUGH, value), w);
+      if (!flushed.replace(loading.key, loading, entry)) {
+        return false;
+      }
+      addToClock(entry);
+      return true;
+    }
+
+    /** Must be called while holding the lock of this shard. */
+    private void addToClock(Flushed<KEY, VALUE> entry) {
+      clock.addLast(entry);
+      weight += entry.weight;
+
+      while (weight > capacity) {
+        final Flushed<KEY, VALUE> hand = clock.pollFirst();
+        if (hand.removed) {
+          continue;
+        }
+        if (hand.referenced) {
+          hand.referenced = false;
+          clock.addLast(hand);
+        } else {
+          flushed.remove(hand.key, hand);
+          remove(hand);
+        }
+      }
+      // drop the invalidated entries if they pile up without eviction
+      if (clock.size() > 2 * flushed.size() + 16) {
+        clock.removeIf(e -> e.removed);
+      }
+    }
+
+    void invalidate(CacheKey<KEY> cacheKey) {
+      final Flushed<KEY, VALUE> entry = flushed.remove(cacheKey);
+      if (entry != null) {
+        synchronized (this) {
+          remove(entry);
+        }
+      }
+    }
+
+    synchronized void invalidateAll() {
+      flushed.clear();
+      clock.clear();
+      weight = 0;
+    }
+
+    /** Must be called while holding the lock of this shard. */
+    private void remove(Flushed<KEY, VALUE> entry) {
+      if (!entry.removed) {
+        entry.removed = true;
+        entry.value = null;
+        weight -= entry.weight;
+      }
+    }
+
+    synchronized long getWeight() {
+      return weight;
+    }
+  }
+
+  /**
+   * An entry already flushed to DB.
+   */
+  private static final class Flushed<KEY, VALUE> {
+    private final CacheKey<KEY> key;
+    private final long weight;
+    private volatile CacheValue<VALUE> value;
+    /** Whether the entry is read since the clock hand last passed it. */
+    private volatile boolean referenced;
+    /** Guarded by the shard lock. */
+    private boolean removed;
+
+    Flushed(CacheKey<KEY> key, CacheValue<VALUE> value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+}
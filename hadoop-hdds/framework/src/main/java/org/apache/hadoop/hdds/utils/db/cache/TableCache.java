@@ -68,6 +68,20 @@
   @VisibleForTesting
   void evictCache(List<Long> epochs);
 
+  /**
+   * Drops the entry of the key if it is already flushed to DB, for caches
+   * keeping such entries. It should be called when the DB is updated
+   * without updating the cache. Entries not yet flushed are kept.
+   */
+  default void invalidate(CacheKey<KEY> cacheKey) {
+  }
+
+  /**
+   * Same as {@link #invalidate(CacheKey)} for all the keys.
+   */
+  default void invalidateAll() {
+  }
+
   /**
    * Return the size of the cache.
    * @return size
@@ -111,7 +125,11 @@
   enum CacheType {
     FULL_CACHE, //  This mean's the table maintains full cache. Cache and DB
     // state are same.
-    PARTIAL_CACHE // This is partial table cache, cache state is partial state
+    PARTIAL_CACHE, // This is partial table cache, cache state is partial state
     // compared to DB state.
+    OFF_HEAP_FULL_CACHE, // Same as FULL_CACHE, but the values loaded from DB
+    // are kept serialized in direct memory until they are accessed.
+    SHARDED_PARTIAL_CACHE // Same as PARTIAL_CACHE, but flushed entries are
+    // kept in memory up to a configured capacity.
   }
 }
@@ -41,6 +41,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -49,6 +50,7 @@
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -182,6 +184,49 @@ public void testDownloadDBSnapshotFromLeader() throws Exception {
         rdbSnapshotProvider.getCandidateDir()).size());
   }
 
+  @Test
+  public void testSeedCandidateDirFromActiveDb() throws Exception {
+    insertDataToDB(numUsedCF);
+    rdbStore.flushDB();
+
+    // an SST file with a different checksum is not excluded
+    final DBCheckpoint leaderCheckpoint = rdbStore.getCheckpoint(false);
+    final List<String> leaderSsts = HAUtils.getExistingSstFiles(
+        leaderCheckpoint.getCheckpointLocation().toFile());
+    assertFalse(leaderSsts.isEmpty());
+    final List<String> excluded = new ArrayList<>();
+    writeDBCheckpointToStream(leaderCheckpoint, new ByteArrayOutputStream(),
+        Collections.singletonList(
+            leaderSsts.get(0) + SstFileChecksums.SEPARATOR + "0-00"),
+        excluded);
+    assertTrue(excluded.isEmpty());
+
+    try (RDBSnapshotProvider provider = new RDBSnapshotProvider(
+        new File(testDir, "seeded"), "test.db", rdbStore.getDbLocation()) {
+      @Override
+      public void close() {
+      }
+
+      @Override
+      public void downloadSnapshot(String leaderNodeID, File targetFile)
+          throws IOException {
+        DBCheckpoint dbCheckpoint = rdbStore.getCheckpoint(true);
+        latestCK.set(dbCheckpoint);
+        try (OutputStream outputStream = new FileOutputStream(targetFile)) {
+          writeDBCheckpointToStream(dbCheckpoint, outputStream,
+              HAUtils.getExistingSstFilesWithChecksums(getCandidateDir()),
+              excluded);
+        }
+      }
+    }) {
+      DBCheckpoint checkpoint = provider.downloadDBSnapshotFromLeader(leaderId);
+      // the SST files linked from the active DB are not transferred
+      assertFalse(excluded.isEmpty());
+      compareDB(latestCK.get().getCheckpointLocation().toFile(),
+          checkpoint.getCheckpointLocation().toFile(), numUsedCF);
+    }
+  }
+
   public void compareDB(File db1, File db2, int columnFamilyUsed)
       throws Exception {
     try (RDBStore rdbStore1 = newRDBStore(db1, getNewDBOptions(),
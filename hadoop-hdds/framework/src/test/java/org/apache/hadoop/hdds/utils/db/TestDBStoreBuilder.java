@@ -39,7 +39,9 @@
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -234,6 +236,70 @@ public File getDBLocation(ConfigurationSource conf) {
     }
   }
 
+  @Test
+  public void builderWithColumnFamilyProfile(@TempDir Path tempDir)
+      throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    File newFolder = new File(tempDir.toString(), "newFolder");
+    assertTrue(newFolder.mkdirs());
+
+    final ColumnFamilyProfile profile = ColumnFamilyProfile.newBuilder()
+        .setPrefixLength(4)
+        .setPartitionedIndexAndFilters(true)
+        .build();
+    try (DBStore dbStore = DBStoreBuilder.newBuilder(conf)
+        .setName("Test.db")
+        .setPath(newFolder.toPath())
+        .addTable("First", null, profile)
+        .build()) {
+      final Table<byte[], byte[]> table = dbStore.getTable("First");
+      assertEquals(4,
+          ((RDBTable) table).getColumnFamily().getPrefixLength());
+
+      // a file per key, so that prefix bloom filters skip files
+      for (String key : Arrays.asList("/a", "/a1/x", "/a1/y", "/a2/x",
+          "/b1/z")) {
+        table.put(bytes(key), bytes(key));
+        dbStore.flushDB();
+      }
+
+      assertArrayEquals(bytes("/a1/x"), table.get(bytes("/a1/x")));
+      assertNull(table.get(bytes("/a1/z")));
+      assertNull(table.get(bytes("/c1/x")));
+
+      // shorter than the prefix length, uses total order seek
+      assertEquals(4, count(table, "/a"));
+      assertEquals(5, count(table, "/"));
+      assertEquals(2, count(table, "/a1/"));
+      assertEquals(1, count(table, "/a2/x"));
+      assertEquals(0, count(table, "/c1/"));
+
+      try (TableIterator<byte[], ? extends Table.KeyValue<byte[], byte[]>>
+               iter = table.iterator()) {
+        iter.seek(bytes("/a2"));
+        assertArrayEquals(bytes("/a2/x"), iter.next().getKey());
+        assertArrayEquals(bytes("/b1/z"), iter.next().getKey());
+        assertFalse(iter.hasNext());
+      }
+    }
+  }
+
+  private static byte[] bytes(String s) {
+    return s.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int count(Table<byte[], byte[]> table, String prefix)
+      throws IOException {
+    int count = 0;
+    try (TableIterator<byte[], ? extends Table.KeyValue<byte[], byte[]>>
+             iter = table.iterator(bytes(prefix))) {
+      for (; iter.hasNext(); iter.next()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
   @ParameterizedTest
   @ValueSource(booleans = {true, false})
   public void testIfAutoCompactionDisabled(boolean disableAutoCompaction,
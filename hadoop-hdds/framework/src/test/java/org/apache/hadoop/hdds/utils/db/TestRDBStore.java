@@ -60,7 +60,7 @@ public static RDBStore newRDBStore(File dbFile, ManagedDBOptions options,
       throws IOException {
     return new RDBStore(dbFile, options, new ManagedWriteOptions(), families,
         CodecRegistry.newBuilder().build(), false, 1000, null, false,
-        maxDbUpdatesSizeThreshold, true, null, "");
+        maxDbUpdatesSizeThreshold, true, null, "", 0);
   }
 
   public static final int MAX_DB_UPDATES_SIZE_THRESHOLD = 80;
@@ -309,6 +309,38 @@ public void batchDelete() throws Exception {
     }
   }
 
+  @Test
+  public void batchMerge() throws Exception {
+    try (Table<byte[], byte[]> testTable = rdbStore.getTable("Fifth");
+        RDBBatchOperation batch = rdbStore.initBatchOperation();
+        RDBBatchOperation first = rdbStore.initBatchOperation();
+        RDBBatchOperation second = rdbStore.initBatchOperation()) {
+      //given
+      byte[] key1 = "mergeKey1".getBytes(StandardCharsets.UTF_8);
+      byte[] key2 = "mergeKey2".getBytes(StandardCharsets.UTF_8);
+      byte[] key3 = "mergeKey3".getBytes(StandardCharsets.UTF_8);
+      byte[] value1 = "value1".getBytes(StandardCharsets.UTF_8);
+      byte[] value2 = "value2".getBytes(StandardCharsets.UTF_8);
+      testTable.put(key3, value1);
+
+      testTable.putWithBatch(first, key1, value1);
+      testTable.putWithBatch(first, key2, value1);
+      testTable.putWithBatch(second, key1, value2);
+      testTable.deleteWithBatch(second, key2);
+      testTable.deleteWithBatch(second, key3);
+
+      //when
+      batch.merge(first);
+      batch.merge(second);
+      rdbStore.commitBatchOperation(batch);
+
+      //then
+      assertArrayEquals(value2, testTable.get(key1));
+      assertNull(testTable.get(key2));
+      assertNull(testTable.get(key3));
+    }
+  }
+
   @Test
   public void forEachAndIterator() throws Exception {
     final int iterCount = 100;
@@ -763,6 +795,39 @@ public void testDumpAndLoadEmpty() throws Exception {
     }
   }
 
+  @Test
+  public void testBulkLoad() throws Exception {
+    final RDBTable table = rdbStore.getTable("Ninth");
+    table.put(bytesOf[1], bytesOf[1]);
+    final File bulkLoadDir = new File(tempDir, "bulk-load");
+    final int numKeys = 100;
+    try (Table.BulkLoader<byte[], byte[]> loader =
+             table.newBulkLoader(bulkLoadDir, 128)) {
+      // unsorted keys, written to multiple files
+      for (int i = numKeys - 1; i >= 0; i--) {
+        loader.put(StringUtils.string2Bytes("key" + i),
+            StringUtils.string2Bytes("value" + i));
+      }
+      // overrides the existing entry and an entry in an earlier file
+      loader.put(bytesOf[1], bytesOf[2]);
+      loader.put(StringUtils.string2Bytes("key" + (numKeys - 1)), bytesOf[3]);
+
+      assertNull(table.get(StringUtils.string2Bytes("key0")));
+      loader.load();
+    }
+
+    assertArrayEquals(bytesOf[2], table.get(bytesOf[1]));
+    assertArrayEquals(bytesOf[3],
+        table.get(StringUtils.string2Bytes("key" + (numKeys - 1))));
+    for (int i = 0; i < numKeys - 1; i++) {
+      assertEquals("value" + i, StringUtils.bytes2String(
+          table.get(StringUtils.string2Bytes("key" + i))));
+    }
+    final String[] remaining = bulkLoadDir.list();
+    assertNotNull(remaining);
+    assertEquals(0, remaining.length);
+  }
+
   private List<String> generatePrefixes(int prefixCount) {
     List<String> prefixes = new ArrayList<>();
     for (int i = 0; i < prefixCount; i++) {
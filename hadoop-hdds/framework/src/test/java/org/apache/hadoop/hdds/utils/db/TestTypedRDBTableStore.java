@@ -23,10 +23,14 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 
 import org.apache.hadoop.hdds.StringUtils;
@@ -38,6 +42,7 @@
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.hdds.utils.db.cache.TableCache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -243,6 +248,89 @@ public void forEachAndIterator() throws Exception {
     }
   }
 
+  @Test
+  public void keyOnlyAndLazyValueIterators() throws Exception {
+    try (Table<String, String> testTable = createTypedTable("Seven")) {
+      for (int x = 0; x < 10; x++) {
+        testTable.put("key" + x, "value" + x);
+      }
+
+      try (TableIterator<String, ? extends KeyValue<String, String>> iter =
+               testTable.iterator("key", Table.IteratorType.KEY_ONLY)) {
+        for (int x = 0; x < 10; x++) {
+          final KeyValue<String, String> kv = iter.next();
+          Assertions.assertEquals("key" + x, kv.getKey());
+          Assertions.assertNull(kv.getValue());
+        }
+        Assertions.assertFalse(iter.hasNext());
+      }
+
+      // values not decoded before the iterator moves on are still valid
+      final List<KeyValue<String, String>> entries = new ArrayList<>();
+      try (TableIterator<String, ? extends KeyValue<String, String>> iter =
+               testTable.iterator()) {
+        entries.add(iter.seek("key5"));
+        Assertions.assertEquals("value5", iter.next().getValue());
+        iter.forEachRemaining(entries::add);
+      }
+      Assertions.assertEquals(5, entries.size());
+      Assertions.assertEquals("key5", entries.get(0).getKey());
+      Assertions.assertEquals("value5", entries.get(0).getValue());
+      for (int x = 1; x < 5; x++) {
+        Assertions.assertEquals("key" + (x + 5), entries.get(x).getKey());
+        Assertions.assertEquals("value" + (x + 5), entries.get(x).getValue());
+      }
+    }
+  }
+
+  @Test
+  public void forEachInParallel() throws Exception {
+    final int files = 3;
+    final int keysPerFile = 100;
+    try (Table<String, String> testTable = createTypedTable("Seven")) {
+      // disjoint key ranges in separate SST files
+      for (int f = 0; f < files; f++) {
+        for (int x = 0; x < keysPerFile; x++) {
+          final String key = String.format("key%05d", f * keysPerFile + x);
+          testTable.put(key, "value-" + key);
+        }
+        rdbStore.flushDB();
+      }
+      // not flushed yet
+      testTable.put("key99999", "value-key99999");
+      final int total = files * keysPerFile + 1;
+
+      final List<byte[]> splitKeys =
+          ((RDBTable) rdbStore.getTable("Seven")).getSplitKeys(files);
+      Assertions.assertFalse(splitKeys.isEmpty());
+      Assertions.assertTrue(splitKeys.size() < files);
+      for (int i = 1; i < splitKeys.size(); i++) {
+        Assertions.assertTrue(StringUtils.bytes2String(splitKeys.get(i - 1))
+            .compareTo(StringUtils.bytes2String(splitKeys.get(i))) < 0);
+      }
+
+      final ForkJoinPool pool = new ForkJoinPool(files);
+      try {
+        final Map<String, String> visited = new ConcurrentHashMap<>();
+        testTable.forEachInParallel(files, pool,
+            Table.IteratorType.KEY_AND_VALUE, kv -> Assertions.assertNull(
+                visited.put(kv.getKey(), kv.getValue())));
+        Assertions.assertEquals(total, visited.size());
+        visited.forEach((k, v) -> Assertions.assertEquals("value-" + k, v));
+
+        final Set<String> keys = ConcurrentHashMap.newKeySet();
+        testTable.forEachInParallel(files, pool, Table.IteratorType.KEY_ONLY,
+            kv -> {
+              Assertions.assertNull(kv.getValue());
+              Assertions.assertTrue(keys.add(kv.getKey()));
+            });
+        Assertions.assertEquals(visited.keySet(), keys);
+      } finally {
+        pool.shutdown();
+      }
+    }
+  }
+
   @Test
   public void testTypedTableWithCache() throws Exception {
     int iterCount = 10;
@@ -409,4 +497,120 @@ public void testByteArrayTypedTable() throws Exception {
       Assertions.assertSame(value, testTable.get(key));
     }
   }
+
+  @Test
+  public void offHeapFullCache() throws Exception {
+    try (Table<String, String> testTable = createTypedTable("Seven")) {
+      for (int i = 0; i < 10; i++) {
+        testTable.put("key" + i, "value" + i);
+      }
+    }
+
+    try (TypedTable<String, String> testTable = new TypedTable<>(
+        rdbStore.getTable("Seven"), codecRegistry, String.class,
+        String.class, TableCache.CacheType.OFF_HEAP_FULL_CACHE, "")) {
+      Assertions.assertEquals(10, testTable.getCache().size());
+      for (int i = 0; i < 10; i++) {
+        String key = "key" + i;
+        Assertions.assertEquals("value" + i,
+            testTable.getCacheValue(new CacheKey<>(key)).getCacheValue());
+        Assertions.assertTrue(testTable.isExist(key));
+      }
+      // full cache: keys missing from the cache do not exist
+      Assertions.assertNull(testTable.get("missing"));
+
+      testTable.addCacheEntry(new CacheKey<>("key0"), CacheValue.get(1L));
+      Assertions.assertNull(testTable.get("key0"));
+      Assertions.assertFalse(testTable.isExist("key0"));
+    }
+  }
+
+  @Test
+  public void shardedPartialCacheReadThrough() throws Exception {
+    try (TypedTable<String, String> testTable = new TypedTable<>(
+        rdbStore.getTable("Eighth"), codecRegistry, String.class,
+        String.class, TableCache.CacheType.SHARDED_PARTIAL_CACHE, "",
+        1 << 20)) {
+      testTable.put("key", "value");
+      Assertions.assertEquals("value", testTable.get("key"));
+      Assertions.assertEquals(0, testTable.getCacheStats().getCacheHits());
+      // the value read from DB is kept in the cache
+      Assertions.assertEquals("value", testTable.get("key"));
+      Assertions.assertEquals("value", testTable.getIfExist("key"));
+      Assertions.assertEquals(2, testTable.getCacheStats().getCacheHits());
+      Assertions.assertEquals(0, testTable.getCache().size());
+      Assertions.assertNull(testTable.get("missing"));
+
+      // writes not going through the cache invalidate the entry
+      testTable.put("key", "new");
+      Assertions.assertEquals("new", testTable.get("key"));
+      try (BatchOperation batch = rdbStore.initBatchOperation()) {
+        testTable.deleteWithBatch(batch, "key");
+        rdbStore.commitBatchOperation(batch);
+      }
+      Assertions.assertNull(testTable.get("key"));
+
+      // entries flushed through the cache are kept
+      testTable.addCacheEntry(new CacheKey<>("key"), CacheValue.get(1L, "v1"));
+      try (BatchOperation batch = rdbStore.initBatchOperation()) {
+        testTable.putWithBatch(batch, "key", "v1");
+        rdbStore.commitBatchOperation(batch);
+      }
+      testTable.getCache().evictCache(Collections.singletonList(1L));
+      Assertions.assertEquals(0, testTable.getCache().size());
+      long hits = testTable.getCacheStats().getCacheHits();
+      Assertions.assertEquals("v1", testTable.get("key"));
+      Assertions.assertEquals(hits + 1,
+          testTable.getCacheStats().getCacheHits());
+    }
+  }
+
+  @Test
+  public void shardedPartialCacheReadBeforeBatchCommit() throws Exception {
+    try (TypedTable<String, String> testTable = new TypedTable<>(
+        rdbStore.getTable("Eighth"), codecRegistry, String.class,
+        String.class, TableCache.CacheType.SHARDED_PARTIAL_CACHE, "",
+        1 << 20)) {
+      testTable.put("key", "old");
+      testTable.put("other", "old");
+      Assertions.assertEquals("old", testTable.get("key"));
+
+      // a read between adding to the batch and the commit caches the value
+      // still in DB, which must be dropped by the commit
+      try (BatchOperation batch = rdbStore.initBatchOperation()) {
+        testTable.putWithBatch(batch, "key", "new");
+        Assertions.assertEquals("old", testTable.get("key"));
+        rdbStore.commitBatchOperation(batch);
+      }
+      Assertions.assertEquals("new", testTable.get("key"));
+
+      try (BatchOperation batch = rdbStore.initBatchOperation()) {
+        testTable.deleteWithBatch(batch, "key");
+        Assertions.assertEquals("new", testTable.get("key"));
+        rdbStore.commitBatchOperation(batch);
+      }
+      Assertions.assertNull(testTable.get("key"));
+
+      // the invalidation moves with the ops of a merged batch
+      Assertions.assertEquals("old", testTable.get("other"));
+      try (RDBBatchOperation batch = rdbStore.initBatchOperation();
+           RDBBatchOperation merged = rdbStore.initBatchOperation()) {
+        testTable.putWithBatch(merged, "other", "new");
+        batch.merge(merged);
+        Assertions.assertEquals("old", testTable.get("other"));
+        rdbStore.commitBatchOperation(merged);
+        Assertions.assertEquals("old", testTable.get("other"));
+        rdbStore.commitBatchOperation(batch);
+      }
+      Assertions.assertEquals("new", testTable.get("other"));
+
+      // deleting by prefix drops the cached values only after the commit
+      try (BatchOperation batch = rdbStore.initBatchOperation()) {
+        testTable.deleteBatchWithPrefix(batch, "oth");
+        Assertions.assertEquals("new", testTable.get("other"));
+        rdbStore.commitBatchOperation(batch);
+      }
+      Assertions.assertNull(testTable.get("other"));
+    }
+  }
 }
@@ -20,12 +20,19 @@
 package org.apache.hadoop.hdds.utils.db.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hdds.utils.db.StringCodec;
 import org.apache.ozone.test.GenericTestUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.slf4j.event.Level;
@@ -46,11 +53,21 @@ public static void setLogLevel() {
   private void createTableCache(TableCache.CacheType cacheType) {
     if (cacheType == TableCache.CacheType.FULL_CACHE) {
       tableCache = new FullTableCache<>("");
+    } else if (cacheType == TableCache.CacheType.OFF_HEAP_FULL_CACHE) {
+      tableCache = new OffHeapTableCache<>("", StringCodec.get());
+    } else if (cacheType == TableCache.CacheType.SHARDED_PARTIAL_CACHE) {
+      // no capacity for flushed entries, same as PartialTableCache
+      tableCache = new ShardedPartialTableCache<>("", 0, (k, v) -> 0);
     } else {
       tableCache = new PartialTableCache<>("");
     }
   }
 
+  private static boolean isPartial(TableCache.CacheType cacheType) {
+    return cacheType == TableCache.CacheType.PARTIAL_CACHE
+        || cacheType == TableCache.CacheType.SHARDED_PARTIAL_CACHE;
+  }
+
   @ParameterizedTest
   @EnumSource(TableCache.CacheType.class)
   public void testPartialTableCache(TableCache.CacheType cacheType) {
@@ -137,7 +154,7 @@ public void testTableCacheWithRenameKey(TableCache.CacheType cacheType) {
 
     Assertions.assertEquals(0, tableCache.getEpochEntries().size());
 
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
       Assertions.assertEquals(0, tableCache.size());
     } else {
       Assertions.assertEquals(3, tableCache.size());
@@ -175,7 +192,7 @@ public void testPartialTableCacheWithNotContinuousEntries(
     final int count = totalCount;
 
     // If cleanup policy is manual entries should have been removed.
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
       Assertions.assertEquals(count - epochs.size(), tableCache.size());
 
       // Check remaining entries exist or not and deleted entries does not
@@ -237,7 +254,7 @@ public void testPartialTableCacheWithOverrideEntries(
     epochs.add(3L);
     epochs.add(4L);
 
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
 
       tableCache.evictCache(epochs);
 
@@ -252,7 +269,7 @@ public void testPartialTableCacheWithOverrideEntries(
 
     epochs = new ArrayList<>();
     epochs.add(5L);
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
       tableCache.evictCache(epochs);
 
       Assertions.assertEquals(0, tableCache.size());
@@ -314,7 +331,7 @@ public void testPartialTableCacheWithOverrideAndDelete(
     epochs.add(6L);
 
 
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
       tableCache.evictCache(epochs);
 
       Assertions.assertEquals(0, tableCache.size());
@@ -336,7 +353,7 @@ public void testPartialTableCacheWithOverrideAndDelete(
     epochs = new ArrayList<>();
     epochs.add(7L);
 
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
       tableCache.evictCache(epochs);
 
       Assertions.assertEquals(0, tableCache.size());
@@ -401,7 +418,7 @@ public void testPartialTableCacheParallel(
 
     totalCount += value;
 
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
       int deleted = 5;
 
       // cleanup first 5 entries
@@ -520,7 +537,7 @@ public void testTableCacheWithNonConsecutiveEpochList(
 
     tableCache.evictCache(epochs);
 
-    if (cacheType == TableCache.CacheType.PARTIAL_CACHE) {
+    if (isPartial(cacheType)) {
       Assertions.assertEquals(0, tableCache.size());
       Assertions.assertEquals(0, tableCache.getEpochEntries().size());
     } else {
@@ -563,6 +580,200 @@ public void testTableCacheStats(TableCache.CacheType cacheType) {
     verifyStats(tableCache, 3, 2, 2);
   }
 
+  @Test
+  public void testOffHeapTableCache() throws Exception {
+    OffHeapTableCache<String, String> cache =
+        new OffHeapTableCache<>("", StringCodec.get());
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i < OffHeapTableCache.CHUNK_SIZE / 2; i++) {
+      large.append('x');
+    }
+    long expectedBytes = 0;
+    for (int i = 0; i < 10; i++) {
+      byte[] value = StringCodec.get().toPersistedFormat("value" + i);
+      cache.loadInitial(new CacheKey<>("key" + i), -1, value);
+      expectedBytes += value.length;
+    }
+    cache.loadInitial(new CacheKey<>("large"),
+        CacheValue.get(-1, large.toString()));
+    expectedBytes += large.length();
+    Assertions.assertEquals(11, cache.size());
+    Assertions.assertEquals(expectedBytes, cache.getSerializedBytes());
+
+    // iterating does not deserialize the values permanently
+    Iterator<Map.Entry<CacheKey<String>, CacheValue<String>>> iterator =
+        cache.iterator();
+    for (int i = 0; i < 10; i++) {
+      Map.Entry<CacheKey<String>, CacheValue<String>> entry = iterator.next();
+      Assertions.assertEquals("key" + i, entry.getKey().getCacheKey());
+      Assertions.assertEquals("value" + i,
+          entry.getValue().getCacheValue());
+    }
+    Assertions.assertEquals(large.toString(),
+        iterator.next().getValue().getCacheValue());
+    Assertions.assertFalse(iterator.hasNext());
+    Assertions.assertEquals(expectedBytes, cache.getSerializedBytes());
+
+    // lookups return the same instance, so it can be updated in place
+    CacheValue<String> value = cache.get(new CacheKey<>("key0"));
+    Assertions.assertEquals("value0", value.getCacheValue());
+    Assertions.assertSame(value.getCacheValue(),
+        cache.get(new CacheKey<>("key0")).getCacheValue());
+    Assertions.assertSame(value.getCacheValue(),
+        cache.lookup(new CacheKey<>("key0")).getValue().getCacheValue());
+    Assertions.assertSame(value.getCacheValue(),
+        cache.iterator().next().getValue().getCacheValue());
+    expectedBytes -= "value0".length();
+    Assertions.assertEquals(expectedBytes, cache.getSerializedBytes());
+
+    // replaced and deleted entries
+    cache.put(new CacheKey<>("key1"), CacheValue.get(1, "new"));
+    cache.put(new CacheKey<>("key2"), CacheValue.get(2));
+    expectedBytes -= "value1".length() + "value2".length();
+    Assertions.assertEquals(expectedBytes, cache.getSerializedBytes());
+    Assertions.assertEquals("new",
+        cache.get(new CacheKey<>("key1")).getCacheValue());
+    Assertions.assertEquals(CacheResult.CacheStatus.NOT_EXIST,
+        cache.lookup(new CacheKey<>("key2")).getCacheStatus());
+    Assertions.assertEquals(CacheResult.CacheStatus.NOT_EXIST,
+        cache.lookup(new CacheKey<>("missing")).getCacheStatus());
+
+    cache.evictCache(Arrays.asList(1L, 2L));
+    Assertions.assertEquals(10, cache.size());
+    Assertions.assertNull(cache.get(new CacheKey<>("key2")));
+    Assertions.assertEquals("new",
+        cache.get(new CacheKey<>("key1")).getCacheValue());
+  }
+
+  @Test
+  public void testShardedPartialTableCacheClock() {
+    // single shard with room for 3 flushed entries
+    ShardedPartialTableCache<String, String> cache =
+        new ShardedPartialTableCache<>("", 3, 1, (k, v) -> 1);
+    List<Long> epochs = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      cache.put(new CacheKey<>("k" + i), CacheValue.get(i, "v" + i));
+      epochs.add((long) i);
+    }
+    cache.evictCache(epochs);
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertEquals(0, cache.getEpochEntries().size());
+    Assertions.assertFalse(cache.iterator().hasNext());
+    Assertions.assertEquals(3, cache.getFlushedSize());
+    Assertions.assertEquals(3, cache.getFlushedWeight());
+    Assertions.assertEquals(CacheResult.CacheStatus.MAY_EXIST,
+        cache.lookup(new CacheKey<>("k1")).getCacheStatus());
+    Assertions.assertEquals("v2",
+        cache.lookup(new CacheKey<>("k2")).getValue().getCacheValue());
+
+    // k2 was read, so k3 is evicted instead
+    cache.put(new CacheKey<>("k5"), CacheValue.get(5, "v5"));
+    cache.evictCache(Collections.singletonList(5L));
+    Assertions.assertNull(cache.get(new CacheKey<>("k3")));
+    Assertions.assertEquals("v2",
+        cache.get(new CacheKey<>("k2")).getCacheValue());
+    Assertions.assertEquals("v4",
+        cache.get(new CacheKey<>("k4")).getCacheValue());
+    Assertions.assertEquals(3, cache.getFlushedSize());
+
+    // updates replace the flushed entries
+    cache.put(new CacheKey<>("k2"), CacheValue.get(6, "new"));
+    cache.put(new CacheKey<>("k4"), CacheValue.get(7));
+    Assertions.assertEquals(1, cache.getFlushedSize());
+    Assertions.assertEquals(2, cache.size());
+    Assertions.assertEquals("new",
+        cache.get(new CacheKey<>("k2")).getCacheValue());
+    Assertions.assertEquals(CacheResult.CacheStatus.NOT_EXIST,
+        cache.lookup(new CacheKey<>("k4")).getCacheStatus());
+    cache.evictCache(Arrays.asList(6L, 7L));
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertEquals("new",
+        cache.get(new CacheKey<>("k2")).getCacheValue());
+    // deleted entries are not kept
+    Assertions.assertEquals(CacheResult.CacheStatus.MAY_EXIST,
+        cache.lookup(new CacheKey<>("k4")).getCacheStatus());
+    Assertions.assertEquals(2, cache.getFlushedWeight());
+
+    cache.invalidate(new CacheKey<>("k2"));
+    Assertions.assertNull(cache.get(new CacheKey<>("k2")));
+    Assertions.assertEquals(1, cache.getFlushedSize());
+    cache.invalidateAll();
+    Assertions.assertEquals(0, cache.getFlushedSize());
+    Assertions.assertEquals(0, cache.getFlushedWeight());
+  }
+
+  @Test
+  public void testShardedPartialTableCacheCapacity() {
+    ShardedPartialTableCache<String, String> cache =
+        new ShardedPartialTableCache<>("", 4 * 1000, 4,
+            (k, v) -> v.length());
+    List<Long> epochs = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      cache.put(new CacheKey<>("key" + i),
+          CacheValue.get(i % 10, Integer.toString(i)));
+      epochs.add((long) i);
+    }
+    Assertions.assertEquals(100, cache.size());
+    Assertions.assertEquals(10, cache.getEpochEntries().size());
+    Assertions.assertEquals(10, cache.getEpochEntries().get(0L).size());
+
+    // entries larger than the capacity of a shard are not kept
+    StringBuilder large = new StringBuilder();
+    for (int i = 0; i <= 1000; i++) {
+      large.append('x');
+    }
+    cache.put(new CacheKey<>("large"), CacheValue.get(0, large.toString()));
+
+    cache.evictCache(epochs);
+    Assertions.assertEquals(0, cache.size());
+    Assertions.assertEquals(100, cache.getFlushedSize());
+    for (int i = 0; i < 100; i++) {
+      Assertions.assertEquals(Integer.toString(i),
+          cache.get(new CacheKey<>("key" + i)).getCacheValue());
+    }
+    Assertions.assertNull(cache.get(new CacheKey<>("large")));
+    verifyStats(cache, 100, 1, 0);
+  }
+
+  @Test
+  public void testShardedPartialTableCacheReadThrough() {
+    ShardedPartialTableCache<String, String> cache =
+        new ShardedPartialTableCache<>("", 100, 1, (k, v) -> 1);
+    CacheKey<String> key = new CacheKey<>("key");
+
+    Assertions.assertNull(cache.readThrough(key, k -> null));
+    Assertions.assertEquals(0, cache.getFlushedSize());
+    Assertions.assertEquals("value",
+        cache.readThrough(key, k -> Pair.of("value", 10L)));
+    Assertions.assertEquals("value", cache.get(key).getCacheValue());
+    Assertions.assertEquals(10, cache.getFlushedWeight());
+
+    // the value read is not kept if the key is updated meanwhile
+    cache.invalidate(key);
+    Assertions.assertEquals("old", cache.readThrough(key, k -> {
+      cache.put(key, CacheValue.get(1, "new"));
+      return Pair.of("old", 10L);
+    }));
+    Assertions.assertEquals("new", cache.get(key).getCacheValue());
+    cache.evictCache(Collections.singletonList(1L));
+    Assertions.assertEquals("new", cache.get(key).getCacheValue());
+
+    cache.invalidate(key);
+    Assertions.assertEquals("old", cache.readThrough(key, k -> {
+      cache.invalidate(key);
+      return Pair.of("old", 10L);
+    }));
+    Assertions.assertNull(cache.get(key));
+    Assertions.assertEquals(0, cache.getFlushedSize());
+    Assertions.assertEquals(0, cache.getFlushedWeight());
+
+    // nor if it is larger than the capacity
+    Assertions.assertEquals("large",
+        cache.readThrough(key, k -> Pair.of("large", 101L)));
+    Assertions.assertNull(cache.get(key));
+    Assertions.assertEquals(0, cache.getFlushedSize());
+  }
+
   private int writeToCache(int count, int startVal, long sleep)
       throws InterruptedException {
     int counter = 1;
@@ -34,6 +34,14 @@ public class ManagedBloomFilter extends BloomFilter {
   @Nullable
   private final StackTraceElement[] elements = getStackTrace();
 
+  public ManagedBloomFilter() {
+    super();
+  }
+
+  public ManagedBloomFilter(double bitsPerKey) {
+    super(bitsPerKey);
+  }
+
   @Override
   protected void finalize() throws Throwable {
     assertClosed(this, formatStackTrace(elements));
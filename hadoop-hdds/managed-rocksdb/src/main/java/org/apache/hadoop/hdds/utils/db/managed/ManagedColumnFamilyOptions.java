@@ -49,6 +49,16 @@ public ManagedColumnFamilyOptions(ColumnFamilyOptions columnFamilyOptions) {
     super(columnFamilyOptions);
   }
 
+  /**
+   * Copy the given options, replacing the table format config.
+   * The table format config of the given options is left untouched.
+   */
+  public ManagedColumnFamilyOptions(ColumnFamilyOptions columnFamilyOptions,
+      TableFormatConfig tableFormatConfig) {
+    super(columnFamilyOptions);
+    super.setTableFormatConfig(tableFormatConfig);
+  }
+
   @Override
   public synchronized ManagedColumnFamilyOptions setTableFormatConfig(
       TableFormatConfig tableFormatConfig) {
@@ -74,6 +74,7 @@ public static RaftProperties newRaftProperties(
     setRaftRetryCacheProperties(properties, conf);
     setRaftSnapshotProperties(properties, conf);
     setRaftLeadElectionProperties(properties, conf);
+    setRaftReadProperties(properties, conf);
 
     final String prefix = RaftServerConfigKeys.PREFIX + ".";
     conf.getPropsMatchPrefixAndTrimPrefix(OZONE_SCM_HA_PREFIX + "." + prefix)
@@ -155,6 +156,31 @@ private static void setRaftLeadElectionProperties(
             ScmConfigKeys.OZONE_SCM_HA_RATIS_SERVER_ELECTION_PRE_VOTE_DEFAULT));
   }
 
+  /**
+   * Set properties related to Raft reads.
+   *
+   * @param properties RaftProperties instance which will be updated
+   * @param ozoneConf ConfigurationSource
+   */
+  private static void setRaftReadProperties(
+      final RaftProperties properties, final ConfigurationSource ozoneConf) {
+    RaftServerConfigKeys.Read.setOption(properties,
+        RaftServerConfigKeys.Read.Option.valueOf(ozoneConf.getTrimmed(
+            ScmConfigKeys.OZONE_SCM_HA_RATIS_READ_OPTION,
+            ScmConfigKeys.OZONE_SCM_HA_RATIS_READ_OPTION_DEFAULT)
+            .toUpperCase()));
+    RaftServerConfigKeys.Read.setLeaderLeaseEnabled(properties,
+        ozoneConf.getBoolean(
+            ScmConfigKeys.OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_ENABLED,
+            ScmConfigKeys.
+                OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_ENABLED_DEFAULT));
+    RaftServerConfigKeys.Read.setLeaderLeaseTimeoutRatio(properties,
+        ozoneConf.getDouble(
+            ScmConfigKeys.OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO,
+            ScmConfigKeys.
+                OZONE_SCM_HA_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO_DEFAULT));
+  }
+
   /**
    * Set properties related to Raft Log.
    *
@@ -209,6 +209,10 @@ public SCMRatisResponse submitRequest(final SCMRatisRequest request)
       return SCMRatisResponse.decode(reply);
     }
 
+    @Override
+    public void waitForLinearizableRead() {
+    }
+
     @Override
     public boolean triggerSnapshot() throws IOException {
       throw new IOException("submitSnapshotRequest is called.");
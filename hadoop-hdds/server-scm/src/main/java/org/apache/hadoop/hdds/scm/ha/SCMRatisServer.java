@@ -44,6 +44,13 @@ SCMRatisResponse submitRequest(SCMRatisRequest request)
 
   boolean triggerSnapshot() throws IOException;
 
+  /**
+   * Waits until this SCM, as the leader, has applied all the transactions
+   * committed before the call, if linearizable reads are enabled.
+   * @throws IOException if this SCM is not the leader.
+   */
+  void waitForLinearizableRead() throws IOException;
+
   void stop() throws IOException;
 
   boolean isStopped();
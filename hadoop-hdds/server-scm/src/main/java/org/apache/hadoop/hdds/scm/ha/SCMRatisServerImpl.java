@@ -46,6 +46,7 @@
 import org.apache.ratis.grpc.GrpcTlsConfig;
 import org.apache.ratis.proto.RaftProtos;
 import org.apache.ratis.protocol.ClientId;
+import org.apache.ratis.protocol.Message;
 import org.apache.ratis.protocol.RaftClientReply;
 import org.apache.ratis.protocol.RaftClientRequest;
 import org.apache.ratis.protocol.RaftGroup;
@@ -56,6 +57,7 @@
 import org.apache.ratis.protocol.exceptions.NotLeaderException;
 import org.apache.ratis.protocol.SetConfigurationRequest;
 import org.apache.ratis.server.RaftServer;
+import org.apache.ratis.server.RaftServerConfigKeys;
 import org.apache.ratis.server.storage.RaftStorage;
 import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
 import org.slf4j.Logger;
@@ -80,6 +82,7 @@ public class SCMRatisServerImpl implements SCMRatisServer {
   private final GrpcTlsConfig grpcTlsConfig;
   private boolean isStopped;
   private final long requestTimeout;
+  private final boolean linearizableRead;
 
   // TODO: Refactor and remove ConfigurationSource and use only
   //  SCMHAConfiguration.
@@ -122,6 +125,9 @@ public class SCMRatisServerImpl implements SCMRatisServer {
 
     this.division = server.getDivision(groupId);
     this.isStopped = false;
+    this.linearizableRead =
+        RaftServerConfigKeys.Read.option(server.getProperties())
+            == RaftServerConfigKeys.Read.Option.LINEARIZABLE;
   }
 
   public static void initialize(String clusterId, String scmId,
@@ -236,6 +242,36 @@ public SCMRatisResponse submitRequest(SCMRatisRequest request)
     return SCMRatisResponse.decode(raftClientReply);
   }
 
+  @Override
+  public void waitForLinearizableRead() throws IOException {
+    if (!linearizableRead) {
+      return;
+    }
+    // Ratis confirms the leadership locally while the leader lease is
+    // valid, and the state machine answers an empty message without any read.
+    final RaftClientRequest raftClientRequest = RaftClientRequest.newBuilder()
+        .setClientId(clientId)
+        .setServerId(getDivision().getId())
+        .setGroupId(getDivision().getGroup().getGroupId())
+        .setCallId(nextCallId())
+        .setMessage(Message.EMPTY)
+        .setType(RaftClientRequest.readRequestType())
+        .build();
+    final RaftClientReply raftClientReply;
+    try {
+      raftClientReply = server.submitClientRequestAsync(raftClientRequest)
+          .get(requestTimeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for read index", e);
+    } catch (ExecutionException | TimeoutException e) {
+      throw new IOException("Failed to wait for read index", e);
+    }
+    if (!raftClientReply.isSuccess()) {
+      throw raftClientReply.getException();
+    }
+  }
+
   @Override
   public boolean triggerSnapshot() throws IOException {
     final SnapshotManagementRequest req = SnapshotManagementRequest.newCreate(
@@ -140,6 +140,16 @@ public void initialize(RaftServer server, RaftGroupId id,
     });
   }
 
+  /**
+   * SCM requests are not read through Ratis.  Reads only wait for the
+   * transactions committed before them to be applied, see
+   * {@link SCMRatisServer#waitForLinearizableRead()}.
+   */
+  @Override
+  public CompletableFuture<Message> query(Message request) {
+    return CompletableFuture.completedFuture(Message.EMPTY);
+  }
+
   @Override
   public CompletableFuture<Message> applyTransaction(
       final TransactionContext trx) {
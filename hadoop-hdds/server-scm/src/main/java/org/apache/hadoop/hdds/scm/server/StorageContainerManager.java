@@ -1898,6 +1898,8 @@ public RootCARotationManager getRootCARotationManager() {
 
   /**
    * Check if the current scm is the leader and ready for accepting requests.
+   * With linearizable reads, also wait for the transactions committed so far
+   * to be applied.
    * @return - if the current scm is the leader and is ready.
    */
   public boolean checkLeader() {
@@ -1907,8 +1909,17 @@ public boolean checkLeader() {
     } else {
       // FOR HA setup, the node has to be the leader and ready to serve
       // requests.
-      return getScmHAManager().getRatisServer().getDivision().getInfo()
-          .isLeaderReady();
+      SCMRatisServer ratisServer = getScmHAManager().getRatisServer();
+      if (!ratisServer.getDivision().getInfo().isLeaderReady()) {
+        return false;
+      }
+      try {
+        ratisServer.waitForLinearizableRead();
+        return true;
+      } catch (IOException e) {
+        LOG.debug("Failed to confirm the leadership", e);
+        return false;
+      }
     }
   }
 
@@ -94,6 +94,7 @@ private OzoneConfiguration getConfig(String scmId, int ratisPort) {
     conf.set(HddsConfigKeys.OZONE_METADATA_DIRS,
         storageBaseDir.resolve(scmId).resolve("metadata").toString());
     conf.set(ScmConfigKeys.OZONE_SCM_RATIS_PORT_KEY, String.valueOf(ratisPort));
+    conf.set(ScmConfigKeys.OZONE_SCM_HA_RATIS_READ_OPTION, "LINEARIZABLE");
     return conf;
   }
 
@@ -131,6 +132,11 @@ public void testAddSCM() throws IOException, InterruptedException {
     }
   }
 
+  @Test
+  public void testLinearizableRead() throws IOException {
+    primarySCMHAManager.getRatisServer().waitForLinearizableRead();
+  }
+
   @Test
   public void testHARingRemovalErrors() throws IOException,
       AuthenticationException {
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.hdds.client.BlockID;
+import org.apache.hadoop.hdds.protocol.DatanodeDetails;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ChecksumType;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandRequestProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.ContainerCommandResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.GetCommittedBlockLengthResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.PutBlockResponseProto;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Result;
+import org.apache.hadoop.hdds.protocol.datanode.proto.ContainerProtos.Type;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationType;
+import org.apache.hadoop.hdds.scm.ContainerClientMetrics;
+import org.apache.hadoop.hdds.scm.OzoneClientConfig;
+import org.apache.hadoop.hdds.scm.XceiverClientFactory;
+import org.apache.hadoop.hdds.scm.XceiverClientReply;
+import org.apache.hadoop.hdds.scm.XceiverClientSpi;
+import org.apache.hadoop.hdds.scm.pipeline.MockPipeline;
+import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
+import org.apache.hadoop.hdds.scm.storage.BlockOutputStream;
+import org.apache.hadoop.hdds.scm.storage.BufferPool;
+import org.apache.hadoop.hdds.scm.storage.RatisBlockOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the client side write path of {@link BlockOutputStream}:
+ * buffering, checksum computation and building WriteChunk/PutBlock requests.
+ * The datanode is replaced by an in-memory client which acknowledges every
+ * request immediately, so that only the client CPU cost is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BenchmarkBlockOutputStream {
+
+  private static final int STREAM_BUFFER_SIZE = 4 * 1024 * 1024;
+
+  /** Bytes written to each block. */
+  @Param({"67108864"})
+  private int blockSize;
+
+  /** Size of each {@code write(byte[], int, int)} call. */
+  @Param({"4096", "1048576"})
+  private int writeSize;
+
+  @Param({"CRC32", "CRC32C"})
+  private ChecksumType checksumType;
+
+  private OzoneClientConfig config;
+  private BufferPool bufferPool;
+  private XceiverClientFactory clientFactory;
+  private Pipeline pipeline;
+  private byte[] data;
+  private final AtomicLong localId = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    config = new OzoneClientConfig();
+    config.setStreamBufferSize(STREAM_BUFFER_SIZE);
+    config.setStreamBufferFlushSize(4 * STREAM_BUFFER_SIZE);
+    config.setStreamBufferMaxSize(8 * STREAM_BUFFER_SIZE);
+    config.setStreamBufferFlushDelay(true);
+    config.setChecksumType(checksumType);
+    config.setBytesPerChecksum(1024 * 1024);
+
+    bufferPool = new BufferPool(STREAM_BUFFER_SIZE,
+        (int) (config.getStreamBufferMaxSize() / STREAM_BUFFER_SIZE));
+    pipeline = MockPipeline.createRatisPipeline();
+    clientFactory = new AckingClientFactory(new AckingClient(pipeline));
+
+    data = new byte[writeSize];
+    ThreadLocalRandom.current().nextBytes(data);
+  }
+
+  @Benchmark
+  public long write() throws IOException {
+    BlockOutputStream out = new RatisBlockOutputStream(
+        new BlockID(1L, localId.incrementAndGet()), clientFactory, pipeline,
+        bufferPool, config, null, ContainerClientMetrics.acquire());
+    try {
+      for (long written = 0; written < blockSize; written += writeSize) {
+        out.write(data, 0, writeSize);
+      }
+    } finally {
+      out.close();
+    }
+    return out.getWrittenDataLength();
+  }
+
+  /**
+   * Always hands out the same {@link AckingClient}.
+   */
+  private static final class AckingClientFactory
+      implements XceiverClientFactory {
+    private final XceiverClientSpi client;
+
+    AckingClientFactory(XceiverClientSpi client) {
+      this.client = client;
+    }
+
+    @Override
+    public XceiverClientSpi acquireClient(Pipeline p) {
+      return client;
+    }
+
+    @Override
+    public void releaseClient(XceiverClientSpi xceiverClient,
+        boolean invalidateClient) {
+    }
+
+    @Override
+    public XceiverClientSpi acquireClientForReadData(Pipeline p) {
+      return client;
+    }
+
+    @Override
+    public void releaseClientForReadData(XceiverClientSpi xceiverClient,
+        boolean invalidateClient) {
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+
+  /**
+   * Client which completes each request successfully without sending it.
+   */
+  private static final class AckingClient extends XceiverClientSpi {
+    private final Pipeline pipeline;
+    private final AtomicLong logIndex = new AtomicLong();
+
+    AckingClient(Pipeline pipeline) {
+      this.pipeline = pipeline;
+    }
+
+    @Override
+    public void connect() {
+    }
+
+    @Override
+    public void connect(String encodedToken) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public Pipeline getPipeline() {
+      return pipeline;
+    }
+
+    @Override
+    public XceiverClientReply sendCommandAsync(
+        ContainerCommandRequestProto request) {
+      ContainerCommandResponseProto.Builder builder =
+          ContainerCommandResponseProto.newBuilder()
+              .setResult(Result.SUCCESS)
+              .setCmdType(request.getCmdType());
+      if (request.getCmdType() == Type.PutBlock) {
+        builder.setPutBlock(PutBlockResponseProto.newBuilder()
+            .setCommittedBlockLength(
+                GetCommittedBlockLengthResponseProto.newBuilder()
+                    .setBlockID(
+                        request.getPutBlock().getBlockData().getBlockID())
+                    .setBlockLength(
+                        request.getPutBlock().getBlockData().getSize())));
+      }
+      XceiverClientReply reply = new XceiverClientReply(
+          CompletableFuture.completedFuture(builder.build()));
+      reply.setLogIndex(logIndex.incrementAndGet());
+      return reply;
+    }
+
+    @Override
+    public ReplicationType getPipelineType() {
+      return ReplicationType.RATIS;
+    }
+
+    @Override
+    public XceiverClientReply watchForCommit(long index) {
+      XceiverClientReply reply = new XceiverClientReply(
+          CompletableFuture.completedFuture(
+              ContainerCommandResponseProto.newBuilder()
+                  .setCmdType(Type.WriteChunk)
+                  .setResult(Result.SUCCESS)
+                  .build()));
+      reply.setLogIndex(index);
+      return reply;
+    }
+
+    @Override
+    public long getReplicatedMinCommitIndex() {
+      return 0;
+    }
+
+    @Override
+    public Map<DatanodeDetails, ContainerCommandResponseProto>
+        sendCommandOnAllNodes(ContainerCommandRequestProto request) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.scm.container.common.helpers.StorageContainerException;
+import org.apache.hadoop.ozone.common.ChunkBuffer;
+import org.apache.hadoop.ozone.container.keyvalue.helpers.ChunkUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the datanode chunk file I/O in {@link ChunkUtils}: reading a
+ * chunk into freshly allocated buffers, as done for every ReadChunk, and
+ * writing a chunk at the end of a block file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BenchmarkChunkUtils {
+
+  private static final int CHUNKS_PER_FILE = 64;
+
+  @Param({"65536", "4194304"})
+  private int chunkSize;
+
+  /** Capacity of each buffer a chunk is read into. */
+  @Param({"65536"})
+  private int bufferCapacity;
+
+  private File readFile;
+  private File writeFile;
+  private FileChannel writeChannel;
+  private ByteBuffer chunk;
+  private long writeOffset;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    byte[] bytes = new byte[chunkSize];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    chunk = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+
+    readFile = File.createTempFile("ozone-benchmark-read", ".block");
+    try (FileChannel channel = FileChannel.open(readFile.toPath(),
+        StandardOpenOption.WRITE)) {
+      for (int i = 0; i < CHUNKS_PER_FILE; i++) {
+        channel.write(chunk.duplicate());
+      }
+    }
+    writeFile = File.createTempFile("ozone-benchmark-write", ".block");
+    writeChannel = FileChannel.open(writeFile.toPath(),
+        StandardOpenOption.WRITE);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    writeChannel.close();
+    Files.deleteIfExists(readFile.toPath());
+    Files.deleteIfExists(writeFile.toPath());
+  }
+
+  @Benchmark
+  public ChunkBuffer readData() throws StorageContainerException {
+    long offset = (long) ThreadLocalRandom.current().nextInt(CHUNKS_PER_FILE)
+        * chunkSize;
+    return ChunkUtils.readData(chunkSize, bufferCapacity,
+        buffers -> ChunkUtils.readData(readFile, buffers, offset, chunkSize,
+            null));
+  }
+
+  @Benchmark
+  public long writeData() throws IOException {
+    // Keep rewriting the same region so that the file does not grow without
+    // bound during the measurement.
+    if (writeOffset >= (long) CHUNKS_PER_FILE * chunkSize) {
+      writeOffset = 0;
+    }
+    ChunkUtils.writeData(writeChannel, writeFile.getName(),
+        ChunkBuffer.wrap(chunk.duplicate()), writeOffset, chunkSize, null);
+    writeOffset += chunkSize;
+    return writeOffset;
+  }
+}
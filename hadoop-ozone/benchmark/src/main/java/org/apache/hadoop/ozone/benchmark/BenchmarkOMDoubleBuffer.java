@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerDoubleBuffer;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.bucket.OMBucketCreateResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateBucketResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.hadoop.util.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.hadoop.hdds.HddsConfigKeys.OZONE_METADATA_DIRS;
+
+/**
+ * Benchmarks {@link OzoneManagerDoubleBuffer}: responses are added to the
+ * current buffer and the flush thread commits them to the OM DB in batches.
+ * Each invocation adds {@link #BATCH_SIZE} bucket create responses and waits
+ * until they are flushed, so the score is the number of transactions per
+ * second the double buffer can persist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BenchmarkOMDoubleBuffer {
+
+  private static final int BATCH_SIZE = 1000;
+  private static final String VOLUME = "vol1";
+
+  /** Number of distinct buckets the responses are spread over. */
+  @Param({"1000"})
+  private int bucketCount;
+
+  private Path metadataDir;
+  private OMMetadataManager omMetadataManager;
+  private OzoneManagerDoubleBuffer doubleBuffer;
+  private OMClientResponse[] responses;
+  private final AtomicLong trxIndex = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    metadataDir = Files.createTempDirectory("ozone-benchmark-double-buffer");
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.set(OZONE_METADATA_DIRS, metadataDir.toString());
+    omMetadataManager = new OmMetadataManagerImpl(conf, null);
+
+    doubleBuffer = new OzoneManagerDoubleBuffer.Builder()
+        .setOmMetadataManager(omMetadataManager)
+        .setOzoneManagerRatisSnapShot(flushedEpochs -> { })
+        .setmaxUnFlushedTransactionCount(BATCH_SIZE * 10)
+        .enableRatis(true)
+        .setIndexToTerm(index -> 1L)
+        .setThreadPrefix("Benchmark-")
+        .build();
+
+    responses = new OMClientResponse[bucketCount];
+    for (int i = 0; i < bucketCount; i++) {
+      responses[i] = createBucketResponse("bucket" + i);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    doubleBuffer.stop();
+    omMetadataManager.stop();
+    FileUtils.deleteDirectory(metadataDir.toFile());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH_SIZE)
+  public long addAndFlushTransactions() throws InterruptedException {
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      long index = trxIndex.incrementAndGet();
+      doubleBuffer.add(responses[(int) (index % bucketCount)], index);
+    }
+    doubleBuffer.awaitFlush();
+    return doubleBuffer.getFlushedTransactionCount();
+  }
+
+  private static OMClientResponse createBucketResponse(String bucket) {
+    OmBucketInfo bucketInfo = OmBucketInfo.newBuilder()
+        .setVolumeName(VOLUME)
+        .setBucketName(bucket)
+        .setCreationTime(Time.now())
+        .build();
+    OMResponse omResponse = OMResponse.newBuilder()
+        .setCmdType(Type.CreateBucket)
+        .setStatus(Status.OK)
+        .setCreateBucketResponse(CreateBucketResponse.newBuilder().build())
+        .build();
+    return new OMBucketCreateResponse(omResponse, bucketInfo);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.om.lock.IOzoneManagerLock;
+import org.apache.hadoop.ozone.om.lock.OMLockDetails;
+import org.apache.hadoop.ozone.om.lock.OzoneManagerLock;
+import org.apache.hadoop.ozone.om.lock.StampedOzoneManagerLock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STAMPED_LOCK_ENABLED;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.VOLUME_LOCK;
+
+/**
+ * Benchmarks acquire/release of {@link OzoneManagerLock} and
+ * {@link StampedOzoneManagerLock} bucket and volume locks, either all threads
+ * on a single bucket (contended) or spread over many buckets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BenchmarkOMLock {
+
+  private static final String VOLUME = "vol1";
+
+  /** Number of distinct buckets the threads lock. */
+  @Param({"1", "1024"})
+  private int bucketCount;
+
+  /** Whether to use {@link StampedOzoneManagerLock}. */
+  @Param({"false", "true"})
+  private boolean stamped;
+
+  private IOzoneManagerLock lock;
+  private String[] buckets;
+
+  @Setup
+  public void setup() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setBoolean(OZONE_MANAGER_STAMPED_LOCK_ENABLED, stamped);
+    lock = IOzoneManagerLock.create(conf);
+    buckets = new String[bucketCount];
+    for (int i = 0; i < bucketCount; i++) {
+      buckets[i] = "bucket" + i;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    lock.cleanup();
+  }
+
+  @Benchmark
+  public OMLockDetails acquireWriteLock() {
+    String bucket = nextBucket();
+    lock.acquireWriteLock(BUCKET_LOCK, VOLUME, bucket);
+    return lock.releaseWriteLock(BUCKET_LOCK, VOLUME, bucket);
+  }
+
+  @Benchmark
+  public OMLockDetails acquireReadLock() {
+    String bucket = nextBucket();
+    lock.acquireReadLock(BUCKET_LOCK, VOLUME, bucket);
+    return lock.releaseReadLock(BUCKET_LOCK, VOLUME, bucket);
+  }
+
+  @Benchmark
+  public String readOptimistically() {
+    String bucket = nextBucket();
+    return lock.readOptimistically(BUCKET_LOCK, () -> bucket, VOLUME, bucket);
+  }
+
+  /**
+   * The lock sequence of a key write request: volume read lock followed by
+   * the bucket write lock.
+   */
+  @Benchmark
+  public OMLockDetails acquireVolumeReadBucketWriteLock() {
+    String bucket = nextBucket();
+    lock.acquireReadLock(VOLUME_LOCK, VOLUME);
+    try {
+      lock.acquireWriteLock(BUCKET_LOCK, VOLUME, bucket);
+      return lock.releaseWriteLock(BUCKET_LOCK, VOLUME, bucket);
+    } finally {
+      lock.releaseReadLock(VOLUME_LOCK, VOLUME);
+    }
+  }
+
+  private String nextBucket() {
+    return bucketCount == 1 ? buckets[0]
+        : buckets[ThreadLocalRandom.current().nextInt(bucketCount)];
+  }
+}
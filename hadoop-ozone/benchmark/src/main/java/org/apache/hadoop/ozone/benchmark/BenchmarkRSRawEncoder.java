@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.client.ECReplicationConfig;
+import org.apache.ozone.erasurecode.rawcoder.RSRawEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the pure Java Reed-Solomon encoder for the common EC schemes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BenchmarkRSRawEncoder {
+
+  @Param({"rs-3-2-1024k", "rs-6-3-1024k", "rs-10-4-1024k"})
+  private String ecSchema;
+
+  @Param({"false", "true"})
+  private boolean direct;
+
+  private RSRawEncoder encoder;
+  private ByteBuffer[] inputs;
+  private ByteBuffer[] outputs;
+
+  @Setup
+  public void setup() {
+    ECReplicationConfig config = new ECReplicationConfig(ecSchema);
+    encoder = new RSRawEncoder(config);
+    int cellSize = config.getEcChunkSize();
+
+    inputs = new ByteBuffer[config.getData()];
+    byte[] bytes = new byte[cellSize];
+    for (int i = 0; i < inputs.length; i++) {
+      ThreadLocalRandom.current().nextBytes(bytes);
+      inputs[i] = allocate(cellSize);
+      inputs[i].put(bytes);
+      inputs[i].flip();
+    }
+    outputs = new ByteBuffer[config.getParity()];
+    for (int i = 0; i < outputs.length; i++) {
+      outputs[i] = allocate(cellSize);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    encoder.release();
+  }
+
+  @Benchmark
+  public ByteBuffer[] encode() throws IOException {
+    for (ByteBuffer input : inputs) {
+      input.rewind();
+    }
+    for (ByteBuffer output : outputs) {
+      output.clear();
+    }
+    encoder.encode(inputs, outputs);
+    return outputs;
+  }
+
+  private ByteBuffer allocate(int size) {
+    return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.db.DBStore;
+import org.apache.hadoop.hdds.utils.db.DBStoreBuilder;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@code TypedTable} get/put through the full and partial table
+ * caches backed by a RocksDB store in a temporary directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class BenchmarkTypedTable {
+
+  private static final String TABLE_NAME = "benchmarkTable";
+
+  @Param({"FULL_CACHE", "PARTIAL_CACHE"})
+  private CacheType cacheType;
+
+  /** Number of keys written to the table before the measurement. */
+  @Param({"100000"})
+  private int keyCount;
+
+  private Path dbDir;
+  private DBStore store;
+  private Table<String, String> table;
+  private String[] keys;
+  private final AtomicLong epoch = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    dbDir = Files.createTempDirectory("ozone-benchmark-typed-table");
+    store = DBStoreBuilder.newBuilder(new OzoneConfiguration())
+        .setName("benchmark.db")
+        .setPath(dbDir)
+        .addTable(TABLE_NAME)
+        .build();
+
+    keys = new String[keyCount];
+    try (Table<String, String> loader =
+             store.getTable(TABLE_NAME, String.class, String.class)) {
+      for (int i = 0; i < keyCount; i++) {
+        keys[i] = "/vol1/bucket1/key-" + i;
+        loader.put(keys[i], "value-" + i);
+      }
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+    store.flushDB();
+    // A FULL_CACHE table loads all the entries written above on creation.
+    table = store.getTable(TABLE_NAME, String.class, String.class, cacheType);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    table.close();
+    store.close();
+    FileUtils.deleteDirectory(dbDir.toFile());
+  }
+
+  @Benchmark
+  public String get() throws IOException {
+    return table.get(randomKey());
+  }
+
+  @Benchmark
+  public boolean isExist() throws IOException {
+    return table.isExist(randomKey());
+  }
+
+  /**
+   * The OM write path: the value is added to the table cache at apply time,
+   * written to the DB by the double buffer and the cache entry is then
+   * cleaned up for the flushed epoch.
+   */
+  @Benchmark
+  public void putAndCleanupCache() throws IOException {
+    String key = randomKey();
+    long trxIndex = epoch.incrementAndGet();
+    table.addCacheEntry(new CacheKey<>(key), CacheValue.get(trxIndex, key));
+    table.put(key, key);
+    table.cleanupCache(Collections.singletonList(trxIndex));
+  }
+
+  private String randomKey() {
+    return keys[ThreadLocalRandom.current().nextInt(keyCount)];
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * JMH micro-benchmarks for the hot paths of OM, datanode and client.
+ * <p>
+ * Build the module and run the benchmarks with the JMH launcher, e.g.
+ * <pre>
+ *   mvn -pl :ozone-benchmark -am install -DskipTests
+ *   mvn -pl :ozone-benchmark dependency:build-classpath \
+ *       -Dmdep.outputFile=classpath.txt
+ *   java -cp "$(cat classpath.txt):target/classes" \
+ *       org.openjdk.jmh.Main BenchmarkChecksum
+ * </pre>
+ * On Java 9 and later, add
+ * {@code -jvmArgsAppend "--add-opens java.base/java.nio=ALL-UNNAMED"} for
+ * the benchmarks which compute checksums, same as the {@code ozone} script.
+ * <p>
+ * Unlike freon, which measures end-to-end throughput against a running
+ * cluster, these benchmarks exercise a single component in-process, so that
+ * small regressions are visible above the noise.
+ */
+package org.apache.hadoop.ozone.benchmark;
@@ -39,6 +39,7 @@
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
@@ -60,6 +61,7 @@
 import java.util.Map;
 import java.util.Stack;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static org.apache.hadoop.ozone.OzoneConsts.QUOTA_RESET;
@@ -455,6 +457,34 @@ public OzoneOutputStream createKey(String key, long size,
         .createKey(volumeName, name, key, size, replicationConfig, keyMetadata);
   }
 
+  /**
+   * Creates several keys in the bucket with the given content, using the
+   * default replication of the bucket.  This takes fewer requests to OM
+   * than creating each key separately.
+   * @param keys content of each key by key name
+   * @return the failure of each key that could not be created
+   * @throws IOException if none of the keys could be created
+   */
+  public Map<String, IOException> createKeys(Map<String, byte[]> keys)
+      throws IOException {
+    return createKeys(keys, defaultReplication, new HashMap<>());
+  }
+
+  /**
+   * Creates several keys in the bucket with the given content.
+   * @param keys content of each key by key name
+   * @param replicationConfig Replication configuration.
+   * @param keyMetadata custom key value metadata, set on each key
+   * @return the failure of each key that could not be created
+   * @throws IOException if none of the keys could be created
+   */
+  public Map<String, IOException> createKeys(Map<String, byte[]> keys,
+      ReplicationConfig replicationConfig, Map<String, String> keyMetadata)
+      throws IOException {
+    return proxy.createKeys(volumeName, name, keys, replicationConfig,
+        keyMetadata);
+  }
+
   /**
    * Creates a new key in the bucket, with default replication type RATIS and
    * with replication factor THREE.
@@ -510,6 +540,21 @@ public OzoneKeyDetails getKey(String key) throws IOException {
     return proxy.getKeyDetails(volumeName, name, key);
   }
 
+  /**
+   * Returns information about several keys asynchronously, e.g. to plan
+   * reading many files.  The keys are looked up in batches, including the
+   * location of their blocks, so {@link OzoneKeyDetails#getContent()} reads
+   * a key without looking it up again.
+   * @param keys Names of the keys.
+   * @return future completed with the information about each existing key,
+   * by key name.
+   * @throws IOException if the arguments are invalid
+   */
+  public CompletableFuture<Map<String, OzoneKeyDetails>> getKeysAsync(
+      List<String> keys) throws IOException {
+    return proxy.getKeyDetailsAsync(volumeName, name, keys);
+  }
+
   /**
    *
    * Returns OzoneKey that contains the application generated/visible
@@ -888,6 +933,23 @@ public List<OzoneFileStatus> listStatus(String keyName, boolean recursive,
             numEntries, allowPartialPrefix);
   }
 
+  /**
+   * List a page of the status of a directory's contents, non-recursively.
+   *
+   * @param keyName    Absolute path of the entry to be listed
+   * @param startKey   Key from which listing needs to start. If startKey exists
+   *                   its status is included in the final list.
+   * @param numEntries Number of entries to list from the start key
+   * @param continuationToken token returned with the previous page, null for
+   *                          the first page
+   * @return page of file status, with the token to continue the listing
+   */
+  public ListStatusResult listStatusPage(String keyName, String startKey,
+      long numEntries, String continuationToken) throws IOException {
+    return proxy.listStatusPage(volumeName, name, keyName, startKey,
+        numEntries, continuationToken);
+  }
+
   /**
    * Return with the list of the in-flight multipart uploads.
    *
@@ -84,6 +84,7 @@ public class BlockOutputStreamEntryPool implements KeyMetadataAware {
   private final long openID;
   private final ExcludeList excludeList;
   private final ContainerClientMetrics clientMetrics;
+  private boolean deferredCommit;
 
   @SuppressWarnings({"parameternumber", "squid:S00107"})
   public BlockOutputStreamEntryPool(
@@ -341,7 +342,7 @@ void commitKey(long offset) throws IOException {
       if (keyArgs.getIsMultipartKey()) {
         commitUploadPartInfo =
             omClient.commitMultipartUploadPart(keyArgs, openID);
-      } else {
+      } else if (!deferredCommit) {
         omClient.commitKey(keyArgs, openID);
       }
     } else {
@@ -349,6 +350,18 @@ void commitKey(long offset) throws IOException {
     }
   }
 
+  /**
+   * Skips committing the key in {@link #commitKey(long)}, leaving it to the
+   * caller, using the arguments from {@link #getCommitKeyArgs()}.
+   */
+  void setDeferredCommit(boolean deferredCommit) {
+    this.deferredCommit = deferredCommit;
+  }
+
+  OmKeyArgs getCommitKeyArgs() {
+    return keyArgs;
+  }
+
   void hsyncKey(long offset) throws IOException {
     if (keyArgs != null) {
       // in test, this could be null
@@ -45,6 +45,7 @@
 import org.apache.hadoop.hdds.scm.pipeline.Pipeline;
 import org.apache.hadoop.hdds.scm.storage.ECBlockOutputStream;
 import org.apache.hadoop.io.ByteBufferPool;
+import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
@@ -620,6 +621,17 @@ public OmMultipartCommitUploadPartInfo getCommitUploadPartInfo() {
     return blockOutputStreamEntryPool.getCommitUploadPartInfo();
   }
 
+  @Override
+  public void deferCommit() {
+    blockOutputStreamEntryPool.setDeferredCommit(true);
+  }
+
+  @Override
+  public OmKeyArgs getCommitKeyArgs() {
+    Preconditions.checkState(closed, "Stream is not closed yet");
+    return blockOutputStreamEntryPool.getCommitKeyArgs();
+  }
+
   @VisibleForTesting
   public ExcludeList getExcludeList() {
     return blockOutputStreamEntryPool.getExcludeList();
@@ -43,6 +43,7 @@
 import org.apache.hadoop.hdds.scm.pipeline.PipelineID;
 import org.apache.hadoop.io.retry.RetryPolicies;
 import org.apache.hadoop.io.retry.RetryPolicy;
+import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartCommitUploadPartInfo;
@@ -577,6 +578,24 @@ public synchronized void close() throws IOException {
     }
   }
 
+  /**
+   * Makes {@link #close()} only prepare the arguments the key should be
+   * committed with, so that several keys can be committed at once using
+   * {@link OzoneManagerProtocol#commitKeys}.
+   */
+  public synchronized void deferCommit() {
+    blockOutputStreamEntryPool.setDeferredCommit(true);
+  }
+
+  /**
+   * @return the arguments to commit the key with, available once the stream
+   * is closed if the commit was deferred.
+   */
+  public synchronized OmKeyArgs getCommitKeyArgs() {
+    Preconditions.checkState(closed, "Stream is not closed yet");
+    return blockOutputStreamEntryPool.getCommitKeyArgs();
+  }
+
   public synchronized OmMultipartCommitUploadPartInfo
       getCommitUploadPartInfo() {
     return blockOutputStreamEntryPool.getCommitUploadPartInfo();
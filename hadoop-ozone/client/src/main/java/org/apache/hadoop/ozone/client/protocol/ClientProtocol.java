@@ -22,6 +22,7 @@
 import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import javax.annotation.Nonnull;
 import org.apache.hadoop.crypto.key.KeyProvider;
@@ -49,6 +50,7 @@
 import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.DeleteTenantState;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
@@ -353,6 +355,21 @@ OzoneOutputStream createKey(String volumeName, String bucketName,
       Map<String, String> metadata)
       throws IOException;
 
+  /**
+   * Writes several small keys in an existing bucket.  The keys are opened
+   * and committed in a single request to OM each.
+   * @param volumeName Name of the Volume
+   * @param bucketName Name of the Bucket
+   * @param keys content of each key by key name
+   * @param metadata custom key value metadata, set on each key
+   * @return the failure of each key which could not be written
+   * @throws IOException if none of the keys could be written
+   */
+  Map<String, IOException> createKeys(String volumeName, String bucketName,
+      Map<String, byte[]> keys, ReplicationConfig replicationConfig,
+      Map<String, String> metadata)
+      throws IOException;
+
   /**
    * Writes a key in an existing bucket.
    * @param volumeName Name of the Volume
@@ -487,6 +504,23 @@ OzoneKeyDetails getKeyDetails(String volumeName, String bucketName,
                                 String keyName)
       throws IOException;
 
+  /**
+   * Get the details of several keys of a bucket asynchronously.  The keys
+   * are looked up in batches, each with a single request to OM, including
+   * the locations of their blocks, so that the content of the keys can be
+   * read without looking them up again.
+   * @param volumeName Name of the Volume
+   * @param bucketName Name of the Bucket
+   * @param keyNames Key names
+   * @return future completed with the details of each existing key, by key
+   * name, or exceptionally if a key could not be looked up for any other
+   * reason than not existing
+   * @throws IOException if the arguments are invalid
+   */
+  CompletableFuture<Map<String, OzoneKeyDetails>> getKeyDetailsAsync(
+      String volumeName, String bucketName, List<String> keyNames)
+      throws IOException;
+
   /**
    * Close and release the resources.
    */
@@ -913,6 +947,26 @@ List<OzoneFileStatus> listStatus(String volumeName, String bucketName,
       String keyName, boolean recursive, String startKey,
       long numEntries, boolean allowPartialPrefixes) throws IOException;
 
+  /**
+   * List a page of the status of a directory's contents, non-recursively.
+   * OM may keep the cursor of the listing open, in which case the next page
+   * is read without seeking again if the returned continuation token is
+   * passed along with the next page's startKey.
+   *
+   * @param volumeName Volume name
+   * @param bucketName Bucket name
+   * @param keyName    Absolute path of the entry to be listed
+   * @param startKey   Key from which listing needs to start. If startKey exists
+   *                   its status is included in the final list.
+   * @param numEntries Number of entries to list from the start key
+   * @param continuationToken token returned with the previous page, null for
+   *                          the first page
+   * @return page of file status
+   */
+  ListStatusResult listStatusPage(String volumeName, String bucketName,
+      String keyName, String startKey, long numEntries,
+      String continuationToken) throws IOException;
+
   /**
    * Lightweight listStatus API.
    *
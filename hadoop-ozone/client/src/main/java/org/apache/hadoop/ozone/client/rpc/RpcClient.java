@@ -24,6 +24,7 @@
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import javax.annotation.Nonnull;
 import javax.crypto.Cipher;
@@ -95,6 +96,8 @@
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
 import org.apache.hadoop.ozone.om.helpers.DeleteTenantState;
 import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
+import org.apache.hadoop.ozone.om.helpers.OmBatchResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketArgs;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmDeleteKeys;
@@ -163,7 +166,10 @@
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -213,6 +219,7 @@ public class RpcClient implements ClientProtocol {
   private final BlockInputStreamFactory blockInputStreamFactory;
   private final OzoneManagerVersion omVersion;
   private volatile ExecutorService ecReconstructExecutor;
+  private volatile ExecutorService keyLookupExecutor;
   private final ContainerClientMetrics clientMetrics;
   private final AtomicBoolean isS3GRequest = new AtomicBoolean(false);
 
@@ -326,7 +333,8 @@ public void onRemoval(
         }).build();
     this.byteBufferPool = new ElasticByteBufferPool();
     this.blockInputStreamFactory = BlockInputStreamFactoryImpl
-        .getInstance(byteBufferPool, this::getECReconstructExecutor);
+        .getInstance(byteBufferPool, this::getECReconstructExecutor,
+            clientConfig.isShortCircuitRead());
     this.clientMetrics = ContainerClientMetrics.acquire();
   }
 
@@ -1381,6 +1389,80 @@ public OzoneOutputStream createKey(
     return createOutputStream(openKey);
   }
 
+  @Override
+  public Map<String, IOException> createKeys(String volumeName,
+      String bucketName, Map<String, byte[]> keys,
+      ReplicationConfig replicationConfig, Map<String, String> metadata)
+      throws IOException {
+    verifyVolumeName(volumeName);
+    verifyBucketName(bucketName);
+    for (String keyName : keys.keySet()) {
+      if (checkKeyNameEnabled) {
+        HddsClientUtils.verifyKeyName(keyName);
+      }
+      HddsClientUtils.checkNotNull(keyName);
+    }
+    if (replicationConfig != null) {
+      ReplicationConfigValidator validator =
+          this.conf.getObject(ReplicationConfigValidator.class);
+      validator.validate(replicationConfig);
+    }
+
+    List<String> keyNames = new ArrayList<>(keys.keySet());
+    List<OmKeyArgs> openArgs = new ArrayList<>(keyNames.size());
+    for (String keyName : keyNames) {
+      openArgs.add(new OmKeyArgs.Builder()
+          .setVolumeName(volumeName)
+          .setBucketName(bucketName)
+          .setKeyName(keyName)
+          .setDataSize(keys.get(keyName).length)
+          .setReplicationConfig(replicationConfig)
+          .addAllMetadataGdpr(metadata)
+          .setAcls(getAclList())
+          .setLatestVersionLocation(getLatestVersionLocation)
+          .build());
+    }
+    List<OmBatchResult<OpenKeySession>> openKeys =
+        ozoneManagerClient.openKeys(openArgs);
+
+    Map<String, IOException> failures = new LinkedHashMap<>();
+    List<String> writtenKeys = new ArrayList<>(keyNames.size());
+    List<OmKeyArgs> commitArgs = new ArrayList<>(keyNames.size());
+    List<Long> clientIds = new ArrayList<>(keyNames.size());
+    for (int i = 0; i < keyNames.size(); i++) {
+      String keyName = keyNames.get(i);
+      try {
+        OpenKeySession openKey = openKeys.get(i).get();
+        KeyOutputStream keyOutputStream = createKeyOutputStream(openKey)
+            .build();
+        keyOutputStream.deferCommit();
+        try (OzoneOutputStream out =
+                 createOutputStream(openKey, keyOutputStream)) {
+          out.write(keys.get(keyName));
+        }
+        writtenKeys.add(keyName);
+        commitArgs.add(keyOutputStream.getCommitKeyArgs());
+        clientIds.add(openKey.getId());
+      } catch (IOException e) {
+        failures.put(keyName, e);
+      }
+    }
+
+    if (!commitArgs.isEmpty()) {
+      List<OmBatchResult<Void>> commits =
+          ozoneManagerClient.commitKeys(commitArgs, clientIds);
+      for (int i = 0; i < commits.size(); i++) {
+        if (!commits.get(i).isSuccess()) {
+          failures.put(writtenKeys.get(i), commits.get(i).getException());
+        }
+      }
+    }
+    if (!keys.isEmpty() && failures.size() == keys.size()) {
+      throw failures.values().iterator().next();
+    }
+    return failures;
+  }
+
   @Override
   public OzoneDataStreamOutput createStreamKey(
       String volumeName, String bucketName, String keyName, long size,
@@ -1649,6 +1731,119 @@ public OzoneKeyDetails getKeyDetails(
     return getOzoneKeyDetails(keyInfo);
   }
 
+  @Override
+  public CompletableFuture<Map<String, OzoneKeyDetails>> getKeyDetailsAsync(
+      String volumeName, String bucketName, List<String> keyNames)
+      throws IOException {
+    verifyVolumeName(volumeName);
+    verifyBucketName(bucketName);
+    for (String keyName : keyNames) {
+      Preconditions.checkNotNull(keyName);
+    }
+
+    List<CompletableFuture<List<OmKeyInfo>>> batches = new ArrayList<>();
+    for (List<String> batch : Lists.partition(keyNames,
+        clientConfig.getKeyLookupBatchSize())) {
+      // the executor only submits the request if the transport is async
+      batches.add(CompletableFuture.supplyAsync(
+          () -> getLookupKeysArgs(volumeName, bucketName, batch),
+          getKeyLookupExecutor()).thenCompose(this::lookupKeys));
+    }
+    return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+        .thenApply(v -> {
+          Map<String, OzoneKeyDetails> keys = new LinkedHashMap<>();
+          for (CompletableFuture<List<OmKeyInfo>> batch : batches) {
+            for (OmKeyInfo keyInfo : batch.join()) {
+              keys.put(keyInfo.getKeyName(), getOzoneKeyDetails(keyInfo));
+            }
+          }
+          return keys;
+        });
+  }
+
+  private List<OmKeyArgs> getLookupKeysArgs(String volumeName,
+      String bucketName, List<String> keyNames) {
+    List<OmKeyArgs> keyArgs = new ArrayList<>(keyNames.size());
+    for (String keyName : keyNames) {
+      keyArgs.add(new OmKeyArgs.Builder()
+          .setVolumeName(volumeName)
+          .setBucketName(bucketName)
+          .setKeyName(keyName)
+          .setSortDatanodesInPipeline(topologyAwareReadEnabled)
+          .setLatestVersionLocation(getLatestVersionLocation)
+          .setForceUpdateContainerCacheFromSCM(false)
+          .build());
+    }
+    return keyArgs;
+  }
+
+  /**
+   * Looks up the given keys with a single request to OM, if supported.
+   * @return future completed with the info of the keys which exist
+   */
+  private CompletableFuture<List<OmKeyInfo>> lookupKeys(
+      List<OmKeyArgs> keyArgs) {
+    if (omVersion.compareTo(OzoneManagerVersion.LOOKUP_KEYS) >= 0) {
+      return ozoneManagerClient.lookupKeysAsync(keyArgs).thenApply(results -> {
+        List<OmKeyInfo> keyInfos = new ArrayList<>(results.size());
+        try {
+          for (OmBatchResult<OmKeyInfo> result : results) {
+            if (result.isSuccess()) {
+              keyInfos.add(result.get());
+            } else if (!isNotFound(result.getException())) {
+              throw result.getException();
+            }
+          }
+        } catch (OMException e) {
+          throw new CompletionException(e);
+        }
+        return keyInfos;
+      });
+    }
+
+    List<OmKeyInfo> keyInfos = new ArrayList<>(keyArgs.size());
+    CompletableFuture<List<OmKeyInfo>> future = new CompletableFuture<>();
+    try {
+      for (OmKeyArgs args : keyArgs) {
+        try {
+          keyInfos.add(getKeyInfo(args));
+        } catch (OMException e) {
+          if (!isNotFound(e)) {
+            throw e;
+          }
+        }
+      }
+      future.complete(keyInfos);
+    } catch (IOException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  private static boolean isNotFound(OMException e) {
+    return e.getResult() == OMException.ResultCodes.KEY_NOT_FOUND
+        || e.getResult() == OMException.ResultCodes.FILE_NOT_FOUND;
+  }
+
+  private ExecutorService getKeyLookupExecutor() {
+    ExecutorService executor = keyLookupExecutor;
+    if (executor == null) {
+      synchronized (this) {
+        executor = keyLookupExecutor;
+        if (executor == null) {
+          keyLookupExecutor = Executors.newFixedThreadPool(
+              clientConfig.getKeyLookupThreads(),
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("key-lookup-TID-%d")
+                  .build());
+          executor = keyLookupExecutor;
+        }
+      }
+    }
+    return executor;
+  }
+
   @NotNull
   private OzoneKeyDetails getOzoneKeyDetails(OmKeyInfo keyInfo) {
     List<OzoneKeyLocation> ozoneKeyLocations = new ArrayList<>();
@@ -1750,6 +1945,10 @@ public void close() throws IOException {
       ecReconstructExecutor.shutdownNow();
       ecReconstructExecutor = null;
     }
+    if (keyLookupExecutor != null) {
+      keyLookupExecutor.shutdownNow();
+      keyLookupExecutor = null;
+    }
     IOUtils.cleanupWithLogger(LOG, ozoneManagerClient, xceiverClientManager);
     keyProviderCache.invalidateAll();
     keyProviderCache.cleanUp();
@@ -2124,6 +2323,15 @@ public List<OzoneFileStatus> listStatus(String volumeName, String bucketName,
             allowPartialPrefixes);
   }
 
+  @Override
+  public ListStatusResult listStatusPage(String volumeName,
+      String bucketName, String keyName, String startKey, long numEntries,
+      String continuationToken) throws IOException {
+    OmKeyArgs keyArgs = prepareOmKeyArgs(volumeName, bucketName, keyName);
+    return ozoneManagerClient
+        .listStatusPage(keyArgs, startKey, numEntries, continuationToken);
+  }
+
   @Override
   public List<OzoneFileStatusLight> listStatusLight(String volumeName,
       String bucketName, String keyName, boolean recursive, String startKey,
@@ -25,6 +25,8 @@
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.ozone.om.protocolPB.OmTransport;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BucketInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CommitKeyResponse;
@@ -47,6 +49,9 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyLocationList;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyResult;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeysResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse.Builder;
@@ -56,6 +61,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.VolumeInfo;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -131,6 +137,12 @@ public OMResponse submitRequest(OMRequest payload) throws IOException {
     case GetKeyInfo:
       return response(payload, r -> r.setGetKeyInfoResponse(
           getKeyInfo(payload.getGetKeyInfoRequest())));
+    case BatchWrite:
+      return response(payload, r -> r.setBatchWriteResponse(
+          batchWrite(payload.getBatchWriteRequest())));
+    case LookupKeys:
+      return response(payload, r -> r.setLookupKeysResponse(
+          lookupKeys(payload.getLookupKeysRequest())));
     default:
       throw new IllegalArgumentException(
           "Mock version of om call " + payload.getCmdType()
@@ -179,6 +191,33 @@ private GetKeyInfoResponse getKeyInfo(GetKeyInfoRequest request) {
         .build();
   }
 
+  private LookupKeysResponse lookupKeys(LookupKeysRequest request) {
+    final LookupKeysResponse.Builder response =
+        LookupKeysResponse.newBuilder();
+    for (KeyArgs keyArgs : request.getKeyArgsList()) {
+      final KeyInfo keyInfo = keys.get(keyArgs.getVolumeName())
+          .get(keyArgs.getBucketName()).get(keyArgs.getKeyName());
+      response.addResults(keyInfo != null
+          ? LookupKeyResult.newBuilder().setStatus(Status.OK)
+              .setKeyInfo(keyInfo)
+          : LookupKeyResult.newBuilder().setStatus(Status.KEY_NOT_FOUND));
+    }
+    return response.build();
+  }
+
+  private BatchWriteResponse batchWrite(BatchWriteRequest batchWriteRequest) {
+    final BatchWriteResponse.Builder batchWriteResponse =
+        BatchWriteResponse.newBuilder();
+    for (OMRequest request : batchWriteRequest.getRequestsList()) {
+      try {
+        batchWriteResponse.addResponses(submitRequest(request));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return batchWriteResponse.build();
+  }
+
   private CommitKeyResponse commitKey(CommitKeyRequest commitKeyRequest) {
     final KeyArgs keyArgs = commitKeyRequest.getKeyArgs();
     final KeyInfo openKey =
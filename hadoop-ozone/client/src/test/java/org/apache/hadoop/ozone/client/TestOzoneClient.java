@@ -43,8 +43,10 @@
 import java.io.IOException;
 import java.security.cert.X509Certificate;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -174,6 +176,61 @@ public void testPutKeyRatisOneNode() throws IOException {
     }
   }
 
+  @Test
+  public void testCreateKeys() throws IOException {
+    OzoneBucket bucket = getOzoneBucket();
+    Map<String, byte[]> keys = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      keys.put(UUID.randomUUID().toString(),
+          ("value" + i).getBytes(UTF_8));
+    }
+
+    Map<String, IOException> failures = bucket.createKeys(keys);
+    Assertions.assertTrue(failures.isEmpty(), failures::toString);
+
+    for (Map.Entry<String, byte[]> entry : keys.entrySet()) {
+      OzoneKey key = bucket.getKey(entry.getKey());
+      Assertions.assertEquals(entry.getValue().length, key.getDataSize());
+      byte[] fileContent = new byte[entry.getValue().length];
+      try (OzoneInputStream is = bucket.readKey(entry.getKey())) {
+        Assertions.assertEquals(fileContent.length, is.read(fileContent));
+      }
+      Assertions.assertArrayEquals(entry.getValue(), fileContent);
+    }
+  }
+
+  @Test
+  public void testGetKeysAsync() throws Exception {
+    client.close();
+    OzoneConfiguration config = new OzoneConfiguration();
+    config.setInt("ozone.client.key.lookup.batch.size", 3);
+    createNewClient(config, new SinglePipelineBlockAllocator(config));
+
+    OzoneBucket bucket = getOzoneBucket();
+    Map<String, byte[]> keys = new HashMap<>();
+    for (int i = 0; i < 10; i++) {
+      keys.put(UUID.randomUUID().toString(),
+          ("value" + i).getBytes(UTF_8));
+    }
+    Assertions.assertTrue(bucket.createKeys(keys).isEmpty());
+
+    List<String> keyNames = new ArrayList<>(keys.keySet());
+    keyNames.add("missing");
+    Map<String, OzoneKeyDetails> details =
+        bucket.getKeysAsync(keyNames).get();
+    Assertions.assertEquals(keys.keySet(), details.keySet());
+
+    for (Map.Entry<String, byte[]> entry : keys.entrySet()) {
+      OzoneKeyDetails key = details.get(entry.getKey());
+      Assertions.assertEquals(entry.getValue().length, key.getDataSize());
+      byte[] fileContent = new byte[entry.getValue().length];
+      try (OzoneInputStream is = key.getContent()) {
+        Assertions.assertEquals(fileContent.length, is.read(fileContent));
+      }
+      Assertions.assertArrayEquals(entry.getValue(), fileContent);
+    }
+  }
+
   @Test
   public void testPutKeyAllocateBlock() throws IOException {
     String value = new String(new byte[1024], UTF_8);
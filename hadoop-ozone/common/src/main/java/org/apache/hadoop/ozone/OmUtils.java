@@ -100,6 +100,9 @@ public final class OmUtils {
   public static final long EPOCH_ID_SHIFT = 62; // 64 - 2
   public static final long REVERSE_EPOCH_ID_SHIFT = 2; // 64 - EPOCH_ID_SHIFT
   public static final long MAX_TRXN_ID = (1L << 54) - 2;
+  // number of object IDs reserved for each transaction.
+  public static final int OBJECT_IDS_PER_TRANSACTION =
+      1 << TRANSACTION_ID_SHIFT;
   public static final int EPOCH_WHEN_RATIS_NOT_ENABLED = 1;
   public static final int EPOCH_WHEN_RATIS_ENABLED = 2;
 
@@ -266,6 +269,7 @@ public static boolean isReadOnly(
       // Although indirectly the Ranger sync service task could invoke write
       // operation SetRangerServiceVersion.
     case GetKeyInfo:
+    case LookupKeys:
     case SnapshotDiff:
     case CancelSnapshotDiff:
     case ListSnapshotDiffJobs:
@@ -285,6 +289,7 @@ public static boolean isReadOnly(
     case RenameKeys:
     case DeleteKey:
     case DeleteKeys:
+    case BatchWrite:
     case CommitKey:
     case AllocateBlock:
     case InitiateMultiPartUpload:
@@ -335,6 +340,39 @@ public static boolean isReadOnly(
     }
   }
 
+  /**
+   * Checks if the OM request may be served by a follower OM.
+   * Only reads of volume, bucket and key metadata qualify, which a follower
+   * answers from its own DB, possibly lagging behind the leader.
+   * @param omRequest OMRequest proto
+   * @return True if a follower may serve it, false otherwise.
+   */
+  public static boolean isFollowerReadable(
+      OzoneManagerProtocolProtos.OMRequest omRequest) {
+    switch (omRequest.getCmdType()) {
+    case InfoVolume:
+    case ListVolume:
+    case InfoBucket:
+    case ListBuckets:
+    case LookupKey:
+    case GetKeyInfo:
+    case LookupKeys:
+    case ListKeys:
+    case ListKeysLight:
+    case ListTrash:
+    case ListMultiPartUploadParts:
+    case ListMultipartUploads:
+    case GetFileStatus:
+    case LookupFile:
+    case ListStatus:
+    case ListStatusLight:
+    case GetAcl:
+      return true;
+    default:
+      return false;
+    }
+  }
+
   public static byte[] getSHADigest() throws IOException {
     try {
       SRAND.nextBytes(randomBytes);
@@ -24,6 +24,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatusLight;
 import org.apache.hadoop.ozone.security.acl.OzoneObj;
@@ -89,6 +90,26 @@ default List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
     return listStatus(args, recursive, startKey, numEntries, false);
   }
 
+  /**
+   * Paginated, non-recursive listStatus API. The server may keep the cursor
+   * of the listing open between pages, in which case the returned
+   * continuation token should be passed along with the next page's
+   * startKey, so that the listing continues without seeking again.
+   *
+   * @param args       Key args
+   * @param startKey   Key from which listing needs to start. If startKey exists
+   *                   its status is included in the final list.
+   * @param numEntries Number of entries to list from the start key
+   * @param continuationToken token returned with the previous page, empty
+   *                          for the first page
+   * @return page of file status
+   */
+  default ListStatusResult listStatusPage(OmKeyArgs args, String startKey,
+      long numEntries, String continuationToken) throws IOException {
+    return new ListStatusResult(
+        listStatus(args, false, startKey, numEntries, false), null);
+  }
+
   /**
    * OzoneFS api to get file status for an entry.
    *
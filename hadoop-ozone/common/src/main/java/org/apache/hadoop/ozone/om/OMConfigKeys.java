@@ -255,6 +255,25 @@ private OMConfigKeys() {
   public static final boolean
       OZONE_OM_RATIS_SERVER_ELECTION_PRE_VOTE_DEFAULT = true;
 
+  /**
+   * Read option of the OM Ratis server, DEFAULT or LINEARIZABLE.  With
+   * LINEARIZABLE, the leader confirms its leadership before serving reads,
+   * locally while its lease is valid, or with a heartbeat round otherwise.
+   */
+  public static final String OZONE_OM_RATIS_READ_OPTION =
+      "ozone.om.ratis.server.read.option";
+  public static final String OZONE_OM_RATIS_READ_OPTION_DEFAULT =
+      "DEFAULT";
+  public static final String OZONE_OM_RATIS_READ_LEADER_LEASE_ENABLED =
+      "ozone.om.ratis.server.read.leader.lease.enabled";
+  public static final boolean
+      OZONE_OM_RATIS_READ_LEADER_LEASE_ENABLED_DEFAULT = true;
+  public static final String
+      OZONE_OM_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO =
+      "ozone.om.ratis.server.read.leader.lease.timeout.ratio";
+  public static final double
+      OZONE_OM_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO_DEFAULT = 0.9;
+
 
   // OM SnapshotProvider configurations
   public static final String OZONE_OM_RATIS_SNAPSHOT_DIR =
@@ -448,6 +467,70 @@ private OMConfigKeys() {
       "ozone.om.unflushed.transaction.max.count";
   public static final int OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT_DEFAULT
       = 10000;
+  public static final String OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED =
+      "ozone.om.double.buffer.pipelined.flush.enabled";
+  public static final boolean
+      OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED_DEFAULT = false;
+  public static final String OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS =
+      "ozone.om.double.buffer.flush.threads";
+  public static final int OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS_DEFAULT = 4;
+
+  /**
+   * Maximum number of write requests accepted in a single BatchWrite request.
+   */
+  public static final String OZONE_OM_BATCH_WRITE_MAX_REQUESTS =
+      "ozone.om.batch.write.max.requests";
+  public static final int OZONE_OM_BATCH_WRITE_MAX_REQUESTS_DEFAULT = 1000;
+
+  /**
+   * Maximum number of keys accepted in a single LookupKeys request.
+   */
+  public static final String OZONE_OM_LOOKUP_KEYS_MAX =
+      "ozone.om.lookup.keys.max";
+  public static final int OZONE_OM_LOOKUP_KEYS_MAX_DEFAULT = 1000;
+
+  /**
+   * Whether follower OMs serve read-only requests from clients allowing it.
+   */
+  public static final String OZONE_OM_FOLLOWER_READ_ENABLED =
+      "ozone.om.follower.read.enabled";
+  public static final boolean OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT = false;
+  public static final String OZONE_OM_FOLLOWER_READ_MAX_STALENESS =
+      "ozone.om.follower.read.max.staleness";
+  public static final String OZONE_OM_FOLLOWER_READ_MAX_STALENESS_DEFAULT =
+      "1s";
+
+  /**
+   * Fully cached OM tables (volumeTable, bucketTable) whose entries are kept
+   * serialized in direct memory until accessed.
+   */
+  public static final String OZONE_OM_OFFHEAP_CACHE_TABLES =
+      "ozone.om.offheap.cache.tables";
+
+  /**
+   * Partially cached OM tables (keyTable, fileTable, directoryTable,
+   * openKeyTable, openFileTable) whose cache keeps entries after they are
+   * flushed, as well as entries read from DB, up to
+   * {@link #OZONE_OM_SHARDED_CACHE_CAPACITY} per table.
+   */
+  public static final String OZONE_OM_SHARDED_CACHE_TABLES =
+      "ozone.om.sharded.cache.tables";
+  public static final String OZONE_OM_SHARDED_CACHE_CAPACITY =
+      "ozone.om.sharded.cache.capacity";
+  public static final String OZONE_OM_SHARDED_CACHE_CAPACITY_DEFAULT =
+      "256MB";
+
+  /**
+   * How long OM keeps the cursor of a paginated listStatus open for the
+   * next page, and how many such cursors can be open at a time.
+   */
+  public static final String OZONE_OM_LIST_STATUS_CURSOR_LEASE =
+      "ozone.om.list.status.cursor.lease";
+  public static final String OZONE_OM_LIST_STATUS_CURSOR_LEASE_DEFAULT =
+      "30s";
+  public static final String OZONE_OM_LIST_STATUS_CURSOR_MAX =
+      "ozone.om.list.status.cursor.max";
+  public static final int OZONE_OM_LIST_STATUS_CURSOR_MAX_DEFAULT = 1000;
 
   /**
    * This configuration shall be enabled to utilize the functionality of the
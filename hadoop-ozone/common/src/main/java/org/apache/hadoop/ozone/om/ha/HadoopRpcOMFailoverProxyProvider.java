@@ -162,6 +162,26 @@ public synchronized ProxyInfo<T> getProxy() {
     return currentProxyInfo;
   }
 
+  /**
+   * Get the proxy object of the given OM, for calls which must not fail
+   * over to another OM. RPC proxy object is intialized lazily.
+   * @return the proxy object of the OM
+   */
+  public synchronized ProxyInfo<T> getProxy(String nodeId) {
+    ProxyInfo proxyInfo = getOMProxyMap().get(nodeId);
+    if (proxyInfo == null) {
+      proxyInfo = createOMProxy(nodeId);
+    }
+    return proxyInfo;
+  }
+
+  /**
+   * @return the node IDs of all the OMs.
+   */
+  public synchronized List<String> getOMNodeIds() {
+    return new ArrayList<>(getOmNodeIDList());
+  }
+
   /**
    * Creates proxy object.
    */
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.ozone.om.helpers;
+
+import java.util.List;
+
+/**
+ * Encapsulates a page of listStatus. It contains a list of
+ * {@link OzoneFileStatus} and an optional continuation token referring to
+ * the server side cursor the next page can be read from.
+ */
+public class ListStatusResult {
+  private final List<OzoneFileStatus> statuses;
+  private final String continuationToken;
+
+  public ListStatusResult(List<OzoneFileStatus> statuses,
+      String continuationToken) {
+    this.statuses = statuses;
+    this.continuationToken = continuationToken;
+  }
+
+  public List<OzoneFileStatus> getStatuses() {
+    return statuses;
+  }
+
+  /**
+   * @return token to pass with the request for the next page, null if the
+   * server did not keep a cursor for this listing.
+   */
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+}
@@ -66,6 +66,7 @@ public static OMResponse getOMResponseFromRaftClientReply(
     byte[] bytes = reply.getMessage().getContent().toByteArray();
     return OMResponse.newBuilder(OMResponse.parseFrom(bytes))
         .setLeaderOMNodeId(reply.getReplierId())
+        .setAppliedIndex(reply.getLogIndex())
         .build();
   }
 
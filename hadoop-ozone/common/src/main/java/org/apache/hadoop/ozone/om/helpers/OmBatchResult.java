@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.om.helpers;
+
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+
+/**
+ * Result of one of the operations of a batch, as the operations of a batch
+ * succeed or fail independently of each other.
+ * @param <T> type of the value returned by a successful operation
+ */
+public final class OmBatchResult<T> {
+  private final T value;
+  private final OMException exception;
+
+  private OmBatchResult(T value, OMException exception) {
+    this.value = value;
+    this.exception = exception;
+  }
+
+  public static <T> OmBatchResult<T> success(T value) {
+    return new OmBatchResult<>(value, null);
+  }
+
+  public static <T> OmBatchResult<T> failure(OMException exception) {
+    return new OmBatchResult<>(null, exception);
+  }
+
+  public boolean isSuccess() {
+    return exception == null;
+  }
+
+  /**
+   * @return the value returned by the operation
+   * @throws OMException the operation failed with
+   */
+  public T get() throws OMException {
+    if (exception != null) {
+      throw exception;
+    }
+    return value;
+  }
+
+  /**
+   * @return the exception the operation failed with, or null if succeeded
+   */
+  public OMException getException() {
+    return exception;
+  }
+}
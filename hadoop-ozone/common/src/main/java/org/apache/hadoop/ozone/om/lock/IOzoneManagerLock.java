@@ -18,12 +18,28 @@
 package org.apache.hadoop.ozone.om.lock;
 
 import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.ratis.util.function.CheckedSupplier;
+
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STAMPED_LOCK_ENABLED;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STAMPED_LOCK_ENABLED_DEFAULT;
 
 /**
  * Interface for OM Metadata locks.
  */
 public interface IOzoneManagerLock {
 
+  /**
+   * Creates the OM lock implementation selected by the configuration.
+   */
+  static IOzoneManagerLock create(ConfigurationSource conf) {
+    if (conf.getBoolean(OZONE_MANAGER_STAMPED_LOCK_ENABLED,
+        OZONE_MANAGER_STAMPED_LOCK_ENABLED_DEFAULT)) {
+      return new StampedOzoneManagerLock(conf);
+    }
+    return new OzoneManagerLock(conf);
+  }
+
   OMLockDetails acquireReadLock(OzoneManagerLock.Resource resource,
                                 String... resources);
 
@@ -40,6 +56,23 @@ OMLockDetails releaseWriteLock(OzoneManagerLock.Resource resource,
   OMLockDetails releaseReadLock(OzoneManagerLock.Resource resource,
                                 String... resources);
 
+  /**
+   * Runs a read-only operation with the same guarantees as holding the read
+   * lock of the resource while it runs. Implementations may run it without
+   * acquiring the lock, and run it again under the read lock if a writer
+   * interfered, so the operation must not have side effects.
+   */
+  default <T, E extends Exception> T readOptimistically(
+      OzoneManagerLock.Resource resource, CheckedSupplier<T, E> operation,
+      String... resources) throws E {
+    acquireReadLock(resource, resources);
+    try {
+      return operation.get();
+    } finally {
+      releaseReadLock(resource, resources);
+    }
+  }
+
   @VisibleForTesting
   int getReadHoldCount(OzoneManagerLock.Resource resource,
       String... resources);
@@ -0,0 +1,539 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.lock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.StampedLock;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.hadoop.hdds.conf.ConfigurationSource;
+import org.apache.hadoop.ipc.ProcessingDetails.Timing;
+import org.apache.hadoop.ipc.Server;
+import org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource;
+import org.apache.hadoop.util.Time;
+import org.apache.ratis.util.function.CheckedSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_LOCK_METRICS_SAMPLE_INTERVAL;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_LOCK_METRICS_SAMPLE_INTERVAL_DEFAULT;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STRIPED_LOCK_SIZE_DEFAULT;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STRIPED_LOCK_SIZE_PREFIX;
+
+/**
+ * {@link IOzoneManagerLock} implementation based on striped
+ * {@link StampedLock}s, with the same locking rules as
+ * {@link OzoneManagerLock}.
+ * <p>
+ * Compared to {@link OzoneManagerLock}:
+ * <ul>
+ *   <li>The stripe is selected by a 64-bit hash of the resource names
+ *   (reusing the cached hash codes of the strings) instead of a joined
+ *   string, so acquiring a lock does not allocate.</li>
+ *   <li>Reentrancy and the lock hierarchy are tracked in a single per-thread
+ *   object.</li>
+ *   <li>{@link #readOptimistically} runs read-only operations without
+ *   acquiring the lock, retrying under the read lock only if a writer
+ *   interfered.</li>
+ *   <li>Lock wait and held times are recorded only for one of every
+ *   {@code ozone.om.lock.metrics.sample.interval} acquisitions.</li>
+ * </ul>
+ * Unlike {@link java.util.concurrent.locks.ReentrantReadWriteLock}, a write
+ * lock does not become a read lock when released while the same thread
+ * still holds a read lock on it: it is kept until all holds are released.
+ * Acquiring a write lock while holding the read lock of the same resource
+ * fails instead of deadlocking. Read holds are tracked by resource name, so
+ * a write lock on a different resource whose stripe is read locked by the
+ * thread converts the stripe to a write lock, waiting for other readers like
+ * a queued writer. Only if another thread converts the same stripe at the
+ * same time, the acquisition fails.
+ */
+public class StampedOzoneManagerLock implements IOzoneManagerLock {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(StampedOzoneManagerLock.class);
+  private static final long CONVERSION_WAIT_NANOS =
+      TimeUnit.MICROSECONDS.toNanos(50);
+
+  private final Map<Resource, Stripe[]> stripesByResource;
+  private final int sampleInterval;
+  private final OMLockMetrics omLockMetrics;
+  private final ThreadLocal<ThreadState> threadState =
+      ThreadLocal.withInitial(ThreadState::new);
+
+  public StampedOzoneManagerLock(ConfigurationSource conf) {
+    omLockMetrics = OMLockMetrics.create();
+    sampleInterval = Math.max(1, conf.getInt(
+        OZONE_MANAGER_LOCK_METRICS_SAMPLE_INTERVAL,
+        OZONE_MANAGER_LOCK_METRICS_SAMPLE_INTERVAL_DEFAULT));
+    stripesByResource = new EnumMap<>(Resource.class);
+    for (Resource r : Resource.values()) {
+      int size = conf.getInt(OZONE_MANAGER_STRIPED_LOCK_SIZE_PREFIX +
+          r.getName().toLowerCase(), OZONE_MANAGER_STRIPED_LOCK_SIZE_DEFAULT);
+      // round up to a power of two, so that a mask selects the stripe
+      int stripeCount = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+      Stripe[] stripes = new Stripe[stripeCount];
+      for (int i = 0; i < stripeCount; i++) {
+        stripes[i] = new Stripe();
+      }
+      stripesByResource.put(r, stripes);
+    }
+  }
+
+  /**
+   * Combines the hash codes of the given names into a 64-bit hash.
+   */
+  @VisibleForTesting
+  static long hash(String... keys) {
+    long h = keys.length;
+    for (String key : keys) {
+      h = (h ^ key.hashCode()) * 0x9E3779B97F4A7C15L;
+    }
+    // finalization step of MurmurHash3
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private Stripe getLock(Resource resource, long hash) {
+    Stripe[] stripes = stripesByResource.get(resource);
+    return stripes[(int) (hash & (stripes.length - 1))];
+  }
+
+  @Override
+  public OMLockDetails acquireReadLock(Resource resource, String... keys) {
+    return acquireLock(resource, true, hash(keys));
+  }
+
+  @Override
+  public OMLockDetails acquireWriteLock(Resource resource, String... keys) {
+    return acquireLock(resource, false, hash(keys));
+  }
+
+  private OMLockDetails acquireLock(Resource resource, boolean isReadLock,
+      long hash) {
+    ThreadState state = threadState.get();
+    state.details.clear();
+    checkCanLock(resource, state);
+
+    lockStripe(state, getLock(resource, hash), hash, isReadLock);
+
+    state.lockSet = resource.setLock(state.lockSet);
+    state.details.setLockAcquired(true);
+    return state.details;
+  }
+
+  private void lockStripe(ThreadState state, Stripe lock, long hash,
+      boolean isReadLock) {
+    int i = state.indexOf(lock);
+    if (i >= 0) {
+      // Reentrant acquisition: the stripe is already locked by this thread.
+      if (isReadLock) {
+        state.readHolds[i]++;
+        state.addReadHold(lock, hash);
+      } else if (state.writeMode[i]) {
+        state.writeHolds[i]++;
+      } else if (state.indexOfReadHold(lock, hash) >= 0) {
+        String errorMessage = "Thread '" + Thread.currentThread().getName() +
+            "' cannot acquire a write lock while holding a read lock on" +
+            " the same resource.";
+        LOG.error(errorMessage);
+        throw new RuntimeException(errorMessage);
+      } else {
+        // the read lock is held for other resources sharing the stripe
+        convertToWriteLock(state, i);
+        state.writeHolds[i]++;
+      }
+      return;
+    }
+
+    final boolean sampled = ++state.acquisitions % sampleInterval == 0;
+    final long startWaitingTimeNanos = sampled ? Time.monotonicNowNanos() : 0;
+    final long stamp;
+    if (isReadLock) {
+      // let a conversion in progress complete first, not to starve it
+      while (lock.converter.get() != null) {
+        LockSupport.parkNanos(CONVERSION_WAIT_NANOS);
+      }
+      stamp = lock.readLock();
+    } else {
+      stamp = lock.writeLock();
+    }
+    long heldSinceNanos = 0;
+    if (sampled) {
+      heldSinceNanos = Time.monotonicNowNanos();
+      long waitingTimeMs = TimeUnit.NANOSECONDS.toMillis(
+          heldSinceNanos - startWaitingTimeNanos);
+      if (isReadLock) {
+        omLockMetrics.setReadLockWaitingTimeMsStat(waitingTimeMs);
+      } else {
+        omLockMetrics.setWriteLockWaitingTimeMsStat(waitingTimeMs);
+      }
+      updateProcessingDetails(state, Timing.LOCKWAIT,
+          heldSinceNanos - startWaitingTimeNanos);
+    }
+    state.add(lock, stamp, !isReadLock, heldSinceNanos);
+    if (isReadLock) {
+      state.addReadHold(lock, hash);
+    }
+  }
+
+  /**
+   * Converts the read lock of a stripe held by this thread to a write lock,
+   * waiting until the other readers release it. New readers wait for the
+   * conversion meanwhile. Two threads converting the same stripe would wait
+   * for each other, so the second one fails.
+   */
+  private void convertToWriteLock(ThreadState state, int i) {
+    Stripe lock = state.locks[i];
+    Thread current = Thread.currentThread();
+    if (!lock.converter.compareAndSet(null, current)) {
+      String errorMessage = "Thread '" + current.getName() +
+          "' cannot acquire a write lock while holding a read lock on" +
+          " the same stripe, which another thread is converting.";
+      LOG.error(errorMessage);
+      throw new RuntimeException(errorMessage);
+    }
+    try {
+      long stamp;
+      while ((stamp = lock.tryConvertToWriteLock(state.stamps[i])) == 0) {
+        LockSupport.parkNanos(CONVERSION_WAIT_NANOS);
+      }
+      state.stamps[i] = stamp;
+      state.writeMode[i] = true;
+    } finally {
+      lock.converter.set(null);
+    }
+  }
+
+  @Override
+  public OMLockDetails releaseReadLock(Resource resource, String... keys) {
+    return releaseLock(resource, true, hash(keys));
+  }
+
+  @Override
+  public OMLockDetails releaseWriteLock(Resource resource, String... keys) {
+    return releaseLock(resource, false, hash(keys));
+  }
+
+  private OMLockDetails releaseLock(Resource resource, boolean isReadLock,
+      long hash) {
+    ThreadState state = threadState.get();
+    state.details.clear();
+    unlockStripe(state, getLock(resource, hash), hash, isReadLock);
+    state.lockSet = resource.clearLock(state.lockSet);
+    return state.details;
+  }
+
+  private void unlockStripe(ThreadState state, Stripe lock, long hash,
+      boolean isReadLock) {
+    int i = state.indexOf(lock);
+    int[] holds = isReadLock ? state.readHolds : state.writeHolds;
+    int j = isReadLock ? state.indexOfReadHold(lock, hash) : 0;
+    if (i < 0 || holds[i] == 0 || j < 0) {
+      throw new IllegalMonitorStateException("Thread '" +
+          Thread.currentThread().getName() + "' does not hold the " +
+          (isReadLock ? "read" : "write") + " lock.");
+    }
+    holds[i]--;
+    if (isReadLock) {
+      state.removeReadHold(j);
+    }
+    if (state.readHolds[i] > 0 || state.writeHolds[i] > 0) {
+      return;
+    }
+
+    boolean writeMode = state.writeMode[i];
+    long heldSinceNanos = state.heldSinceNanos[i];
+    state.remove(i);
+    if (writeMode) {
+      lock.tryUnlockWrite();
+    } else {
+      lock.tryUnlockRead();
+    }
+    if (heldSinceNanos != 0) {
+      long heldTimeNanos = Time.monotonicNowNanos() - heldSinceNanos;
+      long heldTimeMs = TimeUnit.NANOSECONDS.toMillis(heldTimeNanos);
+      if (writeMode) {
+        omLockMetrics.setWriteLockHeldTimeMsStat(heldTimeMs);
+        updateProcessingDetails(state, Timing.LOCKEXCLUSIVE, heldTimeNanos);
+      } else {
+        omLockMetrics.setReadLockHeldTimeMsStat(heldTimeMs);
+        updateProcessingDetails(state, Timing.LOCKSHARED, heldTimeNanos);
+      }
+    }
+  }
+
+  /**
+   * Runs the operation without locking if no thread holds the write lock,
+   * and returns its result if no write lock was acquired while it ran.
+   * Otherwise runs it again under the read lock.
+   */
+  @Override
+  public <T, E extends Exception> T readOptimistically(Resource resource,
+      CheckedSupplier<T, E> operation, String... keys) throws E {
+    ThreadState state = threadState.get();
+    checkCanLock(resource, state);
+    long hash = hash(keys);
+    StampedLock lock = getLock(resource, hash);
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      T result;
+      try {
+        result = operation.get();
+      } catch (Exception e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+        result = null;
+      }
+      if (lock.validate(stamp)) {
+        return result;
+      }
+    }
+    acquireLock(resource, true, hash);
+    try {
+      return operation.get();
+    } finally {
+      releaseLock(resource, true, hash);
+    }
+  }
+
+  @Override
+  public boolean acquireMultiUserLock(String firstUser, String secondUser) {
+    Resource resource = Resource.USER_LOCK;
+    ThreadState state = threadState.get();
+    checkCanLock(resource, state);
+    // Always lock the stripes in the same order to prevent deadlocks.
+    for (Stripe lock : getUserLocks(firstUser, secondUser)) {
+      lockStripe(state, lock, 0, false);
+    }
+    state.lockSet = resource.setLock(state.lockSet);
+    return true;
+  }
+
+  @Override
+  public void releaseMultiUserLock(String firstUser, String secondUser) {
+    ThreadState state = threadState.get();
+    for (Stripe lock : getUserLocks(firstUser, secondUser)) {
+      unlockStripe(state, lock, 0, false);
+    }
+    state.lockSet = Resource.USER_LOCK.clearLock(state.lockSet);
+  }
+
+  private Stripe[] getUserLocks(String firstUser, String secondUser) {
+    Stripe[] stripes = stripesByResource.get(Resource.USER_LOCK);
+    int first = (int) (hash(firstUser) & (stripes.length - 1));
+    int second = (int) (hash(secondUser) & (stripes.length - 1));
+    return new Stripe[] {
+        stripes[Math.min(first, second)], stripes[Math.max(first, second)]};
+  }
+
+  private void checkCanLock(Resource resource, ThreadState state) {
+    if (!resource.canLock(state.lockSet)) {
+      String errorMessage = "Thread '" + Thread.currentThread().getName() +
+          "' cannot acquire " + resource.getName() + " lock while holding " +
+          getCurrentLocks(state.lockSet) + " lock(s).";
+      LOG.error(errorMessage);
+      throw new RuntimeException(errorMessage);
+    }
+  }
+
+  private static List<String> getCurrentLocks(short lockSet) {
+    List<String> currentLocks = new ArrayList<>();
+    for (Resource value : Resource.values()) {
+      if (value.isLevelLocked(lockSet)) {
+        currentLocks.add(value.getName());
+      }
+    }
+    return currentLocks;
+  }
+
+  @Override
+  @VisibleForTesting
+  public int getReadHoldCount(Resource resource, String... keys) {
+    ThreadState state = threadState.get();
+    long hash = hash(keys);
+    int j = state.indexOfReadHold(getLock(resource, hash), hash);
+    return j < 0 ? 0 : state.readHoldsByName[j];
+  }
+
+  @Override
+  @VisibleForTesting
+  public int getWriteHoldCount(Resource resource, String... keys) {
+    ThreadState state = threadState.get();
+    int i = state.indexOf(getLock(resource, hash(keys)));
+    return i < 0 ? 0 : state.writeHolds[i];
+  }
+
+  @Override
+  @VisibleForTesting
+  public boolean isWriteLockedByCurrentThread(Resource resource,
+      String... keys) {
+    ThreadState state = threadState.get();
+    int i = state.indexOf(getLock(resource, hash(keys)));
+    return i >= 0 && state.writeMode[i];
+  }
+
+  @Override
+  public void cleanup() {
+    omLockMetrics.unRegister();
+  }
+
+  @Override
+  public OMLockMetrics getOMLockMetrics() {
+    return omLockMetrics;
+  }
+
+  /**
+   * Same as OzoneManagerLock#updateProcessingDetails.
+   */
+  private static void updateProcessingDetails(ThreadState state, Timing type,
+      long deltaNanos) {
+    Server.Call call = Server.getCurCall().get();
+    if (call != null) {
+      call.getProcessingDetails().add(type, deltaNanos, TimeUnit.NANOSECONDS);
+    } else if (type == Timing.LOCKWAIT) {
+      state.details.add(deltaNanos, OMLockDetails.LockOpType.WAIT);
+    } else if (type == Timing.LOCKSHARED) {
+      state.details.add(deltaNanos, OMLockDetails.LockOpType.READ);
+    } else {
+      state.details.add(deltaNanos, OMLockDetails.LockOpType.WRITE);
+    }
+  }
+
+  /**
+   * Lock of a stripe, with the thread converting its read lock to a write
+   * lock, if any.
+   */
+  private static final class Stripe extends StampedLock {
+    private static final long serialVersionUID = 1L;
+    private final AtomicReference<Thread> converter = new AtomicReference<>();
+  }
+
+  /**
+   * Locks held by a thread. A thread holds only a few locks at a time, so
+   * they are kept in small arrays which are scanned linearly.
+   */
+  private static final class ThreadState {
+    private final OMLockDetails details = new OMLockDetails();
+    private short lockSet;
+    private long acquisitions;
+
+    private int size;
+    private Stripe[] locks = new Stripe[4];
+    private long[] stamps = new long[4];
+    private int[] readHolds = new int[4];
+    private int[] writeHolds = new int[4];
+    // whether the stripe itself is write locked
+    private boolean[] writeMode = new boolean[4];
+    // 0 unless the acquisition was sampled for metrics
+    private long[] heldSinceNanos = new long[4];
+
+    // read holds by resource name, as several resources may share a stripe
+    private int readNames;
+    private Stripe[] readLocks = new Stripe[4];
+    private long[] readHashes = new long[4];
+    private int[] readHoldsByName = new int[4];
+
+    int indexOf(Stripe lock) {
+      for (int i = 0; i < size; i++) {
+        if (locks[i] == lock) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    void add(Stripe lock, long stamp, boolean write, long heldSince) {
+      if (size == locks.length) {
+        int capacity = size * 2;
+        locks = Arrays.copyOf(locks, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+        readHolds = Arrays.copyOf(readHolds, capacity);
+        writeHolds = Arrays.copyOf(writeHolds, capacity);
+        writeMode = Arrays.copyOf(writeMode, capacity);
+        heldSinceNanos = Arrays.copyOf(heldSinceNanos, capacity);
+      }
+      locks[size] = lock;
+      stamps[size] = stamp;
+      readHolds[size] = write ? 0 : 1;
+      writeHolds[size] = write ? 1 : 0;
+      writeMode[size] = write;
+      heldSinceNanos[size] = heldSince;
+      size++;
+    }
+
+    void remove(int i) {
+      size--;
+      locks[i] = locks[size];
+      stamps[i] = stamps[size];
+      readHolds[i] = readHolds[size];
+      writeHolds[i] = writeHolds[size];
+      writeMode[i] = writeMode[size];
+      heldSinceNanos[i] = heldSinceNanos[size];
+      locks[size] = null;
+    }
+
+    int indexOfReadHold(Stripe lock, long hash) {
+      for (int j = 0; j < readNames; j++) {
+        if (readLocks[j] == lock && readHashes[j] == hash) {
+          return j;
+        }
+      }
+      return -1;
+    }
+
+    void addReadHold(Stripe lock, long hash) {
+      int j = indexOfReadHold(lock, hash);
+      if (j >= 0) {
+        readHoldsByName[j]++;
+        return;
+      }
+      if (readNames == readLocks.length) {
+        int capacity = readNames * 2;
+        readLocks = Arrays.copyOf(readLocks, capacity);
+        readHashes = Arrays.copyOf(readHashes, capacity);
+        readHoldsByName = Arrays.copyOf(readHoldsByName, capacity);
+      }
+      readLocks[readNames] = lock;
+      readHashes[readNames] = hash;
+      readHoldsByName[readNames] = 1;
+      readNames++;
+    }
+
+    void removeReadHold(int j) {
+      if (--readHoldsByName[j] > 0) {
+        return;
+      }
+      readNames--;
+      readLocks[j] = readLocks[readNames];
+      readHashes[j] = readHashes[readNames];
+      readHoldsByName[j] = readHoldsByName[readNames];
+      readLocks[readNames] = null;
+    }
+  }
+}
@@ -20,6 +20,7 @@
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,6 +34,7 @@
 import org.apache.hadoop.ozone.om.helpers.DBUpdates;
 import org.apache.hadoop.ozone.om.helpers.DeleteTenantState;
 import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
+import org.apache.hadoop.ozone.om.helpers.OmBatchResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketArgs;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmDeleteKeys;
@@ -255,6 +257,35 @@ default void commitKey(OmKeyArgs args, long clientID)
         "this to be implemented, as write requests use a new approach.");
   }
 
+  /**
+   * Open the given keys with a single request to the Ozone Manager.
+   *
+   * @param args the args of the keys.
+   * @return the result of each key, in order: the open key session, or the
+   * reason the key could not be opened.
+   * @throws IOException if the request as a whole failed
+   */
+  default List<OmBatchResult<OpenKeySession>> openKeys(List<OmKeyArgs> args)
+      throws IOException {
+    throw new UnsupportedOperationException("OzoneManager does not require " +
+        "this to be implemented, as write requests use a new approach.");
+  }
+
+  /**
+   * Commit the given keys with a single request to the Ozone Manager.
+   *
+   * @param args the keys to commit
+   * @param clientIDs the client identification of each key, in order
+   * @return the result of each key, in order: no value, or the reason the
+   * key could not be committed.
+   * @throws IOException if the request as a whole failed
+   */
+  default List<OmBatchResult<Void>> commitKeys(List<OmKeyArgs> args,
+      List<Long> clientIDs) throws IOException {
+    throw new UnsupportedOperationException("OzoneManager does not require " +
+        "this to be implemented, as write requests use a new approach.");
+  }
+
   /**
    * Synchronize the key length. This will make the change from the client
    * visible. The client is identified by the clientID.
@@ -310,6 +341,29 @@ default OmKeyLocationInfo allocateBlock(OmKeyArgs args, long clientID,
   KeyInfoWithVolumeContext getKeyInfo(OmKeyArgs args, boolean assumeS3Context)
       throws IOException;
 
+  /**
+   * Look up several existing keys, possibly in different buckets, with a
+   * single request to the Ozone Manager.
+   *
+   * @param args the args of the keys.
+   * @return the result of each key, in order: the info the client uses to
+   * talk to the containers, or the reason the key could not be looked up.
+   * @throws IOException if the request as a whole failed
+   */
+  default List<OmBatchResult<OmKeyInfo>> lookupKeys(List<OmKeyArgs> args)
+      throws IOException {
+    List<OmBatchResult<OmKeyInfo>> results = new ArrayList<>(args.size());
+    for (OmKeyArgs keyArgs : args) {
+      try {
+        results.add(OmBatchResult.success(
+            getKeyInfo(keyArgs, false).getKeyInfo()));
+      } catch (OMException e) {
+        results.add(OmBatchResult.failure(e));
+      }
+    }
+    return results;
+  }
+
   /**
    * Rename an existing key within a bucket.
    * @param args the args of the key.
@@ -18,10 +18,17 @@
 package org.apache.hadoop.ozone.om.protocolPB;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Constructor;
 import java.net.InetAddress;
+import java.net.UnknownHostException;
 import java.security.cert.X509Certificate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -30,9 +37,11 @@
 import java.util.Map;
 
 import com.google.common.net.HostAndPort;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.grpc.Context;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
 import org.apache.hadoop.ipc.RemoteException;
 
 import org.apache.hadoop.hdds.conf.Config;
@@ -70,6 +79,12 @@
 
 /**
  * Grpc transport for grpc between s3g and om.
+ * <p>
+ * Besides blocking calls, requests can be submitted asynchronously with
+ * {@link #submitRequestAsync}, multiplexed on the same HTTP/2 connection,
+ * without a thread waiting for each response.  The number of asynchronous
+ * requests in flight is limited by
+ * {@link GrpcOmTransportConfig#getMaxInFlightRequests()}.
  */
 public class GrpcOmTransport implements OmTransport {
   public static final Logger LOG =
@@ -84,6 +99,10 @@ public class GrpcOmTransport implements OmTransport {
   private OzoneManagerServiceGrpc.OzoneManagerServiceBlockingStub client;
   private Map<String,
       OzoneManagerServiceGrpc.OzoneManagerServiceBlockingStub> clients;
+  private Map<String,
+      OzoneManagerServiceGrpc.OzoneManagerServiceStub> asyncClients;
+  private final Semaphore inFlightRequests;
+  private final ScheduledExecutorService retryExecutor;
   private Map<String, ManagedChannel> channels;
   private int lastVisited = -1;
   private ConfigurationSource conf;
@@ -99,7 +118,7 @@ public static void setCaCerts(List<X509Certificate> x509Certificates) {
 
   private List<String> oms;
   private RetryPolicy retryPolicy;
-  private int failoverCount = 0;
+  private final AtomicInteger failoverCount = new AtomicInteger();
   private GrpcOMFailoverProxyProvider<OzoneManagerProtocolPB>
       omFailoverProxyProvider;
 
@@ -109,15 +128,22 @@ public GrpcOmTransport(ConfigurationSource conf,
 
     this.channels = new HashMap<>();
     this.clients = new HashMap<>();
+    this.asyncClients = new HashMap<>();
     this.conf = conf;
     this.host = new AtomicReference();
-    this.failoverCount = 0;
     this.syncFailoverCount = new AtomicInteger();
 
 
     secConfig =  new SecurityConfig(conf);
     maxSize = conf.getInt(OZONE_OM_GRPC_MAXIMUM_RESPONSE_LENGTH,
         OZONE_OM_GRPC_MAXIMUM_RESPONSE_LENGTH_DEFAULT);
+    inFlightRequests = new Semaphore(conf.getObject(
+        GrpcOmTransportConfig.class).getMaxInFlightRequests());
+    retryExecutor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat(CLIENT_NAME + "-retry-%d")
+            .build());
 
     omFailoverProxyProvider = new GrpcOMFailoverProxyProvider(
         conf,
@@ -170,6 +196,8 @@ public void start() throws IOException {
       clients.put(hostaddr,
           OzoneManagerServiceGrpc
               .newBlockingStub(channels.get(hostaddr)));
+      asyncClients.put(hostaddr,
+          OzoneManagerServiceGrpc.newStub(channels.get(hostaddr)));
     }
     int maxFailovers = conf.getInt(
         OzoneConfigKeys.OZONE_CLIENT_FAILOVER_MAX_ATTEMPTS_KEY,
@@ -189,12 +217,7 @@ public OMResponse submitRequest(OMRequest payload) throws IOException {
       tryOtherHost = false;
       expectedFailoverCount = syncFailoverCount.get();
       try {
-        InetAddress inetAddress = InetAddress.getLocalHost();
-        Context.current()
-            .withValue(GrpcClientConstants.CLIENT_IP_ADDRESS_CTX_KEY,
-                inetAddress.getHostAddress())
-            .withValue(GrpcClientConstants.CLIENT_HOSTNAME_CTX_KEY,
-                inetAddress.getHostName())
+        clientContext()
             .run(() -> resp.set(clients.get(host.get())
                 .submitRequest(payload)));
       } catch (StatusRuntimeException e) {
@@ -217,6 +240,97 @@ public OMResponse submitRequest(OMRequest payload) throws IOException {
     return resp.get();
   }
 
+  /**
+   * Submits the request without waiting for the response.  Blocks while the
+   * max number of requests is in flight.  Failed requests are retried, and
+   * failed over, in the same way as blocking requests.
+   */
+  @Override
+  public CompletableFuture<OMResponse> submitRequestAsync(OMRequest payload) {
+    final CompletableFuture<OMResponse> future = new CompletableFuture<>();
+    try {
+      inFlightRequests.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.completeExceptionally(new InterruptedIOException(
+          "Interrupted submitting " + payload.getCmdType()));
+      return future;
+    }
+    future.whenComplete((response, e) -> inFlightRequests.release());
+    submitRequestAsync(payload, future);
+    return future;
+  }
+
+  private void submitRequestAsync(OMRequest payload,
+      CompletableFuture<OMResponse> future) {
+    final int expectedFailoverCount = syncFailoverCount.get();
+    final StreamObserver<OMResponse> observer =
+        new StreamObserver<OMResponse>() {
+          private OMResponse response;
+
+          @Override
+          public void onNext(OMResponse value) {
+            response = value;
+          }
+
+          @Override
+          public void onError(Throwable t) {
+            onAsyncFailure(payload, future, t, expectedFailoverCount);
+          }
+
+          @Override
+          public void onCompleted() {
+            future.complete(response);
+          }
+        };
+    try {
+      clientContext().run(() -> asyncClients.get(host.get())
+          .submitRequest(payload, observer));
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+    }
+  }
+
+  private void onAsyncFailure(OMRequest payload,
+      CompletableFuture<OMResponse> future, Throwable t,
+      int expectedFailoverCount) {
+    if (!(t instanceof StatusRuntimeException)) {
+      future.completeExceptionally(new IOException(t));
+      return;
+    }
+    final StatusRuntimeException e = (StatusRuntimeException) t;
+    LOG.error("Failed to submit request", e);
+    ResultCodes resultCode = ResultCodes.INTERNAL_ERROR;
+    if (e.getStatus().getCode() == Status.Code.UNAVAILABLE) {
+      if (e.getCause() instanceof javax.net.ssl.SSLHandshakeException) {
+        future.completeExceptionally(new OMException(SSL_CONNECTION_FAILURE));
+        return;
+      }
+      resultCode = ResultCodes.TIMEOUT;
+    }
+    final long delay = getRetryDelay(unwrapException(new Exception(e)),
+        expectedFailoverCount);
+    if (delay < 0) {
+      future.completeExceptionally(new OMException(resultCode));
+      return;
+    }
+    try {
+      retryExecutor.schedule(() -> submitRequestAsync(payload, future),
+          delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException ree) {
+      future.completeExceptionally(new OMException(resultCode));
+    }
+  }
+
+  private static Context clientContext() throws UnknownHostException {
+    InetAddress inetAddress = InetAddress.getLocalHost();
+    return Context.current()
+        .withValue(GrpcClientConstants.CLIENT_IP_ADDRESS_CTX_KEY,
+            inetAddress.getHostAddress())
+        .withValue(GrpcClientConstants.CLIENT_HOSTNAME_CTX_KEY,
+            inetAddress.getHostName());
+  }
+
   private Exception unwrapException(Exception ex) {
     Exception grpcException = null;
     try {
@@ -259,26 +373,36 @@ private Exception unwrapException(Exception ex) {
   }
 
   private boolean shouldRetry(Exception ex, int expectedFailoverCount) {
-    boolean retry = false;
+    final long delay = getRetryDelay(ex, expectedFailoverCount);
+    if (delay > 0) {
+      try {
+        Thread.sleep(delay);
+      } catch (Exception e) {
+        LOG.error("Error trying sleep thread for {}", delay);
+      }
+    }
+    return delay >= 0;
+  }
+
+  /**
+   * Decides whether to retry a failed request, switching to the current
+   * proxy OM if failed over.
+   * @return the delay before retrying in milliseconds, -1 not to retry.
+   */
+  private long getRetryDelay(Exception ex, int expectedFailoverCount) {
+    long delay = -1;
     RetryPolicy.RetryAction action = null;
     try {
-      action = retryPolicy.shouldRetry((Exception)ex, 0, failoverCount++, true);
+      action = retryPolicy.shouldRetry((Exception)ex, 0,
+          failoverCount.getAndIncrement(), true);
       LOG.debug("grpc failover retry action {}", action.action);
       if (action.action == RetryPolicy.RetryAction.RetryDecision.FAIL) {
-        retry = false;
         LOG.error("Retry request failed. Action : {}, {}",
             action.action, ex.toString());
       } else {
         if (action.action == RetryPolicy.RetryAction.RetryDecision.RETRY ||
             (action.action == RetryPolicy.RetryAction.RetryDecision
                 .FAILOVER_AND_RETRY)) {
-          if (action.delayMillis > 0) {
-            try {
-              Thread.sleep(action.delayMillis);
-            } catch (Exception e) {
-              LOG.error("Error trying sleep thread for {}", action.delayMillis);
-            }
-          }
           // switch om host to current proxy OMNodeId
           if (syncFailoverCount.get() == expectedFailoverCount) {
             omFailoverProxyProvider.performFailover(null);
@@ -290,13 +414,13 @@ private boolean shouldRetry(Exception ex, int expectedFailoverCount) {
           host.set(omFailoverProxyProvider
               .getGrpcProxyAddress(
                   omFailoverProxyProvider.getCurrentProxyOMNodeId()));
-          retry = true;
+          delay = Math.max(0, action.delayMillis);
         }
       }
     } catch (Exception e) {
       LOG.error("Failed failover exception {}", e);
     }
-    return retry;
+    return delay;
   }
 
   // stub implementation for interface
@@ -306,6 +430,7 @@ public Text getDelegationTokenService() {
   }
 
   public void shutdown() {
+    retryExecutor.shutdownNow();
     for (Map.Entry<String, ManagedChannel> entry : channels.entrySet()) {
       ManagedChannel channel = entry.getValue();
       channel.shutdown();
@@ -343,6 +468,22 @@ public GrpcOmTransportConfig setPort(int portParam) {
       this.port = portParam;
       return this;
     }
+
+    @Config(key = "client.max.in.flight.requests", defaultValue = "1024",
+        description = "Maximum number of asynchronous requests a"
+            + " GrpcOmTransport client has in flight.  Submitting more"
+            + " requests blocks until a response is received.",
+        tags = {ConfigTag.CLIENT, ConfigTag.PERFORMANCE})
+    private int maxInFlightRequests = 1024;
+
+    public int getMaxInFlightRequests() {
+      return maxInFlightRequests;
+    }
+
+    public GrpcOmTransportConfig setMaxInFlightRequests(int max) {
+      this.maxInFlightRequests = max;
+      return this;
+    }
   }
 
   @VisibleForTesting
@@ -354,6 +495,8 @@ public void startClient(ManagedChannel testChannel) throws IOException {
       clients.put(hostaddr,
           OzoneManagerServiceGrpc
               .newBlockingStub(testChannel));
+      asyncClients.put(hostaddr,
+          OzoneManagerServiceGrpc.newStub(testChannel));
     }
     LOG.info("{}: started", CLIENT_NAME);
   }
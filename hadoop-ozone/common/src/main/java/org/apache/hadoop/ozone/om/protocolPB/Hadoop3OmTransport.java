@@ -18,6 +18,14 @@
 package org.apache.hadoop.ozone.om.protocolPB;
 
 import java.io.IOException;
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.hadoop.hdds.conf.ConfigurationSource;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
@@ -26,7 +34,9 @@
 import org.apache.hadoop.ipc.ProtobufHelper;
 import org.apache.hadoop.ipc.ProtobufRpcEngine;
 import org.apache.hadoop.ipc.RPC;
+import org.apache.hadoop.ozone.OmUtils;
 import org.apache.hadoop.ozone.OzoneConfigKeys;
+import org.apache.hadoop.ozone.common.MonotonicClock;
 import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
 import org.apache.hadoop.ozone.om.ha.HadoopRpcOMFailoverProxyProvider;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
@@ -41,6 +51,12 @@
 
 /**
  * Full-featured Hadoop RPC implementation with failover support.
+ * <p>
+ * With follower reads enabled, read-only requests are sent to the OMs in
+ * round robin fashion, with the highest log index applied by the OMs seen in
+ * responses, so that a follower only serves reads once it caught up with the
+ * writes and reads of this client.  Reads rejected by a follower are sent to
+ * the leader, and the follower is skipped for a while.
  */
 public class Hadoop3OmTransport implements OmTransport {
 
@@ -56,6 +72,18 @@ public class Hadoop3OmTransport implements OmTransport {
 
   private final OzoneManagerProtocolPB rpcProxy;
 
+  /** How long an OM failing a follower read is skipped for. */
+  private static final long FOLLOWER_READ_EXCLUDE_MS =
+      TimeUnit.SECONDS.toMillis(10);
+
+  private final List<String> followerReadNodeIds;
+  private final AtomicInteger nextFollowerReadNode = new AtomicInteger();
+  private final Map<String, Long> followerReadExcludedUntil =
+      new ConcurrentHashMap<>();
+  /** The highest log index applied by the OMs seen in responses. */
+  private final AtomicLong appliedIndex = new AtomicLong();
+  private final Clock clock;
+
   public Hadoop3OmTransport(ConfigurationSource conf,
       UserGroupInformation ugi, String omServiceId) throws IOException {
 
@@ -71,13 +99,44 @@ public Hadoop3OmTransport(ConfigurationSource conf,
         OzoneConfigKeys.OZONE_CLIENT_FAILOVER_MAX_ATTEMPTS_DEFAULT);
 
     this.rpcProxy = createRetryProxy(omFailoverProxyProvider, maxFailovers);
+
+    boolean followerRead = conf.getBoolean(
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_ENABLED_KEY,
+        OzoneConfigKeys.OZONE_CLIENT_FOLLOWER_READ_ENABLED_DEFAULT);
+    this.followerReadNodeIds =
+        getFollowerReadNodeIds(omFailoverProxyProvider, followerRead);
+    this.clock = new MonotonicClock(ZoneOffset.UTC);
+  }
+
+  @VisibleForTesting
+  Hadoop3OmTransport(HadoopRpcOMFailoverProxyProvider omFailoverProxyProvider,
+      OzoneManagerProtocolPB rpcProxy, boolean followerRead, Clock clock) {
+    this.omFailoverProxyProvider = omFailoverProxyProvider;
+    this.rpcProxy = rpcProxy;
+    this.followerReadNodeIds =
+        getFollowerReadNodeIds(omFailoverProxyProvider, followerRead);
+    this.clock = clock;
+  }
+
+  private static List<String> getFollowerReadNodeIds(
+      HadoopRpcOMFailoverProxyProvider omFailoverProxyProvider,
+      boolean followerRead) {
+    List<String> omNodeIds = omFailoverProxyProvider.getOMNodeIds();
+    return followerRead && omNodeIds.size() > 1 ? omNodeIds : null;
   }
 
   @Override
   public OMResponse submitRequest(OMRequest payload) throws IOException {
+    if (followerReadNodeIds != null && OmUtils.isFollowerReadable(payload)) {
+      OMResponse omResponse = submitFollowerRead(payload);
+      if (omResponse != null) {
+        return omResponse;
+      }
+    }
     try {
       OMResponse omResponse =
           rpcProxy.submitRequest(NULL_RPC_CONTROLLER, payload);
+      updateAppliedIndex(omResponse);
 
       if (omResponse.hasLeaderOMNodeId() && omFailoverProxyProvider != null) {
         String leaderOmId = omResponse.getLeaderOMNodeId();
@@ -98,6 +157,57 @@ public OMResponse submitRequest(OMRequest payload) throws IOException {
     }
   }
 
+  /**
+   * Submits the read-only request to the next OM, without failover.
+   * @return the response, or null if the OM could not serve the request.
+   */
+  private OMResponse submitFollowerRead(OMRequest payload) {
+    String nodeId = nextFollowerReadNode();
+    if (nodeId == null) {
+      return null;
+    }
+    OMRequest request = payload.toBuilder()
+        .setFollowerReadMinIndex(appliedIndex.get())
+        .build();
+    try {
+      OzoneManagerProtocolPB proxy = (OzoneManagerProtocolPB)
+          omFailoverProxyProvider.getProxy(nodeId).proxy;
+      OMResponse omResponse = proxy.submitRequest(NULL_RPC_CONTROLLER,
+          request);
+      updateAppliedIndex(omResponse);
+      return omResponse;
+    } catch (ServiceException | RuntimeException e) {
+      LOG.debug("Failed follower read from OM {}, retrying on the leader",
+          nodeId, e);
+      followerReadExcludedUntil.put(nodeId,
+          clock.millis() + FOLLOWER_READ_EXCLUDE_MS);
+      return null;
+    }
+  }
+
+  /**
+   * @return the next OM to read from, or null if all OMs are skipped.
+   */
+  private String nextFollowerReadNode() {
+    long now = clock.millis();
+    int size = followerReadNodeIds.size();
+    for (int i = 0; i < size; i++) {
+      String nodeId = followerReadNodeIds.get(
+          Math.floorMod(nextFollowerReadNode.getAndIncrement(), size));
+      Long excludedUntil = followerReadExcludedUntil.get(nodeId);
+      if (excludedUntil == null || excludedUntil <= now) {
+        return nodeId;
+      }
+    }
+    return null;
+  }
+
+  private void updateAppliedIndex(OMResponse omResponse) {
+    if (omResponse.hasAppliedIndex()) {
+      appliedIndex.accumulateAndGet(omResponse.getAppliedIndex(), Math::max);
+    }
+  }
+
   @Override
   public Text getDelegationTokenService() {
     return omFailoverProxyProvider.getCurrentProxyDelegationToken();
@@ -18,6 +18,7 @@
 package org.apache.hadoop.ozone.om.protocolPB;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
@@ -33,6 +34,24 @@ public interface OmTransport {
    */
   OMResponse submitRequest(OMRequest payload) throws IOException;
 
+  /**
+   * Send out the request without waiting for the response.  Transports not
+   * supporting asynchronous calls send the request in the calling thread.
+   *
+   * @return future completed with the response, or exceptionally with the
+   * IOException the request failed with.
+   */
+  default CompletableFuture<OMResponse> submitRequestAsync(
+      OMRequest payload) {
+    final CompletableFuture<OMResponse> future = new CompletableFuture<>();
+    try {
+      future.complete(submitRequest(payload));
+    } catch (IOException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
   /**
    * Return the addresses of the Ozone Managers, used for delegation token.
    */
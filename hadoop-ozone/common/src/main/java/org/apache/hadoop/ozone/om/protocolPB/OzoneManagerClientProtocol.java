@@ -18,6 +18,15 @@
 
 package org.apache.hadoop.ozone.om.protocolPB;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
+import org.apache.hadoop.ozone.om.helpers.OmBatchResult;
+import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
 import org.apache.hadoop.ozone.om.protocol.OzoneManagerProtocol;
 import org.apache.hadoop.ozone.om.protocol.S3Auth;
 
@@ -37,4 +46,27 @@ public interface OzoneManagerClientProtocol extends OzoneManagerProtocol {
   void clearThreadLocalS3Auth();
 
   ThreadLocal<S3Auth> getS3CredentialsProvider();
+
+  /*
+   * Asynchronous versions of the most frequent metadata calls.  With a
+   * transport supporting them, e.g. gRPC, the requests are pipelined on the
+   * connection to OM, without a thread waiting for each response.  The
+   * returned futures complete exceptionally with the IOException of the
+   * corresponding synchronous call.
+   */
+
+  /** Asynchronous {@link #getBucketInfo}. */
+  CompletableFuture<OmBucketInfo> getBucketInfoAsync(String volumeName,
+      String bucketName);
+
+  /** Asynchronous {@link #getKeyInfo}. */
+  CompletableFuture<KeyInfoWithVolumeContext> getKeyInfoAsync(
+      OmKeyArgs args, boolean assumeS3Context);
+
+  /** Asynchronous {@link #lookupKeys}. */
+  CompletableFuture<List<OmBatchResult<OmKeyInfo>>> lookupKeysAsync(
+      List<OmKeyArgs> args);
+
+  /** Asynchronous {@link #getFileStatus}. */
+  CompletableFuture<OzoneFileStatus> getFileStatusAsync(OmKeyArgs args);
 }
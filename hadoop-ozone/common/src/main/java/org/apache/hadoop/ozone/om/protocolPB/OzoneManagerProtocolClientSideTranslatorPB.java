@@ -23,6 +23,8 @@
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -43,10 +45,12 @@
 import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.DBUpdates;
 import org.apache.hadoop.ozone.om.helpers.DeleteTenantState;
 import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
 import org.apache.hadoop.ozone.om.helpers.KeyValueUtil;
+import org.apache.hadoop.ozone.om.helpers.OmBatchResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketArgs;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmDeleteKeys;
@@ -82,6 +86,7 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.AddAclResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.AllocateBlockRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.AllocateBlockResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BucketArgs;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BucketInfo;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CancelDelegationTokenResponseProto;
@@ -147,6 +152,8 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupFileResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyResult;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeysRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.MultipartCommitUploadPartRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.MultipartCommitUploadPartResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.MultipartInfoInitiateRequest;
@@ -223,6 +230,7 @@
 import com.google.common.base.Strings;
 import com.google.protobuf.ByteString;
 import org.apache.hadoop.util.ProtobufUtils;
+import org.apache.ratis.util.function.CheckedFunction;
 
 import static org.apache.hadoop.ozone.OzoneConsts.OM_S3_CALLER_CONTEXT_PREFIX;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
@@ -300,6 +308,32 @@ private OMRequest.Builder createOMRequest(Type cmdType) {
    */
   private OMResponse submitRequest(OMRequest omRequest)
       throws IOException {
+    return transport.submitRequest(prepareRequest(omRequest));
+  }
+
+  /**
+   * Submits client request to OM server without waiting for the response.
+   * @param omRequest client request
+   * @param parser to get the result from the response, if successful
+   * @return future completed with the result, or exceptionally with the
+   * IOException the request failed with.
+   */
+  private <T> CompletableFuture<T> submitRequestAsync(OMRequest omRequest,
+      CheckedFunction<OMResponse, T, IOException> parser) {
+    return transport.submitRequestAsync(prepareRequest(omRequest))
+        .thenApply(response -> {
+          try {
+            return parser.apply(handleError(response));
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
+
+  /**
+   * Adds the authentication and tracing information to the request.
+   */
+  private OMRequest prepareRequest(OMRequest omRequest) {
     OMRequest.Builder  builder = OMRequest.newBuilder(omRequest);
     // Insert S3 Authentication information for each request.
     if (getThreadLocalS3Auth() != null) {
@@ -326,10 +360,7 @@ private OMResponse submitRequest(OMRequest omRequest)
         CallerContext.setCurrent(callerContext);
       }
     }
-    OMResponse response =
-        transport.submitRequest(
-            builder.setTraceID(TracingUtil.exportCurrentSpan()).build());
-    return response;
+    return builder.setTraceID(TracingUtil.exportCurrentSpan()).build();
   }
 
   /**
@@ -573,18 +604,30 @@ public void createBucket(OmBucketInfo bucketInfo) throws IOException {
   @Override
   public OmBucketInfo getBucketInfo(String volume, String bucket)
       throws IOException {
+    return toBucketInfo(handleError(submitRequest(
+        infoBucketRequest(volume, bucket))));
+  }
+
+  @Override
+  public CompletableFuture<OmBucketInfo> getBucketInfoAsync(String volume,
+      String bucket) {
+    return submitRequestAsync(infoBucketRequest(volume, bucket),
+        OzoneManagerProtocolClientSideTranslatorPB::toBucketInfo);
+  }
+
+  private OMRequest infoBucketRequest(String volume, String bucket) {
     InfoBucketRequest.Builder req =
         InfoBucketRequest.newBuilder();
     req.setVolumeName(volume);
     req.setBucketName(bucket);
 
-    OMRequest omRequest = createOMRequest(Type.InfoBucket)
+    return createOMRequest(Type.InfoBucket)
         .setInfoBucketRequest(req)
         .build();
+  }
 
-    InfoBucketResponse resp =
-        handleError(submitRequest(omRequest)).getInfoBucketResponse();
-
+  private static OmBucketInfo toBucketInfo(OMResponse response) {
+    InfoBucketResponse resp = response.getInfoBucketResponse();
     return OmBucketInfo.getFromProtobuf(resp.getBucketInfo());
   }
 
@@ -676,6 +719,58 @@ public List<OmBucketInfo> listBuckets(String volumeName,
    */
   @Override
   public OpenKeySession openKey(OmKeyArgs args) throws IOException {
+    CreateKeyResponse keyResponse =
+        handleError(submitRequest(createKeyRequest(args)))
+            .getCreateKeyResponse();
+    return toOpenKeySession(keyResponse);
+  }
+
+  @Override
+  public List<OmBatchResult<OpenKeySession>> openKeys(List<OmKeyArgs> args)
+      throws IOException {
+    List<OMRequest> requests = new ArrayList<>(args.size());
+    for (OmKeyArgs keyArgs : args) {
+      requests.add(createKeyRequest(keyArgs));
+    }
+    List<OmBatchResult<OpenKeySession>> results =
+        new ArrayList<>(args.size());
+    for (OMResponse response : submitBatchWriteRequest(requests)) {
+      results.add(response.getStatus() == OK
+          ? OmBatchResult.success(
+              toOpenKeySession(response.getCreateKeyResponse()))
+          : OmBatchResult.failure(toOMException(response)));
+    }
+    return results;
+  }
+
+  /**
+   * Submits the given write requests to OM as a single request.
+   * @return the response of each request, in order
+   */
+  private List<OMResponse> submitBatchWriteRequest(List<OMRequest> requests)
+      throws IOException {
+    OMRequest omRequest = createOMRequest(Type.BatchWrite)
+        .setBatchWriteRequest(BatchWriteRequest.newBuilder()
+            .addAllRequests(requests))
+        .build();
+
+    List<OMResponse> responses = handleError(submitRequest(omRequest))
+        .getBatchWriteResponse().getResponsesList();
+    if (responses.size() != requests.size()) {
+      throw new OMException("Expected " + requests.size() + " responses, " +
+          "but got " + responses.size(), ResultCodes.INTERNAL_ERROR);
+    }
+    return responses;
+  }
+
+  private static OpenKeySession toOpenKeySession(
+      CreateKeyResponse keyResponse) throws IOException {
+    return new OpenKeySession(keyResponse.getID(),
+        OmKeyInfo.getFromProtobuf(keyResponse.getKeyInfo()),
+        keyResponse.getOpenVersion());
+  }
+
+  private OMRequest createKeyRequest(OmKeyArgs args) {
     CreateKeyRequest.Builder req = CreateKeyRequest.newBuilder();
     KeyArgs.Builder keyArgs = KeyArgs.newBuilder()
         .setVolumeName(args.getVolumeName())
@@ -720,25 +815,23 @@ public OpenKeySession openKey(OmKeyArgs args) throws IOException {
 
     req.setKeyArgs(keyArgs.build());
 
-    OMRequest omRequest = createOMRequest(Type.CreateKey)
+    return createOMRequest(Type.CreateKey)
         .setCreateKeyRequest(req)
         .build();
-
-    CreateKeyResponse keyResponse =
-        handleError(submitRequest(omRequest)).getCreateKeyResponse();
-    return new OpenKeySession(keyResponse.getID(),
-        OmKeyInfo.getFromProtobuf(keyResponse.getKeyInfo()),
-        keyResponse.getOpenVersion());
   }
 
   private OMResponse handleError(OMResponse resp) throws OMException {
     if (resp.getStatus() != OK) {
-      throw new OMException(resp.getMessage(),
-          ResultCodes.values()[resp.getStatus().ordinal()]);
+      throw toOMException(resp);
     }
     return resp;
   }
 
+  private static OMException toOMException(OMResponse resp) {
+    return new OMException(resp.getMessage(),
+        ResultCodes.values()[resp.getStatus().ordinal()]);
+  }
+
   @Override
   public OmKeyLocationInfo allocateBlock(OmKeyArgs args, long clientId,
       ExcludeList excludeList) throws IOException {
@@ -786,6 +879,24 @@ public void commitKey(OmKeyArgs args, long clientId)
     updateKey(args, clientId, false);
   }
 
+  @Override
+  public List<OmBatchResult<Void>> commitKeys(List<OmKeyArgs> args,
+      List<Long> clientIds) throws IOException {
+    Preconditions.checkArgument(args.size() == clientIds.size(),
+        "Expected a client ID for each key");
+    List<OMRequest> requests = new ArrayList<>(args.size());
+    for (int i = 0; i < args.size(); i++) {
+      requests.add(updateKeyRequest(args.get(i), clientIds.get(i), false));
+    }
+    List<OmBatchResult<Void>> results = new ArrayList<>(args.size());
+    for (OMResponse response : submitBatchWriteRequest(requests)) {
+      results.add(response.getStatus() == OK
+          ? OmBatchResult.success(null)
+          : OmBatchResult.failure(toOMException(response)));
+    }
+    return results;
+  }
+
   public static void setReplicationConfig(ReplicationConfig replication,
       KeyArgs.Builder b) {
     if (replication == null) {
@@ -801,6 +912,11 @@ public static void setReplicationConfig(ReplicationConfig replication,
 
   private void updateKey(OmKeyArgs args, long clientId, boolean hsync)
       throws IOException {
+    handleError(submitRequest(updateKeyRequest(args, clientId, hsync)));
+  }
+
+  private OMRequest updateKeyRequest(OmKeyArgs args, long clientId,
+      boolean hsync) {
     CommitKeyRequest.Builder req = CommitKeyRequest.newBuilder();
     List<OmKeyLocationInfo> locationInfoList = args.getLocationInfoList();
     Preconditions.checkNotNull(locationInfoList);
@@ -821,14 +937,9 @@ private void updateKey(OmKeyArgs args, long clientId, boolean hsync)
     req.setClientID(clientId);
     req.setHsync(hsync);
 
-
-    OMRequest omRequest = createOMRequest(Type.CommitKey)
+    return createOMRequest(Type.CommitKey)
         .setCommitKeyRequest(req)
         .build();
-
-    handleError(submitRequest(omRequest));
-
-
   }
 
   @Override
@@ -850,19 +961,78 @@ public OmKeyInfo lookupKey(OmKeyArgs args) throws IOException {
   public KeyInfoWithVolumeContext getKeyInfo(OmKeyArgs args,
                                              boolean assumeS3Context)
       throws IOException {
+    return toKeyInfoWithVolumeContext(handleError(submitRequest(
+        getKeyInfoRequest(args, assumeS3Context))));
+  }
+
+  @Override
+  public CompletableFuture<KeyInfoWithVolumeContext> getKeyInfoAsync(
+      OmKeyArgs args, boolean assumeS3Context) {
+    return submitRequestAsync(getKeyInfoRequest(args, assumeS3Context),
+        OzoneManagerProtocolClientSideTranslatorPB::toKeyInfoWithVolumeContext);
+  }
+
+  private OMRequest getKeyInfoRequest(OmKeyArgs args,
+      boolean assumeS3Context) {
     GetKeyInfoRequest.Builder req = GetKeyInfoRequest.newBuilder();
     req.setKeyArgs(args.toProtobuf());
     req.setAssumeS3Context(assumeS3Context);
 
-    OMRequest omRequest = createOMRequest(Type.GetKeyInfo)
+    return createOMRequest(Type.GetKeyInfo)
         .setGetKeyInfoRequest(req)
         .build();
+  }
 
-    GetKeyInfoResponse resp =
-        handleError(submitRequest(omRequest)).getGetKeyInfoResponse();
+  private static KeyInfoWithVolumeContext toKeyInfoWithVolumeContext(
+      OMResponse response) throws IOException {
+    GetKeyInfoResponse resp = response.getGetKeyInfoResponse();
     return KeyInfoWithVolumeContext.fromProtobuf(resp);
   }
 
+  @Override
+  public List<OmBatchResult<OmKeyInfo>> lookupKeys(List<OmKeyArgs> args)
+      throws IOException {
+    return toLookupKeysResults(
+        handleError(submitRequest(lookupKeysRequest(args))), args.size());
+  }
+
+  @Override
+  public CompletableFuture<List<OmBatchResult<OmKeyInfo>>> lookupKeysAsync(
+      List<OmKeyArgs> args) {
+    return submitRequestAsync(lookupKeysRequest(args),
+        response -> toLookupKeysResults(response, args.size()));
+  }
+
+  private OMRequest lookupKeysRequest(List<OmKeyArgs> args) {
+    LookupKeysRequest.Builder req = LookupKeysRequest.newBuilder();
+    for (OmKeyArgs keyArgs : args) {
+      req.addKeyArgs(keyArgs.toProtobuf());
+    }
+
+    return createOMRequest(Type.LookupKeys)
+        .setLookupKeysRequest(req)
+        .build();
+  }
+
+  private static List<OmBatchResult<OmKeyInfo>> toLookupKeysResults(
+      OMResponse response, int expected) throws IOException {
+    List<LookupKeyResult> resp =
+        response.getLookupKeysResponse().getResultsList();
+    if (resp.size() != expected) {
+      throw new OMException("Expected " + expected + " results, " +
+          "but got " + resp.size(), ResultCodes.INTERNAL_ERROR);
+    }
+    List<OmBatchResult<OmKeyInfo>> results = new ArrayList<>(expected);
+    for (LookupKeyResult result : resp) {
+      results.add(result.getStatus() == OK
+          ? OmBatchResult.success(
+              OmKeyInfo.getFromProtobuf(result.getKeyInfo()))
+          : OmBatchResult.failure(new OMException(result.getMessage(),
+              ResultCodes.values()[result.getStatus().ordinal()])));
+    }
+    return results;
+  }
+
   @Override
   @Deprecated
   public void renameKeys(OmRenameKeys omRenameKeys) throws IOException {
@@ -1991,6 +2161,17 @@ public S3Auth getThreadLocalS3Auth() {
    */
   @Override
   public OzoneFileStatus getFileStatus(OmKeyArgs args) throws IOException {
+    return toFileStatus(handleError(submitRequest(getFileStatusRequest(args))));
+  }
+
+  @Override
+  public CompletableFuture<OzoneFileStatus> getFileStatusAsync(
+      OmKeyArgs args) {
+    return submitRequestAsync(getFileStatusRequest(args),
+        OzoneManagerProtocolClientSideTranslatorPB::toFileStatus);
+  }
+
+  private OMRequest getFileStatusRequest(OmKeyArgs args) {
     KeyArgs keyArgs = KeyArgs.newBuilder()
         .setVolumeName(args.getVolumeName())
         .setBucketName(args.getBucketName())
@@ -2003,16 +2184,14 @@ public OzoneFileStatus getFileStatus(OmKeyArgs args) throws IOException {
             .setKeyArgs(keyArgs)
             .build();
 
-    OMRequest omRequest = createOMRequest(Type.GetFileStatus)
+    return createOMRequest(Type.GetFileStatus)
         .setGetFileStatusRequest(req)
         .build();
+  }
 
-    final GetFileStatusResponse resp;
-    try {
-      resp = handleError(submitRequest(omRequest)).getGetFileStatusResponse();
-    } catch (IOException e) {
-      throw e;
-    }
+  private static OzoneFileStatus toFileStatus(OMResponse response)
+      throws IOException {
+    GetFileStatusResponse resp = response.getGetFileStatusResponse();
     return OzoneFileStatus.getFromProtobuf(resp.getStatus());
   }
 
@@ -2249,6 +2428,42 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
     return statusList;
   }
 
+  @Override
+  public ListStatusResult listStatusPage(OmKeyArgs args, String startKey,
+      long numEntries, String continuationToken) throws IOException {
+    KeyArgs keyArgs = KeyArgs.newBuilder()
+        .setVolumeName(args.getVolumeName())
+        .setBucketName(args.getBucketName())
+        .setKeyName(args.getKeyName())
+        .setSortDatanodes(args.getSortDatanodes())
+        .setLatestVersionLocation(args.getLatestVersionLocation())
+        .build();
+    ListStatusRequest listStatusRequest = ListStatusRequest.newBuilder()
+        .setKeyArgs(keyArgs)
+        .setRecursive(false)
+        .setStartKey(startKey)
+        .setNumEntries(numEntries)
+        .setContinuationToken(
+            continuationToken == null ? "" : continuationToken)
+        .build();
+
+    OMRequest omRequest = createOMRequest(Type.ListStatus)
+        .setListStatusRequest(listStatusRequest)
+        .build();
+    ListStatusResponse listStatusResponse =
+        handleError(submitRequest(omRequest)).getListStatusResponse();
+    List<OzoneFileStatus> statusList =
+        new ArrayList<>(listStatusResponse.getStatusesCount());
+    for (OzoneFileStatusProto fileStatus : listStatusResponse
+        .getStatusesList()) {
+      statusList.add(OzoneFileStatus.getFromProtobuf(fileStatus));
+    }
+    // OMs not supporting cursors ignore the request field
+    return new ListStatusResult(statusList,
+        listStatusResponse.hasContinuationToken()
+            ? listStatusResponse.getContinuationToken() : null);
+  }
+
   @Override
   public List<OzoneFileStatusLight> listStatusLight(OmKeyArgs args,
       boolean recursive, String startKey, long numEntries,
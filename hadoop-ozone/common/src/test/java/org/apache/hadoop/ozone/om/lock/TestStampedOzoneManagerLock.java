@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.lock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STAMPED_LOCK_ENABLED;
+import static org.apache.hadoop.ozone.OzoneConfigKeys.OZONE_MANAGER_STRIPED_LOCK_SIZE_PREFIX;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.BUCKET_LOCK;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.USER_LOCK;
+import static org.apache.hadoop.ozone.om.lock.OzoneManagerLock.Resource.VOLUME_LOCK;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link StampedOzoneManagerLock}.
+ */
+@Timeout(300)
+public class TestStampedOzoneManagerLock {
+
+  private StampedOzoneManagerLock lock;
+
+  @BeforeEach
+  public void setup() {
+    lock = new StampedOzoneManagerLock(new OzoneConfiguration());
+  }
+
+  @AfterEach
+  public void cleanup() {
+    lock.cleanup();
+  }
+
+  @Test
+  public void testCreate() {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    IOzoneManagerLock defaultLock = IOzoneManagerLock.create(conf);
+    assertInstanceOf(OzoneManagerLock.class, defaultLock);
+    defaultLock.cleanup();
+
+    conf.setBoolean(OZONE_MANAGER_STAMPED_LOCK_ENABLED, true);
+    IOzoneManagerLock stampedLock = IOzoneManagerLock.create(conf);
+    assertInstanceOf(StampedOzoneManagerLock.class, stampedLock);
+    stampedLock.cleanup();
+  }
+
+  @Test
+  public void testHash() {
+    assertEquals(StampedOzoneManagerLock.hash("vol", "bucket"),
+        StampedOzoneManagerLock.hash(new String("vol"), "buck" + "et"));
+    assertNotEquals(StampedOzoneManagerLock.hash("vol", "bucket"),
+        StampedOzoneManagerLock.hash("bucket", "vol"));
+    assertNotEquals(StampedOzoneManagerLock.hash("vol"),
+        StampedOzoneManagerLock.hash("vol", ""));
+  }
+
+  @Test
+  public void testReentrantLock() {
+    assertTrue(lock.acquireWriteLock(BUCKET_LOCK, "vol", "bucket")
+        .isLockAcquired());
+    lock.acquireWriteLock(BUCKET_LOCK, "vol", "bucket");
+    lock.acquireReadLock(BUCKET_LOCK, "vol", "bucket");
+    assertEquals(2, lock.getWriteHoldCount(BUCKET_LOCK, "vol", "bucket"));
+    assertEquals(1, lock.getReadHoldCount(BUCKET_LOCK, "vol", "bucket"));
+    assertTrue(lock.isWriteLockedByCurrentThread(BUCKET_LOCK, "vol",
+        "bucket"));
+
+    lock.releaseWriteLock(BUCKET_LOCK, "vol", "bucket");
+    lock.releaseWriteLock(BUCKET_LOCK, "vol", "bucket");
+    // still exclusive until the read hold is released as well
+    assertTrue(lock.isWriteLockedByCurrentThread(BUCKET_LOCK, "vol",
+        "bucket"));
+    lock.releaseReadLock(BUCKET_LOCK, "vol", "bucket");
+    assertFalse(lock.isWriteLockedByCurrentThread(BUCKET_LOCK, "vol",
+        "bucket"));
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, "vol", "bucket"));
+  }
+
+  @Test
+  public void testLockHierarchy() {
+    lock.acquireWriteLock(USER_LOCK, "user");
+    RuntimeException ex = assertThrows(RuntimeException.class,
+        () -> lock.acquireReadLock(VOLUME_LOCK, "vol"));
+    assertTrue(ex.getMessage().contains("cannot acquire VOLUME_LOCK lock " +
+        "while holding [USER_LOCK] lock(s)."), ex.getMessage());
+    ex = assertThrows(RuntimeException.class,
+        () -> lock.acquireWriteLock(USER_LOCK, "user"));
+    assertTrue(ex.getMessage().contains("cannot acquire USER_LOCK lock " +
+        "while holding [USER_LOCK] lock(s)."), ex.getMessage());
+    lock.releaseWriteLock(USER_LOCK, "user");
+
+    for (Resource resource : Resource.values()) {
+      lock.acquireWriteLock(resource, "name");
+      lock.releaseWriteLock(resource, "name");
+    }
+  }
+
+  @Test
+  public void testWriteLockWhileHoldingReadLock() {
+    lock.acquireReadLock(BUCKET_LOCK, "vol", "bucket");
+    assertThrows(RuntimeException.class,
+        () -> lock.acquireWriteLock(BUCKET_LOCK, "vol", "bucket"));
+    lock.releaseReadLock(BUCKET_LOCK, "vol", "bucket");
+  }
+
+  @Test
+  public void testWriteLockOnStripeOfReadLock() throws Exception {
+    OzoneConfiguration conf = new OzoneConfiguration();
+    conf.setInt(OZONE_MANAGER_STRIPED_LOCK_SIZE_PREFIX + "bucket_lock", 2);
+    lock.cleanup();
+    lock = new StampedOzoneManagerLock(conf);
+    // another bucket sharing the stripe of "bucket"
+    int i = 0;
+    while (((StampedOzoneManagerLock.hash("vol", "bucket") ^
+        StampedOzoneManagerLock.hash("vol", "bucket" + i)) & 1) != 0) {
+      i++;
+    }
+    final String other = "bucket" + i;
+
+    lock.acquireReadLock(BUCKET_LOCK, "vol", "bucket");
+    lock.acquireWriteLock(BUCKET_LOCK, "vol", other);
+    assertTrue(lock.isWriteLockedByCurrentThread(BUCKET_LOCK, "vol", other));
+    assertEquals(1, lock.getReadHoldCount(BUCKET_LOCK, "vol", "bucket"));
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, "vol", other));
+    assertThrows(IllegalMonitorStateException.class,
+        () -> lock.releaseReadLock(BUCKET_LOCK, "vol", other));
+    lock.releaseWriteLock(BUCKET_LOCK, "vol", other);
+    lock.releaseReadLock(BUCKET_LOCK, "vol", "bucket");
+    assertFalse(lock.isWriteLockedByCurrentThread(BUCKET_LOCK, "vol",
+        "bucket"));
+
+    // the write lock waits for readers of the stripe in other threads
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      CountDownLatch readLocked = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      Future<?> reader = executor.submit(() -> {
+        lock.acquireReadLock(BUCKET_LOCK, "vol", "bucket");
+        readLocked.countDown();
+        release.await();
+        lock.releaseReadLock(BUCKET_LOCK, "vol", "bucket");
+        return null;
+      });
+      readLocked.await();
+      Future<?> writer = executor.submit(() -> {
+        lock.acquireReadLock(BUCKET_LOCK, "vol", "bucket");
+        lock.acquireWriteLock(BUCKET_LOCK, "vol", other);
+        lock.releaseWriteLock(BUCKET_LOCK, "vol", other);
+        lock.releaseReadLock(BUCKET_LOCK, "vol", "bucket");
+        return null;
+      });
+      Thread.sleep(100);
+      assertFalse(writer.isDone());
+      release.countDown();
+      reader.get(10, TimeUnit.SECONDS);
+      writer.get(10, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testReleaseWithoutAcquire() {
+    assertThrows(IllegalMonitorStateException.class,
+        () -> lock.releaseWriteLock(USER_LOCK, "user"));
+    lock.acquireReadLock(BUCKET_LOCK, "vol", "bucket");
+    assertThrows(IllegalMonitorStateException.class,
+        () -> lock.releaseWriteLock(BUCKET_LOCK, "vol", "bucket"));
+    lock.releaseReadLock(BUCKET_LOCK, "vol", "bucket");
+  }
+
+  @Test
+  public void testWriteLockIsExclusive() throws Exception {
+    lock.acquireWriteLock(BUCKET_LOCK, "vol", "bucket");
+    CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+      lock.acquireReadLock(BUCKET_LOCK, "vol", "bucket");
+      lock.releaseReadLock(BUCKET_LOCK, "vol", "bucket");
+    });
+    Thread.sleep(100);
+    assertFalse(reader.isDone());
+    lock.releaseWriteLock(BUCKET_LOCK, "vol", "bucket");
+    reader.get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void testMultiUserLock() throws Exception {
+    assertTrue(lock.acquireMultiUserLock("user1", "user2"));
+    CompletableFuture<Void> other = CompletableFuture.runAsync(() -> {
+      lock.acquireWriteLock(USER_LOCK, "user2");
+      lock.releaseWriteLock(USER_LOCK, "user2");
+    });
+    Thread.sleep(100);
+    assertFalse(other.isDone());
+    lock.releaseMultiUserLock("user1", "user2");
+    other.get(10, TimeUnit.SECONDS);
+
+    // both users may share a stripe
+    lock.acquireMultiUserLock("user1", "user1");
+    lock.releaseMultiUserLock("user1", "user1");
+    assertEquals(0, lock.getWriteHoldCount(USER_LOCK, "user1"));
+  }
+
+  @Test
+  public void testOptimisticRead() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    assertEquals("value", lock.readOptimistically(BUCKET_LOCK, () -> {
+      runs.incrementAndGet();
+      // no lock is held while running optimistically
+      assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, "vol", "bucket"));
+      return "value";
+    }, "vol", "bucket"));
+    assertEquals(1, runs.get());
+
+    // a writer interfering forces a second run under the read lock
+    runs.set(0);
+    assertEquals("second", lock.readOptimistically(BUCKET_LOCK, () -> {
+      if (runs.incrementAndGet() == 1) {
+        CompletableFuture.runAsync(() -> {
+          lock.acquireWriteLock(BUCKET_LOCK, "vol", "bucket");
+          lock.releaseWriteLock(BUCKET_LOCK, "vol", "bucket");
+        }).join();
+        return "first";
+      }
+      assertEquals(1, lock.getReadHoldCount(BUCKET_LOCK, "vol", "bucket"));
+      return "second";
+    }, "vol", "bucket"));
+    assertEquals(2, runs.get());
+    assertEquals(0, lock.getReadHoldCount(BUCKET_LOCK, "vol", "bucket"));
+
+    // exceptions are propagated if no writer interfered
+    assertThrows(IllegalStateException.class,
+        () -> lock.readOptimistically(BUCKET_LOCK, () -> {
+          throw new IllegalStateException();
+        }, "vol", "bucket"));
+  }
+
+  @Test
+  public void testOptimisticReadWaitsForWriter() throws Exception {
+    lock.acquireWriteLock(BUCKET_LOCK, "vol", "bucket");
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<String> reader = CompletableFuture.supplyAsync(() -> {
+      started.countDown();
+      return lock.readOptimistically(BUCKET_LOCK, () -> "value",
+          "vol", "bucket");
+    });
+    started.await();
+    Thread.sleep(100);
+    assertFalse(reader.isDone());
+    lock.releaseWriteLock(BUCKET_LOCK, "vol", "bucket");
+    assertEquals("value", reader.get(10, TimeUnit.SECONDS));
+
+    // the write lock holder itself can read
+    lock.acquireWriteLock(BUCKET_LOCK, "vol", "bucket");
+    assertEquals("value", lock.readOptimistically(BUCKET_LOCK,
+        () -> "value", "vol", "bucket"));
+    lock.releaseWriteLock(BUCKET_LOCK, "vol", "bucket");
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.om.protocolPB;
+
+import com.google.protobuf.ServiceException;
+import org.apache.hadoop.io.retry.FailoverProxyProvider.ProxyInfo;
+import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
+import org.apache.hadoop.ozone.om.ha.HadoopRpcOMFailoverProxyProvider;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.ozone.test.TestClock;
+import org.apache.ratis.protocol.RaftPeerId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests follower reads of {@link Hadoop3OmTransport}.
+ */
+public class TestHadoop3OmTransport {
+
+  private static final List<String> OM_NODE_IDS =
+      Arrays.asList("om1", "om2", "om3");
+
+  private HadoopRpcOMFailoverProxyProvider proxyProvider;
+  private OzoneManagerProtocolPB leader;
+  private final Map<String, OzoneManagerProtocolPB> proxies = new HashMap<>();
+  private TestClock clock;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    proxyProvider = mock(HadoopRpcOMFailoverProxyProvider.class);
+    when(proxyProvider.getOMNodeIds()).thenReturn(OM_NODE_IDS);
+    for (String nodeId : OM_NODE_IDS) {
+      OzoneManagerProtocolPB proxy = mock(OzoneManagerProtocolPB.class);
+      when(proxy.submitRequest(any(), any())).thenReturn(response(0));
+      doReturn(new ProxyInfo<>(proxy, nodeId))
+          .when(proxyProvider).getProxy(nodeId);
+      proxies.put(nodeId, proxy);
+    }
+    leader = mock(OzoneManagerProtocolPB.class);
+    when(leader.submitRequest(any(), any())).thenReturn(response(0));
+    clock = TestClock.newInstance();
+  }
+
+  @Test
+  public void testFollowerReadsRoundRobin() throws Exception {
+    Hadoop3OmTransport transport = newTransport(true);
+
+    for (int i = 0; i < 2 * OM_NODE_IDS.size(); i++) {
+      transport.submitRequest(readRequest());
+    }
+
+    for (String nodeId : OM_NODE_IDS) {
+      verify(proxies.get(nodeId), times(2)).submitRequest(any(), any());
+    }
+    verify(leader, never()).submitRequest(any(), any());
+  }
+
+  @Test
+  public void testWritesAndDisabledFollowerReadsGoToLeader()
+      throws Exception {
+    newTransport(true).submitRequest(writeRequest());
+    newTransport(false).submitRequest(readRequest());
+
+    verify(leader, times(2)).submitRequest(any(), any());
+    for (OzoneManagerProtocolPB proxy : proxies.values()) {
+      verify(proxy, never()).submitRequest(any(), any());
+    }
+  }
+
+  /**
+   * Test that a read rejected by a follower is sent to the leader, and that
+   * the follower is skipped for 10 seconds.
+   */
+  @Test
+  public void testFailedFollowerIsExcluded() throws Exception {
+    OzoneManagerProtocolPB om2 = proxies.get("om2");
+    when(om2.submitRequest(any(), any())).thenThrow(new ServiceException(
+        new OMNotLeaderException(RaftPeerId.valueOf("om2"))));
+    Hadoop3OmTransport transport = newTransport(true);
+
+    // om1, then om2 which fails and is retried on the leader
+    transport.submitRequest(readRequest());
+    transport.submitRequest(readRequest());
+    verify(om2, times(1)).submitRequest(any(), any());
+    verify(leader, times(1)).submitRequest(any(), any());
+
+    for (int i = 0; i < 4; i++) {
+      transport.submitRequest(readRequest());
+    }
+    clock.fastForward(Duration.ofSeconds(9));
+    for (int i = 0; i < 4; i++) {
+      transport.submitRequest(readRequest());
+    }
+    verify(om2, times(1)).submitRequest(any(), any());
+    verify(leader, times(1)).submitRequest(any(), any());
+
+    // om2 is tried again, fails again and the read is sent to the leader
+    clock.fastForward(Duration.ofSeconds(1));
+    for (int i = 0; i < OM_NODE_IDS.size(); i++) {
+      transport.submitRequest(readRequest());
+    }
+    verify(om2, times(2)).submitRequest(any(), any());
+    verify(leader, times(2)).submitRequest(any(), any());
+  }
+
+  /**
+   * Test that follower reads require the highest applied index seen by the
+   * client, so that they reflect the earlier writes and reads of the client.
+   */
+  @Test
+  public void testFollowerReadMinIndex() throws Exception {
+    when(leader.submitRequest(any(), any())).thenReturn(response(42));
+    when(proxies.get("om1").submitRequest(any(), any()))
+        .thenReturn(response(50));
+    when(proxies.get("om2").submitRequest(any(), any()))
+        .thenReturn(response(45));
+    Hadoop3OmTransport transport = newTransport(true);
+
+    transport.submitRequest(writeRequest());
+    transport.submitRequest(readRequest());
+    transport.submitRequest(readRequest());
+    transport.submitRequest(readRequest());
+
+    assertEquals(42, getFollowerReadMinIndex("om1"));
+    assertEquals(50, getFollowerReadMinIndex("om2"));
+    assertEquals(50, getFollowerReadMinIndex("om3"));
+
+    ArgumentCaptor<OMRequest> captor = ArgumentCaptor.forClass(OMRequest.class);
+    verify(leader).submitRequest(any(), captor.capture());
+    assertFalse(captor.getValue().hasFollowerReadMinIndex());
+  }
+
+  private long getFollowerReadMinIndex(String nodeId)
+      throws ServiceException {
+    ArgumentCaptor<OMRequest> captor = ArgumentCaptor.forClass(OMRequest.class);
+    verify(proxies.get(nodeId)).submitRequest(any(), captor.capture());
+    return captor.getValue().getFollowerReadMinIndex();
+  }
+
+  private Hadoop3OmTransport newTransport(boolean followerRead) {
+    return new Hadoop3OmTransport(proxyProvider, leader, followerRead, clock);
+  }
+
+  private static OMRequest readRequest() {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.LookupKey)
+        .setClientId("client")
+        .build();
+  }
+
+  private static OMRequest writeRequest() {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.DeleteKey)
+        .setClientId("client")
+        .build();
+  }
+
+  private static OMResponse response(long appliedIndex) {
+    return OMResponse.newBuilder()
+        .setCmdType(Type.LookupKey)
+        .setStatus(Status.OK)
+        .setSuccess(true)
+        .setAppliedIndex(appliedIndex)
+        .build();
+  }
+}
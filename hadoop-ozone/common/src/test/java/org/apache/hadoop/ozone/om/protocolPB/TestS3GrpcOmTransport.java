@@ -43,6 +43,10 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import com.google.protobuf.ServiceException;
 import org.apache.ratis.protocol.RaftPeerId;
@@ -194,6 +198,56 @@ public void testGrpcFailoverProxy() throws Exception {
     Assertions.assertEquals(resp.getLeaderOMNodeId(), leaderOMNodeId);
   }
 
+  @Test
+  public void testSubmitRequestAsync() throws Exception {
+    ServiceListRequest req = ServiceListRequest.newBuilder().build();
+
+    final OMRequest omRequest = OMRequest.newBuilder()
+        .setCmdType(Type.ServiceList)
+        .setVersion(CURRENT_VERSION)
+        .setClientId("test")
+        .setServiceListRequest(req)
+        .build();
+
+    conf.setInt("ozone.om.grpc.client.max.in.flight.requests", 2);
+    client = new GrpcOmTransport(conf, ugi, omServiceId);
+    client.startClient(channel);
+
+    // the first request is failed over and retried
+    doFailover = true;
+    List<CompletableFuture<OMResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      futures.add(client.submitRequestAsync(omRequest));
+    }
+    for (CompletableFuture<OMResponse> future : futures) {
+      final OMResponse resp = future.get();
+      Assertions.assertEquals(resp.getStatus(), org.apache.hadoop.ozone
+          .protocol.proto.OzoneManagerProtocolProtos.Status.OK);
+      Assertions.assertEquals(resp.getLeaderOMNodeId(), leaderOMNodeId);
+    }
+  }
+
+  @Test
+  public void testSubmitRequestAsyncExhaustRetry() throws Exception {
+    ServiceListRequest req = ServiceListRequest.newBuilder().build();
+
+    final OMRequest omRequest = OMRequest.newBuilder()
+        .setCmdType(Type.ServiceList)
+        .setVersion(CURRENT_VERSION)
+        .setClientId("test")
+        .setServiceListRequest(req)
+        .build();
+
+    conf.setInt(OzoneConfigKeys.OZONE_CLIENT_FAILOVER_MAX_ATTEMPTS_KEY, 0);
+    client = new GrpcOmTransport(conf, ugi, omServiceId);
+    client.startClient(channel);
+
+    doFailover = true;
+    ExecutionException e = Assertions.assertThrows(ExecutionException.class,
+        () -> client.submitRequestAsync(omRequest).get());
+    Assertions.assertTrue(e.getCause() instanceof IOException);
+  }
+
   @Test
   public void testGrpcFailoverProxyExhaustRetry() throws Exception {
     ServiceListRequest req = ServiceListRequest.newBuilder().build();
@@ -23,10 +23,12 @@
 import org.apache.hadoop.ozone.OzoneTestUtils;
 import org.apache.hadoop.ozone.client.ObjectStore;
 import org.apache.hadoop.ozone.client.OzoneBucket;
+import org.apache.hadoop.ozone.client.OzoneKeyDetails;
 import org.apache.hadoop.ozone.client.BucketArgs;
 import org.apache.hadoop.ozone.client.OzoneVolume;
 import org.apache.hadoop.ozone.client.OzoneClient;
 import org.apache.hadoop.ozone.client.VolumeArgs;
+import org.apache.hadoop.ozone.client.io.OzoneInputStream;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.ha.HadoopRpcOMFailoverProxyProvider;
 import org.apache.hadoop.ozone.om.ha.OMProxyInfo;
@@ -60,8 +62,11 @@
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.UUID.randomUUID;
 import static org.apache.hadoop.ozone.OzoneAcl.AclScope.ACCESS;
 import static org.apache.hadoop.ozone.OzoneAcl.AclScope.DEFAULT;
@@ -73,6 +78,7 @@
 import static org.apache.hadoop.ozone.security.acl.IAccessAuthorizer.ACLType.READ;
 import static org.apache.hadoop.ozone.security.acl.IAccessAuthorizer.ACLType.WRITE;
 import static org.apache.ratis.metrics.RatisMetrics.RATIS_APPLICATION_NAME_METRICS;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -152,6 +158,28 @@ void testKeysDelete() throws Exception {
     assertEquals(PARTIAL_DELETE, ex.getResult());
   }
 
+  @Test
+  void testCreateKeys() throws Exception {
+    OzoneBucket ozoneBucket = setupBucket();
+    Map<String, byte[]> keys = new HashMap<>();
+    for (int i = 0; i < 20; i++) {
+      keys.put("batch/key" + i, ("random data " + i).getBytes(UTF_8));
+    }
+
+    Map<String, IOException> failures = ozoneBucket.createKeys(keys);
+    assertTrue(failures.isEmpty(), failures::toString);
+
+    for (Map.Entry<String, byte[]> entry : keys.entrySet()) {
+      OzoneKeyDetails key = ozoneBucket.getKey(entry.getKey());
+      assertEquals(entry.getValue().length, key.getDataSize());
+      try (OzoneInputStream in = ozoneBucket.readKey(entry.getKey())) {
+        byte[] content = new byte[entry.getValue().length];
+        assertEquals(content.length, in.read(content));
+        assertArrayEquals(entry.getValue(), content);
+      }
+    }
+  }
+
   @Test
   void testFileOperationsWithNonRecursive() throws Exception {
     OzoneBucket ozoneBucket = setupBucket();
@@ -74,20 +74,16 @@ public OmBucketInfo getBucketInfo(String volumeName, String bucketName)
       throws IOException {
     Preconditions.checkNotNull(volumeName);
     Preconditions.checkNotNull(bucketName);
-    metadataManager.getLock().acquireReadLock(BUCKET_LOCK, volumeName,
-        bucketName);
     try {
-      return OzoneManagerUtils.getBucketInfo(metadataManager,
-          volumeName, bucketName);
+      return metadataManager.getLock().readOptimistically(BUCKET_LOCK,
+          () -> OzoneManagerUtils.getBucketInfo(metadataManager,
+              volumeName, bucketName), volumeName, bucketName);
     } catch (IOException ex) {
       if (!(ex instanceof OMException)) {
         LOG.error("Exception while getting bucket info for bucket: {}",
             bucketName, ex);
       }
       throw ex;
-    } finally {
-      metadataManager.getLock().releaseReadLock(BUCKET_LOCK, volumeName,
-          bucketName);
     }
   }
 
@@ -62,6 +62,7 @@
 import org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes;
 import org.apache.hadoop.ozone.om.helpers.BucketEncryptionKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
@@ -181,6 +182,7 @@ public class KeyManagerImpl implements KeyManager {
 
   private BackgroundService openKeyCleanupService;
   private BackgroundService multipartUploadCleanupService;
+  private ListStatusCursorCache listStatusCursors;
 
   public KeyManagerImpl(OzoneManager om, ScmClient scmClient,
       OzoneConfiguration conf, OMPerformanceMetrics metrics) {
@@ -216,6 +218,10 @@ public KeyManagerImpl(OzoneManager om, ScmClient scmClient,
 
   @Override
   public void start(OzoneConfiguration configuration) {
+    if (listStatusCursors == null) {
+      listStatusCursors = new ListStatusCursorCache(configuration);
+    }
+
     if (keyDeletingService == null) {
       long blockDeleteInterval = configuration.getTimeDuration(
           OZONE_BLOCK_DELETING_SERVICE_INTERVAL,
@@ -346,6 +352,10 @@ public void stop() throws IOException {
       multipartUploadCleanupService.shutdown();
       multipartUploadCleanupService = null;
     }
+    if (listStatusCursors != null) {
+      listStatusCursors.close();
+      listStatusCursors = null;
+    }
   }
 
   private OmBucketInfo getBucketInfo(String volumeName, String bucketName)
@@ -410,26 +420,25 @@ private OmKeyInfo readKeyInfo(OmKeyArgs args, BucketLayout bucketLayout)
       throws IOException {
     String volumeName = args.getVolumeName();
     String bucketName = args.getBucketName();
-    String keyName = args.getKeyName();
-    OmKeyInfo value = null;
+    final String keyName = OMClientRequest.validateAndNormalizeKey(
+        enableFileSystemPaths, args.getKeyName(), bucketLayout);
+    final OmKeyInfo value;
 
-    metadataManager.getLock().acquireReadLock(BUCKET_LOCK, volumeName,
-        bucketName);
     try {
-      keyName = OMClientRequest
-          .validateAndNormalizeKey(enableFileSystemPaths, keyName,
-              bucketLayout);
-
-      if (bucketLayout.isFileSystemOptimized()) {
-        value = getOmKeyInfoFSO(volumeName, bucketName, keyName);
-      } else {
-        value = getOmKeyInfo(volumeName, bucketName, keyName, bucketLayout);
-        if (value != null) {
-          // For Legacy & OBS buckets, any key is a file by default. This is to
-          // keep getKeyInfo compatible with OFS clients.
-          value.setFile(true);
-        }
-      }
+      value = metadataManager.getLock().readOptimistically(BUCKET_LOCK,
+          () -> {
+            if (bucketLayout.isFileSystemOptimized()) {
+              return getOmKeyInfoFSO(volumeName, bucketName, keyName);
+            }
+            OmKeyInfo keyInfo =
+                getOmKeyInfo(volumeName, bucketName, keyName, bucketLayout);
+            if (keyInfo != null) {
+              // For Legacy & OBS buckets, any key is a file by default. This
+              // is to keep getKeyInfo compatible with OFS clients.
+              keyInfo.setFile(true);
+            }
+            return keyInfo;
+          }, volumeName, bucketName);
     } catch (IOException ex) {
       if (ex instanceof OMException) {
         throw ex;
@@ -438,9 +447,6 @@ private OmKeyInfo readKeyInfo(OmKeyArgs args, BucketLayout bucketLayout)
           format("Error reading key metadata: /%s/%s/%s",
               volumeName, bucketName, keyName),
           ex, INTERNAL_ERROR);
-    } finally {
-      metadataManager.getLock().releaseReadLock(BUCKET_LOCK, volumeName,
-          bucketName);
     }
 
     if (value == null) {
@@ -1530,6 +1536,28 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
         clientAddress, false);
   }
 
+  @Override
+  public ListStatusResult listStatusPage(OmKeyArgs args, String startKey,
+      long numEntries, String clientAddress, String continuationToken)
+      throws IOException {
+    Preconditions.checkNotNull(args, "Key args can not be null");
+    if (numEntries <= 0 || listStatusCursors == null ||
+        !isBucketFSOptimized(args.getVolumeName(), args.getBucketName())) {
+      return new ListStatusResult(
+          listStatus(args, false, startKey, numEntries, clientAddress), null);
+    }
+
+    OzoneListStatusHelper statusHelper =
+        new OzoneListStatusHelper(metadataManager, scmBlockSize,
+            this::getOzoneFileStatusFSO,
+            ozoneManager.getDefaultReplicationConfig());
+    ListStatusResult result = statusHelper.listStatusFSO(args, startKey,
+        numEntries, clientAddress, listStatusCursors, continuationToken);
+    return new ListStatusResult(
+        buildFinalStatusList(result.getStatuses(), args, clientAddress),
+        result.getContinuationToken());
+  }
+
   /**
    * List the status for a file or a directory and its contents.
    *
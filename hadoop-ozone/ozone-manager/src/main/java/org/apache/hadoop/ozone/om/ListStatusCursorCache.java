@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with this
+ * work for additional information regarding copyright ownership.  The ASF
+ * licenses this file to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.apache.hadoop.ozone.om;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.ozone.om.OzoneListStatusHelper.ListStatusCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_LIST_STATUS_CURSOR_LEASE;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_LIST_STATUS_CURSOR_LEASE_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_LIST_STATUS_CURSOR_MAX;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_LIST_STATUS_CURSOR_MAX_DEFAULT;
+
+/**
+ * Keeps the cursors of paginated listStatus calls open between pages.
+ * <p>
+ * A cursor is handed out to a single caller at a time: {@link #take} removes
+ * it from the cache, and it has to be {@link #park parked} again once the
+ * page is read.  Cursors not taken within the lease, or exceeding the max
+ * number of cursors, are closed, releasing the DB iterators they hold.
+ */
+public class ListStatusCursorCache implements Closeable {
+
+  private static final Logger LOG =
+      LoggerFactory.getLogger(ListStatusCursorCache.class);
+
+  private final Cache<String, ListStatusCursor> cursors;
+
+  public ListStatusCursorCache(OzoneConfiguration conf) {
+    this(conf.getTimeDuration(OZONE_OM_LIST_STATUS_CURSOR_LEASE,
+            OZONE_OM_LIST_STATUS_CURSOR_LEASE_DEFAULT, TimeUnit.MILLISECONDS),
+        conf.getInt(OZONE_OM_LIST_STATUS_CURSOR_MAX,
+            OZONE_OM_LIST_STATUS_CURSOR_MAX_DEFAULT));
+  }
+
+  ListStatusCursorCache(long leaseMillis, int maxCursors) {
+    this.cursors = CacheBuilder.newBuilder()
+        .maximumSize(maxCursors)
+        .expireAfterWrite(leaseMillis, TimeUnit.MILLISECONDS)
+        .removalListener(ListStatusCursorCache::onRemoval)
+        .build();
+  }
+
+  private static void onRemoval(
+      RemovalNotification<String, ListStatusCursor> notification) {
+    // explicitly removed cursors are owned by the caller of take()
+    if (notification.getCause() != RemovalCause.EXPLICIT) {
+      LOG.debug("Closing listStatus cursor {}: {}", notification.getKey(),
+          notification.getCause());
+      closeQuietly(notification.getValue());
+    }
+  }
+
+  /**
+   * Keeps the cursor open for the next page.
+   *
+   * @return token to continue the listing with, null if the cursor is not
+   * kept (in which case it is closed).
+   */
+  public String park(ListStatusCursor cursor) {
+    final String token = UUID.randomUUID().toString();
+    cursors.put(token, cursor);
+    // expire cursors whose lease ran out without waiting for more writes
+    cursors.cleanUp();
+    return cursors.getIfPresent(token) != null ? token : null;
+  }
+
+  /**
+   * @return the cursor parked with the token, or null if the token is
+   * unknown or the lease of the cursor expired.
+   */
+  public ListStatusCursor take(String token) {
+    if (token == null || token.isEmpty()) {
+      return null;
+    }
+    // remove() alone would hand out cursors expired but not yet cleaned up
+    cursors.cleanUp();
+    return cursors.asMap().remove(token);
+  }
+
+  public long size() {
+    return cursors.size();
+  }
+
+  @Override
+  public void close() {
+    List<ListStatusCursor> open = new ArrayList<>(cursors.asMap().values());
+    cursors.invalidateAll();
+    open.forEach(ListStatusCursorCache::closeQuietly);
+  }
+
+  private static void closeQuietly(ListStatusCursor cursor) {
+    try {
+      cursor.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close listStatus cursor", e);
+    }
+  }
+}
@@ -25,6 +25,7 @@
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.recon.ReconConfig;
 import org.apache.hadoop.hdds.utils.DBCheckpointServlet;
+import org.apache.hadoop.hdds.utils.SstFileChecksums;
 import org.apache.hadoop.hdds.utils.db.DBCheckpoint;
 import org.apache.hadoop.hdds.utils.db.RDBCheckpointUtils;
 import org.apache.hadoop.hdds.utils.db.Table;
@@ -189,16 +190,19 @@ hardLinkFiles, sstFilesToExclude, includeSnapshotData(request),
    *         Formatted in a manner analogous to the copyFiles data structure
    *         described above.  Because this structure only points to sst files,
    *         the implementation ignores the compactionLog dir, (which doesn't
-   *         include sst files.)
+   *         include sst files.)  Entries with a checksum not matching the
+   *         file on the leader are left out, see {@link SstFileChecksums}.
    */
   @VisibleForTesting
   public static Map<Path, Path> normalizeExcludeList(
       List<String> toExcludeList,
       Path checkpointLocation,
-      DirectoryData sstBackupDir) {
+      DirectoryData sstBackupDir) throws IOException {
     Map<Path, Path> paths = new HashMap<>();
     Path metaDirPath = getMetaDirPath(checkpointLocation);
-    for (String s : toExcludeList) {
+    for (String entry : toExcludeList) {
+      String s = SstFileChecksums.getName(entry);
+      Path srcPath;
       Path destPath = Paths.get(metaDirPath.toString(), s);
       if (destPath.toString().startsWith(
           sstBackupDir.getOriginalDir().toString())) {
@@ -206,14 +210,18 @@ public static Map<Path, Path> normalizeExcludeList(
         // to be adjusted accordingly.
         int truncateLength =
             sstBackupDir.getOriginalDir().toString().length() + 1;
-        Path srcPath = Paths.get(sstBackupDir.getTmpDir().toString(),
+        srcPath = Paths.get(sstBackupDir.getTmpDir().toString(),
             truncateFileName(truncateLength, destPath));
-        paths.put(srcPath, destPath);
       } else if (!s.startsWith(OM_SNAPSHOT_DIR)) {
-        Path fixedPath = Paths.get(checkpointLocation.toString(), s);
-        paths.put(fixedPath, fixedPath);
+        srcPath = Paths.get(checkpointLocation.toString(), s);
+        destPath = srcPath;
+      } else {
+        srcPath = destPath;
+      }
+      if (SstFileChecksums.matches(entry, srcPath)) {
+        paths.put(srcPath, destPath);
       } else {
-        paths.put(destPath, destPath);
+        LOG.debug("Not excluding {}: checksum mismatch", s);
       }
     }
     return paths;
@@ -17,10 +17,13 @@
  */
 package org.apache.hadoop.ozone.om;
 
+import java.util.function.Supplier;
+
 import com.google.common.annotations.VisibleForTesting;
 
 import org.apache.hadoop.hdds.annotation.InterfaceAudience;
 import org.apache.hadoop.hdds.utils.DBCheckpointMetrics;
+import org.apache.hadoop.hdds.utils.db.cache.CacheStats;
 import org.apache.hadoop.metrics2.MetricsSystem;
 import org.apache.hadoop.metrics2.annotation.Metric;
 import org.apache.hadoop.metrics2.annotation.Metrics;
@@ -232,6 +235,9 @@ public class OMMetrics implements OmMetadataReaderMetrics {
 
   private final DBCheckpointMetrics dbCheckpointMetrics;
 
+  private volatile Supplier<CacheStats> keyCacheStats =
+      () -> new CacheStats(0, 0, 0);
+
   public OMMetrics() {
     dbCheckpointMetrics = DBCheckpointMetrics.create("OM Metrics");
   }
@@ -247,6 +253,30 @@ public DBCheckpointMetrics getDBCheckpointMetrics() {
     return dbCheckpointMetrics;
   }
 
+  /**
+   * Set the source of the cache stats of the key, file and directory tables.
+   */
+  public void setKeyCacheStats(Supplier<CacheStats> stats) {
+    keyCacheStats = stats;
+  }
+
+  @Metric("Number of key, file and directory reads served by table caches")
+  public long getNumKeyCacheHits() {
+    return keyCacheStats.get().getCacheHits();
+  }
+
+  @Metric("Number of key, file and directory reads not found in table caches")
+  public long getNumKeyCacheMisses() {
+    return keyCacheStats.get().getCacheMisses();
+  }
+
+  @Metric("Percentage of key, file and directory reads served by table caches")
+  public float getKeyCacheHitRate() {
+    final CacheStats stats = keyCacheStats.get();
+    final long total = stats.getCacheHits() + stats.getCacheMisses();
+    return total == 0 ? 0 : 100f * stats.getCacheHits() / total;
+  }
+
   public void incNumS3BucketCreates() {
     numBucketOps.incr();
     numBucketS3Creates.incr();
@@ -104,6 +104,10 @@ public static void unregister() {
   @Metric(about = "Ratis latency in nano seconds")
   private MutableRate submitToRatisLatencyNs;
 
+  @Metric(about = "Latency of confirming the leadership before linearizable " +
+      "reads in nano seconds")
+  private MutableRate linearizableReadLatencyNs;
+
   @Metric(about = "Convert om request to ratis request nano seconds")
   private MutableRate createRatisRequestLatencyNs;
 
@@ -199,6 +203,10 @@ public MutableRate getSubmitToRatisLatencyNs() {
     return submitToRatisLatencyNs;
   }
 
+  public MutableRate getLinearizableReadLatencyNs() {
+    return linearizableReadLatencyNs;
+  }
+
   public MutableRate getCreateRatisRequestLatencyNs() {
     return createRatisRequestLatencyNs;
   }
@@ -23,8 +23,11 @@
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +44,7 @@
 
 import org.apache.hadoop.hdds.client.BlockID;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.conf.StorageUnit;
 import org.apache.hadoop.hdds.utils.db.DBCheckpoint;
 import org.apache.hadoop.hdds.utils.TableCacheMetrics;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
@@ -52,6 +56,7 @@
 import org.apache.hadoop.hdds.utils.db.Table.KeyValue;
 import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheStats;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
 import org.apache.hadoop.hdds.utils.db.cache.TableCache.CacheType;
 import org.apache.hadoop.ozone.ClientVersion;
@@ -81,7 +86,6 @@
 import org.apache.hadoop.ozone.om.helpers.WithMetadata;
 import org.apache.hadoop.ozone.om.lock.IOzoneManagerLock;
 import org.apache.hadoop.ozone.om.lock.OmReadOnlyLock;
-import org.apache.hadoop.ozone.om.lock.OzoneManagerLock;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.ozone.om.protocolPB.OzoneManagerProtocolClientSideTranslatorPB;
 import org.apache.hadoop.ozone.om.request.util.OMMultipartUploadUtils;
@@ -99,14 +103,20 @@
 import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
+import static org.apache.hadoop.hdds.utils.db.Table.IteratorType.KEY_ONLY;
 import static org.apache.hadoop.ozone.OzoneConsts.DB_TRANSIENT_MARKER;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_DB_NAME;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_FS_SNAPSHOT_MAX_LIMIT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_FS_SNAPSHOT_MAX_LIMIT_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_OFFHEAP_CACHE_TABLES;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SHARDED_CACHE_CAPACITY;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SHARDED_CACHE_CAPACITY_DEFAULT;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SHARDED_CACHE_TABLES;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_SNAPSHOT_CHECKPOINT_DIR_CREATION_POLL_TIMEOUT;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_SNAPSHOT_CHECKPOINT_DIR_CREATION_POLL_TIMEOUT_DEFAULT;
 import static org.apache.hadoop.ozone.om.OmSnapshotManager.getSnapshotPrefix;
+import static org.apache.hadoop.ozone.om.codec.OMDBDefinition.FSO_TABLE_PROFILE;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.BUCKET_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.FILE_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.VOLUME_NOT_FOUND;
@@ -312,6 +322,8 @@ public class OmMetadataManagerImpl implements OMMetadataManager,
   private final long omEpoch;
 
   private Map<String, Table> tableMap = new HashMap<>();
+  private Set<String> offHeapCacheTables = Collections.emptySet();
+  private Set<String> shardedCacheTables = Collections.emptySet();
   private final Map<String, TableCacheMetrics> tableCacheMetricsMap =
       new HashMap<>();
   private SnapshotChainManager snapshotChainManager;
@@ -326,7 +338,7 @@ public class OmMetadataManagerImpl implements OMMetadataManager,
   public OmMetadataManagerImpl(OzoneConfiguration conf,
       OzoneManager ozoneManager) throws IOException {
     this.ozoneManager = ozoneManager;
-    this.lock = new OzoneManagerLock(conf);
+    this.lock = IOzoneManagerLock.create(conf);
     // TODO: This is a temporary check. Once fully implemented, all OM state
     //  change should go through Ratis - be it standalone (for non-HA) or
     //  replicated (for HA).
@@ -345,7 +357,7 @@ public OmMetadataManagerImpl(OzoneConfiguration conf,
    */
   protected OmMetadataManagerImpl() {
     OzoneConfiguration conf = new OzoneConfiguration();
-    this.lock = new OzoneManagerLock(conf);
+    this.lock = IOzoneManagerLock.create(conf);
     this.omEpoch = 0;
   }
 
@@ -557,6 +569,10 @@ public void start(OzoneConfiguration configuration) throws IOException {
 
       this.store = loadDB(configuration, metaDir);
 
+      offHeapCacheTables = new HashSet<>(configuration
+          .getTrimmedStringCollection(OZONE_OM_OFFHEAP_CACHE_TABLES));
+      shardedCacheTables = new HashSet<>(configuration
+          .getTrimmedStringCollection(OZONE_OM_SHARDED_CACHE_TABLES));
       initializeOmTables(true);
     }
 
@@ -598,7 +614,10 @@ public static DBStore loadDB(OzoneConfiguration configuration, File metaDir,
         .setPath(Paths.get(metaDir.getPath()))
         .setMaxFSSnapshots(maxFSSnapshots)
         .setEnableCompactionDag(enableCompactionDag)
-        .setCreateCheckpointDirs(createCheckpointDirs);
+        .setCreateCheckpointDirs(createCheckpointDirs)
+        .setTableCacheCapacity((long) configuration.getStorageSize(
+            OZONE_OM_SHARDED_CACHE_CAPACITY,
+            OZONE_OM_SHARDED_CACHE_CAPACITY_DEFAULT, StorageUnit.BYTES));
     disableAutoCompaction.ifPresent(
             dbStoreBuilder::disableDefaultCFAutoCompaction);
     maxOpenFiles.ifPresent(dbStoreBuilder::setMaxNumberOfOpenFiles);
@@ -617,9 +636,9 @@ public static DBStoreBuilder addOMTablesAndCodecs(DBStoreBuilder builder) {
         .addTable(DELEGATION_TOKEN_TABLE)
         .addTable(S3_SECRET_TABLE)
         .addTable(PREFIX_TABLE)
-        .addTable(DIRECTORY_TABLE)
-        .addTable(FILE_TABLE)
-        .addTable(OPEN_FILE_TABLE)
+        .addTable(DIRECTORY_TABLE, null, FSO_TABLE_PROFILE)
+        .addTable(FILE_TABLE, null, FSO_TABLE_PROFILE)
+        .addTable(OPEN_FILE_TABLE, null, FSO_TABLE_PROFILE)
         .addTable(DELETED_DIR_TABLE)
         .addTable(TRANSACTION_INFO_TABLE)
         .addTable(META_TABLE)
@@ -647,6 +666,42 @@ public static DBStoreBuilder addOMTablesAndCodecs(DBStoreBuilder builder) {
         .addCodec(CompactionLogEntry.class, CompactionLogEntry.getCodec());
   }
 
+  /**
+   * @return the cache type of a fully cached table, according to
+   * {@link OMConfigKeys#OZONE_OM_OFFHEAP_CACHE_TABLES}.
+   */
+  private CacheType getFullCacheType(String tableName) {
+    return offHeapCacheTables.contains(tableName)
+        ? CacheType.OFF_HEAP_FULL_CACHE : CacheType.FULL_CACHE;
+  }
+
+  /**
+   * @return the sum of the cache stats of the key, file and directory tables.
+   */
+  public CacheStats getKeyCacheStats() {
+    long hits = 0;
+    long misses = 0;
+    long iterations = 0;
+    for (Table<?, ?> table : Arrays.asList(keyTable, fileTable, dirTable)) {
+      if (table != null) {
+        final CacheStats stats = table.getCacheStats();
+        hits += stats.getCacheHits();
+        misses += stats.getCacheMisses();
+        iterations += stats.getIterationTimes();
+      }
+    }
+    return new CacheStats(hits, misses, iterations);
+  }
+
+  /**
+   * @return the cache type of a partially cached table, according to
+   * {@link OMConfigKeys#OZONE_OM_SHARDED_CACHE_TABLES}.
+   */
+  private CacheType getPartialCacheType(String tableName) {
+    return shardedCacheTables.contains(tableName)
+        ? CacheType.SHARDED_PARTIAL_CACHE : CacheType.PARTIAL_CACHE;
+  }
+
   /**
    * Initialize OM Tables.
    *
@@ -659,20 +714,19 @@ protected void initializeOmTables(boolean addCacheMetrics)
             PersistedUserVolumeInfo.class);
     checkTableStatus(userTable, USER_TABLE, addCacheMetrics);
 
-    CacheType cacheType = CacheType.FULL_CACHE;
-
     volumeTable =
         this.store.getTable(VOLUME_TABLE, String.class, OmVolumeArgs.class,
-            cacheType);
+            getFullCacheType(VOLUME_TABLE));
     checkTableStatus(volumeTable, VOLUME_TABLE, addCacheMetrics);
 
     bucketTable =
         this.store.getTable(BUCKET_TABLE, String.class, OmBucketInfo.class,
-            cacheType);
+            getFullCacheType(BUCKET_TABLE));
 
     checkTableStatus(bucketTable, BUCKET_TABLE, addCacheMetrics);
 
-    keyTable = this.store.getTable(KEY_TABLE, String.class, OmKeyInfo.class);
+    keyTable = this.store.getTable(KEY_TABLE, String.class, OmKeyInfo.class,
+        getPartialCacheType(KEY_TABLE));
     checkTableStatus(keyTable, KEY_TABLE, addCacheMetrics);
 
     deletedTable = this.store.getTable(DELETED_TABLE, String.class,
@@ -682,7 +736,7 @@ protected void initializeOmTables(boolean addCacheMetrics)
 
     openKeyTable =
         this.store.getTable(OPEN_KEY_TABLE, String.class,
-            OmKeyInfo.class);
+            OmKeyInfo.class, getPartialCacheType(OPEN_KEY_TABLE));
     checkTableStatus(openKeyTable, OPEN_KEY_TABLE, addCacheMetrics);
 
     multipartInfoTable = this.store.getTable(MULTIPARTINFO_TABLE,
@@ -702,15 +756,15 @@ protected void initializeOmTables(boolean addCacheMetrics)
     checkTableStatus(prefixTable, PREFIX_TABLE, addCacheMetrics);
 
     dirTable = this.store.getTable(DIRECTORY_TABLE, String.class,
-            OmDirectoryInfo.class);
+            OmDirectoryInfo.class, getPartialCacheType(DIRECTORY_TABLE));
     checkTableStatus(dirTable, DIRECTORY_TABLE, addCacheMetrics);
 
     fileTable = this.store.getTable(FILE_TABLE, String.class,
-            OmKeyInfo.class);
+            OmKeyInfo.class, getPartialCacheType(FILE_TABLE));
     checkTableStatus(fileTable, FILE_TABLE, addCacheMetrics);
 
     openFileTable = this.store.getTable(OPEN_FILE_TABLE, String.class,
-            OmKeyInfo.class);
+            OmKeyInfo.class, getPartialCacheType(OPEN_FILE_TABLE));
     checkTableStatus(openFileTable, OPEN_FILE_TABLE, addCacheMetrics);
 
     deletedDirTable = this.store.getTable(DELETED_DIR_TABLE, String.class,
@@ -1033,7 +1087,7 @@ private <T> boolean isKeyPresentInTable(String keyPrefix,
                                           Table<String, T> table)
       throws IOException {
     try (TableIterator<String, ? extends KeyValue<String, T>>
-             keyIter = table.iterator()) {
+             keyIter = table.iterator(null, KEY_ONLY)) {
       KeyValue<String, T> kv = keyIter.seek(keyPrefix);
 
       // Iterate through all the entries in the table which start with
@@ -33,6 +33,7 @@
 import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
@@ -74,6 +75,15 @@
  * from a rocksDb instance, for both the OM and OM snapshots.
  */
 public class OmMetadataReader implements IOmMetadataReader, Auditor {
+
+  /**
+   * A listStatus call to the key manager with resolved key args.
+   */
+  @FunctionalInterface
+  private interface ListStatusCall<T> {
+    T apply(OmKeyArgs resolvedArgs, long pageSize) throws IOException;
+  }
+
   private final KeyManager keyManager;
   private final PrefixManager prefixManager;
   private final VolumeManager volumeManager;
@@ -216,6 +226,25 @@ public KeyInfoWithVolumeContext getKeyInfo(final OmKeyArgs args,
   public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
       String startKey, long numEntries, boolean allowPartialPrefixes)
       throws IOException {
+    return listStatus(args, numEntries, (resolvedArgs, pageSize) ->
+        keyManager.listStatus(resolvedArgs, recursive, startKey, pageSize,
+            getClientAddress(), allowPartialPrefixes));
+  }
+
+  @Override
+  public ListStatusResult listStatusPage(OmKeyArgs args, String startKey,
+      long numEntries, String continuationToken) throws IOException {
+    return listStatus(args, numEntries, (resolvedArgs, pageSize) ->
+        keyManager.listStatusPage(resolvedArgs, startKey, pageSize,
+            getClientAddress(), continuationToken));
+  }
+
+  /**
+   * Lists status via the given key manager call, with ACL check, audit
+   * and metrics common to all listStatus variants.
+   */
+  private <T> T listStatus(OmKeyArgs args, long numEntries,
+      ListStatusCall<T> listStatusCall) throws IOException {
 
     long maxListingPageSize = ozoneManager.getConfiguration().getInt(
         OZONE_FS_LISTING_PAGE_SIZE_MAX,
@@ -237,8 +266,7 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
             bucket, args.getKeyName());
       }
       metrics.incNumListStatus();
-      return keyManager.listStatus(args, recursive, startKey,
-          maxListingPageSize, getClientAddress(), allowPartialPrefixes);
+      return listStatusCall.apply(args, maxListingPageSize);
     } catch (Exception ex) {
       metrics.incNumListStatusFails();
       auditSuccess = false;
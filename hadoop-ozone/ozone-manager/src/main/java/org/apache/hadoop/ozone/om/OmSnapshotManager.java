@@ -75,6 +75,7 @@
 
 import javax.annotation.Nonnull;
 
+import static org.apache.hadoop.hdds.utils.db.Table.IteratorType.KEY_ONLY;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_DB_NAME;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.hadoop.hdds.utils.db.DBStoreBuilder.DEFAULT_COLUMN_FAMILY_NAME;
@@ -483,7 +484,8 @@ private static void deleteKeysFromDelDirTableInSnapshotScope(
         volumeName, bucketName);
 
     try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
-         iter = omMetadataManager.getDeletedDirTable().iterator(keyPrefix)) {
+         iter = omMetadataManager.getDeletedDirTable()
+             .iterator(keyPrefix, KEY_ONLY)) {
       performOperationOnKeys(iter,
           entry -> {
             if (LOG.isDebugEnabled()) {
@@ -570,7 +572,8 @@ private static void deleteKeysFromDelKeyTableInSnapshotScope(
 
     try (TableIterator<String,
         ? extends Table.KeyValue<String, RepeatedOmKeyInfo>>
-             iter = omMetadataManager.getDeletedTable().iterator(keyPrefix)) {
+             iter = omMetadataManager.getDeletedTable()
+                 .iterator(keyPrefix, KEY_ONLY)) {
       performOperationOnKeys(iter, entry -> {
         if (LOG.isDebugEnabled()) {
           LOG.debug("Removing key {} from DeletedTable", entry.getKey());
@@ -25,6 +25,7 @@
 import org.apache.hadoop.hdds.utils.db.TableIterator;
 import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
 import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
@@ -44,6 +45,7 @@
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.Map;
@@ -102,10 +104,42 @@ public interface ClosableIterator extends Iterator<HeapEntry>, Closeable {
   public Collection<OzoneFileStatus> listStatusFSO(OmKeyArgs args,
       String startKey, long numEntries, String clientAddress,
       boolean allowPartialPrefixes) throws IOException {
+    return listStatusFSO(args, startKey, numEntries, clientAddress,
+        allowPartialPrefixes, null).getStatuses();
+  }
+
+  /**
+   * Same as {@link #listStatusFSO(OmKeyArgs, String, long, String, boolean)},
+   * but keeps the cursor of the listing open in the given cache if there
+   * are more entries to list.  If the continuation token refers to the
+   * cursor of the previous page ending with startKey, the listing continues
+   * from it instead of seeking the DB for startKey.
+   */
+  public ListStatusResult listStatusFSO(OmKeyArgs args, String startKey,
+      long numEntries, String clientAddress, ListStatusCursorCache cursors,
+      String continuationToken) throws IOException {
+    Preconditions.checkNotNull(args, "Key args can not be null");
+    ListStatusCursor cursor = cursors.take(continuationToken);
+    if (cursor != null) {
+      if (cursor.continuesWith(args, startKey)) {
+        return nextPage(cursor, numEntries, cursors);
+      }
+      LOG.debug("Cursor {} does not continue with startKey {}, seeking",
+          continuationToken, startKey);
+      cursor.close();
+    }
+    return listStatusFSO(args, startKey, numEntries, clientAddress, false,
+        cursors);
+  }
+
+  private ListStatusResult listStatusFSO(OmKeyArgs args, String startKey,
+      long numEntries, String clientAddress, boolean allowPartialPrefixes,
+      ListStatusCursorCache cursors) throws IOException {
     Preconditions.checkNotNull(args, "Key args can not be null");
 
     final String volumeName = args.getVolumeName();
     final String bucketName = args.getBucketName();
+    final String requestKeyName = args.getKeyName();
     String keyName = args.getKeyName();
     String prefixKey = keyName;
 
@@ -124,7 +158,7 @@ public Collection<OzoneFileStatus> listStatusFSO(OmKeyArgs args,
                 "Volume : " + volumeName :
                 "Bucket: " + volumeName + "/" + bucketName));
       }
-      return new ArrayList<>();
+      return emptyResult();
     }
 
     // Determine if the prefixKey is determined from the startKey
@@ -137,7 +171,7 @@ public Collection<OzoneFileStatus> listStatusFSO(OmKeyArgs args,
             LOG.debug("StartKey {} is not an immediate child or not a sibling"
                 + " of keyName {}. Returns empty list", startKey, keyName);
           }
-          return new ArrayList<>();
+          return emptyResult();
         }
       } else {
         // if the prefix is blank
@@ -168,14 +202,15 @@ public Collection<OzoneFileStatus> listStatusFSO(OmKeyArgs args,
             LOG.debug("Parent directory of keyName:{} does not exist." +
                 "Returns empty list", keyName);
           }
-          return new ArrayList<>();
+          return emptyResult();
         }
         throw ome;
       }
     } else {
       // If the keyname is a file just return one entry
       if (fileStatus.isFile()) {
-        return Collections.singletonList(fileStatus);
+        return new ListStatusResult(
+            Collections.singletonList(fileStatus), null);
       }
 
       // fetch the db key based on parent prefix id.
@@ -198,8 +233,6 @@ public Collection<OzoneFileStatus> listStatusFSO(OmKeyArgs args,
       }
     }
 
-    TreeMap<String, OzoneFileStatus> map = new TreeMap<>();
-
     BucketLayout bucketLayout = omBucketInfo.getBucketLayout();
     ReplicationConfig replication =
         Optional.ofNullable(omBucketInfo.getDefaultReplicationConfig())
@@ -208,23 +241,36 @@ public Collection<OzoneFileStatus> listStatusFSO(OmKeyArgs args,
 
     // fetch the sorted output using a min heap iterator where
     // every remove from the heap will give the smallest entry.
-    try (MinHeapIterator heapIterator = new MinHeapIterator(metadataManager,
-        dbPrefixKey, bucketLayout, startKeyPrefix, volumeName, bucketName)) {
+    ListStatusCursor cursor = new ListStatusCursor(
+        new MinHeapIterator(metadataManager, dbPrefixKey, bucketLayout,
+            startKeyPrefix, volumeName, bucketName),
+        volumeName, bucketName, requestKeyName, prefixKey, replication,
+        scmBlockSize);
+    return nextPage(cursor, numEntries, cursors);
+  }
 
-      while (map.size() < numEntries && heapIterator.hasNext()) {
-        HeapEntry entry = heapIterator.next();
-        OzoneFileStatus status = entry.getStatus(prefixKey,
-            scmBlockSize, volumeName, bucketName, replication);
-        // Caution: DO NOT use putIfAbsent. putIfAbsent undesirably overwrites
-        // the value with `status` when the existing value in the map is null.
-        if (!map.containsKey(entry.key)) {
-          map.put(entry.key, status);
-        }
+  /**
+   * Reads the next page from the cursor, and parks the cursor in the cache
+   * if there may be more entries.  The cursor is closed otherwise.
+   */
+  private static ListStatusResult nextPage(ListStatusCursor cursor,
+      long numEntries, ListStatusCursorCache cursors) throws IOException {
+    String token = null;
+    try {
+      List<OzoneFileStatus> statuses = cursor.nextPage(numEntries);
+      if (cursors != null && cursor.hasNext()) {
+        token = cursors.park(cursor);
+      }
+      return new ListStatusResult(statuses, token);
+    } finally {
+      if (token == null) {
+        cursor.close();
       }
     }
+  }
 
-    return map.values().stream().filter(e -> e != null).collect(
-        Collectors.toList());
+  private static ListStatusResult emptyResult() {
+    return new ListStatusResult(new ArrayList<>(), null);
   }
 
   private String getDbKey(String key, OmKeyArgs args,
@@ -502,6 +548,109 @@ public void close() {
     }
   }
 
+  /**
+   * Cursor of a non-recursive listing, which can be kept open between the
+   * pages of the listing.  Later pages reflect the state of the directory
+   * when the cursor was opened, like a single page does.
+   */
+  public static final class ListStatusCursor implements Closeable {
+    private final MinHeapIterator heapIterator;
+    private final String volumeName;
+    private final String bucketName;
+    private final String requestKeyName;
+    private final String prefixKey;
+    private final ReplicationConfig replication;
+    private final long scmBlockSize;
+
+    /** DB key of the last entry read from the heap iterator. */
+    private String lastKey;
+    /** DB key and status of the last entry returned. */
+    private String lastStatusKey;
+    private OzoneFileStatus lastStatus;
+    private boolean closed;
+
+    @SuppressWarnings("parameternumber")
+    private ListStatusCursor(MinHeapIterator heapIterator, String volumeName,
+        String bucketName, String requestKeyName, String prefixKey,
+        ReplicationConfig replication, long scmBlockSize) {
+      this.heapIterator = heapIterator;
+      this.volumeName = volumeName;
+      this.bucketName = bucketName;
+      this.requestKeyName = requestKeyName;
+      this.prefixKey = prefixKey;
+      this.replication = replication;
+      this.scmBlockSize = scmBlockSize;
+    }
+
+    /**
+     * @return true if the request for the next page lists the same path,
+     * starting with the last entry returned by this cursor.
+     */
+    boolean continuesWith(OmKeyArgs args, String startKey) {
+      return lastStatus != null
+          && volumeName.equals(args.getVolumeName())
+          && bucketName.equals(args.getBucketName())
+          && normalize(requestKeyName).equals(normalize(args.getKeyName()))
+          && normalize(lastStatus.getKeyInfo().getKeyName())
+              .equals(normalize(startKey));
+    }
+
+    private static String normalize(String keyName) {
+      return StringUtils.isEmpty(keyName) ? ""
+          : OzoneFSUtils.removeTrailingSlashIfNeeded(keyName);
+    }
+
+    boolean hasNext() {
+      return heapIterator.hasNext();
+    }
+
+    List<OzoneFileStatus> nextPage(long numEntries) {
+      TreeMap<String, OzoneFileStatus> map = new TreeMap<>();
+      if (lastStatus != null) {
+        // startKey is included in the page, as if the DB was seeked for it
+        map.put(lastStatusKey, lastStatus);
+      }
+
+      while (map.size() < numEntries && heapIterator.hasNext()) {
+        HeapEntry entry = heapIterator.next();
+        if (lastKey != null && entry.key.compareTo(lastKey) <= 0) {
+          // duplicate of an entry read for the previous page
+          continue;
+        }
+        OzoneFileStatus status = entry.getStatus(prefixKey,
+            scmBlockSize, volumeName, bucketName, replication);
+        // Caution: DO NOT use putIfAbsent. putIfAbsent undesirably overwrites
+        // the value with `status` when the existing value in the map is null.
+        if (!map.containsKey(entry.key)) {
+          map.put(entry.key, status);
+        }
+      }
+
+      if (!map.isEmpty()) {
+        lastKey = map.lastKey();
+      }
+      for (Map.Entry<String, OzoneFileStatus> entry
+          : map.descendingMap().entrySet()) {
+        if (entry.getValue() != null) {
+          lastStatusKey = entry.getKey();
+          lastStatus = entry.getValue();
+          break;
+        }
+      }
+
+      return map.values().stream().filter(e -> e != null).collect(
+          Collectors.toList());
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!closed) {
+        closed = true;
+        heapIterator.close();
+      }
+    }
+  }
+
   /**
    * Implement lexicographical sorting of the file status by sorting file status
    * across multiple lists. Each of these lists are sorted internally.
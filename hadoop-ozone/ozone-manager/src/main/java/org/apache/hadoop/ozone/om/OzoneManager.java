@@ -156,6 +156,7 @@
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadList;
@@ -805,6 +806,7 @@ private void instantiateServices(boolean withNewSnapshot) throws IOException {
     OmMetadataManagerImpl metadataManagerImpl =
         new OmMetadataManagerImpl(configuration, this);
     this.metadataManager = metadataManagerImpl;
+    metrics.setKeyCacheStats(metadataManagerImpl::getKeyCacheStats);
     LOG.info("S3 Multi-Tenancy is {}",
         isS3MultiTenancyEnabled ? "enabled" : "disabled");
     if (isS3MultiTenancyEnabled) {
@@ -3661,6 +3663,16 @@ public List<OzoneFileStatus> listStatus(OmKeyArgs args, boolean recursive,
     }
   }
 
+  @Override
+  public ListStatusResult listStatusPage(OmKeyArgs args, String startKey,
+      long numEntries, String continuationToken) throws IOException {
+    try (ReferenceCounted<IOmMetadataReader, SnapshotCache> rcReader =
+        getReader(args)) {
+      return rcReader.get().listStatusPage(
+          args, startKey, numEntries, continuationToken);
+    }
+  }
+
   @Override
   public List<OzoneFileStatusLight> listStatusLight(OmKeyArgs args,
       boolean recursive, String startKey, long numEntries,
@@ -18,6 +18,7 @@
 
 package org.apache.hadoop.ozone.om.codec;
 
+import org.apache.hadoop.hdds.utils.db.ColumnFamilyProfile;
 import org.apache.hadoop.hdds.utils.db.DBColumnFamilyDefinition;
 import org.apache.hadoop.hdds.utils.db.DBDefinition;
 import org.apache.hadoop.hdds.utils.db.LongCodec;
@@ -52,6 +53,26 @@
  */
 public class OMDBDefinition extends DBDefinition.WithMap {
 
+  /**
+   * Length of the prefix extracted from keys of the FSO tables,
+   * /volumeId/bucketId/parentId/name.  Object IDs carry the epoch in their
+   * top bits, so they are printed with 19 (or 20, if negative) characters:
+   * the prefix covers the bucket and (most of) the parent ID.
+   */
+  public static final int FSO_KEY_PREFIX_LENGTH = 60;
+
+  /**
+   * Listing a directory seeks to the children of the parent ID, so the FSO
+   * tables use prefix bloom filters to skip SST files with no such children.
+   * Point lookups still use whole key bloom filters.
+   */
+  public static final ColumnFamilyProfile FSO_TABLE_PROFILE =
+      ColumnFamilyProfile.newBuilder()
+          .setPrefixLength(FSO_KEY_PREFIX_LENGTH)
+          .setWholeKeyFiltering(true)
+          .setPartitionedIndexAndFilters(true)
+          .build();
+
   public static final DBColumnFamilyDefinition<String, RepeatedOmKeyInfo>
             DELETED_TABLE =
             new DBColumnFamilyDefinition<>(
@@ -285,6 +306,12 @@ public class OMDBDefinition extends DBDefinition.WithMap {
           USER_TABLE,
           VOLUME_TABLE);
 
+  static {
+    DIRECTORY_TABLE.setProfile(FSO_TABLE_PROFILE);
+    FILE_TABLE.setProfile(FSO_TABLE_PROFILE);
+    OPEN_FILE_TABLE.setProfile(FSO_TABLE_PROFILE);
+  }
+
   public OMDBDefinition() {
     super(COLUMN_FAMILIES);
   }
@@ -19,6 +19,7 @@
 package org.apache.hadoop.ozone.om.fs;
 
 import org.apache.hadoop.ozone.om.IOzoneAcl;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OzoneFileStatus;
@@ -117,4 +118,22 @@ List<OzoneFileStatus> listStatus(OmKeyArgs keyArgs, boolean recursive,
       String startKey, long numEntries, String clientAddress,
       boolean allowPartialPrefixes)
           throws IOException;
+
+  /**
+   * List a page of the status of a directory's contents, non-recursively.
+   * The cursor of the listing may be kept open for the next page.
+   *
+   * @param keyArgs       the args of the key provided by client.
+   * @param startKey      Key from which listing needs to start. If startKey
+   *                      exists its status is included in the final list.
+   * @param numEntries    Number of entries to list from the start key
+   * @param clientAddress a hint to key manager, order the datanode in returned
+   *                      pipeline by distance between client and datanode.
+   * @param continuationToken token returned with the previous page, if any
+   * @return page of file status, with the token to continue the listing
+   * @throws IOException if file or bucket or volume does not exist
+   */
+  ListStatusResult listStatusPage(OmKeyArgs keyArgs, String startKey,
+      long numEntries, String clientAddress, String continuationToken)
+          throws IOException;
 }
@@ -20,10 +20,13 @@
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -32,10 +35,14 @@
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
@@ -44,6 +51,7 @@
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
 import org.apache.hadoop.hdds.utils.db.DBColumnFamilyDefinition;
+import org.apache.hadoop.hdds.utils.db.RDBBatchOperation;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
 import org.apache.hadoop.ozone.om.S3SecretManager;
 import org.apache.hadoop.ozone.om.codec.OMDBDefinition;
@@ -52,6 +60,7 @@
 import org.apache.hadoop.ozone.om.response.CleanupTableInfo;
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
 import org.apache.hadoop.util.Daemon;
 import org.apache.hadoop.util.Time;
 import org.apache.ratis.util.ExitUtils;
@@ -70,7 +79,13 @@
  * any entries, it swaps the buffer and creates a batch and commit to DB.
  * Adding OM request to doubleBuffer and swap of buffer are synchronized
  * methods.
- *
+ * <p>
+ * When pipelined flush is enabled, the flush thread only prepares the
+ * batches: the responses are added to a batch by a pool of threads, and the
+ * batch is handed over to a commit thread, so the next batch is prepared
+ * while the previous one is being committed. Batches are committed one at a
+ * time, in order. The table caches are cleaned up after the commit by
+ * another thread, also in order.
  */
 public final class OzoneManagerDoubleBuffer {
 
@@ -113,6 +128,34 @@ public final class OzoneManagerDoubleBuffer {
   private final String threadPrefix;
   private final S3SecretManager s3SecretManager;
 
+  /**
+   * Responses which may create checkpoints of the DB or open snapshot DBs
+   * while being added to a batch. In pipelined mode, these are added to a
+   * batch by the flush thread once all the previous batches are committed.
+   */
+  private static final Set<Type> NON_PIPELINED_RESPONSE_TYPES = EnumSet.of(
+      Type.CreateSnapshot, Type.DeleteSnapshot, Type.SnapshotMoveDeletedKeys,
+      Type.SnapshotPurge, Type.SetSnapshotProperty, Type.PurgeKeys,
+      Type.PurgeDirectories);
+
+  /**
+   * Minimum number of responses added to a batch by one thread, below this
+   * handing the responses over to other threads is not worth it.
+   */
+  private static final int MIN_RESPONSES_PER_THREAD = 16;
+
+  private final boolean isPipelinedFlushEnabled;
+  private final int flushThreads;
+  private final ExecutorService addToBatchExecutor;
+  private final ExecutorService commitExecutor;
+  private final ExecutorService cleanupExecutor;
+  // Last batch handed over to the commit thread, used by the flush thread.
+  private CompletableFuture<Void> pendingCommit =
+      CompletableFuture.completedFuture(null);
+  // Last task handed over to the cleanup thread, by the commit thread.
+  private volatile CompletableFuture<Void> pendingCleanup =
+      CompletableFuture.completedFuture(null);
+
   /**
    * function which will get term associated with the transaction index.
    */
@@ -131,7 +174,8 @@ public static class Builder {
     private FlushNotifier flushNotifier;
     private S3SecretManager s3SecretManager;
     private String threadPrefix = "";
-
+    private boolean isPipelinedFlushEnabled = false;
+    private int flushThreads = 1;
 
     public Builder setOmMetadataManager(OMMetadataManager omm) {
       this.mm = omm;
@@ -179,6 +223,16 @@ public Builder setS3SecretManager(S3SecretManager s3SecretManager) {
       return this;
     }
 
+    public Builder enablePipelinedFlush(boolean enablePipelinedFlush) {
+      this.isPipelinedFlushEnabled = enablePipelinedFlush;
+      return this;
+    }
+
+    public Builder setFlushThreads(int threads) {
+      this.flushThreads = threads;
+      return this;
+    }
+
     public OzoneManagerDoubleBuffer build() {
       if (isRatisEnabled) {
         Preconditions.checkNotNull(rs, "When ratis is enabled, " +
@@ -189,13 +243,18 @@ public OzoneManagerDoubleBuffer build() {
             "when ratis is enable, maxUnFlushedTransactions " +
                 "should be bigger than 0");
       }
+      if (isPipelinedFlushEnabled) {
+        Preconditions.checkState(flushThreads > 0,
+            "flushThreads should be bigger than 0");
+      }
       if (flushNotifier == null) {
         flushNotifier = new FlushNotifier();
       }
 
       return new OzoneManagerDoubleBuffer(mm, rs, isRatisEnabled,
           isTracingEnabled, indexToTerm, maxUnFlushedTransactionCount,
-          flushNotifier, s3SecretManager, threadPrefix);
+          flushNotifier, s3SecretManager, threadPrefix,
+          isPipelinedFlushEnabled, flushThreads);
     }
   }
 
@@ -205,7 +264,8 @@ private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
       boolean isRatisEnabled, boolean isTracingEnabled,
       Function<Long, Long> indexToTerm, int maxUnFlushedTransactions,
       FlushNotifier flushNotifier, S3SecretManager s3SecretManager,
-      String threadPrefix) {
+      String threadPrefix, boolean isPipelinedFlushEnabled,
+      int flushThreads) {
     this.currentBuffer = new ConcurrentLinkedQueue<>();
     this.readyBuffer = new ConcurrentLinkedQueue<>();
     this.isRatisEnabled = isRatisEnabled;
@@ -222,6 +282,21 @@ private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
     this.indexToTerm = indexToTerm;
     this.flushNotifier = flushNotifier;
     this.threadPrefix = threadPrefix;
+    this.isPipelinedFlushEnabled = isPipelinedFlushEnabled;
+    this.flushThreads = flushThreads;
+    if (isPipelinedFlushEnabled) {
+      addToBatchExecutor = flushThreads > 1 ? Executors.newFixedThreadPool(
+          flushThreads, newThreadFactory("OMDoubleBufferAddToBatchThread-%d"))
+          : null;
+      commitExecutor = Executors.newSingleThreadExecutor(
+          newThreadFactory("OMDoubleBufferCommitThread"));
+      cleanupExecutor = Executors.newSingleThreadExecutor(
+          newThreadFactory("OMDoubleBufferCleanupThread"));
+    } else {
+      addToBatchExecutor = null;
+      commitExecutor = null;
+      cleanupExecutor = null;
+    }
     isRunning.set(true);
     // Daemon thread which runs in background and flushes transactions to DB.
     daemon = new Daemon(this::flushTransactions);
@@ -230,6 +305,12 @@ private OzoneManagerDoubleBuffer(OMMetadataManager omMetadataManager,
     this.s3SecretManager = s3SecretManager;
   }
 
+  private ThreadFactory newThreadFactory(String name) {
+    return new ThreadFactoryBuilder().setDaemon(true)
+        .setNameFormat(threadPrefix + name)
+        .build();
+  }
+
   /**
    * Acquires the given number of permits from unFlushedTransactions,
    * blocking until all are available, or the thread is interrupted.
@@ -330,12 +411,24 @@ void flushCurrentBuffer() {
       List<Queue<DoubleBufferEntry<OMClientResponse>>> bufferQueues =
           splitReadyBufferAtCreateSnapshot();
 
-      for (Queue<DoubleBufferEntry<OMClientResponse>> buffer : bufferQueues) {
-        flushBatch(buffer);
-      }
+      if (isPipelinedFlushEnabled) {
+        // The entries are held by bufferQueues until they are committed.
+        clearReadyBuffer();
+        submitBatches(bufferQueues);
+        if (getCurrentBufferSize() == 0) {
+          // Nothing more to prepare, wait for the batches to be flushed
+          // before waiting for new transactions.
+          awaitPendingFlush();
+        }
+      } else {
+        for (Queue<DoubleBufferEntry<OMClientResponse>> buffer :
+            bufferQueues) {
+          flushBatch(buffer);
+        }
 
-      clearReadyBuffer();
-      flushNotifier.notifyFlush();
+        clearReadyBuffer();
+        flushNotifier.notifyFlush();
+      }
     } catch (IOException ex) {
       terminate(ex, 1);
     } catch (Throwable t) {
@@ -345,20 +438,88 @@ void flushCurrentBuffer() {
 
   private void flushBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer)
       throws IOException {
+    FlushBatch batch = prepareBatch(buffer, null, false);
+    try {
+      commitBatch(batch);
+    } finally {
+      batch.close();
+    }
+    completeFlush(batch);
+  }
 
-    Map<String, List<Long>> cleanupEpochs = new HashMap<>();
-    List<Long> flushedEpochs;
+  /**
+   * Prepares the batches one after the other, and hands them over to the
+   * commit thread. A batch is prepared while the previous one is committed.
+   */
+  private void submitBatches(
+      List<Queue<DoubleBufferEntry<OMClientResponse>>> bufferQueues)
+      throws IOException {
+    for (int i = 0; i < bufferQueues.size(); i++) {
+      Queue<DoubleBufferEntry<OMClientResponse>> buffer = bufferQueues.get(i);
+      boolean pipelined = buffer.stream().noneMatch(entry ->
+          NON_PIPELINED_RESPONSE_TYPES.contains(
+              entry.getResponse().getOMResponse().getCmdType()));
+      if (!pipelined) {
+        awaitPendingCommit();
+      }
 
-    try (BatchOperation batchOperation = omMetadataManager.getStore()
-        .initBatchOperation()) {
+      FlushBatch batch = prepareBatch(buffer,
+          isRatisEnabled ? null : takeReadyFutures(buffer.size()), pipelined);
 
-      String lastTraceId = addToBatch(buffer, batchOperation);
+      try {
+        // Only one batch is committed at a time.
+        awaitPendingCommit();
+      } catch (RuntimeException e) {
+        // the previous batch failed, this one is never committed
+        batch.close();
+        throw e;
+      }
+      boolean lastBatch = i == bufferQueues.size() - 1;
+      pendingCommit = CompletableFuture.runAsync(
+          () -> commitAndCompleteFlush(batch, lastBatch), commitExecutor);
+    }
+  }
+
+  private void commitAndCompleteFlush(FlushBatch batch, boolean lastBatch) {
+    try {
+      try {
+        commitBatch(batch);
+      } finally {
+        batch.close();
+      }
+      completeFlush(batch);
+      if (lastBatch) {
+        runAfterCleanup(flushNotifier::notifyFlush);
+      }
+    } catch (IOException ex) {
+      terminate(ex, 1);
+    } catch (Throwable t) {
+      terminate(t, 2);
+    }
+  }
+
+  /**
+   * Adds the responses in the buffer and the transaction info to a new
+   * batch.
+   */
+  private FlushBatch prepareBatch(
+      Queue<DoubleBufferEntry<OMClientResponse>> buffer,
+      List<CompletableFuture<Void>> futures, boolean parallel)
+      throws IOException {
+
+    Map<String, List<Long>> cleanupEpochs = new HashMap<>();
+    BatchOperation batchOperation = omMetadataManager.getStore()
+        .initBatchOperation();
+    try {
+      String lastTraceId = parallel ?
+          addToBatchInParallel(buffer, batchOperation) :
+          addToBatch(buffer, batchOperation);
 
       buffer.iterator().forEachRemaining(
           entry -> addCleanupEntry(entry, cleanupEpochs));
 
       // Commit transaction info to DB.
-      flushedEpochs = buffer.stream()
+      List<Long> flushedEpochs = buffer.stream()
           .map(DoubleBufferEntry::getTrxLogIndex)
           .sorted()
           .collect(Collectors.toList());
@@ -378,22 +539,39 @@ private void flushBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer)
                   .setCurrentTerm(term)
                   .build()));
 
-      long startTime = Time.monotonicNow();
-      flushBatchWithTrace(lastTraceId, buffer.size(),
-          () -> omMetadataManager.getStore()
-              .commitBatchOperation(batchOperation));
-
-      ozoneManagerDoubleBufferMetrics.updateFlushTime(
-          Time.monotonicNow() - startTime);
+      return new FlushBatch(batchOperation, lastTraceId, buffer.size(),
+          flushedEpochs, cleanupEpochs, futures);
+    } catch (IOException | RuntimeException e) {
+      batchOperation.close();
+      throw e;
     }
+  }
 
+  private void commitBatch(FlushBatch batch) throws IOException {
+    long startTime = Time.monotonicNow();
+    flushBatchWithTrace(batch.lastTraceId, batch.size,
+        () -> omMetadataManager.getStore()
+            .commitBatchOperation(batch.batchOperation));
+
+    ozoneManagerDoubleBufferMetrics.updateFlushTime(
+        Time.monotonicNow() - startTime);
+  }
+
+  /**
+   * Completes the flush of a committed batch.
+   */
+  private void completeFlush(FlushBatch batch) {
     // Complete futures first and then do other things.
     // So that handler threads will be released.
     if (!isRatisEnabled) {
-      clearReadyFutureQueue(buffer.size());
+      if (batch.futures != null) {
+        batch.futures.forEach(future -> future.complete(null));
+      } else {
+        clearReadyFutureQueue(batch.size);
+      }
     }
 
-    int flushedTransactionsSize = buffer.size();
+    int flushedTransactionsSize = batch.size;
     flushedTransactionCount.addAndGet(flushedTransactionsSize);
     flushIterations.incrementAndGet();
 
@@ -404,20 +582,105 @@ private void flushBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer)
     }
 
     // Clean up committed transactions.
-    cleanupCache(cleanupEpochs);
+    if (isPipelinedFlushEnabled) {
+      runAfterCleanup(() -> cleanupCache(batch.cleanupEpochs));
+    } else {
+      cleanupCache(batch.cleanupEpochs);
+    }
 
     if (isRatisEnabled) {
       releaseUnFlushedTransactions(flushedTransactionsSize);
     }
     // update the last updated index in OzoneManagerStateMachine.
-    ozoneManagerRatisSnapShot.updateLastAppliedIndex(flushedEpochs);
+    ozoneManagerRatisSnapShot.updateLastAppliedIndex(batch.flushedEpochs);
 
     // set metrics.
     updateMetrics(flushedTransactionsSize);
   }
 
-  private String addToBatch(Queue<DoubleBufferEntry<OMClientResponse>> buffer,
-                            BatchOperation batchOperation) {
+  /**
+   * Runs the task on the cleanup thread, after the tasks submitted before.
+   */
+  private void runAfterCleanup(Runnable task) {
+    pendingCleanup = CompletableFuture.runAsync(() -> {
+      try {
+        task.run();
+      } catch (Throwable t) {
+        terminate(t, 2);
+      }
+    }, cleanupExecutor);
+  }
+
+  private void awaitPendingCommit() {
+    pendingCommit.join();
+  }
+
+  /**
+   * Waits for the batches handed over to the commit thread to be committed
+   * and for the caches to be cleaned up.
+   */
+  private void awaitPendingFlush() {
+    pendingCommit.join();
+    pendingCleanup.join();
+  }
+
+  private List<CompletableFuture<Void>> takeReadyFutures(int count) {
+    List<CompletableFuture<Void>> futures = new ArrayList<>(count);
+    while (!readyFutureQueue.isEmpty() && futures.size() < count) {
+      futures.add(readyFutureQueue.remove());
+    }
+    return futures;
+  }
+
+  /**
+   * Adds the responses to the batch using the addToBatch threads. Each
+   * thread adds a range of the responses to a batch of its own, which are
+   * then merged in order, so that later responses still override earlier
+   * ones.
+   */
+  private String addToBatchInParallel(
+      Collection<DoubleBufferEntry<OMClientResponse>> buffer,
+      BatchOperation batchOperation) {
+    int threads = Math.min(flushThreads,
+        buffer.size() / MIN_RESPONSES_PER_THREAD);
+    if (addToBatchExecutor == null || threads < 2
+        || !(batchOperation instanceof RDBBatchOperation)) {
+      return addToBatch(buffer, batchOperation);
+    }
+
+    List<DoubleBufferEntry<OMClientResponse>> entries =
+        new ArrayList<>(buffer);
+    int rangeSize = (entries.size() + threads - 1) / threads;
+    List<BatchOperation> batches = new ArrayList<>(threads);
+    List<CompletableFuture<String>> traceIds = new ArrayList<>(threads);
+    try {
+      for (int from = 0; from < entries.size(); from += rangeSize) {
+        List<DoubleBufferEntry<OMClientResponse>> range = entries.subList(
+            from, Math.min(from + rangeSize, entries.size()));
+        BatchOperation batch = omMetadataManager.getStore()
+            .initBatchOperation();
+        batches.add(batch);
+        traceIds.add(CompletableFuture.supplyAsync(
+            () -> addToBatch(range, batch), addToBatchExecutor));
+      }
+
+      String lastTraceId = null;
+      for (int i = 0; i < batches.size(); i++) {
+        lastTraceId = traceIds.get(i).join();
+        ((RDBBatchOperation) batchOperation).merge(
+            (RDBBatchOperation) batches.get(i));
+      }
+      return lastTraceId;
+    } finally {
+      // wait for all the threads before releasing their batches
+      traceIds.forEach(f -> f.handle((traceId, e) -> null).join());
+      batches.forEach(BatchOperation::close);
+    }
+  }
+
+  private String addToBatch(
+      Collection<DoubleBufferEntry<OMClientResponse>> buffer,
+      BatchOperation batchOperation) {
     String lastTraceId = null;
     for (DoubleBufferEntry<OMClientResponse> entry: buffer) {
       OMClientResponse response = entry.getResponse();
@@ -566,6 +829,13 @@ private void updateMetrics(int flushedTransactionsSize) {
   @SuppressWarnings("squid:S2142")
   public void stop() {
     stopDaemon();
+    if (isPipelinedFlushEnabled) {
+      if (addToBatchExecutor != null) {
+        addToBatchExecutor.shutdown();
+      }
+      commitExecutor.shutdown();
+      cleanupExecutor.shutdown();
+    }
     ozoneManagerDoubleBufferMetrics.unRegister();
   }
 
@@ -580,6 +850,14 @@ public void stopDaemon() {
       } catch (InterruptedException e) {
         LOG.debug("Interrupted while waiting for daemon to exit.", e);
       }
+      if (isPipelinedFlushEnabled) {
+        try {
+          // Wait for the batches prepared by the daemon to be flushed
+          awaitPendingFlush();
+        } catch (CompletionException e) {
+          LOG.warn("Failed to flush pending batches.", e);
+        }
+      }
     } else {
       LOG.info("OMDoubleBuffer flush thread is not running.");
     }
@@ -646,8 +924,9 @@ private synchronized boolean canFlush() {
       while (currentBuffer.size() == 0) {
         // canFlush() only gets called when the readyBuffer is empty.
         // Since both buffers are empty, notify once for each.
-        flushNotifier.notifyFlush();
-        flushNotifier.notifyFlush();
+        for (int i = 0; i < getBuffersToAwait(); i++) {
+          flushNotifier.notifyFlush();
+        }
         wait(1000L);
       }
       return true;
@@ -703,7 +982,46 @@ void resume() {
   }
 
   public void awaitFlush() throws InterruptedException {
-    flushNotifier.await();
+    flushNotifier.await(getBuffersToAwait());
+  }
+
+  /**
+   * Returns the number of buffers to be flushed for a transaction added
+   * before to be flushed: the current and ready buffers, plus the buffer
+   * being committed in pipelined mode.
+   */
+  private int getBuffersToAwait() {
+    return isPipelinedFlushEnabled ? 3 : 2;
+  }
+
+  /**
+   * A batch of transactions to be committed, along with what is needed to
+   * complete the flush once committed.
+   */
+  private static final class FlushBatch implements AutoCloseable {
+    private final BatchOperation batchOperation;
+    private final String lastTraceId;
+    private final int size;
+    private final List<Long> flushedEpochs;
+    private final Map<String, List<Long>> cleanupEpochs;
+    // Futures of the transactions in pipelined non-Ratis mode, null otherwise
+    private final List<CompletableFuture<Void>> futures;
+
+    FlushBatch(BatchOperation batchOperation, String lastTraceId, int size,
+        List<Long> flushedEpochs, Map<String, List<Long>> cleanupEpochs,
+        List<CompletableFuture<Void>> futures) {
+      this.batchOperation = batchOperation;
+      this.lastTraceId = lastTraceId;
+      this.size = size;
+      this.flushedEpochs = flushedEpochs;
+      this.cleanupEpochs = cleanupEpochs;
+      this.futures = futures;
+    }
+
+    @Override
+    public void close() {
+      batchOperation.close();
+    }
   }
 
   static class FlushNotifier {
@@ -711,9 +1029,12 @@ static class FlushNotifier {
         ConcurrentHashMap.newKeySet();
 
     void await() throws InterruptedException {
-
       // Wait until both the current and ready buffers are flushed.
-      CountDownLatch latch = new CountDownLatch(2);
+      await(2);
+    }
+
+    void await(int buffers) throws InterruptedException {
+      CountDownLatch latch = new CountDownLatch(buffers);
       flushLatches.add(latch);
       latch.await();
       flushLatches.remove(latch);
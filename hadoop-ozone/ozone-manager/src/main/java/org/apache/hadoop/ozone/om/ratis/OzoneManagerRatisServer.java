@@ -31,12 +31,14 @@
 import java.net.UnknownHostException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.TimeUnit;
@@ -68,6 +70,7 @@
 import org.apache.ratis.grpc.GrpcConfigKeys;
 import org.apache.ratis.grpc.GrpcTlsConfig;
 import org.apache.ratis.netty.NettyConfigKeys;
+import org.apache.ratis.proto.RaftProtos.RoleInfoProto;
 import org.apache.ratis.protocol.ClientId;
 import org.apache.ratis.protocol.SetConfigurationRequest;
 import org.apache.ratis.protocol.exceptions.LeaderNotReadyException;
@@ -91,6 +94,7 @@
 import org.apache.ratis.util.SizeInBytes;
 import org.apache.ratis.util.StringUtils;
 import org.apache.ratis.util.TimeDuration;
+import org.apache.ratis.util.function.CheckedFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -119,6 +123,16 @@ public final class OzoneManagerRatisServer {
   private final OzoneManagerStateMachine omStateMachine;
   private final String ratisStorageDir;
   private final OMPerformanceMetrics perfMetrics;
+  private final boolean linearizableRead;
+
+  /**
+   * Maximum size of a batch submitted by
+   * {@link #submitRequests(List, List)}, limited by the bits of the Ratis
+   * call ID reserved for the position of a request in its batch.
+   */
+  public static final int MAX_BATCH_SIZE = 1 << 16;
+  private static final byte[] BATCH_CLIENT_ID_SUFFIX =
+      "batch".getBytes(StandardCharsets.UTF_8);
 
   private final ClientId clientId = ClientId.randomId();
   private static final AtomicLong CALL_ID_COUNTER = new AtomicLong();
@@ -149,6 +163,8 @@ private OzoneManagerRatisServer(ConfigurationSource conf, OzoneManager om,
     this.ratisStorageDir = OzoneManagerRatisUtils.getOMRatisDirectory(conf);
     final RaftProperties serverProperties = newRaftProperties(
         conf, port, ratisStorageDir);
+    this.linearizableRead = RaftServerConfigKeys.Read.option(serverProperties)
+        == RaftServerConfigKeys.Read.Option.LINEARIZABLE;
 
     this.raftPeerId = localRaftPeerId;
     this.raftGroupId = RaftGroupId.valueOf(
@@ -256,20 +272,102 @@ public OMResponse submitRequest(OMRequest omRequest) throws ServiceException {
       RaftClientReply raftClientReply = submitRequestToRatis(raftClientRequest);
       return createOmResponse(omRequest, raftClientReply);
     } else {
-      LOG.info("Rejecting write request on OM {} because it is in prepare " +
-          "mode: {}", ozoneManager.getOMNodeId(),
-          omRequest.getCmdType().name());
-
-      String message = "Cannot apply write request " +
-          omRequest.getCmdType().name() + " when OM is in prepare mode.";
-      OMResponse.Builder omResponse = OMResponse.newBuilder()
-          .setMessage(message)
-          .setStatus(Status.NOT_SUPPORTED_OPERATION_WHEN_PREPARED)
-          .setCmdType(omRequest.getCmdType())
-          .setTraceID(omRequest.getTraceID())
-          .setSuccess(false);
-      return omResponse.build();
+      return createPreparedResponse(omRequest);
+    }
+  }
+
+  /**
+   * Submit several requests to Ratis server pipelined: all of them are
+   * submitted before waiting for the reply of any.  Each request is a
+   * separate log entry, applied as a separate transaction.  Used for the
+   * BatchWrite transactions of a batch too large for one transaction, the
+   * leader can then append, replicate and sync them in the same batches.
+   * <p>
+   * Requests are identified in the retry cache by a client ID derived
+   * from the one of the RPC call and by their position, so a retried batch
+   * is not applied twice.  The positions must not depend on the state of
+   * the OM, for a retry to give the same position to the same request.
+   * @param omRequests requests to submit
+   * @param positions position of each request in the batch, below
+   *                  {@link #MAX_BATCH_SIZE}
+   * @return OMResponse of each request, in order
+   * @throws ServiceException
+   */
+  public List<OMResponse> submitRequests(List<OMRequest> omRequests,
+      List<Integer> positions) throws ServiceException {
+    return submitRequests(omRequests, positions,
+        this::submitRequestToRatisAsync);
+  }
+
+  @VisibleForTesting
+  List<OMResponse> submitRequests(List<OMRequest> omRequests,
+      List<Integer> positions,
+      CheckedFunction<RaftClientRequest, CompletableFuture<RaftClientReply>,
+          ServiceException> submitter) throws ServiceException {
+    Preconditions.checkArgument(omRequests.size() == positions.size(),
+        "%s positions for %s requests", positions.size(), omRequests.size());
+    for (int position : positions) {
+      Preconditions.checkArgument(position >= 0 && position < MAX_BATCH_SIZE,
+          "Position out of range in batch: %s", position);
+    }
+    final ClientId batchClientId = getBatchClientId();
+    final long batchCallId = (long) Server.getCallId() << 16;
+
+    final List<CompletableFuture<RaftClientReply>> replies =
+        new ArrayList<>(omRequests.size());
+    for (int i = 0; i < omRequests.size(); i++) {
+      OMRequest omRequest = omRequests.get(i);
+      if (ozoneManager.getPrepareState()
+          .requestAllowed(omRequest.getCmdType())) {
+        final long callId = batchCallId | positions.get(i);
+        RaftClientRequest raftClientRequest = captureLatencyNs(
+            perfMetrics.getCreateRatisRequestLatencyNs(),
+            () -> createRaftRequestImpl(omRequest, batchClientId, callId));
+        replies.add(submitter.apply(raftClientRequest));
+      } else {
+        replies.add(null);
+      }
+    }
+
+    final List<OMResponse> responses = new ArrayList<>(omRequests.size());
+    for (int i = 0; i < omRequests.size(); i++) {
+      OMRequest omRequest = omRequests.get(i);
+      CompletableFuture<RaftClientReply> reply = replies.get(i);
+      if (reply == null) {
+        responses.add(createPreparedResponse(omRequest));
+      } else {
+        RaftClientReply raftClientReply = captureLatencyNs(
+            perfMetrics.getSubmitToRatisLatencyNs(),
+            () -> waitForReply(reply));
+        responses.add(createOmResponse(omRequest, raftClientReply));
+      }
     }
+    return responses;
+  }
+
+  private OMResponse createPreparedResponse(OMRequest omRequest) {
+    LOG.info("Rejecting write request on OM {} because it is in prepare " +
+        "mode: {}", ozoneManager.getOMNodeId(),
+        omRequest.getCmdType().name());
+
+    String message = "Cannot apply write request " +
+        omRequest.getCmdType().name() + " when OM is in prepare mode.";
+    OMResponse.Builder omResponse = OMResponse.newBuilder()
+        .setMessage(message)
+        .setStatus(Status.NOT_SUPPORTED_OPERATION_WHEN_PREPARED)
+        .setCmdType(omRequest.getCmdType())
+        .setTraceID(omRequest.getTraceID())
+        .setSuccess(false);
+    return omResponse.build();
+  }
+
+  private static ClientId getBatchClientId() {
+    byte[] rpcClientId = Server.getClientId();
+    byte[] bytes = Arrays.copyOf(rpcClientId,
+        rpcClientId.length + BATCH_CLIENT_ID_SUFFIX.length);
+    System.arraycopy(BATCH_CLIENT_ID_SUFFIX, 0, bytes, rpcClientId.length,
+        BATCH_CLIENT_ID_SUFFIX.length);
+    return ClientId.valueOf(UUID.nameUUIDFromBytes(bytes));
   }
 
   private OMResponse createOmResponse(OMRequest omRequest,
@@ -310,10 +408,23 @@ public OMResponse submitRequest(OMRequest omRequest,
 
   private RaftClientReply submitRequestToRatisImpl(
       RaftClientRequest raftClientRequest) throws ServiceException {
+    return waitForReply(submitRequestToRatisAsync(raftClientRequest));
+  }
+
+  private CompletableFuture<RaftClientReply> submitRequestToRatisAsync(
+      RaftClientRequest raftClientRequest) throws ServiceException {
     try {
-      return server.submitClientRequestAsync(raftClientRequest)
-          .get();
-    } catch (ExecutionException | IOException ex) {
+      return server.submitClientRequestAsync(raftClientRequest);
+    } catch (IOException ex) {
+      throw new ServiceException(ex.getMessage(), ex);
+    }
+  }
+
+  private static RaftClientReply waitForReply(
+      CompletableFuture<RaftClientReply> reply) throws ServiceException {
+    try {
+      return reply.get();
+    } catch (ExecutionException ex) {
       throw new ServiceException(ex.getMessage(), ex);
     } catch (InterruptedException ex) {
       Thread.currentThread().interrupt();
@@ -447,16 +558,22 @@ public void removeRaftPeer(OMNodeDetails omNodeDetails) {
    * ratis server.
    */
   private RaftClientRequest createRaftRequestImpl(OMRequest omRequest) {
+    return createRaftRequestImpl(omRequest,
+        ClientId.valueOf(UUID.nameUUIDFromBytes(Server.getClientId())),
+        Server.getCallId());
+  }
+
+  private RaftClientRequest createRaftRequestImpl(OMRequest omRequest,
+      ClientId raftClientId, long callId) {
     if (!ozoneManager.isTestSecureOmFlag()) {
       Preconditions.checkArgument(Server.getClientId() != DUMMY_CLIENT_ID);
       Preconditions.checkArgument(Server.getCallId() != INVALID_CALL_ID);
     }
     return RaftClientRequest.newBuilder()
-        .setClientId(
-            ClientId.valueOf(UUID.nameUUIDFromBytes(Server.getClientId())))
+        .setClientId(raftClientId)
         .setServerId(server.getId())
         .setGroupId(raftGroupId)
-        .setCallId(Server.getCallId())
+        .setCallId(callId)
         .setMessage(
             Message.valueOf(
                 OMRatisHelper.convertRequestToByteString(omRequest)))
@@ -478,19 +595,7 @@ private OMResponse createOmResponseImpl(OMRequest omRequest,
     // when client is submitting request to OM.
 
     if (!reply.isSuccess()) {
-      NotLeaderException notLeaderException = reply.getNotLeaderException();
-      if (notLeaderException != null) {
-        throw new ServiceException(
-            OMNotLeaderException.convertToOMNotLeaderException(
-                  notLeaderException, getRaftPeerId()));
-      }
-
-      LeaderNotReadyException leaderNotReadyException =
-          reply.getLeaderNotReadyException();
-      if (leaderNotReadyException != null) {
-        throw new ServiceException(new OMLeaderNotReadyException(
-            leaderNotReadyException.getMessage()));
-      }
+      checkLeaderException(reply);
 
       StateMachineException stateMachineException =
           reply.getStateMachineException();
@@ -622,6 +727,22 @@ public static RaftProperties newRaftProperties(ConfigurationSource conf,
         conf.getBoolean(OMConfigKeys.OZONE_OM_RATIS_SERVER_ELECTION_PRE_VOTE,
             OMConfigKeys.OZONE_OM_RATIS_SERVER_ELECTION_PRE_VOTE_DEFAULT));
 
+    // Set the read option, and the leader lease for linearizable reads
+    RaftServerConfigKeys.Read.setOption(properties,
+        RaftServerConfigKeys.Read.Option.valueOf(conf.getTrimmed(
+            OMConfigKeys.OZONE_OM_RATIS_READ_OPTION,
+            OMConfigKeys.OZONE_OM_RATIS_READ_OPTION_DEFAULT)
+            .toUpperCase()));
+    RaftServerConfigKeys.Read.setLeaderLeaseEnabled(properties,
+        conf.getBoolean(
+            OMConfigKeys.OZONE_OM_RATIS_READ_LEADER_LEASE_ENABLED,
+            OMConfigKeys.OZONE_OM_RATIS_READ_LEADER_LEASE_ENABLED_DEFAULT));
+    RaftServerConfigKeys.Read.setLeaderLeaseTimeoutRatio(properties,
+        conf.getDouble(
+            OMConfigKeys.OZONE_OM_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO,
+            OMConfigKeys
+                .OZONE_OM_RATIS_READ_LEADER_LEASE_TIMEOUT_RATIO_DEFAULT));
+
     // Set RAFT segment size
     final long raftSegmentSize = (long) conf.getStorageSize(
         OMConfigKeys.OZONE_OM_RATIS_SEGMENT_SIZE_KEY,
@@ -786,6 +907,23 @@ public RaftPeer getLeader() {
     return null;
   }
 
+  private void checkLeaderException(RaftClientReply reply)
+      throws ServiceException {
+    NotLeaderException notLeaderException = reply.getNotLeaderException();
+    if (notLeaderException != null) {
+      throw new ServiceException(
+          OMNotLeaderException.convertToOMNotLeaderException(
+                notLeaderException, getRaftPeerId()));
+    }
+
+    LeaderNotReadyException leaderNotReadyException =
+        reply.getLeaderNotReadyException();
+    if (leaderNotReadyException != null) {
+      throw new ServiceException(new OMLeaderNotReadyException(
+          leaderNotReadyException.getMessage()));
+    }
+  }
+
   /**
    * Defines RaftServer Status.
    */
@@ -820,6 +958,67 @@ public RaftServerStatus checkLeaderStatus() {
     return RaftServerStatus.NOT_LEADER;
   }
 
+  /**
+   * @return true if reads must be linearizable, see
+   * {@link #waitForLinearizableRead()}.
+   */
+  public boolean isLinearizableRead() {
+    return linearizableRead;
+  }
+
+  /**
+   * Wait until this OM, as the leader, has applied all the transactions
+   * committed before the call, so that the reads it serves afterwards are
+   * linearizable.  Ratis confirms the leadership locally while the leader
+   * lease is valid, or with a heartbeat round to the followers otherwise.
+   * @throws ServiceException if this OM is not the leader.
+   */
+  public void waitForLinearizableRead() throws ServiceException {
+    // an empty message is answered by the state machine without any read
+    RaftClientRequest raftClientRequest = RaftClientRequest.newBuilder()
+        .setClientId(clientId)
+        .setServerId(server.getId())
+        .setGroupId(raftGroupId)
+        .setCallId(nextCallId())
+        .setMessage(Message.EMPTY)
+        .setType(RaftClientRequest.readRequestType())
+        .build();
+    RaftClientReply reply = captureLatencyNs(
+        perfMetrics.getLinearizableReadLatencyNs(),
+        () -> waitForReply(submitRequestToRatisAsync(raftClientRequest)));
+    if (!reply.isSuccess()) {
+      checkLeaderException(reply);
+      throw new ServiceException(reply.getException());
+    }
+  }
+
+  /**
+   * Check if this OM, as a follower, can serve a read which requires the
+   * given log index to be applied.
+   *
+   * @param minIndex the log index the read must observe.
+   * @param maxStalenessMs the max time since the last RPC from the leader.
+   * @return true if the read can be served by this OM.
+   */
+  public boolean canServeFollowerRead(long minIndex, long maxStalenessMs) {
+    try {
+      RaftServer.Division division = server.getDivision(raftGroupId);
+      if (division == null || !division.getInfo().isFollower()) {
+        return false;
+      }
+      RoleInfoProto roleInfo = division.getInfo().getRoleInfoProto();
+      if (!roleInfo.hasFollowerInfo() || roleInfo.getFollowerInfo()
+          .getLeaderInfo().getLastRpcElapsedTimeMs() > maxStalenessMs) {
+        return false;
+      }
+    } catch (IOException ioe) {
+      LOG.error("Fail to get RaftServer impl and therefore it's not clear " +
+          "whether it can serve follower reads.", ioe);
+      return false;
+    }
+    return getLastAppliedTermIndex().getIndex() >= minIndex;
+  }
+
   /**
    * Get list of peer NodeIds from Ratis.
    * @return List of Peer NodeId's.
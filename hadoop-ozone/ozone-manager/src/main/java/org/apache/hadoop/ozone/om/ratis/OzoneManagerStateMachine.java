@@ -33,6 +33,7 @@
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.ozone.common.ha.ratis.RatisSnapshotInfo;
@@ -369,25 +370,10 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
       CompletableFuture<OMResponse> future = CompletableFuture.supplyAsync(
           () -> runCommand(request, trxLogIndex), executorService);
       future.thenApply(omResponse -> {
-        if (!omResponse.getSuccess()) {
-          // When INTERNAL_ERROR or METADATA_ERROR it is considered as
-          // critical error and terminate the OM. Considering INTERNAL_ERROR
-          // also for now because INTERNAL_ERROR is thrown for any error
-          // which is not type OMException.
-
-          // Not done future with completeExceptionally because if we do
-          // that OM will still continue applying transaction until next
-          // snapshot. So in OM case if a transaction failed with un
-          // recoverable error and if we wait till snapshot to terminate
-          // OM, then if some client requested the read transaction of the
-          // failed request, there is a chance we shall give wrong result.
-          // So, to avoid these kind of issue, we should terminate OM here.
-          if (omResponse.getStatus() == INTERNAL_ERROR) {
-            terminate(omResponse, OMException.ResultCodes.INTERNAL_ERROR);
-          } else if (omResponse.getStatus() == METADATA_ERROR) {
-            terminate(omResponse, OMException.ResultCodes.METADATA_ERROR);
-          }
-        }
+        terminateOnCriticalError(omResponse);
+        // The requests of a batch are applied in the same transaction.
+        omResponse.getBatchWriteResponse().getResponsesList()
+            .forEach(this::terminateOnCriticalError);
 
         // For successful response and for all other errors which are not
         // critical, we can complete future normally.
@@ -406,6 +392,28 @@ public CompletableFuture<Message> applyTransaction(TransactionContext trx) {
    * @param omResponse
    * @param resultCode
    */
+  private void terminateOnCriticalError(OMResponse omResponse) {
+    if (!omResponse.getSuccess()) {
+      // When INTERNAL_ERROR or METADATA_ERROR it is considered as
+      // critical error and terminate the OM. Considering INTERNAL_ERROR
+      // also for now because INTERNAL_ERROR is thrown for any error
+      // which is not type OMException.
+
+      // Not done future with completeExceptionally because if we do
+      // that OM will still continue applying transaction until next
+      // snapshot. So in OM case if a transaction failed with un
+      // recoverable error and if we wait till snapshot to terminate
+      // OM, then if some client requested the read transaction of the
+      // failed request, there is a chance we shall give wrong result.
+      // So, to avoid these kind of issue, we should terminate OM here.
+      if (omResponse.getStatus() == INTERNAL_ERROR) {
+        terminate(omResponse, OMException.ResultCodes.INTERNAL_ERROR);
+      } else if (omResponse.getStatus() == METADATA_ERROR) {
+        terminate(omResponse, OMException.ResultCodes.METADATA_ERROR);
+      }
+    }
+  }
+
   private void terminate(OMResponse omResponse,
       OMException.ResultCodes resultCode) {
     OMException exception = new OMException(omResponse.getMessage(),
@@ -418,9 +426,14 @@ private void terminate(OMResponse omResponse,
 
   /**
    * Query the state machine. The request must be read-only.
+   * An empty request only waits for the transactions committed before it to
+   * be applied, see {@link OzoneManagerRatisServer#waitForLinearizableRead}.
    */
   @Override
   public CompletableFuture<Message> query(Message request) {
+    if (request.getContent().isEmpty()) {
+      return CompletableFuture.completedFuture(Message.EMPTY);
+    }
     try {
       OMRequest omRequest = OMRatisHelper.convertByteStringToOMRequest(
           request.getContent());
@@ -465,9 +478,16 @@ public synchronized void unpause(long newLastAppliedSnaphsotIndex,
   }
 
   public OzoneManagerDoubleBuffer buildDoubleBufferForRatis() {
-    int maxUnflushedTransactionSize = ozoneManager.getConfiguration()
+    OzoneConfiguration conf = ozoneManager.getConfiguration();
+    int maxUnflushedTransactionSize = conf
         .getInt(OMConfigKeys.OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT,
             OMConfigKeys.OZONE_OM_UNFLUSHED_TRANSACTION_MAX_COUNT_DEFAULT);
+    boolean isPipelinedFlushEnabled = conf.getBoolean(
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED,
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_PIPELINED_FLUSH_ENABLED_DEFAULT);
+    int flushThreads = conf.getInt(
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS,
+        OMConfigKeys.OZONE_OM_DOUBLE_BUFFER_FLUSH_THREADS_DEFAULT);
     return new OzoneManagerDoubleBuffer.Builder()
         .setOmMetadataManager(ozoneManager.getMetadataManager())
         .setOzoneManagerRatisSnapShot(this::updateLastAppliedIndex)
@@ -476,6 +496,8 @@ public OzoneManagerDoubleBuffer buildDoubleBufferForRatis() {
         .setS3SecretManager(ozoneManager.getS3SecretManager())
         .enableRatis(true)
         .enableTracing(isTracingEnabled)
+        .enablePipelinedFlush(isPipelinedFlushEnabled)
+        .setFlushThreads(flushThreads)
         .build();
   }
 
@@ -49,6 +49,7 @@
 import org.apache.hadoop.ozone.om.request.bucket.acl.OMBucketRemoveAclRequest;
 import org.apache.hadoop.ozone.om.request.bucket.acl.OMBucketSetAclRequest;
 import org.apache.hadoop.ozone.om.request.file.OMRecoverLeaseRequest;
+import org.apache.hadoop.ozone.om.request.key.OMBatchWriteRequest;
 import org.apache.hadoop.ozone.om.request.key.OMKeyPurgeRequest;
 import org.apache.hadoop.ozone.om.request.key.OMDirectoriesPurgeRequestWithFSO;
 import org.apache.hadoop.ozone.om.request.key.OMOpenKeysDeleteRequest;
@@ -237,6 +238,8 @@ public static OMClientRequest createClientRequest(OMRequest omRequest,
             omRequest.getDeleteOpenKeysRequest().getBucketLayout());
       }
       return new OMOpenKeysDeleteRequest(omRequest, bktLayout);
+    case BatchWrite:
+      return new OMBatchWriteRequest(omRequest);
     case RecoverLease:
       volumeName = omRequest.getRecoverLeaseRequest().getVolumeName();
       bucketName = omRequest.getRecoverLeaseRequest().getBucketName();
@@ -35,6 +35,7 @@
 import org.apache.hadoop.hdds.utils.RDBSnapshotProvider;
 import org.apache.hadoop.hdds.utils.LegacyHadoopConfigurationSource;
 import org.apache.hadoop.hdfs.web.URLConnectionFactory;
+import org.apache.hadoop.ozone.om.OMStorage;
 import org.apache.hadoop.ozone.om.helpers.OMNodeDetails;
 
 import static java.net.HttpURLConnection.HTTP_CREATED;
@@ -95,7 +96,8 @@ public OmRatisSnapshotProvider(File snapshotDir,
 
   public OmRatisSnapshotProvider(MutableConfigurationSource conf,
       File omRatisSnapshotDir, Map<String, OMNodeDetails> peerNodeDetails) {
-    super(omRatisSnapshotDir, OM_DB_NAME);
+    super(omRatisSnapshotDir, OM_DB_NAME,
+        new File(OMStorage.getOmDbDir(conf), OM_DB_NAME));
     LOG.info("Initializing OM Snapshot Provider");
     this.peerNodesMap = new ConcurrentHashMap<>();
     peerNodesMap.putAll(peerNodeDetails);
@@ -155,7 +157,7 @@ public void downloadSnapshot(String leaderNodeID, File targetFile)
       connection.setRequestProperty("Content-Type", contentTypeValue);
       connection.setDoOutput(true);
       writeFormData(connection,
-          HAUtils.getExistingSstFiles(getCandidateDir()));
+          HAUtils.getExistingSstFilesWithChecksums(getCandidateDir()));
 
       connection.connect();
       int errorCode = connection.getResponseCode();
@@ -80,6 +80,9 @@ public abstract class OMClientRequest implements RequestAuditor {
   private InetAddress inetAddress;
   private final ThreadLocal<OMLockDetails> omLockDetails =
       ThreadLocal.withInitial(OMLockDetails::new);
+  // Offset of the object IDs of this request in the range reserved for its
+  // transaction, when the transaction is shared with other requests.
+  private long objectIdOffset;
 
   /**
    * Stores the result of request execution in
@@ -441,6 +444,25 @@ public String getHostName() {
     }
   }
 
+  /**
+   * Sets the offset of the object IDs this request allocates in the range
+   * reserved for its transaction, see {@link OmUtils#getObjectIdFromTxId}.
+   * Used when several requests are applied in the same transaction, so that
+   * each one gets object IDs of its own.
+   */
+  public void setObjectIdOffset(long objectIdOffset) {
+    this.objectIdOffset = objectIdOffset;
+  }
+
+  /**
+   * @return the first object ID this request can allocate in the given
+   * transaction.
+   */
+  protected long getBaseObjectId(OzoneManager ozoneManager,
+      long trxnLogIndex) {
+    return ozoneManager.getObjectIdFromTxId(trxnLogIndex) + objectIdOffset;
+  }
+
   /**
    * Set parameters needed for return error response to client.
    * @param omResponse
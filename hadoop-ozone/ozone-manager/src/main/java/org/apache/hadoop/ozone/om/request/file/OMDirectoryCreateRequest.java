@@ -269,14 +269,26 @@ public static List<OmKeyInfo> getAllParentInfo(OzoneManager ozoneManager,
       KeyArgs keyArgs, List<String> missingParents, OmBucketInfo bucketInfo,
       OMFileRequest.OMPathInfo omPathInfo, long trxnLogIndex)
       throws IOException {
+    // The base id is left shifted by 8 bits for creating space to
+    // create (2^8 - 1) object ids in every request.
+    return getAllParentInfo(ozoneManager, keyArgs, missingParents,
+        bucketInfo, omPathInfo, trxnLogIndex,
+        ozoneManager.getObjectIdFromTxId(trxnLogIndex));
+  }
+
+  /**
+   * Construct OmKeyInfo for every parent directory in missing list, with
+   * object IDs allocated after the given base object ID.
+   */
+  public static List<OmKeyInfo> getAllParentInfo(OzoneManager ozoneManager,
+      KeyArgs keyArgs, List<String> missingParents, OmBucketInfo bucketInfo,
+      OMFileRequest.OMPathInfo omPathInfo, long trxnLogIndex, long baseObjId)
+      throws IOException {
     OMMetadataManager omMetadataManager = ozoneManager.getMetadataManager();
     List<OmKeyInfo> missingParentInfos = new ArrayList<>();
 
-    // The base id is left shifted by 8 bits for creating space to
-    // create (2^8 - 1) object ids in every request.
     // maxObjId represents the largest object id allocation possible inside
     // the transaction.
-    long baseObjId = ozoneManager.getObjectIdFromTxId(trxnLogIndex);
     long maxObjId = baseObjId + MAX_NUM_OF_RECURSIVE_DIRS;
     long objectCount = 1; // baseObjID is used by the leaf directory
 
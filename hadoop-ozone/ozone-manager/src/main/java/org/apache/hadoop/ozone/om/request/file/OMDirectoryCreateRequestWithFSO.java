@@ -261,13 +261,25 @@ public static List<OmDirectoryInfo> getAllMissingParentDirInfo(
       OzoneManager ozoneManager, KeyArgs keyArgs, OmBucketInfo bucketInfo,
       OMFileRequest.OMPathInfoWithFSO pathInfo, long trxnLogIndex)
       throws IOException {
-    List<OmDirectoryInfo> missingParentInfos = new ArrayList<>();
-
     // The base id is left shifted by 8 bits for creating space to
     // create (2^8 - 1) object ids in every request.
+    return getAllMissingParentDirInfo(ozoneManager, keyArgs, bucketInfo,
+        pathInfo, trxnLogIndex,
+        ozoneManager.getObjectIdFromTxId(trxnLogIndex));
+  }
+
+  /**
+   * Construct OmDirectoryInfo for every parent directory in missing list,
+   * with object IDs allocated after the given base object ID.
+   */
+  public static List<OmDirectoryInfo> getAllMissingParentDirInfo(
+      OzoneManager ozoneManager, KeyArgs keyArgs, OmBucketInfo bucketInfo,
+      OMFileRequest.OMPathInfoWithFSO pathInfo, long trxnLogIndex,
+      long baseObjId) throws IOException {
+    List<OmDirectoryInfo> missingParentInfos = new ArrayList<>();
+
     // maxObjId represents the largest object id allocation possible inside
     // the transaction.
-    long baseObjId = ozoneManager.getObjectIdFromTxId(trxnLogIndex);
     long maxObjId = baseObjId + getMaxNumOfRecursiveDirs();
     long objectCount = 1;
 
@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.lock.OMLockDetails;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerDoubleBufferHelper;
+import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
+import org.apache.hadoop.ozone.om.request.OMClientRequest;
+import org.apache.hadoop.ozone.om.request.util.OmResponseUtil;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMBatchWriteResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+
+import static org.apache.hadoop.ozone.OzoneConsts.OZONE_URI_DELIMITER;
+import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.INVALID_REQUEST;
+
+/**
+ * Handles BatchWrite request: applies several key create, commit or delete
+ * requests in a single transaction.
+ * <p>
+ * The requests are applied in order, each one with a response of its own:
+ * the failure of a request does not affect the others.  Each request gets
+ * object IDs of its own in the range reserved for the transaction, see
+ * {@link #getObjectIdCount(OMRequest)}.  The responses are added to the
+ * double buffer together, so they are flushed in the same DB batch.
+ */
+public class OMBatchWriteRequest extends OMClientRequest {
+
+  /** Types of requests that can be sent in a BatchWrite request. */
+  public static final Set<Type> REQUEST_TYPES = Collections.unmodifiableSet(
+      EnumSet.of(Type.CreateKey, Type.CommitKey, Type.DeleteKey));
+
+  public OMBatchWriteRequest(OMRequest omRequest) {
+    super(omRequest);
+  }
+
+  /**
+   * Returns the number of object IDs reserved for a request of a batch.  A
+   * key create may create a directory for each parent in the path of the
+   * key.  In a FSO bucket the directories and the key take the IDs after
+   * the base ID of the request, so one more ID is reserved, whatever the
+   * layout of the bucket, for the count to only depend on the request.  A
+   * key commit may allocate an ID for the uncommitted blocks it deletes.
+   * The IDs of all the requests of a batch must fit in the range reserved
+   * for a transaction, {@link OmUtils#OBJECT_IDS_PER_TRANSACTION}, a request
+   * needing more is rejected.
+   */
+  public static int getObjectIdCount(OMRequest omRequest) {
+    switch (omRequest.getCmdType()) {
+    case CreateKey:
+      String keyName =
+          omRequest.getCreateKeyRequest().getKeyArgs().getKeyName();
+      return StringUtils.countMatches(keyName, OZONE_URI_DELIMITER) + 2;
+    case CommitKey:
+      return 1;
+    default:
+      return 0;
+    }
+  }
+
+  /**
+   * Splits the requests of a client batch over as few transactions as
+   * possible, so that the object IDs of the requests of each transaction fit
+   * in its range.  The split only depends on the requests sent by the
+   * client, not on their pre-execution, so that a retried batch is split the
+   * same way.  Pre-execution may only shorten the key name, so the requests
+   * still fit once pre-executed.
+   *
+   * @return the position of the first request of each transaction
+   */
+  public static List<Integer> splitIntoTransactions(List<OMRequest> requests) {
+    final List<Integer> starts = new ArrayList<>();
+    int objectIdCount = 0;
+    for (int i = 0; i < requests.size(); i++) {
+      final int count = getObjectIdCount(requests.get(i));
+      if (starts.isEmpty() ||
+          objectIdCount + count > OmUtils.OBJECT_IDS_PER_TRANSACTION) {
+        starts.add(i);
+        objectIdCount = 0;
+      }
+      objectIdCount += count;
+    }
+    return starts;
+  }
+
+  @Override
+  public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
+      long trxnLogIndex, OzoneManagerDoubleBufferHelper omDoubleBufferHelper) {
+    final List<OMRequest> requests =
+        getOmRequest().getBatchWriteRequest().getRequestsList();
+    final List<OMClientResponse> responses = new ArrayList<>(requests.size());
+    // Returned with the responses, to identify them in a reply from the
+    // retry cache, which may be for different requests of the client batch.
+    final BatchWriteResponse.Builder batchWriteResponse =
+        BatchWriteResponse.newBuilder().addAllIndexes(
+            getOmRequest().getBatchWriteRequest().getIndexesList());
+
+    long objectIdOffset = 0;
+    for (OMRequest request : requests) {
+      final int objectIdCount = getObjectIdCount(request);
+      OMResponse omResponse;
+      try {
+        if (!REQUEST_TYPES.contains(request.getCmdType())) {
+          throw new OMException(request.getCmdType() + " request is not " +
+              "supported in batch.", INVALID_REQUEST);
+        }
+        if (objectIdOffset + objectIdCount >
+            OmUtils.OBJECT_IDS_PER_TRANSACTION) {
+          throw new OMException("Not enough object IDs left in the " +
+              "transaction for " + request.getCmdType() + " request.",
+              INVALID_REQUEST);
+        }
+        OMClientRequest clientRequest =
+            OzoneManagerRatisUtils.createClientRequest(request, ozoneManager);
+        clientRequest.setObjectIdOffset(objectIdOffset);
+        objectIdOffset += objectIdCount;
+
+        // The response is added to the double buffer with the others.
+        OMClientResponse response = clientRequest.validateAndUpdateCache(
+            ozoneManager, trxnLogIndex, (r, index) -> null);
+        responses.add(response);
+        omResponse = response.getOMResponse();
+        OMLockDetails omLockDetails = response.getOmLockDetails();
+        if (omLockDetails != null) {
+          omResponse = omResponse.toBuilder()
+              .setOmLockDetails(omLockDetails.toProtobufBuilder()).build();
+        }
+      } catch (IOException e) {
+        omResponse = createErrorOMResponse(
+            OmResponseUtil.getOMResponseBuilder(request), e);
+      }
+      batchWriteResponse.addResponses(omResponse);
+    }
+
+    OMClientResponse omClientResponse = new OMBatchWriteResponse(
+        OmResponseUtil.getOMResponseBuilder(getOmRequest())
+            .setBatchWriteResponse(batchWriteResponse)
+            .build(),
+        responses);
+    addResponseToDoubleBuffer(trxnLogIndex, omClientResponse,
+        omDoubleBufferHelper);
+    return omClientResponse;
+  }
+}
@@ -302,7 +302,7 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       final OmKeyInfo pseudoKeyInfo = isHSync ? null
           : wrapUncommittedBlocksAsPseudoKey(uncommitted, omKeyInfo);
       if (pseudoKeyInfo != null) {
-        long pseudoObjId = ozoneManager.getObjectIdFromTxId(trxnLogIndex);
+        long pseudoObjId = getBaseObjectId(ozoneManager, trxnLogIndex);
         String delKeyName = omMetadataManager.getOzoneDeletePathKey(
             pseudoObjId, dbOzoneKey);
         if (null == oldKeyVersionsToDeleteMap) {
@@ -245,7 +245,7 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       if (pseudoKeyInfo != null) {
         String delKeyName = omMetadataManager
             .getOzoneKey(volumeName, bucketName, fileName);
-        long pseudoObjId = ozoneManager.getObjectIdFromTxId(trxnLogIndex);
+        long pseudoObjId = getBaseObjectId(ozoneManager, trxnLogIndex);
         delKeyName = omMetadataManager.getOzoneDeletePathKey(
             pseudoObjId, delKeyName);
         if (null == oldKeyVersionsToDeleteMap) {
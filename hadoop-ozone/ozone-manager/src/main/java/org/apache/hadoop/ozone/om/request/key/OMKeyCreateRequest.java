@@ -265,7 +265,8 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
         missingParentInfos = OMDirectoryCreateRequest
             .getAllParentInfo(ozoneManager, keyArgs,
                 pathInfo.getMissingParents(), bucketInfo,
-                pathInfo, trxnLogIndex);
+                pathInfo, trxnLogIndex,
+                getBaseObjectId(ozoneManager, trxnLogIndex));
 
         numMissingParents = missingParentInfos.size();
       }
@@ -279,7 +280,7 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       omKeyInfo = prepareKeyInfo(omMetadataManager, keyArgs, dbKeyInfo,
           keyArgs.getDataSize(), locations, getFileEncryptionInfo(keyArgs),
           ozoneManager.getPrefixManager(), bucketInfo, pathInfo, trxnLogIndex,
-          ozoneManager.getObjectIdFromTxId(trxnLogIndex),
+          getBaseObjectId(ozoneManager, trxnLogIndex),
           ozoneManager.isRatisEnabled(), replicationConfig);
 
       long openVersion = omKeyInfo.getLatestVersionLocations().getVersion();
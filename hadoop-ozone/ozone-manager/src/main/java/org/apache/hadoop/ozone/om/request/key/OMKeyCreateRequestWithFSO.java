@@ -151,7 +151,8 @@ public OMClientResponse validateAndUpdateCache(OzoneManager ozoneManager,
       // add all missing parents to dir table
       missingParentInfos =
           OMDirectoryCreateRequestWithFSO.getAllMissingParentDirInfo(
-              ozoneManager, keyArgs, bucketInfo, pathInfoFSO, trxnLogIndex);
+              ozoneManager, keyArgs, bucketInfo, pathInfoFSO, trxnLogIndex,
+              getBaseObjectId(ozoneManager, trxnLogIndex));
 
       // total number of keys created.
       numKeysCreated = missingParentInfos.size();
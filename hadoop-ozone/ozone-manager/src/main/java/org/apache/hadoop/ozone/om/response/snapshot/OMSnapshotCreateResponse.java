@@ -31,6 +31,7 @@
 import javax.annotation.Nonnull;
 import java.io.IOException;
 
+import static org.apache.hadoop.hdds.utils.db.Table.IteratorType.KEY_ONLY;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
 import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.DELETED_TABLE;
 import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.SNAPSHOT_RENAMED_TABLE;
@@ -84,7 +85,8 @@ public void addToDBBatch(OMMetadataManager omMetadataManager,
     // TODO: [SNAPSHOT] Move to createOmSnapshotCheckpoint and add table lock
     // Remove all entries from snapshotRenamedTable
     try (TableIterator<String, ? extends Table.KeyValue<String, String>>
-        iterator = omMetadataManager.getSnapshotRenamedTable().iterator()) {
+        iterator = omMetadataManager.getSnapshotRenamedTable()
+            .iterator(null, KEY_ONLY)) {
 
       String dbSnapshotBucketKey = omMetadataManager.getBucketKey(
           snapshotInfo.getVolumeName(), snapshotInfo.getBucketName())
@@ -19,23 +19,19 @@
 
 package org.apache.hadoop.ozone.om.service;
 
-import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import org.apache.hadoop.hdds.utils.db.BatchOperation;
 import org.apache.hadoop.hdds.utils.db.Table;
 import org.apache.hadoop.hdds.utils.db.TableIterator;
@@ -50,6 +46,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.apache.hadoop.hdds.utils.db.Table.IteratorType.KEY_AND_VALUE;
+import static org.apache.hadoop.hdds.utils.db.Table.IteratorType.KEY_ONLY;
 import static org.apache.hadoop.ozone.OzoneConsts.OLD_QUOTA_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
 import static org.apache.hadoop.ozone.OzoneConsts.QUOTA_RESET;
@@ -62,13 +60,14 @@
 public class QuotaRepairTask {
   private static final Logger LOG = LoggerFactory.getLogger(
       QuotaRepairTask.class);
-  private static final int BATCH_SIZE = 5000;
-  private static final int TASK_THREAD_CNT = 3;
+  private static final int TABLE_TYPE_CNT = 3;
+  private static final int RANGES_PER_THREAD = 4;
   public static final long EPOCH_DEFAULT = -1L;
   private final OMMetadataManager metadataManager;
   private final Map<String, OmBucketInfo> nameBucketInfoMap = new HashMap<>();
   private final Map<String, OmBucketInfo> idBucketInfoMap = new HashMap<>();
   private ExecutorService executor;
+  private ForkJoinPool pool;
   private final Map<String, CountPair> keyCountMap = new ConcurrentHashMap<>();
   private final Map<String, CountPair> fileCountMap
       = new ConcurrentHashMap<>();
@@ -85,8 +84,10 @@ public void repair() throws Exception {
     prepareAllVolumeBucketInfo();
 
     IOzoneManagerLock lock = metadataManager.getLock();
-    // thread pool with 3 Table type * (1 task each + 3 thread each)
-    executor = Executors.newFixedThreadPool(12);
+    // 1 thread per Table type, each splitting its table into ranges
+    // iterated by the shared pool
+    executor = Executors.newFixedThreadPool(TABLE_TYPE_CNT);
+    pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
     try {
       nameBucketInfoMap.values().stream().forEach(e -> lock.acquireReadLock(
           BUCKET_LOCK, e.getVolumeName(), e.getBucketName()));
@@ -95,6 +96,7 @@ public void repair() throws Exception {
       nameBucketInfoMap.values().stream().forEach(e -> lock.releaseReadLock(
           BUCKET_LOCK, e.getVolumeName(), e.getBucketName()));
       executor.shutdown();
+      pool.shutdown();
       LOG.info("Completed quota repair task");
     }
     updateOldVolumeQuotaSupport();
@@ -220,9 +222,6 @@ private void repairCount() throws Exception {
     } catch (UncheckedIOException ex) {
       LOG.error("quota repair failure", ex.getCause());
       throw ex.getCause();
-    } catch (UncheckedExecutionException ex) {
-      LOG.error("quota repair failure", ex.getCause());
-      throw new Exception(ex.getCause());
     }
     
     // persist bucket info
@@ -274,86 +273,41 @@ private void updateOldBucketQuotaSupport() {
 
   private <VALUE> void recalculateUsages(
       Table<String, VALUE> table, Map<String, CountPair> prefixUsageMap,
-      String strType, boolean haveValue) throws UncheckedIOException,
-      UncheckedExecutionException {
+      String strType, boolean haveValue) throws UncheckedIOException {
     LOG.info("Starting recalculate {}", strType);
 
-    List<Table.KeyValue<String, VALUE>> kvList = new ArrayList<>(BATCH_SIZE);
-    BlockingQueue<List<Table.KeyValue<String, VALUE>>> q
-        = new ArrayBlockingQueue<>(TASK_THREAD_CNT);
-    List<Future<?>> tasks = new ArrayList<>();
-    AtomicBoolean isRunning = new AtomicBoolean(true);
-    for (int i = 0; i < TASK_THREAD_CNT; ++i) {
-      tasks.add(executor.submit(() -> captureCount(
-          prefixUsageMap, q, isRunning, haveValue)));
-    }
-    int count = 0;
+    final LongAdder count = new LongAdder();
     long startTime = System.currentTimeMillis();
-    try (TableIterator<String, ? extends Table.KeyValue<String, VALUE>>
-             keyIter = table.iterator()) {
-      while (keyIter.hasNext()) {
-        count++;
-        kvList.add(keyIter.next());
-        if (kvList.size() == BATCH_SIZE) {
-          q.put(kvList);
-          kvList = new ArrayList<>(BATCH_SIZE);
-        }
-      }
-      q.put(kvList);
-      isRunning.set(false);
-      for (Future<?> f : tasks) {
-        f.get();
-      }
+    try {
+      // avoid reading values from the DB when not needed
+      table.forEachInParallel(RANGES_PER_THREAD * pool.getParallelism(), pool,
+          haveValue ? KEY_AND_VALUE : KEY_ONLY, kv -> {
+            count.increment();
+            extractCount(kv, prefixUsageMap, haveValue);
+          });
       LOG.info("Recalculate {} completed, count {} time {}ms", strType,
-          count, (System.currentTimeMillis() - startTime));
+          count.sum(), (System.currentTimeMillis() - startTime));
     } catch (IOException ex) {
       throw new UncheckedIOException(ex);
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
-    } catch (ExecutionException ex) {
-      throw new UncheckedExecutionException(ex);
-    }
-  }
-  
-  private <VALUE> void captureCount(
-      Map<String, CountPair> prefixUsageMap,
-      BlockingQueue<List<Table.KeyValue<String, VALUE>>> q,
-      AtomicBoolean isRunning, boolean haveValue) throws UncheckedIOException {
-    try {
-      while (isRunning.get() || !q.isEmpty()) {
-        List<Table.KeyValue<String, VALUE>> kvList
-            = q.poll(100, TimeUnit.MILLISECONDS);
-        if (null != kvList) {
-          for (Table.KeyValue<String, VALUE> kv : kvList) {
-            extractCount(kv, prefixUsageMap, haveValue);
-          }
-        }
-      }
-    } catch (InterruptedException ex) {
-      Thread.currentThread().interrupt();
     }
   }
   
   private <VALUE> void extractCount(
       Table.KeyValue<String, VALUE> kv,
       Map<String, CountPair> prefixUsageMap,
-      boolean haveValue) {
-    try {
-      String prefix = getVolumeBucketPrefix(kv.getKey());
-      CountPair usage = prefixUsageMap.get(prefix);
-      if (null == usage) {
-        return;
-      }
-      usage.incrNamespace(1L);
-      // avoid decode of value
-      if (haveValue) {
-        VALUE value = kv.getValue();
-        if (value instanceof OmKeyInfo) {
-          usage.incrSpace(((OmKeyInfo) value).getReplicatedSize());
-        }
+      boolean haveValue) throws IOException {
+    String prefix = getVolumeBucketPrefix(kv.getKey());
+    CountPair usage = prefixUsageMap.get(prefix);
+    if (null == usage) {
+      return;
+    }
+    usage.incrNamespace(1L);
+    // avoid decode of value
+    if (haveValue) {
+      VALUE value = kv.getValue();
+      if (value instanceof OmKeyInfo) {
+        usage.incrSpace(((OmKeyInfo) value).getReplicatedSize());
       }
-    } catch (IOException ex) {
-      throw new UncheckedIOException(ex);
     }
   }
   
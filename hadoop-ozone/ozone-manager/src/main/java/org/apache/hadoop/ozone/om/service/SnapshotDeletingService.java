@@ -73,6 +73,7 @@
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.apache.hadoop.hdds.utils.db.Table.IteratorType.KEY_ONLY;
 import static org.apache.hadoop.ozone.OzoneConsts.OM_KEY_PREFIX;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_SNAPSHOT_KEY_DELETING_LIMIT_PER_TASK;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_SNAPSHOT_KEY_DELETING_LIMIT_PER_TASK_DEFAULT;
@@ -357,7 +358,8 @@ private boolean isSnapshotReclaimable(
       boolean isDirTableCleanedUp = false;
       boolean isKeyTableCleanedUp  = false;
       try (TableIterator<String, ? extends Table.KeyValue<String,
-          RepeatedOmKeyInfo>> iterator = snapshotDeletedTable.iterator();) {
+          RepeatedOmKeyInfo>> iterator =
+               snapshotDeletedTable.iterator(null, KEY_ONLY)) {
         iterator.seek(snapshotBucketKey);
         // If the next entry doesn't start with snapshotBucketKey then
         // deletedKeyTable is already cleaned up.
@@ -366,7 +368,7 @@ private boolean isSnapshotReclaimable(
       }
 
       try (TableIterator<String, ? extends Table.KeyValue<String, OmKeyInfo>>
-               iterator = snapshotDeletedDirTable.iterator()) {
+               iterator = snapshotDeletedDirTable.iterator(null, KEY_ONLY)) {
         iterator.seek(dbBucketKeyForDir);
         // If the next entry doesn't start with dbBucketKeyForDir then
         // deletedDirTable is already cleaned up.
@@ -23,6 +23,9 @@
 import static org.apache.hadoop.util.MetricUtil.captureLatencyNs;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -34,6 +37,7 @@
 import org.apache.hadoop.ipc.ProcessingDetails.Timing;
 import org.apache.hadoop.ipc.Server;
 import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OMPerformanceMetrics;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
@@ -45,12 +49,16 @@
 import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer.RaftServerStatus;
 import org.apache.hadoop.ozone.om.ratis.utils.OzoneManagerRatisUtils;
 import org.apache.hadoop.ozone.om.request.OMClientRequest;
+import org.apache.hadoop.ozone.om.request.key.OMBatchWriteRequest;
 import org.apache.hadoop.ozone.om.request.validation.RequestValidations;
 import org.apache.hadoop.ozone.om.request.validation.ValidationContext;
 import org.apache.hadoop.ozone.om.response.OMClientResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
 
 import com.google.protobuf.ProtocolMessageEnum;
 import com.google.protobuf.RpcController;
@@ -84,6 +92,9 @@ public class OzoneManagerProtocolServerSideTranslatorPB implements
       ProtocolMessageEnum> dispatcher;
   private final RequestValidations requestValidations;
   private final OMPerformanceMetrics perfMetrics;
+  private final int maxBatchWriteRequests;
+  private final boolean followerReadEnabled;
+  private final long followerReadMaxStalenessMs;
 
   // always true, only used in tests
   private boolean shouldFlushCache = true;
@@ -138,7 +149,17 @@ public OzoneManagerProtocolServerSideTranslatorPB(
                 ValidationContext.of(ozoneManager.getVersionManager(),
                     ozoneManager.getMetadataManager()))
             .load();
-
+    maxBatchWriteRequests = Math.min(OzoneManagerRatisServer.MAX_BATCH_SIZE,
+        ozoneManager.getConfiguration().getInt(
+            OMConfigKeys.OZONE_OM_BATCH_WRITE_MAX_REQUESTS,
+            OMConfigKeys.OZONE_OM_BATCH_WRITE_MAX_REQUESTS_DEFAULT));
+    followerReadEnabled = ozoneManager.getConfiguration().getBoolean(
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED,
+        OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED_DEFAULT);
+    followerReadMaxStalenessMs = ozoneManager.getConfiguration()
+        .getTimeDuration(OMConfigKeys.OZONE_OM_FOLLOWER_READ_MAX_STALENESS,
+            OMConfigKeys.OZONE_OM_FOLLOWER_READ_MAX_STALENESS_DEFAULT,
+            TimeUnit.MILLISECONDS);
   }
 
   /**
@@ -203,6 +224,10 @@ private OMResponse internalProcessRequest(OMRequest request) throws
         }
       }
 
+      if (request.getCmdType() == Type.BatchWrite) {
+        return processBatchWrite(request, s3Auth);
+      }
+
       if (!isRatisEnabled) {
         return submitRequestDirectlyToOM(request);
       }
@@ -242,6 +267,160 @@ private OMResponse internalProcessRequest(OMRequest request) throws
     }
   }
 
+  /**
+   * Processes the write requests of a BatchWrite request.  The requests are
+   * pre-executed, then applied together in a single BatchWrite transaction,
+   * see {@link OMBatchWriteRequest}.  If the object IDs of the requests do
+   * not fit in the range reserved for one transaction, the requests are
+   * spread over as few consecutive transactions as needed, which are
+   * submitted to the Ratis server pipelined.  The failure of a request does
+   * not affect the others, the response of each one is returned in the
+   * BatchWriteResponse.
+   */
+  private OMResponse processBatchWrite(OMRequest request, boolean s3Auth)
+      throws ServiceException {
+    final List<OMRequest> requests =
+        request.getBatchWriteRequest().getRequestsList();
+    if (requests.size() > maxBatchWriteRequests) {
+      return createErrorResponse(request, new OMException("Too many " +
+          "requests in batch: " + requests.size() + ", at most " +
+          maxBatchWriteRequests + " are allowed.",
+          OMException.ResultCodes.INVALID_REQUEST));
+    }
+    // To validate credentials we have already verified leader status.
+    if (isRatisEnabled && !s3Auth) {
+      OzoneManagerRatisUtils.checkLeaderStatus(ozoneManager);
+    }
+
+    final OMResponse[] responses = new OMResponse[requests.size()];
+    final OMClientRequest[] clientRequests =
+        new OMClientRequest[requests.size()];
+    // The split only depends on the requests of the client, so that a retry
+    // of the batch is split the same way: the retry cache keys the reply of
+    // each transaction by the position of its first request in the batch.
+    final List<Integer> starts =
+        OMBatchWriteRequest.splitIntoTransactions(requests);
+    final List<BatchWriteRequest.Builder> transactions =
+        new ArrayList<>(starts.size());
+    for (int t = 0; t < starts.size(); t++) {
+      transactions.add(BatchWriteRequest.newBuilder());
+    }
+    int t = -1;
+    for (int i = 0; i < requests.size(); i++) {
+      if (t + 1 < starts.size() && starts.get(t + 1) == i) {
+        t++;
+      }
+      OMRequest subRequest = requests.get(i);
+      if (request.hasS3Authentication()) {
+        subRequest = subRequest.toBuilder()
+            .setS3Authentication(request.getS3Authentication())
+            .build();
+      }
+      try {
+        if (!OMBatchWriteRequest.REQUEST_TYPES.contains(
+            subRequest.getCmdType())) {
+          throw new OMException(subRequest.getCmdType() + " request is " +
+              "not supported in batch.",
+              OMException.ResultCodes.INVALID_REQUEST);
+        }
+        subRequest = requestValidations.validateRequest(subRequest);
+      } catch (Exception e) {
+        if (e instanceof OMException) {
+          responses[i] = createErrorResponse(subRequest, (OMException) e);
+          continue;
+        }
+        throw new ServiceException(e);
+      }
+
+      final OMRequest requestToSubmit;
+      try {
+        clientRequests[i] = createClientRequest(subRequest, ozoneManager);
+        requestToSubmit = preExecute(clientRequests[i]);
+      } catch (IOException ex) {
+        if (clientRequests[i] != null) {
+          clientRequests[i].handleRequestFailure(ozoneManager);
+        }
+        responses[i] = createErrorResponse(subRequest, ex);
+        continue;
+      }
+      transactions.get(t).addRequests(requestToSubmit).addIndexes(i);
+    }
+
+    final List<OMRequest> transactionRequests =
+        new ArrayList<>(transactions.size());
+    final List<Integer> transactionPositions =
+        new ArrayList<>(transactions.size());
+    for (t = 0; t < transactions.size(); t++) {
+      if (transactions.get(t).getRequestsCount() > 0) {
+        transactionRequests.add(request.toBuilder()
+            .setBatchWriteRequest(transactions.get(t))
+            .build());
+        transactionPositions.add(starts.get(t));
+      }
+    }
+    final List<OMResponse> transactionResponses;
+    if (isRatisEnabled) {
+      transactionResponses = transactionRequests.isEmpty()
+          ? Collections.emptyList()
+          : omRatisServer.submitRequests(transactionRequests,
+              transactionPositions);
+    } else {
+      transactionResponses = new ArrayList<>(transactionRequests.size());
+      for (OMRequest transactionRequest : transactionRequests) {
+        transactionResponses.add(
+            submitRequestDirectlyToOM(transactionRequest));
+      }
+    }
+
+    for (t = 0; t < transactionResponses.size(); t++) {
+      final OMResponse transactionResponse = transactionResponses.get(t);
+      final List<Integer> submitted = transactionRequests.get(t)
+          .getBatchWriteRequest().getIndexesList();
+      if (transactionResponse.getSuccess()) {
+        // A reply from the retry cache is for the requests submitted by the
+        // first attempt of the batch, which may not be those submitted now.
+        final BatchWriteResponse reply =
+            transactionResponse.getBatchWriteResponse();
+        for (int j = 0; j < reply.getIndexesCount(); j++) {
+          final int i = reply.getIndexes(j);
+          if (i < responses.length && j < reply.getResponsesCount()) {
+            responses[i] = reply.getResponses(j);
+          }
+        }
+      }
+      for (int i : submitted) {
+        if (!transactionResponse.getSuccess()) {
+          // The whole transaction failed, for example in prepare mode.
+          responses[i] = transactionResponse.toBuilder()
+              .clearBatchWriteResponse()
+              .setCmdType(requests.get(i).getCmdType())
+              .build();
+        } else if (responses[i] == null) {
+          responses[i] = createErrorResponse(requests.get(i),
+              new OMException("Request was not applied, the batch was " +
+                  "first sent with different requests.",
+                  OMException.ResultCodes.INTERNAL_ERROR));
+        }
+        if (!responses[i].getSuccess()) {
+          clientRequests[i].handleRequestFailure(ozoneManager);
+        }
+      }
+    }
+
+    BatchWriteResponse.Builder batchResponse = BatchWriteResponse.newBuilder();
+    for (int i = 0; i < responses.length; i++) {
+      batchResponse.addResponses(
+          requestValidations.validateResponse(requests.get(i), responses[i]));
+    }
+    return OMResponse.newBuilder()
+        .setCmdType(Type.BatchWrite)
+        .setStatus(OzoneManagerProtocolProtos.Status.OK)
+        .setSuccess(true)
+        .setTraceID(request.getTraceID())
+        .setBatchWriteResponse(batchResponse)
+        .build();
+  }
+
   private OMRequest preExecute(OMClientRequest finalOmClientRequest)
       throws IOException {
     return captureLatencyNs(perfMetrics.getPreExecuteLatencyNs(),
@@ -260,14 +439,46 @@ private OMResponse submitReadRequestToOM(OMRequest request)
       throws ServiceException {
     // Check if this OM is the leader.
     RaftServerStatus raftServerStatus = omRatisServer.checkLeaderStatus();
+    if (raftServerStatus == LEADER_AND_READY &&
+        omRatisServer.isLinearizableRead() &&
+        !request.getCmdType().equals(PrepareStatus)) {
+      omRatisServer.waitForLinearizableRead();
+    }
     if (raftServerStatus == LEADER_AND_READY ||
-        request.getCmdType().equals(PrepareStatus)) {
-      return handler.handleReadRequest(request);
+        request.getCmdType().equals(PrepareStatus) ||
+        raftServerStatus == NOT_LEADER && canServeFollowerRead(request)) {
+      return handleReadRequest(request);
     } else {
       throw createLeaderErrorException(raftServerStatus);
     }
   }
 
+  /**
+   * Check if this follower OM can serve the read request: the client allows
+   * follower reads, and this OM is close enough to the leader and has
+   * applied the writes observed by the client.
+   */
+  private boolean canServeFollowerRead(OMRequest request) {
+    return followerReadEnabled
+        && request.hasFollowerReadMinIndex()
+        && OmUtils.isFollowerReadable(request)
+        && omRatisServer.canServeFollowerRead(
+            request.getFollowerReadMinIndex(), followerReadMaxStalenessMs);
+  }
+
+  private OMResponse handleReadRequest(OMRequest request) {
+    if (!request.hasFollowerReadMinIndex()) {
+      return handler.handleReadRequest(request);
+    }
+    // Get the applied index before the read, so that the read reflects at
+    // least the writes up to the index returned to the client.
+    final long appliedIndex =
+        omRatisServer.getLastAppliedTermIndex().getIndex();
+    return handler.handleReadRequest(request).toBuilder()
+        .setAppliedIndex(appliedIndex)
+        .build();
+  }
+
   private ServiceException createLeaderErrorException(
       RaftServerStatus raftServerStatus) {
     if (raftServerStatus == NOT_LEADER) {
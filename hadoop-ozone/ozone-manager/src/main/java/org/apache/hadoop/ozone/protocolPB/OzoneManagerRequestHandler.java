@@ -38,6 +38,7 @@
 import org.apache.hadoop.hdds.client.ReplicationConfig;
 import org.apache.hadoop.ozone.OzoneAcl;
 import org.apache.hadoop.ozone.common.PayloadUtils;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OzoneManager;
 import org.apache.hadoop.ozone.om.OzoneManagerPrepareState;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
@@ -45,8 +46,10 @@
 import org.apache.hadoop.ozone.om.helpers.BasicOmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.ListKeysLightResult;
 import org.apache.hadoop.ozone.om.helpers.ListKeysResult;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.DBUpdates;
 import org.apache.hadoop.ozone.om.helpers.KeyInfoWithVolumeContext;
+import org.apache.hadoop.ozone.om.helpers.OmBatchResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
@@ -111,6 +114,9 @@
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.ListVolumeResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeyResult;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeysRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.LookupKeysResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.MultipartUploadListPartsRequest;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.MultipartUploadListPartsResponse;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
@@ -321,6 +327,10 @@ public OMResponse handleReadRequest(OMRequest request) {
         responseBuilder.setGetKeyInfoResponse(
             getKeyInfo(request.getGetKeyInfoRequest(), request.getVersion()));
         break;
+      case LookupKeys:
+        responseBuilder.setLookupKeysResponse(
+            lookupKeys(request.getLookupKeysRequest(), request.getVersion()));
+        break;
       case ListSnapshot:
         OzoneManagerProtocolProtos.ListSnapshotResponse listSnapshotResponse =
             getSnapshots(request.getListSnapshotRequest());
@@ -609,6 +619,50 @@ private GetKeyInfoResponse getKeyInfo(GetKeyInfoRequest request,
     return keyInfo.toProtobuf(clientVersion);
   }
 
+  private LookupKeysResponse lookupKeys(LookupKeysRequest request,
+      int clientVersion) throws IOException {
+    int maxKeys = impl.getConfiguration().getInt(
+        OMConfigKeys.OZONE_OM_LOOKUP_KEYS_MAX,
+        OMConfigKeys.OZONE_OM_LOOKUP_KEYS_MAX_DEFAULT);
+    if (request.getKeyArgsCount() > maxKeys) {
+      throw new OMException("Too many keys to look up: " +
+          request.getKeyArgsCount() + ", at most " + maxKeys +
+          " are allowed.", OMException.ResultCodes.INVALID_REQUEST);
+    }
+
+    List<OmKeyArgs> omKeyArgs = new ArrayList<>(request.getKeyArgsCount());
+    for (KeyArgs keyArgs : request.getKeyArgsList()) {
+      omKeyArgs.add(new OmKeyArgs.Builder()
+          .setVolumeName(keyArgs.getVolumeName())
+          .setBucketName(keyArgs.getBucketName())
+          .setKeyName(keyArgs.getKeyName())
+          .setLatestVersionLocation(keyArgs.getLatestVersionLocation())
+          .setSortDatanodesInPipeline(keyArgs.getSortDatanodes())
+          .setHeadOp(keyArgs.getHeadOp())
+          .setForceUpdateContainerCacheFromSCM(
+              keyArgs.getForceUpdateContainerCacheFromSCM())
+          .build());
+    }
+    List<OmBatchResult<OmKeyInfo>> results = impl.lookupKeys(omKeyArgs);
+
+    LookupKeysResponse.Builder resp = LookupKeysResponse.newBuilder();
+    for (int i = 0; i < results.size(); i++) {
+      OmBatchResult<OmKeyInfo> result = results.get(i);
+      LookupKeyResult.Builder keyResult = LookupKeyResult.newBuilder();
+      if (result.isSuccess()) {
+        keyResult.setStatus(Status.OK).setKeyInfo(result.get().getProtobuf(
+            omKeyArgs.get(i).isHeadOp(), clientVersion));
+      } else {
+        keyResult.setStatus(exceptionToResponseStatus(result.getException()));
+        if (result.getException().getMessage() != null) {
+          keyResult.setMessage(result.getException().getMessage());
+        }
+      }
+      resp.addResults(keyResult);
+    }
+    return resp.build();
+  }
+
   @RequestFeatureValidator(
       conditions = ValidationCondition.OLDER_CLIENT_REQUESTS,
       processingPhase = RequestProcessingPhase.POST_PROCESS,
@@ -1178,13 +1232,25 @@ private ListStatusResponse listStatus(
         .build();
     boolean allowPartialPrefixes =
         request.hasAllowPartialPrefix() && request.getAllowPartialPrefix();
-    List<OzoneFileStatus> statuses =
-        impl.listStatus(omKeyArgs, request.getRecursive(),
-            request.getStartKey(), request.getNumEntries(),
-            allowPartialPrefixes);
     ListStatusResponse.Builder
         listStatusResponseBuilder =
         ListStatusResponse.newBuilder();
+    List<OzoneFileStatus> statuses;
+    if (request.hasContinuationToken() && !request.getRecursive()
+        && !allowPartialPrefixes) {
+      ListStatusResult result = impl.listStatusPage(omKeyArgs,
+          request.getStartKey(), request.getNumEntries(),
+          request.getContinuationToken());
+      statuses = result.getStatuses();
+      if (result.getContinuationToken() != null) {
+        listStatusResponseBuilder.setContinuationToken(
+            result.getContinuationToken());
+      }
+    } else {
+      statuses = impl.listStatus(omKeyArgs, request.getRecursive(),
+          request.getStartKey(), request.getNumEntries(),
+          allowPartialPrefixes);
+    }
     for (OzoneFileStatus status : statuses) {
       listStatusResponseBuilder.addStatuses(status.getProtobuf(clientVersion));
     }
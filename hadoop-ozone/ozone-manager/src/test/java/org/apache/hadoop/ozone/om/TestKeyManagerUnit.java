@@ -41,6 +41,7 @@
 import org.apache.hadoop.hdds.protocol.DatanodeDetails;
 import org.apache.hadoop.hdds.protocol.MockDatanodeDetails;
 import org.apache.hadoop.hdds.protocol.StorageType;
+import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos.ReplicationFactor;
 import org.apache.hadoop.hdds.scm.container.common.helpers.ContainerWithPipeline;
 import org.apache.hadoop.hdds.scm.container.ContainerInfo;
@@ -53,6 +54,7 @@
 import org.apache.hadoop.hdds.scm.protocol.StorageContainerLocationProtocol;
 import org.apache.hadoop.ozone.OzoneConsts;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmBucketInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs;
 import org.apache.hadoop.ozone.om.helpers.OmKeyArgs.Builder;
@@ -638,6 +640,78 @@ public void listStatus() throws Exception {
     verify(containerClient, times(1)).getContainerWithPipelineBatch(anySet());
   }
 
+  @Test
+  public void listStatusPage() throws Exception {
+    String volume = "vol";
+    String bucket = "fsobucket";
+    OMRequestTestUtils.addVolumeToDB(volume, OzoneConsts.OZONE,
+        metadataManager);
+    OmBucketInfo bucketInfo = OMRequestTestUtils.addBucketToDB(volume,
+        bucket, metadataManager, BucketLayout.FILE_SYSTEM_OPTIMIZED);
+
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String fileName = "file" + i;
+      expected.add(fileName);
+      OmKeyInfo keyInfo = OMRequestTestUtils.createOmKeyInfo(volume, bucket,
+          fileName, HddsProtos.ReplicationType.RATIS,
+          ReplicationFactor.ONE, 100 + i, bucketInfo.getObjectID(), 1L,
+          Time.now());
+      OMRequestTestUtils.addFileToKeyTable(false, false, fileName, keyInfo,
+          -1, 1L, metadataManager);
+    }
+
+    OmKeyArgs args = new OmKeyArgs.Builder()
+        .setVolumeName(volume)
+        .setBucketName(bucket)
+        .setKeyName("")
+        .build();
+    ListStatusResult page =
+        keyManager.listStatusPage(args, "", 4, null, null);
+    Assertions.assertEquals(expected.subList(0, 4), keyNames(page));
+    Assertions.assertNotNull(page.getContinuationToken());
+
+    // later pages read from the cursor, which does not see the new file
+    OmKeyInfo newKey = OMRequestTestUtils.createOmKeyInfo(volume, bucket,
+        "file35", HddsProtos.ReplicationType.RATIS, ReplicationFactor.ONE,
+        200, bucketInfo.getObjectID(), 1L, Time.now());
+    OMRequestTestUtils.addFileToKeyTable(false, false, "file35", newKey,
+        -1, 1L, metadataManager);
+
+    // the next page starts with the last entry of the previous one, like
+    // when seeking for startKey
+    List<String> listed = new ArrayList<>(keyNames(page));
+    while (page.getContinuationToken() != null) {
+      page = keyManager.listStatusPage(args, listed.get(listed.size() - 1),
+          4, null, page.getContinuationToken());
+      List<String> names = keyNames(page);
+      Assertions.assertEquals(listed.get(listed.size() - 1), names.get(0));
+      listed.addAll(names.subList(1, names.size()));
+    }
+    Assertions.assertEquals(expected, listed);
+
+    // a token not continued by startKey falls back to seeking for startKey
+    page = keyManager.listStatusPage(args, "", 4, null, null);
+    page = keyManager.listStatusPage(args, "file3", 2, null,
+        page.getContinuationToken() + "x");
+    Assertions.assertEquals(Arrays.asList("file3", "file35"),
+        keyNames(page));
+    page = keyManager.listStatusPage(args, "file6", 2, null,
+        page.getContinuationToken());
+    Assertions.assertEquals(expected.subList(6, 8), keyNames(page));
+
+    // unknown tokens are ignored
+    page = keyManager.listStatusPage(args, "file8", 4, null, "unknown");
+    Assertions.assertEquals(expected.subList(8, 10), keyNames(page));
+    Assertions.assertNull(page.getContinuationToken());
+  }
+
+  private static List<String> keyNames(ListStatusResult page) {
+    return page.getStatuses().stream()
+        .map(status -> status.getKeyInfo().getKeyName())
+        .collect(toList());
+  }
+
   @ParameterizedTest
   @ValueSource(strings = {"anyhost", ""})
   public void sortDatanodes(String client) throws Exception {
@@ -66,6 +66,8 @@
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_OPEN_KEY_EXPIRE_THRESHOLD_DEFAULT;
 import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
 import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_DB_DIRS;
+import static org.apache.hadoop.ozone.om.OMConfigKeys.OZONE_OM_SHARDED_CACHE_TABLES;
+import static org.apache.hadoop.ozone.om.OmMetadataManagerImpl.KEY_TABLE;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.BUCKET_NOT_FOUND;
 import static org.apache.hadoop.ozone.om.exceptions.OMException.ResultCodes.VOLUME_NOT_FOUND;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -116,6 +118,27 @@ public void testTransactionTable() throws Exception {
 
   }
 
+  @Test
+  public void testShardedKeyTableCache() throws Exception {
+    omMetadataManager.stop();
+    ozoneConfiguration.set(OZONE_OM_SHARDED_CACHE_TABLES, KEY_TABLE);
+    OmMetadataManagerImpl metadataManager =
+        new OmMetadataManagerImpl(ozoneConfiguration, null);
+    omMetadataManager = metadataManager;
+
+    OMRequestTestUtils.addKeyToTable(false, "vol", "bucket", "key", 1L,
+        HddsProtos.ReplicationType.RATIS, HddsProtos.ReplicationFactor.ONE,
+        metadataManager);
+    String ozoneKey = metadataManager.getOzoneKey("vol", "bucket", "key");
+    for (int i = 0; i < 3; i++) {
+      assertEquals("key", metadataManager.getKeyTable(BucketLayout.LEGACY)
+          .get(ozoneKey).getKeyName());
+    }
+    // the first read goes to DB, the others are served by the cache
+    assertEquals(2, metadataManager.getKeyCacheStats().getCacheHits());
+    assertEquals(1, metadataManager.getKeyCacheStats().getCacheMisses());
+  }
+
   @Test
   public void testListVolumes() throws Exception {
     String ownerName = "owner";
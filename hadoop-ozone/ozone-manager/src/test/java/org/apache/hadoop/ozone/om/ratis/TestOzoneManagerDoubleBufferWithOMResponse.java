@@ -110,7 +110,7 @@ public void setup() throws IOException {
     ozoneManagerRatisSnapshot = index -> {
       lastAppliedIndex = index.get(index.size() - 1);
     };
-    doubleBuffer = new OzoneManagerDoubleBuffer.Builder()
+    doubleBuffer = newDoubleBufferBuilder()
         .setOmMetadataManager(omMetadataManager)
         .setOzoneManagerRatisSnapShot(ozoneManagerRatisSnapshot)
         .setmaxUnFlushedTransactionCount(100000)
@@ -120,6 +120,10 @@ public void setup() throws IOException {
     ozoneManagerDoubleBufferHelper = doubleBuffer::add;
   }
 
+  protected OzoneManagerDoubleBuffer.Builder newDoubleBufferBuilder() {
+    return new OzoneManagerDoubleBuffer.Builder();
+  }
+
   @AfterEach
   public void stop() {
     doubleBuffer.stop();
@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.ratis;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.hdds.utils.db.BatchOperation;
+import org.apache.hadoop.hdds.utils.db.DBStore;
+import org.apache.hadoop.hdds.utils.db.Table;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMKeyCreateResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.ratis.util.ExitUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests OzoneManagerDoubleBuffer with actual OMResponse classes, with
+ * pipelined flush enabled. Also tests the ordering of batches being
+ * prepared, committed and cleaned up concurrently, using a mocked DB with
+ * one transaction per batch, numbered like the batches.
+ */
+public class TestOzoneManagerDoubleBufferWithPipelinedFlush
+    extends TestOzoneManagerDoubleBufferWithOMResponse {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private OzoneManagerDoubleBuffer pipelinedBuffer;
+  private ExecutorService executor;
+  // what happened to the batches, e.g. "prepare:1", "commit:1"
+  private final List<String> events =
+      Collections.synchronizedList(new ArrayList<>());
+  private final List<BatchOperation> batches =
+      Collections.synchronizedList(new ArrayList<>());
+  private final CountDownLatch committing1 = new CountDownLatch(1);
+  private final CountDownLatch releaseCommit1 = new CountDownLatch(1);
+  private final CountDownLatch committed2 = new CountDownLatch(1);
+  private volatile int failingCommit;
+  private volatile boolean slowCleanup1;
+
+  @Override
+  protected OzoneManagerDoubleBuffer.Builder newDoubleBufferBuilder() {
+    return new OzoneManagerDoubleBuffer.Builder()
+        .enablePipelinedFlush(true)
+        .setFlushThreads(4);
+  }
+
+  @BeforeEach
+  public void setupPipelinedBuffer() throws IOException {
+    ExitUtils.disableSystemExit();
+    executor = Executors.newSingleThreadExecutor();
+
+    OMMetadataManager metadataManager = mock(OMMetadataManager.class);
+    DBStore store = mock(DBStore.class);
+    when(metadataManager.getStore()).thenReturn(store);
+    when(store.initBatchOperation()).thenAnswer(invocation -> {
+      BatchOperation batch = mock(BatchOperation.class);
+      batches.add(batch);
+      return batch;
+    });
+    doAnswer(invocation -> {
+      int batch = batches.indexOf(invocation.getArgument(0)) + 1;
+      if (batch == 1) {
+        committing1.countDown();
+        assertTrue(releaseCommit1.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      }
+      if (batch == failingCommit) {
+        throw new IOException("Injected failure of batch " + batch);
+      }
+      events.add("commit:" + batch);
+      if (batch == 2) {
+        committed2.countDown();
+      }
+      return null;
+    }).when(store).commitBatchOperation(any());
+    when(metadataManager.getTransactionInfoTable())
+        .thenReturn(mock(Table.class));
+    Table<?, ?> table = mock(Table.class);
+    doAnswer(invocation -> {
+      List<Long> epochs = invocation.getArgument(0);
+      long batch = epochs.get(epochs.size() - 1);
+      if (batch == 1 && slowCleanup1) {
+        // the next batch is committed meanwhile
+        assertTrue(committed2.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      }
+      events.add("cleanup:" + batch);
+      return null;
+    }).when(table).cleanupCache(anyList());
+    doAnswer(invocation -> table).when(metadataManager)
+        .getTable(anyString());
+
+    OzoneManagerDoubleBuffer.FlushNotifier flushNotifier =
+        spy(new OzoneManagerDoubleBuffer.FlushNotifier());
+    doAnswer(invocation -> {
+      events.add("notify");
+      return invocation.callRealMethod();
+    }).when(flushNotifier).notifyFlush();
+
+    pipelinedBuffer = newDoubleBufferBuilder()
+        .setOmMetadataManager(metadataManager)
+        .setOzoneManagerRatisSnapShot(indexes ->
+            events.add("applied:" + indexes.get(indexes.size() - 1)))
+        .setmaxUnFlushedTransactionCount(1000)
+        .enableRatis(true)
+        .setIndexToTerm(i -> 1L)
+        .setFlushNotifier(flushNotifier)
+        .build();
+    // Batches are flushed by the test, to control what is in flight.
+    pipelinedBuffer.stopDaemon();
+    events.clear();
+  }
+
+  @AfterEach
+  public void stopPipelinedBuffer() {
+    releaseCommit1.countDown();
+    executor.shutdownNow();
+    pipelinedBuffer.stop();
+  }
+
+  @Test
+  public void testNextBatchPreparedWhileCommitting() throws Exception {
+    pipelinedBuffer.add(response(Type.CreateKey, 1,
+        response(Type.CreateKey, 2, null)), 1);
+    // batch 1 is handed over to the commit thread, 2 is left in the buffer
+    pipelinedBuffer.flushCurrentBuffer();
+    assertTrue(committing1.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    Future<?> flush = executor.submit(pipelinedBuffer::flushCurrentBuffer);
+    waitForEvent("prepare:2");
+    assertFalse(events.contains("commit:1"));
+    assertFalse(flush.isDone());
+
+    releaseCommit1.countDown();
+    flush.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertBefore("prepare:2", "commit:1");
+    assertBefore("commit:1", "commit:2");
+    assertEquals(2, pipelinedBuffer.getFlushedTransactionCount());
+  }
+
+  @Test
+  public void testCommitAndCleanupOrderOfOverlappingBatches()
+      throws Exception {
+    slowCleanup1 = true;
+    releaseCommit1.countDown();
+    pipelinedBuffer.add(response(Type.CreateKey, 1,
+        response(Type.CreateKey, 2,
+            response(Type.CreateKey, 3, null))), 1);
+    pipelinedBuffer.flushCurrentBuffer();
+    // batch 2 is committed while batch 1 is being cleaned up
+    pipelinedBuffer.flushCurrentBuffer();
+    // nothing is left to flush, so the last batch is waited for
+    pipelinedBuffer.flushCurrentBuffer();
+
+    assertEquals(3, pipelinedBuffer.getFlushedTransactionCount());
+    assertBefore("commit:1", "commit:2");
+    assertBefore("commit:2", "commit:3");
+    assertBefore("applied:1", "applied:2");
+    assertBefore("applied:2", "applied:3");
+    // cleaned up after being committed, in commit order
+    assertBefore("commit:1", "cleanup:1");
+    assertBefore("commit:2", "cleanup:1");
+    assertBefore("cleanup:1", "cleanup:2");
+    assertBefore("cleanup:2", "cleanup:3");
+    // waiters are notified after the batches flushed before are cleaned up
+    assertBefore("cleanup:1", "notify");
+    assertEquals(3, Collections.frequency(events, "notify"));
+    assertTrue(events.lastIndexOf("notify") > events.indexOf("cleanup:3"));
+  }
+
+  @Test
+  public void testNonPipelinedResponseWaitsForPreviousBatches()
+      throws Exception {
+    pipelinedBuffer.add(response(Type.CreateKey, 1,
+        response(Type.PurgeKeys, 2, null)), 1);
+    pipelinedBuffer.flushCurrentBuffer();
+    assertTrue(committing1.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    // the purge is not added to a batch while batch 1 is being committed
+    Future<?> flush = executor.submit(pipelinedBuffer::flushCurrentBuffer);
+    Thread.sleep(500);
+    assertFalse(events.contains("prepare:2"));
+
+    releaseCommit1.countDown();
+    flush.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    assertBefore("commit:1", "prepare:2");
+    assertBefore("prepare:2", "commit:2");
+  }
+
+  @Test
+  public void testFailedCommitStopsBatchesInFlight() throws Exception {
+    failingCommit = 2;
+    pipelinedBuffer.add(response(Type.CreateKey, 1,
+        response(Type.CreateKey, 2,
+            response(Type.CreateKey, 3, null))), 1);
+    pipelinedBuffer.flushCurrentBuffer();
+    assertTrue(committing1.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+    // batch 1 is being committed, batch 2 is prepared and waits for it,
+    // batch 3 is in the buffer
+    Future<?> flush = executor.submit(pipelinedBuffer::flushCurrentBuffer);
+    waitForEvent("prepare:2");
+    assertEquals(1, pipelinedBuffer.getCurrentBufferSize());
+    releaseCommit1.countDown();
+    flush.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+    try {
+      pipelinedBuffer.flushCurrentBuffer();
+    } catch (RuntimeException e) {
+      // thrown by terminate with system exit disabled
+    }
+    assertTrue(ExitUtils.isTerminated());
+    assertTrue(events.contains("prepare:3"));
+    assertFalse(events.contains("commit:2"));
+    assertFalse(events.contains("commit:3"));
+    assertFalse(events.contains("applied:2"));
+    assertFalse(events.contains("applied:3"));
+    assertEquals(1, pipelinedBuffer.getFlushedTransactionCount());
+    // the batch prepared after the failure is released without commit
+    verify(batches.get(2)).close();
+  }
+
+  /**
+   * Creates a response for the transaction. If next is not null, it is
+   * added to the double buffer as the next transaction while the response
+   * is added to a batch, so that it ends up in the next batch.
+   */
+  private OMClientResponse response(Type cmdType, long transactionIndex,
+      OMClientResponse next) throws IOException {
+    OMClientResponse response = mock(OMKeyCreateResponse.class);
+    when(response.getOMResponse()).thenReturn(OMResponse.newBuilder()
+        .setCmdType(cmdType)
+        .setStatus(Status.OK)
+        .build());
+    doAnswer(invocation -> {
+      if (next != null) {
+        pipelinedBuffer.add(next, transactionIndex + 1);
+      }
+      events.add("prepare:" + transactionIndex);
+      return null;
+    }).when(response).checkAndUpdateDB(any(), any());
+    return response;
+  }
+
+  private void waitForEvent(String event) throws InterruptedException {
+    long deadline = System.currentTimeMillis() +
+        TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+    while (!events.contains(event)) {
+      assertTrue(System.currentTimeMillis() < deadline,
+          "Timed out waiting for " + event);
+      Thread.sleep(10);
+    }
+  }
+
+  private void assertBefore(String first, String second) {
+    int firstIndex = events.indexOf(first);
+    int secondIndex = events.indexOf(second);
+    assertTrue(firstIndex >= 0 && firstIndex < secondIndex,
+        first + " should happen before " + second + " in " + events);
+  }
+}
@@ -23,15 +23,27 @@
 import java.net.InetSocketAddress;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.protobuf.ServiceException;
 
 import org.apache.hadoop.hdds.HddsConfigKeys;
 import org.apache.hadoop.hdds.conf.OzoneConfiguration;
 import org.apache.hadoop.hdds.protocol.proto.HddsProtos;
 import org.apache.hadoop.hdds.utils.TransactionInfo;
 import org.apache.hadoop.hdds.security.SecurityConfig;
+import org.apache.hadoop.ipc.RPC;
+import org.apache.hadoop.ipc.Server;
+import org.apache.hadoop.metrics2.lib.MutableRate;
 import org.apache.hadoop.ozone.om.OMStorage;
 import org.apache.hadoop.ozone.security.OMCertificateClient;
 import org.apache.hadoop.ozone.OmUtils;
@@ -39,18 +51,35 @@
 import org.apache.hadoop.ozone.common.ha.ratis.RatisSnapshotInfo;
 import org.apache.hadoop.ozone.om.OMConfigKeys;
 import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMPerformanceMetrics;
 import org.apache.hadoop.ozone.om.helpers.OMNodeDetails;
 import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
 import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.OzoneManagerPrepareState;
+import org.apache.hadoop.ozone.om.exceptions.OMException;
+import org.apache.hadoop.ozone.om.helpers.OMRatisHelper;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DeleteKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos
     .OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
 import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos;
 import org.apache.ozone.test.GenericTestUtils;
+import org.apache.ratis.protocol.ClientId;
+import org.apache.ratis.protocol.Message;
+import org.apache.ratis.protocol.RaftClientReply;
+import org.apache.ratis.protocol.RaftClientRequest;
 import org.apache.ratis.protocol.RaftGroupId;
+import org.apache.ratis.protocol.RaftGroupMemberId;
+import org.apache.ratis.protocol.exceptions.StateMachineException;
 import org.apache.ratis.server.protocol.TermIndex;
 import org.apache.ratis.statemachine.SnapshotInfo;
+import org.apache.ratis.thirdparty.com.google.protobuf.ByteString;
 import org.apache.ratis.util.ExitUtils;
 import org.apache.ratis.util.LifeCycle;
+import org.apache.ratis.util.function.CheckedFunction;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -63,6 +92,7 @@
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.hadoop.ozone.OzoneConsts.TRANSACTION_INFO_KEY;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -213,6 +243,51 @@ public void testIsReadOnlyCapturesAllCmdTypeEnums() throws Exception {
     }
   }
 
+  @Test
+  public void testLinearizableRead() throws Exception {
+    Assertions.assertFalse(omRatisServer.isLinearizableRead());
+    omRatisServer.stop();
+
+    conf.set(OMConfigKeys.OZONE_OM_RATIS_READ_OPTION, "linearizable");
+    OMPerformanceMetrics perfMetrics = mock(OMPerformanceMetrics.class);
+    when(perfMetrics.getLinearizableReadLatencyNs())
+        .thenReturn(mock(MutableRate.class));
+    when(ozoneManager.getPerfMetrics()).thenReturn(perfMetrics);
+    omRatisServer = OzoneManagerRatisServer.newOMRatisServer(conf, ozoneManager,
+        omNodeDetails, Collections.emptyMap(), secConfig, certClient, false);
+    omRatisServer.start();
+    Assertions.assertTrue(omRatisServer.isLinearizableRead());
+
+    GenericTestUtils.waitFor(() -> omRatisServer.checkLeaderStatus() ==
+        OzoneManagerRatisServer.RaftServerStatus.LEADER_AND_READY,
+        100, 30000);
+    omRatisServer.waitForLinearizableRead();
+  }
+
+  /**
+   * Test that only read-only requests may be served by followers, and that
+   * the single OM, being the leader, does not serve them as a follower.
+   */
+  @Test
+  public void testFollowerRead() throws Exception {
+    for (OzoneManagerProtocolProtos.Type cmdtype :
+        OzoneManagerProtocolProtos.Type.values()) {
+      OMRequest request = OMRequest.newBuilder()
+          .setCmdType(cmdtype)
+          .setClientId(clientId)
+          .build();
+      if (OmUtils.isFollowerReadable(request)) {
+        Assertions.assertTrue(OmUtils.isReadOnly(request),
+            cmdtype + " is follower readable but not read only");
+      }
+    }
+
+    GenericTestUtils.waitFor(() -> omRatisServer.checkLeaderStatus() ==
+        OzoneManagerRatisServer.RaftServerStatus.LEADER_AND_READY,
+        100, 30000);
+    assertFalse(omRatisServer.canServeFollowerRead(0, Long.MAX_VALUE));
+  }
+
   @Test
   public void verifyRaftGroupIdGenerationWithDefaultOmServiceId() throws
       Exception {
@@ -257,5 +332,178 @@ public void verifyRaftGroupIdGenerationWithCustomOmServiceId() throws
     newOmRatisServer.stop();
   }
 
+  @Test
+  public void testSubmitRequestsInPrepareMode() throws Exception {
+    OzoneManagerPrepareState prepareState =
+        mock(OzoneManagerPrepareState.class);
+    when(prepareState.requestAllowed(any())).thenReturn(false);
+    when(ozoneManager.getPrepareState()).thenReturn(prepareState);
+    setCurrentCall(1, ClientId.randomId());
+    try {
+      List<OMResponse> responses = omRatisServer.submitRequests(
+          Arrays.asList(deleteKeyRequest("key1"), deleteKeyRequest("key2")),
+          Arrays.asList(0, 1),
+          request -> Assertions.fail("Submitted in prepare mode: " + request));
+
+      Assertions.assertEquals(2, responses.size());
+      for (OMResponse response : responses) {
+        Assertions.assertFalse(response.getSuccess());
+        Assertions.assertEquals(Status.NOT_SUPPORTED_OPERATION_WHEN_PREPARED,
+            response.getStatus());
+        Assertions.assertEquals(Type.DeleteKey, response.getCmdType());
+      }
+    } finally {
+      Server.getCurCall().set(null);
+    }
+  }
+
+  /**
+   * Test that the requests of a batch get their own replies, and that the
+   * failure of one request does not fail the other ones.
+   */
+  @Test
+  public void testSubmitRequestsPartialFailure() throws Exception {
+    recreateServerWithPerfMetrics();
+    ByteString missingKey = OMRatisHelper.convertRequestToByteString(
+        deleteKeyRequest("missing"));
+    setCurrentCall(1, ClientId.randomId());
+    try {
+      List<OMResponse> responses = omRatisServer.submitRequests(
+          Arrays.asList(deleteKeyRequest("key1"), deleteKeyRequest("missing"),
+              deleteKeyRequest("key3")),
+          Arrays.asList(0, 1, 2),
+          request -> CompletableFuture.completedFuture(
+              missingKey.equals(request.getMessage().getContent())
+                  ? failedReply(request, new OMException("Key not found",
+                      OMException.ResultCodes.KEY_NOT_FOUND))
+                  : successReply(request, "applied")));
+
+      Assertions.assertEquals(3, responses.size());
+      Assertions.assertTrue(responses.get(0).getSuccess());
+      Assertions.assertFalse(responses.get(1).getSuccess());
+      Assertions.assertEquals(Status.KEY_NOT_FOUND,
+          responses.get(1).getStatus());
+      Assertions.assertTrue(responses.get(2).getSuccess());
+    } finally {
+      Server.getCurCall().set(null);
+    }
+  }
+
+  /**
+   * Test that a batch retried by the client with the same RPC call is
+   * answered from the Ratis retry cache, which is keyed by client ID and
+   * call ID, instead of being applied again.  The call ID of a request is
+   * derived from its position in the batch.
+   */
+  @Test
+  public void testSubmitRequestsRetriedBatch() throws Exception {
+    recreateServerWithPerfMetrics();
+    Map<String, CompletableFuture<RaftClientReply>> retryCache =
+        new HashMap<>();
+    List<Long> callIds = new ArrayList<>();
+    AtomicInteger applied = new AtomicInteger();
+    CheckedFunction<RaftClientRequest, CompletableFuture<RaftClientReply>,
+        ServiceException> submitter = request -> retryCache.computeIfAbsent(
+            request.getClientId() + ":" + request.getCallId(), k -> {
+              callIds.add(request.getCallId());
+              return CompletableFuture.completedFuture(successReply(request,
+                  "applied-" + applied.incrementAndGet()));
+            });
+    List<OMRequest> batch =
+        Arrays.asList(deleteKeyRequest("key1"), deleteKeyRequest("key2"));
+    List<Integer> positions = Arrays.asList(0, 3);
+    ClientId rpcClientId = ClientId.randomId();
+
+    try {
+      setCurrentCall(7, rpcClientId);
+      List<OMResponse> responses =
+          omRatisServer.submitRequests(batch, positions, submitter);
+      List<OMResponse> retried =
+          omRatisServer.submitRequests(batch, positions, submitter);
+
+      Assertions.assertEquals(2, applied.get());
+      Assertions.assertEquals(Arrays.asList(7L << 16, 7L << 16 | 3), callIds);
+      Assertions.assertEquals(responses, retried);
+      Assertions.assertEquals("applied-1", responses.get(0).getMessage());
+      Assertions.assertEquals("applied-2", responses.get(1).getMessage());
+
+      // The same requests in a new RPC call are applied again.
+      setCurrentCall(8, rpcClientId);
+      omRatisServer.submitRequests(batch, positions, submitter);
+      Assertions.assertEquals(4, applied.get());
+    } finally {
+      Server.getCurCall().set(null);
+    }
+  }
+
+  private void recreateServerWithPerfMetrics() throws IOException {
+    omRatisServer.stop();
+    OMPerformanceMetrics perfMetrics = mock(OMPerformanceMetrics.class);
+    when(perfMetrics.getCreateRatisRequestLatencyNs())
+        .thenReturn(mock(MutableRate.class));
+    when(perfMetrics.getSubmitToRatisLatencyNs())
+        .thenReturn(mock(MutableRate.class));
+    when(perfMetrics.getCreateOmResponseLatencyNs())
+        .thenReturn(mock(MutableRate.class));
+    when(ozoneManager.getPerfMetrics()).thenReturn(perfMetrics);
+    OzoneManagerPrepareState prepareState =
+        mock(OzoneManagerPrepareState.class);
+    when(prepareState.requestAllowed(any())).thenReturn(true);
+    when(ozoneManager.getPrepareState()).thenReturn(prepareState);
+    omRatisServer = OzoneManagerRatisServer.newOMRatisServer(conf, ozoneManager,
+        omNodeDetails, Collections.emptyMap(), secConfig, certClient, false);
+    omRatisServer.start();
+  }
+
+  private static void setCurrentCall(int callId, ClientId rpcClientId) {
+    Server.getCurCall().set(new Server.Call(callId, 0, null, null,
+        RPC.RpcKind.RPC_PROTOCOL_BUFFER, rpcClientId.toByteString()
+        .toByteArray()));
+  }
+
+  private OMRequest deleteKeyRequest(String keyName) {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.DeleteKey)
+        .setClientId(clientId)
+        .setDeleteKeyRequest(DeleteKeyRequest.newBuilder()
+            .setKeyArgs(KeyArgs.newBuilder()
+                .setVolumeName("vol")
+                .setBucketName("bucket")
+                .setKeyName(keyName)))
+        .build();
+  }
 
+  private static RaftClientReply successReply(RaftClientRequest request,
+      String message) {
+    OMResponse response = OMResponse.newBuilder()
+        .setCmdType(Type.DeleteKey)
+        .setStatus(Status.OK)
+        .setSuccess(true)
+        .setMessage(message)
+        .build();
+    return replyBuilder(request)
+        .setSuccess(true)
+        .setMessage(OMRatisHelper.convertResponseToMessage(response))
+        .build();
+  }
+
+  private static RaftClientReply failedReply(RaftClientRequest request,
+      Exception cause) {
+    return replyBuilder(request)
+        .setSuccess(false)
+        .setMessage(Message.EMPTY)
+        .setException(new StateMachineException(RaftGroupMemberId.valueOf(
+            request.getServerId(), request.getRaftGroupId()), cause))
+        .build();
+  }
+
+  private static RaftClientReply.Builder replyBuilder(
+      RaftClientRequest request) {
+    return RaftClientReply.newBuilder()
+        .setClientId(request.getClientId())
+        .setServerId(request.getServerId())
+        .setGroupId(request.getRaftGroupId())
+        .setCallId(request.getCallId())
+        .setLogIndex(1L);
+  }
 }
@@ -0,0 +1,326 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hadoop.ozone.om.request.key;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.hadoop.hdds.utils.db.cache.CacheKey;
+import org.apache.hadoop.hdds.utils.db.cache.CacheValue;
+import org.apache.hadoop.ozone.OmUtils;
+import org.apache.hadoop.ozone.om.ResolvedBucket;
+import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.OmDirectoryInfo;
+import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
+import org.apache.hadoop.ozone.om.lock.OzoneLockProvider;
+import org.apache.hadoop.ozone.om.request.OMClientRequest;
+import org.apache.hadoop.ozone.om.response.OMClientResponse;
+import org.apache.hadoop.ozone.om.response.key.OMBatchWriteResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DeleteKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.hadoop.ozone.om.request.OMRequestTestUtils.addBucketToDB;
+import static org.apache.hadoop.ozone.om.request.OMRequestTestUtils.addVolumeAndBucketToDB;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests OMBatchWriteRequest.
+ */
+public class TestOMBatchWriteRequest extends TestOMKeyRequest {
+
+  @BeforeEach
+  public void setupBatch() throws Exception {
+    when(ozoneManager.getOzoneLockProvider())
+        .thenReturn(new OzoneLockProvider(false, false));
+    when(ozoneManager.getObjectIdFromTxId(anyLong())).thenAnswer(
+        invocation -> OmUtils.getObjectIdFromTxId(
+            OmUtils.EPOCH_WHEN_RATIS_ENABLED, invocation.getArgument(0)));
+    addVolumeAndBucketToDB(volumeName, bucketName, omMetadataManager,
+        getBucketLayout());
+  }
+
+  /**
+   * Test that the requests of a batch are applied in one transaction, each
+   * one with its own response and its own object IDs.
+   */
+  @Test
+  public void testValidateAndUpdateCache() throws Exception {
+    List<OMRequest> requests = new ArrayList<>();
+    requests.add(preExecuteCreateKey("key1"));
+    requests.add(preExecuteCreateKey("dir/key2"));
+    requests.add(preExecuteCreateKey("key3"));
+    requests.add(preExecuteDeleteKey("missing"));
+
+    OMClientResponse response = new OMBatchWriteRequest(batchWrite(requests))
+        .validateAndUpdateCache(ozoneManager, txnLogId,
+            ozoneManagerDoubleBufferHelper);
+
+    assertInstanceOf(OMBatchWriteResponse.class, response);
+    assertTrue(response.getOMResponse().getSuccess());
+    assertEquals(Type.BatchWrite, response.getOMResponse().getCmdType());
+    List<OMResponse> responses = response.getOMResponse()
+        .getBatchWriteResponse().getResponsesList();
+    assertEquals(4, responses.size());
+    assertEquals(Status.KEY_NOT_FOUND, responses.get(3).getStatus());
+    assertEquals(4,
+        ((OMBatchWriteResponse) response).getResponses().size());
+
+    // a key create reserves an ID for each parent directory, plus one for
+    // the layouts allocating the IDs after the base ID
+    long baseObjectId = ozoneManager.getObjectIdFromTxId(txnLogId);
+    long[] expectedOffsets = {0, 2, 5};
+    Set<Long> objectIds = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(Status.OK, responses.get(i).getStatus());
+      OMRequest request = requests.get(i);
+      KeyArgs keyArgs = request.getCreateKeyRequest().getKeyArgs();
+      OmKeyInfo openKey = omMetadataManager
+          .getOpenKeyTable(getBucketLayout())
+          .get(omMetadataManager.getOpenKey(volumeName, bucketName,
+              keyArgs.getKeyName(),
+              request.getCreateKeyRequest().getClientID()));
+      assertNotNull(openKey);
+      assertEquals(baseObjectId + expectedOffsets[i], openKey.getObjectID());
+      assertEquals(txnLogId, openKey.getUpdateID());
+      assertTrue(objectIds.add(openKey.getObjectID()));
+    }
+  }
+
+  /**
+   * Test that the object IDs allocated by the requests of a batch in FSO
+   * buckets, which start after the base object ID of the request, and in
+   * other buckets, are distinct and within the range of the transaction,
+   * even when the requests use the whole range.
+   */
+  @Test
+  public void testObjectIdsInFsoBucket() throws Exception {
+    String fsoBucket = UUID.randomUUID().toString();
+    addBucketToDB(volumeName, fsoBucket, omMetadataManager,
+        BucketLayout.FILE_SYSTEM_OPTIMIZED);
+    when(ozoneManager.resolveBucketLink(any(KeyArgs.class),
+        any(OMClientRequest.class))).thenAnswer(invocation -> {
+          KeyArgs args = invocation.getArgument(0);
+          return new ResolvedBucket(args.getVolumeName(),
+              args.getBucketName(), args.getVolumeName(),
+              args.getBucketName(), "owner",
+              args.getBucketName().equals(fsoBucket)
+                  ? BucketLayout.FILE_SYSTEM_OPTIMIZED : getBucketLayout());
+        });
+
+    List<OMRequest> requests = new ArrayList<>();
+    requests.add(preExecuteFsoCreateKey(fsoBucket, "a/b/key1"));
+    requests.add(preExecuteCreateKey("key2"));
+    requests.add(preExecuteFsoCreateKey(fsoBucket, "c/key3"));
+    requests.add(preExecuteCreateKey("key4"));
+    // 4 + 2 + 3 + 2 IDs reserved so far, the last key takes the rest
+    int reserved = 11;
+    String deepKey = String.join("/", Collections.nCopies(
+        OmUtils.OBJECT_IDS_PER_TRANSACTION - reserved - 1, "d"));
+    requests.add(preExecuteFsoCreateKey(fsoBucket, deepKey));
+    int objectIdCount = 0;
+    for (OMRequest request : requests) {
+      objectIdCount += OMBatchWriteRequest.getObjectIdCount(request);
+    }
+    assertEquals(OmUtils.OBJECT_IDS_PER_TRANSACTION, objectIdCount);
+
+    OMClientResponse response = new OMBatchWriteRequest(batchWrite(requests))
+        .validateAndUpdateCache(ozoneManager, txnLogId,
+            ozoneManagerDoubleBufferHelper);
+
+    List<Long> objectIds = new ArrayList<>();
+    for (OMResponse r : response.getOMResponse().getBatchWriteResponse()
+        .getResponsesList()) {
+      assertEquals(Status.OK, r.getStatus());
+      objectIds.add(r.getCreateKeyResponse().getKeyInfo().getObjectID());
+    }
+    Iterator<Map.Entry<CacheKey<String>, CacheValue<OmDirectoryInfo>>>
+        directories = omMetadataManager.getDirectoryTable().cacheIterator();
+    while (directories.hasNext()) {
+      objectIds.add(directories.next().getValue().getCacheValue()
+          .getObjectID());
+    }
+    // "a", "b", "c" and the parents of the deep key
+    assertEquals(5 + 3 + deepKey.length() / 2, objectIds.size());
+
+    long baseObjectId = ozoneManager.getObjectIdFromTxId(txnLogId);
+    Set<Long> distinct = new HashSet<>();
+    for (long objectId : objectIds) {
+      assertTrue(distinct.add(objectId), "Duplicate ID " + objectId);
+      assertTrue(objectId >= baseObjectId, "ID out of range " + objectId);
+      assertTrue(objectId <
+          baseObjectId + OmUtils.OBJECT_IDS_PER_TRANSACTION,
+          "ID out of range " + objectId);
+    }
+  }
+
+  /**
+   * Test that a request whose object IDs do not fit in the range left in
+   * the transaction fails, without affecting the other requests.
+   */
+  @Test
+  public void testObjectIdRangeExhausted() throws Exception {
+    String deepKey = String.join("/", Collections.nCopies(
+        OmUtils.OBJECT_IDS_PER_TRANSACTION / 2 + 1, "d"));
+    List<OMRequest> requests = new ArrayList<>();
+    requests.add(preExecuteCreateKey("key1"));
+    requests.add(preExecuteCreateKey(deepKey));
+    requests.add(preExecuteCreateKey(deepKey));
+    requests.add(preExecuteDeleteKey("missing"));
+
+    OMClientResponse response = new OMBatchWriteRequest(batchWrite(requests))
+        .validateAndUpdateCache(ozoneManager, txnLogId,
+            ozoneManagerDoubleBufferHelper);
+
+    List<OMResponse> responses = response.getOMResponse()
+        .getBatchWriteResponse().getResponsesList();
+    assertEquals(Status.OK, responses.get(0).getStatus());
+    assertEquals(Status.OK, responses.get(1).getStatus());
+    assertFalse(responses.get(2).getSuccess());
+    assertEquals(Status.INVALID_REQUEST, responses.get(2).getStatus());
+    assertEquals(Type.CreateKey, responses.get(2).getCmdType());
+    assertEquals(Status.KEY_NOT_FOUND, responses.get(3).getStatus());
+  }
+
+  @Test
+  public void testUnsupportedRequestType() throws Exception {
+    OMRequest createVolume = OMRequest.newBuilder()
+        .setCmdType(Type.CreateVolume)
+        .setClientId(UUID.randomUUID().toString())
+        .build();
+    List<OMRequest> requests = new ArrayList<>();
+    requests.add(createVolume);
+    requests.add(preExecuteCreateKey("key1"));
+
+    OMClientResponse response = new OMBatchWriteRequest(batchWrite(requests))
+        .validateAndUpdateCache(ozoneManager, txnLogId,
+            ozoneManagerDoubleBufferHelper);
+
+    List<OMResponse> responses = response.getOMResponse()
+        .getBatchWriteResponse().getResponsesList();
+    assertEquals(Status.INVALID_REQUEST, responses.get(0).getStatus());
+    assertEquals(Status.OK, responses.get(1).getStatus());
+  }
+
+  @Test
+  public void testGetObjectIdCount() throws Exception {
+    assertEquals(2, OMBatchWriteRequest.getObjectIdCount(
+        createKeyRequest("key1")));
+    assertEquals(4, OMBatchWriteRequest.getObjectIdCount(
+        createKeyRequest("a/b/key1")));
+    assertEquals(0, OMBatchWriteRequest.getObjectIdCount(
+        deleteKeyRequest("key1")));
+  }
+
+  @Test
+  public void testSplitIntoTransactions() throws Exception {
+    String deepKey = String.join("/", Collections.nCopies(
+        OmUtils.OBJECT_IDS_PER_TRANSACTION / 2, "d"));
+    String tooDeepKey = String.join("/", Collections.nCopies(
+        OmUtils.OBJECT_IDS_PER_TRANSACTION, "d"));
+
+    assertEquals(Collections.emptyList(),
+        OMBatchWriteRequest.splitIntoTransactions(Collections.emptyList()));
+    assertEquals(Arrays.asList(0, 1), OMBatchWriteRequest.splitIntoTransactions(
+        Arrays.asList(createKeyRequest(deepKey), createKeyRequest(deepKey),
+            deleteKeyRequest("key1"))));
+    // a request needing more IDs than a transaction has gets its own
+    assertEquals(Arrays.asList(0, 1, 2),
+        OMBatchWriteRequest.splitIntoTransactions(Arrays.asList(
+            createKeyRequest("key1"), createKeyRequest(tooDeepKey),
+            createKeyRequest("key2"))));
+  }
+
+  private OMRequest preExecuteCreateKey(String key) throws Exception {
+    return new OMKeyCreateRequest(createKeyRequest(key), getBucketLayout())
+        .preExecute(ozoneManager);
+  }
+
+  private OMRequest preExecuteFsoCreateKey(String bucket, String key)
+      throws Exception {
+    return new OMKeyCreateRequestWithFSO(createKeyRequest(bucket, key),
+        BucketLayout.FILE_SYSTEM_OPTIMIZED).preExecute(ozoneManager);
+  }
+
+  private OMRequest preExecuteDeleteKey(String key) throws Exception {
+    return new OMKeyDeleteRequest(deleteKeyRequest(key), getBucketLayout())
+        .preExecute(ozoneManager);
+  }
+
+  private OMRequest createKeyRequest(String key) {
+    return createKeyRequest(bucketName, key);
+  }
+
+  private OMRequest createKeyRequest(String bucket, String key) {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.CreateKey)
+        .setClientId(UUID.randomUUID().toString())
+        .setCreateKeyRequest(CreateKeyRequest.newBuilder()
+            .setKeyArgs(KeyArgs.newBuilder()
+                .setVolumeName(volumeName)
+                .setBucketName(bucket)
+                .setKeyName(key)
+                .setFactor(replicationFactor)
+                .setType(replicationType)
+                .setLatestVersionLocation(true)))
+        .build();
+  }
+
+  private OMRequest deleteKeyRequest(String key) {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.DeleteKey)
+        .setClientId(UUID.randomUUID().toString())
+        .setDeleteKeyRequest(DeleteKeyRequest.newBuilder()
+            .setKeyArgs(KeyArgs.newBuilder()
+                .setVolumeName(volumeName)
+                .setBucketName(bucketName)
+                .setKeyName(key)))
+        .build();
+  }
+
+  private static OMRequest batchWrite(List<OMRequest> requests) {
+    return OMRequest.newBuilder()
+        .setCmdType(Type.BatchWrite)
+        .setClientId(UUID.randomUUID().toString())
+        .setBatchWriteRequest(BatchWriteRequest.newBuilder()
+            .addAllRequests(requests))
+        .build();
+  }
+}
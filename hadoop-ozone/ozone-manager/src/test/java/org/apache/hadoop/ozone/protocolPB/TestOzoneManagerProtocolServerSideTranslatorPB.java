@@ -0,0 +1,372 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.apache.hadoop.ozone.protocolPB;
+
+import com.google.protobuf.ProtocolMessageEnum;
+import com.google.protobuf.ServiceException;
+import org.apache.hadoop.hdds.conf.OzoneConfiguration;
+import org.apache.hadoop.hdds.utils.ProtocolMessageMetrics;
+import org.apache.hadoop.metrics2.lib.MutableRate;
+import org.apache.hadoop.ozone.ClientVersion;
+import org.apache.hadoop.ozone.om.OMConfigKeys;
+import org.apache.hadoop.ozone.om.OMMetadataManager;
+import org.apache.hadoop.ozone.om.OMPerformanceMetrics;
+import org.apache.hadoop.ozone.om.OmMetadataManagerImpl;
+import org.apache.hadoop.ozone.om.OzoneManager;
+import org.apache.hadoop.ozone.om.exceptions.OMNotLeaderException;
+import org.apache.hadoop.ozone.om.helpers.OmVolumeArgs;
+import org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer;
+import org.apache.hadoop.ozone.om.request.OMRequestTestUtils;
+import org.apache.hadoop.ozone.om.upgrade.OMLayoutVersionManager;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.BatchWriteResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.CreateVolumeRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.DeleteKeyRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.InfoVolumeRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.KeyArgs;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMRequest;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.OMResponse;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Status;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.Type;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.UserInfo;
+import org.apache.hadoop.ozone.protocol.proto.OzoneManagerProtocolProtos.VolumeInfo;
+import org.apache.ratis.protocol.RaftPeerId;
+import org.apache.ratis.server.protocol.TermIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.apache.hadoop.ozone.om.ratis.OzoneManagerRatisServer.RaftServerStatus.NOT_LEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test request processing in
+ * {@link OzoneManagerProtocolServerSideTranslatorPB}.
+ */
+public class TestOzoneManagerProtocolServerSideTranslatorPB {
+
+  private static final String VOLUME = "vol";
+  private static final String BUCKET = "bucket";
+
+  @TempDir
+  private Path folder;
+
+  private OzoneConfiguration conf;
+  private OzoneManager ozoneManager;
+  private OzoneManagerRatisServer ratisServer;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    conf = new OzoneConfiguration();
+    conf.set(OMConfigKeys.OZONE_OM_DB_DIRS, folder.toAbsolutePath().toString());
+    ozoneManager = mock(OzoneManager.class);
+    OMMetadataManager omMetadataManager =
+        new OmMetadataManagerImpl(conf, ozoneManager);
+    when(ozoneManager.getMetadataManager()).thenReturn(omMetadataManager);
+    when(ozoneManager.getConfiguration()).thenReturn(conf);
+    OMLayoutVersionManager lvm = mock(OMLayoutVersionManager.class);
+    when(lvm.isAllowed(anyString())).thenReturn(true);
+    when(ozoneManager.getVersionManager()).thenReturn(lvm);
+    OMPerformanceMetrics perfMetrics = mock(OMPerformanceMetrics.class);
+    when(perfMetrics.getPreExecuteLatencyNs())
+        .thenReturn(mock(MutableRate.class));
+    when(ozoneManager.getPerfMetrics()).thenReturn(perfMetrics);
+    OMRequestTestUtils.addVolumeAndBucketToDB(VOLUME, BUCKET,
+        omMetadataManager);
+    ratisServer = mock(OzoneManagerRatisServer.class);
+  }
+
+  /**
+   * Test that the requests of a batch which fail before being submitted to
+   * Ratis, or in Ratis, get their own error response, and that the other
+   * requests of the batch are still applied, in a single transaction.
+   */
+  @Test
+  public void testBatchWritePartialFailure() throws Exception {
+    when(ratisServer.submitRequests(anyList(), anyList())).thenAnswer(
+        invocation -> {
+          List<OMRequest> transactions = invocation.getArgument(0);
+          return transactions.stream()
+              .map(transaction -> batchWriteResponse(
+                  transaction.getBatchWriteRequest().getIndexesList(),
+                  transaction.getBatchWriteRequest().getRequestsList()
+                      .stream()
+                      .map(request -> request.getDeleteKeyRequest()
+                          .getKeyArgs().getKeyName().equals("missing")
+                          ? response(Status.KEY_NOT_FOUND)
+                          : response(Status.OK))
+                      .collect(Collectors.toList())))
+              .collect(Collectors.toList());
+        });
+
+    OMResponse response = newTranslator().processRequest(batchWrite(
+        createVolumeRequest(),
+        deleteKeyRequest(BUCKET, "key1"),
+        deleteKeyRequest("nosuchbucket", "key2"),
+        deleteKeyRequest(BUCKET, "missing")));
+
+    assertTrue(response.getSuccess());
+    List<OMResponse> responses =
+        response.getBatchWriteResponse().getResponsesList();
+    assertEquals(4, responses.size());
+    assertEquals(Status.INVALID_REQUEST, responses.get(0).getStatus());
+    assertEquals(Type.CreateVolume, responses.get(0).getCmdType());
+    assertEquals(Status.OK, responses.get(1).getStatus());
+    assertEquals(Status.BUCKET_NOT_FOUND, responses.get(2).getStatus());
+    assertEquals(Status.KEY_NOT_FOUND, responses.get(3).getStatus());
+    assertFalse(responses.get(3).getSuccess());
+
+    ArgumentCaptor<List<OMRequest>> submitted =
+        ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<List<Integer>> positions =
+        ArgumentCaptor.forClass(List.class);
+    verify(ratisServer).submitRequests(submitted.capture(),
+        positions.capture());
+    assertEquals(1, submitted.getValue().size());
+    OMRequest transaction = submitted.getValue().get(0);
+    assertEquals(Type.BatchWrite, transaction.getCmdType());
+    assertEquals(Arrays.asList("key1", "missing"),
+        transaction.getBatchWriteRequest().getRequestsList().stream()
+            .map(request -> request.getDeleteKeyRequest().getKeyArgs()
+                .getKeyName())
+            .collect(Collectors.toList()));
+    assertEquals(Arrays.asList(1, 3),
+        transaction.getBatchWriteRequest().getIndexesList());
+    // The position of the transaction does not depend on the requests which
+    // failed before being submitted.
+    assertEquals(Collections.singletonList(0), positions.getValue());
+  }
+
+  /**
+   * Test that the reply of a retried batch from the retry cache is mapped to
+   * the requests submitted by the first attempt, which may differ from the
+   * requests submitted by the retry.
+   */
+  @Test
+  public void testBatchWriteRetryAnsweredFromCache() throws Exception {
+    // The first attempt did not submit key2, and failed to delete key3.
+    when(ratisServer.submitRequests(anyList(), anyList())).thenReturn(
+        Collections.singletonList(batchWriteResponse(Arrays.asList(0, 2),
+            Arrays.asList(response(Status.OK),
+                response(Status.KEY_NOT_FOUND)))));
+
+    OMResponse response = newTranslator().processRequest(batchWrite(
+        deleteKeyRequest(BUCKET, "key1"),
+        deleteKeyRequest(BUCKET, "key2"),
+        deleteKeyRequest(BUCKET, "key3")));
+
+    assertTrue(response.getSuccess());
+    List<OMResponse> responses =
+        response.getBatchWriteResponse().getResponsesList();
+    assertEquals(3, responses.size());
+    assertEquals(Status.OK, responses.get(0).getStatus());
+    assertEquals(Status.INTERNAL_ERROR, responses.get(1).getStatus());
+    assertEquals(Type.DeleteKey, responses.get(1).getCmdType());
+    assertEquals(Status.KEY_NOT_FOUND, responses.get(2).getStatus());
+  }
+
+  /**
+   * Test that all the requests of a transaction rejected as a whole, for
+   * example in prepare mode, get the error response.
+   */
+  @Test
+  public void testBatchWriteTransactionRejected() throws Exception {
+    when(ratisServer.submitRequests(anyList(), anyList())).thenReturn(
+        Collections.singletonList(OMResponse.newBuilder()
+            .setCmdType(Type.BatchWrite)
+            .setStatus(Status.NOT_SUPPORTED_OPERATION_WHEN_PREPARED)
+            .setSuccess(false)
+            .build()));
+
+    OMResponse response = newTranslator().processRequest(batchWrite(
+        deleteKeyRequest(BUCKET, "key1"),
+        deleteKeyRequest(BUCKET, "key2")));
+
+    assertTrue(response.getSuccess());
+    List<OMResponse> responses =
+        response.getBatchWriteResponse().getResponsesList();
+    assertEquals(2, responses.size());
+    for (OMResponse r : responses) {
+      assertFalse(r.getSuccess());
+      assertEquals(Type.DeleteKey, r.getCmdType());
+      assertEquals(Status.NOT_SUPPORTED_OPERATION_WHEN_PREPARED,
+          r.getStatus());
+    }
+  }
+
+  @Test
+  public void testBatchWriteTooManyRequests() throws Exception {
+    conf.setInt(OMConfigKeys.OZONE_OM_BATCH_WRITE_MAX_REQUESTS, 2);
+
+    OMResponse response = newTranslator().processRequest(batchWrite(
+        deleteKeyRequest(BUCKET, "key1"),
+        deleteKeyRequest(BUCKET, "key2"),
+        deleteKeyRequest(BUCKET, "key3")));
+
+    assertFalse(response.getSuccess());
+    assertEquals(Status.INVALID_REQUEST, response.getStatus());
+    verify(ratisServer, never()).submitRequests(anyList(), anyList());
+  }
+
+  /**
+   * Test that a follower which has not applied the writes seen by the client
+   * rejects the read, so that the client retries it on the leader.
+   */
+  @Test
+  public void testFollowerReadRejectedByLaggingFollower() throws Exception {
+    conf.setBoolean(OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED, true);
+    when(ratisServer.checkLeaderStatus()).thenReturn(NOT_LEADER);
+    when(ratisServer.getRaftPeerId()).thenReturn(RaftPeerId.valueOf("om2"));
+    when(ratisServer.canServeFollowerRead(eq(100L), anyLong()))
+        .thenReturn(false);
+
+    ServiceException e = assertThrows(ServiceException.class,
+        () -> newTranslator().processRequest(infoVolumeRequest(100L)));
+
+    assertTrue(e.getCause() instanceof OMNotLeaderException);
+    verify(ratisServer).canServeFollowerRead(eq(100L), anyLong());
+  }
+
+  @Test
+  public void testFollowerReadServedByUpToDateFollower() throws Exception {
+    conf.setBoolean(OMConfigKeys.OZONE_OM_FOLLOWER_READ_ENABLED, true);
+    when(ratisServer.checkLeaderStatus()).thenReturn(NOT_LEADER);
+    when(ratisServer.canServeFollowerRead(eq(100L), anyLong()))
+        .thenReturn(true);
+    when(ratisServer.getLastAppliedTermIndex())
+        .thenReturn(TermIndex.valueOf(1, 120));
+    when(ozoneManager.getVolumeInfo(VOLUME)).thenReturn(
+        OmVolumeArgs.newBuilder()
+            .setVolume(VOLUME)
+            .setOwnerName("owner")
+            .setAdminName("admin")
+            .build());
+
+    OMResponse response =
+        newTranslator().processRequest(infoVolumeRequest(100L));
+
+    assertTrue(response.getSuccess());
+    assertEquals(VOLUME,
+        response.getInfoVolumeResponse().getVolumeInfo().getVolume());
+    // the applied index before the read, which the client requires in its
+    // next follower reads
+    assertEquals(120, response.getAppliedIndex());
+  }
+
+  @Test
+  public void testFollowerReadDisabled() throws Exception {
+    when(ratisServer.checkLeaderStatus()).thenReturn(NOT_LEADER);
+    when(ratisServer.getRaftPeerId()).thenReturn(RaftPeerId.valueOf("om2"));
+    when(ratisServer.canServeFollowerRead(anyLong(), anyLong()))
+        .thenReturn(true);
+
+    ServiceException e = assertThrows(ServiceException.class,
+        () -> newTranslator().processRequest(infoVolumeRequest(100L)));
+
+    assertTrue(e.getCause() instanceof OMNotLeaderException);
+    verify(ratisServer, never()).canServeFollowerRead(anyLong(), anyLong());
+  }
+
+  private OzoneManagerProtocolServerSideTranslatorPB newTranslator() {
+    ProtocolMessageMetrics<ProtocolMessageEnum> metrics =
+        mock(ProtocolMessageMetrics.class);
+    return new OzoneManagerProtocolServerSideTranslatorPB(ozoneManager,
+        ratisServer, metrics, true, 0L);
+  }
+
+  private static OMRequest batchWrite(OMRequest... requests) {
+    return newRequest(Type.BatchWrite)
+        .setBatchWriteRequest(BatchWriteRequest.newBuilder()
+            .addAllRequests(Arrays.asList(requests)))
+        .build();
+  }
+
+  private static OMRequest infoVolumeRequest(long followerReadMinIndex) {
+    return newRequest(Type.InfoVolume)
+        .setInfoVolumeRequest(InfoVolumeRequest.newBuilder()
+            .setVolumeName(VOLUME))
+        .setFollowerReadMinIndex(followerReadMinIndex)
+        .build();
+  }
+
+  private static OMRequest createVolumeRequest() {
+    return newRequest(Type.CreateVolume)
+        .setCreateVolumeRequest(CreateVolumeRequest.newBuilder()
+            .setVolumeInfo(VolumeInfo.newBuilder()
+                .setVolume("vol2")
+                .setOwnerName("owner")
+                .setAdminName("admin")))
+        .build();
+  }
+
+  private static OMRequest deleteKeyRequest(String bucket, String key) {
+    return newRequest(Type.DeleteKey)
+        .setDeleteKeyRequest(DeleteKeyRequest.newBuilder()
+            .setKeyArgs(KeyArgs.newBuilder()
+                .setVolumeName(VOLUME)
+                .setBucketName(bucket)
+                .setKeyName(key)))
+        .build();
+  }
+
+  private static OMRequest.Builder newRequest(Type type) {
+    return OMRequest.newBuilder()
+        .setCmdType(type)
+        .setClientId("client")
+        .setVersion(ClientVersion.CURRENT_VERSION)
+        .setUserInfo(UserInfo.newBuilder().setUserName("user"));
+  }
+
+  private static OMResponse batchWriteResponse(List<Integer> indexes,
+      List<OMResponse> responses) {
+    return OMResponse.newBuilder()
+        .setCmdType(Type.BatchWrite)
+        .setStatus(Status.OK)
+        .setSuccess(true)
+        .setBatchWriteResponse(BatchWriteResponse.newBuilder()
+            .addAllIndexes(indexes)
+            .addAllResponses(responses))
+        .build();
+  }
+
+  private static OMResponse response(Status status) {
+    return OMResponse.newBuilder()
+        .setCmdType(Type.DeleteKey)
+        .setStatus(status)
+        .setSuccess(status == Status.OK)
+        .build();
+  }
+}
@@ -70,6 +70,7 @@
 import org.apache.hadoop.ozone.client.BucketArgs;
 import org.apache.hadoop.ozone.om.exceptions.OMException;
 import org.apache.hadoop.ozone.om.helpers.BucketLayout;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmKeyInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfoGroup;
@@ -83,6 +84,7 @@
 import org.apache.hadoop.security.token.TokenRenewer;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -863,18 +865,7 @@ public List<FileStatusAdapter> listStatus(String pathStr, boolean recursive,
       Path workingDir, String username) throws IOException {
 
     incrementCounter(Statistic.OBJECTS_LIST, 1);
-    // Remove authority from startPath if it exists
-    if (startPath.startsWith(uri.toString())) {
-      try {
-        startPath = new URI(startPath).getPath();
-      } catch (URISyntaxException ex) {
-        throw new IOException(ex);
-      }
-    }
-    // Note: startPath could still have authority at this point if it's
-    //  authority doesn't match uri. This is by design. In this case,
-    //  OFSPath initializer will error out.
-    //  The goal is to refuse processing startPaths from other authorities.
+    startPath = removeAuthority(startPath, uri);
 
     OFSPath ofsPath = new OFSPath(pathStr, config);
     if (ofsPath.isRoot()) {
@@ -908,16 +899,52 @@ public List<FileStatusAdapter> listStatus(String pathStr, boolean recursive,
         statuses = Collections.emptyList();
       }
       
-      // Note: result in statuses above doesn't have volume/bucket path since
-      //  they are from the server.
-      String ofsPathPrefix = ofsPath.getNonKeyPath();
-
-      List<FileStatusAdapter> result = new ArrayList<>();
-      for (OzoneFileStatus status : statuses) {
-        result.add(toFileStatusAdapter(status, username, uri, workingDir,
-            ofsPathPrefix));
+      return toFileStatusAdapters(statuses, ofsPath, uri, workingDir,
+          username);
+    } catch (OMException e) {
+      if (e.getResult() == OMException.ResultCodes.FILE_NOT_FOUND) {
+        throw new FileNotFoundException(e.getMessage());
       }
-      return result;
+      throw e;
+    }
+  }
+
+  /**
+   * Non-recursive OFS listStatus of a page inside a bucket, which lets OM
+   * continue the listing from the cursor kept open for the previous page
+   * instead of seeking for startPath again.  Listing the root, a volume, or
+   * a snapshot falls back to {@link #listStatus}.
+   *
+   * @param continuationToken token returned with the previous page, null for
+   *                          the first page.
+   * @return A list of FileStatusAdapter, and the token for the next page,
+   * which is null if OM did not keep a cursor.
+   * @throws IOException Bucket exception or FileNotFoundException.
+   * @see #listStatus
+   */
+  public Pair<List<FileStatusAdapter>, String> listStatusPage(String pathStr,
+      String startPath, long numEntries, String continuationToken, URI uri,
+      Path workingDir, String username) throws IOException {
+    OFSPath ofsPath = new OFSPath(pathStr, config);
+    if (ofsPath.isRoot() || ofsPath.isVolume() || ofsPath.isSnapshotPath()) {
+      return Pair.of(listStatus(pathStr, false, startPath, numEntries, uri,
+          workingDir, username), null);
+    }
+
+    incrementCounter(Statistic.OBJECTS_LIST, 1);
+    String startKey =
+        new OFSPath(removeAuthority(startPath, uri), config).getKeyName();
+    try {
+      OzoneBucket bucket = getBucket(ofsPath, false);
+      if (!bucket.isSourcePathExist()) {
+        LOG.warn("Source Bucket does not exist, link bucket {} is orphan " +
+            "and returning empty list of files inside it", bucket.getName());
+        return Pair.of(Collections.emptyList(), null);
+      }
+      ListStatusResult page = bucket.listStatusPage(ofsPath.getKeyName(),
+          startKey, numEntries, continuationToken);
+      return Pair.of(toFileStatusAdapters(page.getStatuses(), ofsPath, uri,
+          workingDir, username), page.getContinuationToken());
     } catch (OMException e) {
       if (e.getResult() == OMException.ResultCodes.FILE_NOT_FOUND) {
         throw new FileNotFoundException(e.getMessage());
@@ -926,6 +953,38 @@ public List<FileStatusAdapter> listStatus(String pathStr, boolean recursive,
     }
   }
 
+  private static String removeAuthority(String startPath, URI uri)
+      throws IOException {
+    // Remove authority from startPath if it exists
+    if (startPath.startsWith(uri.toString())) {
+      try {
+        return new URI(startPath).getPath();
+      } catch (URISyntaxException ex) {
+        throw new IOException(ex);
+      }
+    }
+    // Note: startPath could still have authority at this point if it's
+    //  authority doesn't match uri. This is by design. In this case,
+    //  OFSPath initializer will error out.
+    //  The goal is to refuse processing startPaths from other authorities.
+    return startPath;
+  }
+
+  private List<FileStatusAdapter> toFileStatusAdapters(
+      List<OzoneFileStatus> statuses, OFSPath ofsPath, URI uri,
+      Path workingDir, String username) {
+    // Note: result in statuses above doesn't have volume/bucket path since
+    //  they are from the server.
+    String ofsPathPrefix = ofsPath.getNonKeyPath();
+
+    List<FileStatusAdapter> result = new ArrayList<>();
+    for (OzoneFileStatus status : statuses) {
+      result.add(toFileStatusAdapter(status, username, uri, workingDir,
+          ofsPathPrefix));
+    }
+    return result;
+  }
+
   @Override
   public Token<OzoneTokenIdentifier> getDelegationToken(String renewer)
       throws IOException {
@@ -53,6 +53,7 @@
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.security.token.Token;
 import org.apache.hadoop.util.Progressable;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.ratis.util.function.CheckedFunction;
 import org.slf4j.Logger;
@@ -1158,6 +1159,7 @@ public RemoteIterator<FileStatus> listStatusIterator(Path f)
     private Path p;
     private T curStat = null;
     private String startPath = "";
+    private String continuationToken = null;
 
     /**
      * Constructor to initialize OzoneFileStatusIterator.
@@ -1169,7 +1171,7 @@ public RemoteIterator<FileStatus> listStatusIterator(Path f)
     private OzoneFileStatusIterator(Path p) throws IOException {
       this.p = p;
       // fetch the first batch of entries in the directory
-      thisListing = listFileStatus(p, startPath);
+      thisListing = listNextPage();
       if (thisListing != null && !thisListing.isEmpty()) {
         startPath = pathToKey(
             thisListing.get(thisListing.size() - 1).getPath());
@@ -1209,7 +1211,7 @@ private boolean hasNextNoFilter() throws IOException {
         if (startPath != null && (thisListing.size() == listingPageSize ||
             thisListing.size() == listingPageSize - 1)) {
           // current listing is exhausted & fetch a new listing
-          thisListing = listFileStatus(p, startPath);
+          thisListing = listNextPage();
           if (thisListing != null && !thisListing.isEmpty()) {
             startPath = pathToKey(
                 thisListing.get(thisListing.size() - 1).getPath());
@@ -1224,6 +1226,17 @@ private boolean hasNextNoFilter() throws IOException {
       return (i < thisListing.size());
     }
 
+    /**
+     * Fetches the batch of entries after startPath, continuing the cursor
+     * kept open by OM for the previous batch if there is one.
+     */
+    private List<FileStatus> listNextPage() throws IOException {
+      Pair<List<FileStatus>, String> page =
+          listFileStatus(p, startPath, continuationToken);
+      continuationToken = page.getRight();
+      return page.getLeft();
+    }
+
     /**
      * @return next entry.
      * @throws IOException
@@ -1244,27 +1257,28 @@ public T next() throws IOException {
    *
    * @param f
    * @param startPath
-   * @return list of file status.
+   * @param continuationToken token returned with the previous batch
+   * @return list of file status, and the token for the next batch.
    * @throws IOException
    */
-  private List<FileStatus> listFileStatus(Path f, String startPath)
-      throws IOException {
+  private Pair<List<FileStatus>, String> listFileStatus(Path f,
+      String startPath, String continuationToken) throws IOException {
     incrementCounter(Statistic.INVOCATION_LIST_STATUS, 1);
     statistics.incrementReadOps(1);
     LOG.trace("listFileStatus() path:{}", f);
-    List<FileStatus> statusList;
-    statusList =
-        adapter.listStatus(pathToKey(f), false, startPath,
-                listingPageSize, uri, workingDir, getUsername())
-            .stream()
-            .map(this::convertFileStatus)
-            .collect(Collectors.toList());
+    Pair<List<FileStatusAdapter>, String> page =
+        adapterImpl.listStatusPage(pathToKey(f), startPath, listingPageSize,
+            continuationToken, uri, workingDir, getUsername());
+    List<FileStatus> statusList = page.getLeft()
+        .stream()
+        .map(this::convertFileStatus)
+        .collect(Collectors.toList());
 
     if (!statusList.isEmpty() && !startPath.isEmpty()) {
       // Excluding the 1st file status element from list.
       statusList.remove(0);
     }
-    return statusList;
+    return Pair.of(statusList, page.getRight());
   }
 
   /**
@@ -33,6 +33,7 @@
 import org.apache.hadoop.ozone.client.io.OzoneOutputStream;
 import org.apache.hadoop.ozone.client.protocol.ClientProtocol;
 import org.apache.hadoop.ozone.om.helpers.DeleteTenantState;
+import org.apache.hadoop.ozone.om.helpers.ListStatusResult;
 import org.apache.hadoop.ozone.om.helpers.OmKeyLocationInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartInfo;
 import org.apache.hadoop.ozone.om.helpers.OmMultipartUploadCompleteInfo;
@@ -56,8 +57,10 @@
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ClientProtocol implementation with in-memory state.
@@ -226,6 +229,14 @@ public OzoneOutputStream createKey(String volumeName, String bucketName,
         .createKey(keyName, size, replicationConfig, metadata);
   }
 
+  @Override
+  public Map<String, IOException> createKeys(String volumeName,
+      String bucketName, Map<String, byte[]> keys,
+      ReplicationConfig replicationConfig, Map<String, String> metadata)
+      throws IOException {
+    return null;
+  }
+
   @Override
   public OzoneInputStream getKey(String volumeName, String bucketName,
                                  String keyName) throws IOException {
@@ -290,6 +301,17 @@ public OzoneKeyDetails getKeyDetails(String volumeName, String bucketName,
     return getBucket(volumeName, bucketName).getKey(keyName);
   }
 
+  @Override
+  public CompletableFuture<Map<String, OzoneKeyDetails>> getKeyDetailsAsync(
+      String volumeName, String bucketName, List<String> keyNames)
+      throws IOException {
+    Map<String, OzoneKeyDetails> keys = new LinkedHashMap<>();
+    for (String keyName : keyNames) {
+      keys.put(keyName, getKeyDetails(volumeName, bucketName, keyName));
+    }
+    return CompletableFuture.completedFuture(keys);
+  }
+
   @Override
   public void close() throws IOException {
 
@@ -527,6 +549,13 @@ public List<OzoneFileStatus> listStatus(String volumeName, String bucketName,
     return null;
   }
 
+  @Override
+  public ListStatusResult listStatusPage(String volumeName,
+      String bucketName, String keyName, String startKey, long numEntries,
+      String continuationToken) throws IOException {
+    return null;
+  }
+
   @Override
   public List<OzoneFileStatusLight> listStatusLight(String volumeName,
       String bucketName, String keyName, boolean recursive, String startKey,